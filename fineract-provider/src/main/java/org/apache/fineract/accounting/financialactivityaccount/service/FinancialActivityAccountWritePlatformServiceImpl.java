@@ -37,6 +37,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.orm.jpa.JpaSystemException;
@@ -52,6 +53,7 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
     private final GLAccountRepositoryWrapper glAccountRepositoryWrapper;
 
     @Override
+    @CacheEvict(value = "financialActivityGLAccounts", allEntries = true)
     public CommandProcessingResult createFinancialActivityAccountMapping(JsonCommand command) {
         try {
 
@@ -91,6 +93,7 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
     }
 
     @Override
+    @CacheEvict(value = "financialActivityGLAccounts", allEntries = true)
     public CommandProcessingResult updateGLAccountActivityMapping(Long financialActivityAccountId, JsonCommand command) {
         try {
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
@@ -130,6 +133,7 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
     }
 
     @Override
+    @CacheEvict(value = "financialActivityGLAccounts", allEntries = true)
     public CommandProcessingResult deleteGLAccountActivityMapping(Long financialActivityAccountId, JsonCommand command) {
         final FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
                 .findOneWithNotFoundDetection(financialActivityAccountId);
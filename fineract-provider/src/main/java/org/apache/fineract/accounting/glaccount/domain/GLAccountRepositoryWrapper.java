@@ -41,6 +41,14 @@ public class GLAccountRepositoryWrapper {
         return this.repository.findById(id).orElseThrow(() -> new GLAccountNotFoundException(id));
     }
 
+    /**
+     * Returns a lazily initialised reference without checking that the account exists, used by the journal entry
+     * posting path where account ids come from cached product mappings.
+     */
+    public GLAccount getReference(final Long id) {
+        return this.repository.getReferenceById(id);
+    }
+
     // finding account id by glcode for opening balance bulk import
     public GLAccount findOneByGlCodeWithNotFoundDetection(final String glCode) {
         return this.repository.findOneByGlCode(glCode).orElseThrow(() -> new GLAccountNotFoundException(glCode));
@@ -227,4 +227,8 @@ public class JournalEntry extends AbstractAuditableCustom {
         return this.description;
     }
 
+    public boolean isManualEntry() {
+        return this.manualEntry;
+    }
+
 }
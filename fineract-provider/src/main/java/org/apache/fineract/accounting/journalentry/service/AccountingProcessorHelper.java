@@ -33,8 +33,6 @@ import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsFor
 import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForSavings;
 import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForShares;
 import org.apache.fineract.accounting.common.AccountingConstants.FinancialActivity;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccount;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
 import org.apache.fineract.accounting.glaccount.domain.GLAccount;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
 import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
@@ -52,9 +50,8 @@ import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GlJournalEntryInvalidReason;
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductGLAccountMappingsData;
 import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
 import org.apache.fineract.accounting.producttoaccountmapping.exception.ProductToGLAccountMappingNotFoundException;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
@@ -63,7 +60,6 @@ import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
 import org.apache.fineract.portfolio.account.PortfolioAccountType;
 import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
-import org.apache.fineract.portfolio.charge.domain.ChargeRepositoryWrapper;
 import org.apache.fineract.portfolio.client.domain.ClientTransaction;
 import org.apache.fineract.portfolio.client.domain.ClientTransactionRepositoryWrapper;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionEnumData;
@@ -88,8 +84,6 @@ public class AccountingProcessorHelper {
     public static final String SHARE_TRANSACTION_IDENTIFIER = "SH";
 
     private final JournalEntryRepository glJournalEntryRepository;
-    private final ProductToGLAccountMappingRepository accountMappingRepository;
-    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
     private final GLClosureRepository closureRepository;
     private final GLAccountRepositoryWrapper accountRepositoryWrapper;
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -97,7 +91,8 @@ public class AccountingProcessorHelper {
     private final ClientTransactionRepositoryWrapper clientTransactionRepository;
     private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
     private final AccountTransfersReadPlatformService accountTransfersReadPlatformService;
-    private final ChargeRepositoryWrapper chargeRepositoryWrapper;
+    private final PostingReferenceDataReadService postingReferenceDataReadService;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     public LoanDTO populateLoanDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
             final boolean upfrontAccrualBasedAccountingEnabled, final boolean periodicAccrualBasedAccountingEnabled) {
@@ -838,7 +833,7 @@ public class AccountingProcessorHelper {
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId,
                 null, loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
 
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.write(journalEntry);
     }
 
     private void createCreditJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account, final Long loanId,
@@ -858,7 +853,7 @@ public class AccountingProcessorHelper {
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
                 loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.write(journalEntry);
     }
 
     public void createProvisioningDebitJournalEntry(LocalDate transactionDate, Long provisioningentryId, Office office, String currencyCode,
@@ -908,7 +903,7 @@ public class AccountingProcessorHelper {
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
                 loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.write(journalEntry);
     }
 
     private void createDebitJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
@@ -929,7 +924,7 @@ public class AccountingProcessorHelper {
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null,
                 loanTransaction, savingsAccountTransaction, clientTransaction, shareTransactionId);
 
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.journalEntryBatchWriter.write(journalEntry);
     }
 
     private void createDebitJournalEntryForClientPayments(final Office office, final String currencyCode, final GLAccount account,
@@ -1088,41 +1083,36 @@ public class AccountingProcessorHelper {
     }
 
     public GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                    PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
-
-            /****
-             * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
-             * placeholder ID would be same for both cash and accrual accounts
-             ***/
-            if (accountMappingTypeId == CashAccountsForLoan.FUND_SOURCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(loanProductId,
-                                PortfolioProductType.LOAN.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(loanProductId, PortfolioProductType.LOAN.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
+
+        /****
+         * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
+         * placeholder ID would be same for both cash and accrual accounts
+         ***/
+        if (accountMappingTypeId == CashAccountsForLoan.FUND_SOURCE.getValue()) {
+            final Long paymentChannelSpecificGLAccountId = accountMappings.paymentTypeGLAccountId(accountMappingTypeId, paymentTypeId);
+            if (paymentChannelSpecificGLAccountId != null) {
+                glAccountId = paymentChannelSpecificGLAccountId;
             }
+        }
 
-            if (accountMapping == null) {
-                throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
-                        AccrualAccountsForLoan.fromInt(accountMappingTypeId).toString());
+        if (glAccountId == null) {
+            throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
+                    AccrualAccountsForLoan.fromInt(accountMappingTypeId).toString());
 
-            }
-            glAccount = accountMapping.getGlAccount();
         }
-        return glAccount;
+        return getGLAccountReference(glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(loanProductId, PortfolioProductType.LOAN.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
@@ -1132,21 +1122,20 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CashAccountsForLoan.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CashAccountsForLoan.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(loanProductId, PortfolioProductType.LOAN.getValue(),
-                            accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
-                accountMapping = chargeSpecificIncomeAccountMapping;
+            final Long chargeSpecificIncomeGLAccountId = accountMappings.chargeGLAccountId(accountMappingTypeId, chargeId);
+            if (chargeSpecificIncomeGLAccountId != null) {
+                glAccountId = chargeSpecificIncomeGLAccountId;
             }
         }
-        return accountMapping.getGlAccount();
+        return getMappedGLAccount(glAccountId, PortfolioProductType.LOAN, loanProductId, accountMappingTypeId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsCharges(final Long savingsProductId, final int accountMappingTypeId,
             final Long chargeId) {
 
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(savingsProductId, PortfolioProductType.SAVING.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
@@ -1157,89 +1146,94 @@ public class AccountingProcessorHelper {
 
         if (accountMappingTypeId == CashAccountsForSavings.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CashAccountsForLoan.INCOME_FROM_PENALTIES.getValue()) {
-            GLAccount glAccount = chargeRepositoryWrapper.findOneWithNotFoundDetection(chargeId).getAccount();
-            if (glAccount != null) {
-                return glAccount;
+            final Long chargeGLAccountId = this.postingReferenceDataReadService.retrieveChargeGLAccountId(chargeId);
+            if (chargeGLAccountId != null) {
+                return getGLAccountReference(chargeGLAccountId);
             }
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(savingsProductId, PortfolioProductType.SAVING.getValue(),
-                            accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
+            final Long chargeSpecificIncomeGLAccountId = accountMappings.chargeGLAccountId(accountMappingTypeId, chargeId);
+            if (chargeSpecificIncomeGLAccountId != null) {
 
-                accountMapping = chargeSpecificIncomeAccountMapping;
+                glAccountId = chargeSpecificIncomeGLAccountId;
             }
         }
 
-        return accountMapping.getGlAccount();
+        return getMappedGLAccount(glAccountId, PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsProduct(final Long savingsProductId, final int accountMappingTypeId,
             final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                    PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
-            /****
-             * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
-             * placeholder ID would be same for both cash and accrual accounts
-             ***/
-            if (accountMappingTypeId == CashAccountsForSavings.SAVINGS_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(savingsProductId,
-                                PortfolioProductType.SAVING.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(savingsProductId, PortfolioProductType.SAVING.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
+        /****
+         * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
+         * placeholder ID would be same for both cash and accrual accounts
+         ***/
+        if (accountMappingTypeId == CashAccountsForSavings.SAVINGS_REFERENCE.getValue()) {
+            final Long paymentChannelSpecificGLAccountId = accountMappings.paymentTypeGLAccountId(accountMappingTypeId, paymentTypeId);
+            if (paymentChannelSpecificGLAccountId != null) {
+                glAccountId = paymentChannelSpecificGLAccountId;
             }
-            glAccount = accountMapping.getGlAccount();
         }
-        return glAccount;
+        return getMappedGLAccount(glAccountId, PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId);
     }
 
     private GLAccount getLinkedGLAccountForShareProduct(final Long shareProductId, final int accountMappingTypeId,
             final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                    PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
-
-            if (accountMappingTypeId == CashAccountsForShares.SHARES_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(shareProductId,
-                                PortfolioProductType.SHARES.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(shareProductId, PortfolioProductType.SHARES.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
+
+        if (accountMappingTypeId == CashAccountsForShares.SHARES_REFERENCE.getValue()) {
+            final Long paymentChannelSpecificGLAccountId = accountMappings.paymentTypeGLAccountId(accountMappingTypeId, paymentTypeId);
+            if (paymentChannelSpecificGLAccountId != null) {
+                glAccountId = paymentChannelSpecificGLAccountId;
             }
-            glAccount = accountMapping.getGlAccount();
         }
-        return glAccount;
+        return getMappedGLAccount(glAccountId, PortfolioProductType.SHARES, shareProductId, accountMappingTypeId);
     }
 
     private GLAccount getLinkedGLAccountForShareCharges(final Long shareProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
+        final ProductGLAccountMappingsData accountMappings = this.postingReferenceDataReadService
+                .retrieveProductGLAccountMappings(shareProductId, PortfolioProductType.SHARES.getValue());
+        Long glAccountId = accountMappings.coreGLAccountId(accountMappingTypeId);
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
          * cash and accrual based accounts
          *****/
 
-        final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(shareProductId, PortfolioProductType.SHARES.getValue(),
-                        accountMappingTypeId, chargeId);
-        if (chargeSpecificIncomeAccountMapping != null) {
-            accountMapping = chargeSpecificIncomeAccountMapping;
+        final Long chargeSpecificIncomeGLAccountId = accountMappings.chargeGLAccountId(accountMappingTypeId, chargeId);
+        if (chargeSpecificIncomeGLAccountId != null) {
+            glAccountId = chargeSpecificIncomeGLAccountId;
         }
-        return accountMapping.getGlAccount();
+        return getMappedGLAccount(glAccountId, PortfolioProductType.SHARES, shareProductId, accountMappingTypeId);
+    }
+
+    private GLAccount getFinancialActivityGLAccount(final int financialActivityType) {
+        return getGLAccountReference(this.postingReferenceDataReadService.retrieveFinancialActivityGLAccountId(financialActivityType));
+    }
+
+    private GLAccount getMappedGLAccount(final Long glAccountId, final PortfolioProductType productType, final Long productId,
+            final int accountMappingTypeId) {
+        if (glAccountId == null) {
+            throw new ProductToGLAccountMappingNotFoundException(productType, productId, String.valueOf(accountMappingTypeId));
+        }
+        return getGLAccountReference(glAccountId);
+    }
+
+    /**
+     * GL account ids resolved from the cached posting reference data are turned into lazy references, the journal
+     * entry only needs the foreign key so no select is issued for the account itself.
+     */
+    private GLAccount getGLAccountReference(final Long glAccountId) {
+        return this.accountRepositoryWrapper.getReference(glAccountId);
     }
 
     private boolean isOrganizationAccount(final int accountMappingTypeId) {
@@ -1289,8 +1283,7 @@ public class AccountingProcessorHelper {
     public void createDebitJournalEntryOrReversalForClientChargePayments(final Office office, final String currencyCode,
             final Long clientId, final Long transactionId, final LocalDate transactionDate, final BigDecimal amount,
             final Boolean isReversal) {
-        final GLAccount account = financialActivityAccountRepository
-                .findByFinancialActivityTypeWithNotFoundDetection(FinancialActivity.ASSET_FUND_SOURCE.getValue()).getGlAccount();
+        final GLAccount account = getFinancialActivityGLAccount(FinancialActivity.ASSET_FUND_SOURCE.getValue());
         if (isReversal) {
             createCreditJournalEntryForClientPayments(office, currencyCode, account, clientId, transactionId, transactionDate, amount);
         } else {
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists journal entries produced by the accounting processors.
+ *
+ * Outside a batch every entry is saved through JPA exactly as before. Inside a batch (see {@link #openBatch()}) entries
+ * are buffered and written with a single JDBC batch insert when the batch completes, so a deposit with a fee costs one
+ * round trip instead of one insert and flush per leg. {@code acc_gl_journal_entry} uses identity keys, which Hibernate
+ * cannot batch, hence the plain JDBC insert.
+ *
+ * Batches nest: an inner batch joins the outer one and only the outermost {@link Batch#complete()} writes. EOD jobs open
+ * one batch around a whole account's postings; the buffer is written early every {@value #MAX_PENDING_ENTRIES} entries
+ * to bound memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalEntryBatchWriter {
+
+    private static final int MAX_PENDING_ENTRIES = 500;
+    private static final ThreadLocal<Batch> CURRENT_BATCH = new ThreadLocal<>();
+
+    private static final String INSERT_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id,"
+            + " loan_transaction_id, savings_transaction_id, client_transaction_id, share_transaction_id, payment_details_id,"
+            + " reversed, manual_entry, entry_date, type_enum, amount, description, entity_type_enum, entity_id, ref_num,"
+            + " createdby_id, created_date, lastmodifiedby_id, lastmodified_date)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalEntryRepository journalEntryRepository;
+    private final AuditorAware<Long> auditorAware;
+
+    /**
+     * Opens a batch bound to the current thread, or joins the one already open. Use with try-with-resources and call
+     * {@link Batch#complete()} as the last statement of the block; closing without completing discards the buffer.
+     */
+    public Batch openBatch() {
+        final Batch current = CURRENT_BATCH.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        final Batch batch = new Batch(this);
+        CURRENT_BATCH.set(batch);
+        return batch;
+    }
+
+    public void write(final JournalEntry journalEntry) {
+        final Batch batch = CURRENT_BATCH.get();
+        if (batch == null) {
+            this.journalEntryRepository.saveAndFlush(journalEntry);
+            return;
+        }
+        batch.pending.add(journalEntry);
+        if (batch.pending.size() >= MAX_PENDING_ENTRIES) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Inserts the given entries with one JDBC batch. The entries are not attached to the persistence context and do not
+     * receive their generated ids.
+     */
+    public void writeAll(final Collection<JournalEntry> journalEntries) {
+        if (journalEntries.isEmpty()) {
+            return;
+        }
+        final Long auditor = this.auditorAware.getCurrentAuditor().orElse(null);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final List<Object[]> params = new ArrayList<>(journalEntries.size());
+        for (final JournalEntry entry : journalEntries) {
+            params.add(new Object[] { entry.getGlAccount().getId(), entry.getOffice().getId(), entry.getCurrencyCode(),
+                    entry.getTransactionId(), entry.getLoanTransaction() == null ? null : entry.getLoanTransaction().getId(),
+                    entry.getSavingsTransaction() == null ? null : entry.getSavingsTransaction().getId(),
+                    entry.getClientTransaction() == null ? null : entry.getClientTransaction().getId(), entry.getShareTransactionId(),
+                    entry.getPaymentDetails() == null ? null : entry.getPaymentDetails().getId(), entry.isReversed(), entry.isManualEntry(),
+                    entry.getTransactionDate(), entry.getType(), entry.getAmount(), entry.getDescription(), entry.getEntityType(),
+                    entry.getEntityId(), entry.getReferenceNumber(), auditor, now, auditor, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, params);
+    }
+
+    public static final class Batch implements AutoCloseable {
+
+        private final JournalEntryBatchWriter writer;
+        private final List<JournalEntry> pending = new ArrayList<>();
+        private int depth = 1;
+
+        private Batch(final JournalEntryBatchWriter writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Writes the buffered entries if this is the outermost batch; a no-op for joined batches.
+         */
+        public void complete() {
+            if (this.depth == 1) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            this.depth--;
+            if (this.depth == 0) {
+                this.pending.clear();
+                CURRENT_BATCH.remove();
+            }
+        }
+
+        private void flush() {
+            final List<JournalEntry> entries = new ArrayList<>(this.pending);
+            this.pending.clear();
+            this.writer.writeAll(entries);
+        }
+    }
+}
@@ -107,6 +107,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Transactional
     @Override
@@ -480,7 +481,10 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
             final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
                     .determineProcessor(loanDTO);
-            accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+            try (JournalEntryBatchWriter.Batch batch = this.journalEntryBatchWriter.openBatch()) {
+                accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+                batch.complete();
+            }
         }
     }
 
@@ -496,7 +500,10 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForSavings accountingProcessorForSavings = this.accountingProcessorForSavingsFactory
                     .determineProcessor(savingsDTO);
-            accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+            try (JournalEntryBatchWriter.Batch batch = this.journalEntryBatchWriter.openBatch()) {
+                accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+                batch.complete();
+            }
         }
     }
 
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductGLAccountMappingsData;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+
+/**
+ * Tenant scoped, read-mostly reference data used while posting journal entries for savings, loan and share
+ * transactions. Implementations are cached and evicted by the write services owning the underlying data.
+ */
+public interface PostingReferenceDataReadService {
+
+    CurrencyData retrieveCurrency(MonetaryCurrency currency);
+
+    ProductGLAccountMappingsData retrieveProductGLAccountMappings(Long productId, int productType);
+
+    Long retrieveChargeGLAccountId(Long chargeId);
+
+    Long retrieveFinancialActivityGLAccountId(int financialActivityType);
+}
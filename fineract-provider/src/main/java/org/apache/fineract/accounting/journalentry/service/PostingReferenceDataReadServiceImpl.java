@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductGLAccountMappingsData;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PostingReferenceDataReadServiceImpl implements PostingReferenceDataReadService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepositoryWrapper;
+    private final ChargeRepositoryWrapper chargeRepositoryWrapper;
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+
+    @Override
+    @Cacheable(value = "postingCurrencies", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#currency.code+'cy'+#currency.digitsAfterDecimal+'_'+#currency.currencyInMultiplesOf)")
+    public CurrencyData retrieveCurrency(final MonetaryCurrency currency) {
+        return this.applicationCurrencyRepositoryWrapper.findOneWithNotFoundDetection(currency).toData();
+    }
+
+    @Override
+    @Cacheable(value = "productGLAccountMappings", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#productType+'pm'+#productId)")
+    public ProductGLAccountMappingsData retrieveProductGLAccountMappings(final Long productId, final int productType) {
+        final String sql = "select mapping.financial_account_type as financialAccountType, mapping.gl_account_id as glAccountId,"
+                + " mapping.payment_type as paymentTypeId, mapping.charge_id as chargeId from acc_product_mapping mapping"
+                + " where mapping.product_id = ? and mapping.product_type = ?";
+        final ProductGLAccountMappingsData.Builder builder = ProductGLAccountMappingsData.builder();
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> builder.withMapping(rs.getInt("financialAccountType"),
+                JdbcSupport.getLong(rs, "glAccountId"), JdbcSupport.getLong(rs, "paymentTypeId"), JdbcSupport.getLong(rs, "chargeId")),
+                productId, productType);
+        return builder.build();
+    }
+
+    @Override
+    @Cacheable(value = "chargeGLAccounts", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#chargeId+'cg')")
+    public Long retrieveChargeGLAccountId(final Long chargeId) {
+        final GLAccount account = this.chargeRepositoryWrapper.findOneWithNotFoundDetection(chargeId).getAccount();
+        return account == null ? null : account.getId();
+    }
+
+    @Override
+    @Cacheable(value = "financialActivityGLAccounts", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#financialActivityType+'fa')")
+    public Long retrieveFinancialActivityGLAccountId(final int financialActivityType) {
+        return this.financialActivityAccountRepository.findByFinancialActivityTypeWithNotFoundDetection(financialActivityType).getGlAccount()
+                .getId();
+    }
+}
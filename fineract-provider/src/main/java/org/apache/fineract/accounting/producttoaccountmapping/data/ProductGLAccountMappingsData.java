@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.data;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all GL account mappings of a single product, keyed for the lookups done while posting journal
+ * entries (core mapping, payment type specific fund source and charge specific income mappings).
+ */
+public final class ProductGLAccountMappingsData implements Serializable {
+
+    private final Map<Integer, Long> coreMappings;
+    private final Map<String, Long> paymentTypeMappings;
+    private final Map<String, Long> chargeMappings;
+
+    private ProductGLAccountMappingsData(final Map<Integer, Long> coreMappings, final Map<String, Long> paymentTypeMappings,
+            final Map<String, Long> chargeMappings) {
+        this.coreMappings = Collections.unmodifiableMap(coreMappings);
+        this.paymentTypeMappings = Collections.unmodifiableMap(paymentTypeMappings);
+        this.chargeMappings = Collections.unmodifiableMap(chargeMappings);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Long coreGLAccountId(final int financialAccountType) {
+        return this.coreMappings.get(financialAccountType);
+    }
+
+    public Long paymentTypeGLAccountId(final int financialAccountType, final Long paymentTypeId) {
+        if (paymentTypeId == null) {
+            return null;
+        }
+        return this.paymentTypeMappings.get(key(financialAccountType, paymentTypeId));
+    }
+
+    public Long chargeGLAccountId(final int financialAccountType, final Long chargeId) {
+        if (chargeId == null) {
+            return null;
+        }
+        return this.chargeMappings.get(key(financialAccountType, chargeId));
+    }
+
+    private static String key(final int financialAccountType, final Long id) {
+        return financialAccountType + "_" + id;
+    }
+
+    public static final class Builder {
+
+        private final Map<Integer, Long> coreMappings = new HashMap<>();
+        private final Map<String, Long> paymentTypeMappings = new HashMap<>();
+        private final Map<String, Long> chargeMappings = new HashMap<>();
+
+        private Builder() {}
+
+        public Builder withMapping(final int financialAccountType, final Long glAccountId, final Long paymentTypeId, final Long chargeId) {
+            if (paymentTypeId != null) {
+                this.paymentTypeMappings.put(key(financialAccountType, paymentTypeId), glAccountId);
+            } else if (chargeId != null) {
+                this.chargeMappings.put(key(financialAccountType, chargeId), glAccountId);
+            } else {
+                this.coreMappings.put(financialAccountType, glAccountId);
+            }
+            return this;
+        }
+
+        public ProductGLAccountMappingsData build() {
+            return new ProductGLAccountMappingsData(this.coreMappings, this.paymentTypeMappings, this.chargeMappings);
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.apache.fineract.accounting.producttoaccountmapping.serialization.Prod
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,6 +54,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public void createLoanProductToGLAccountMapping(final Long loanProductId, final JsonCommand command) {
         final JsonElement element = this.fromApiJsonHelper.parse(command.json());
         final Integer accountingRuleTypeId = this.fromApiJsonHelper.extractIntegerNamed("accountingRule", element, Locale.getDefault());
@@ -159,6 +161,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public void createSavingProductToGLAccountMapping(final Long savingProductId, final JsonCommand command,
             DepositAccountType accountType) {
         final JsonElement element = this.fromApiJsonHelper.parse(command.json());
@@ -235,6 +238,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public void createShareProductToGLAccountMapping(final Long shareProductId, final JsonCommand command) {
 
         this.deserializer.validateForShareProductCreate(command.json());
@@ -279,6 +283,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public Map<String, Object> updateLoanProductToGLAccountMapping(final Long loanProductId, final JsonCommand command,
             final boolean accountingRuleChanged, final int accountingRuleTypeId) {
         /***
@@ -310,6 +315,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public Map<String, Object> updateSavingsProductToGLAccountMapping(final Long savingsProductId, final JsonCommand command,
             final boolean accountingRuleChanged, final int accountingRuleTypeId, final DepositAccountType accountType) {
         /***
@@ -342,6 +348,7 @@ public class ProductToGLAccountMappingWritePlatformServiceImpl implements Produc
 
     @Override
     @Transactional
+    @CacheEvict(value = "productGLAccountMappings", allEntries = true)
     public Map<String, Object> updateShareProductToGLAccountMapping(final Long shareProductId, final JsonCommand command,
             final boolean accountingRuleChanged, final int accountingRuleTypeId) {
         /***
@@ -43,6 +43,8 @@ public class CommandWrapper {
 
     @SuppressWarnings("unused")
     private Long templateId;
+    private String idempotencyKey;
+    private String idempotencyClaimToken;
 
     public static CommandWrapper wrap(final String actionName, final String entityName, final Long resourceId, final Long subresourceId) {
         return new CommandWrapper(null, actionName, entityName, resourceId, subresourceId, null, null);
@@ -221,6 +223,22 @@ public class CommandWrapper {
         return this.transactionId;
     }
 
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
+    public void setIdempotencyKey(final String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyClaimToken() {
+        return this.idempotencyClaimToken;
+    }
+
+    public void setIdempotencyClaimToken(final String idempotencyClaimToken) {
+        this.idempotencyClaimToken = idempotencyClaimToken;
+    }
+
     public String getEntityName() {
         return this.entityName;
     }
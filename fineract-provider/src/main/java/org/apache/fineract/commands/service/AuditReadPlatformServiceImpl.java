@@ -96,7 +96,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
     private static final class AuditMapper implements RowMapper<AuditData> {
 
-        public String schema(final boolean includeJson, final String hierarchy) {
+        public String schema(final boolean includeJson, final String hierarchy, final Long officeId) {
 
             String commandAsJsonString = "";
             if (includeJson) {
@@ -119,7 +119,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
             // data scoping: head office (hierarchy = ".") can see all audit
             // entries
             if (!hierarchy.equals(".")) {
-                partSql += " join m_office o2 on o2.id = aud.office_id and o2.hierarchy like '" + hierarchy + "%' ";
+                partSql += " join m_office_closure oc2 on oc2.descendant_id = aud.office_id and oc2.ancestor_id = " + officeId + " ";
             }
 
             return partSql;
@@ -181,7 +181,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         final AuditMapper rm = new AuditMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
-        sqlBuilder.append(rm.schema(includeJson, hierarchy));
+        sqlBuilder.append(rm.schema(includeJson, hierarchy, currentUser.getOffice().getId()));
         sqlBuilder.append(' ').append(extraCriteria.getSQLTemplate());
         if (parameters.isOrderByRequested()) {
             sqlBuilder.append(' ').append(parameters.orderBySql());
@@ -218,7 +218,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final AuditMapper rm = new AuditMapper();
-        String sql = "select " + rm.schema(includeJson, hierarchy);
+        String sql = "select " + rm.schema(includeJson, hierarchy, currentUser.getOffice().getId());
 
         Boolean isLimitedChecker = false;
         if (useType.equals("makerchecker")) {
@@ -247,7 +247,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         final AuditMapper rm = new AuditMapper();
 
-        final String sql = "select " + rm.schema(true, hierarchy) + " where aud.id = ? ";
+        final String sql = "select " + rm.schema(true, hierarchy, currentUser.getOffice().getId()) + " where aud.id = ? ";
 
         final AuditData auditResult = this.jdbcTemplate.queryForObject(sql, rm, auditId); // NOSONAR
 
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Store of client supplied {@code Idempotency-Key} headers for commands that move money.
+ */
+public interface CommandIdempotencyService {
+
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Claims the wrapper's key for this request.
+     *
+     * @return the original result when the key was already used for the same request, or null when the caller now owns
+     *         the key and should process the command
+     * @throws org.apache.fineract.infrastructure.core.exception.PlatformConflictException
+     *             when the key is still being processed or was used with a different request
+     */
+    CommandProcessingResult claim(CommandWrapper wrapper);
+
+    /**
+     * Stores the command's result against the key claimed by this request. Called in the command's transaction.
+     *
+     * @throws org.apache.fineract.infrastructure.core.exception.PlatformConflictException
+     *             when a later request took the key over after the in flight timeout
+     */
+    void complete(CommandWrapper wrapper, CommandProcessingResult result);
+
+    void release(CommandWrapper wrapper);
+
+    void purgeExpiredKeys();
+}
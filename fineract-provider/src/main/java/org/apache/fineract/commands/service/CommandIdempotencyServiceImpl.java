@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.exception.PlatformConflictException;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keys live in the tenant database, so the unique key on {@code idempotency_key} is unique per tenant.
+ *
+ * A claim inserts the key as in flight before the command runs; of two concurrent requests with the same key only one
+ * insert succeeds and the other is answered from the stored row. The row is completed with the serialized result in the
+ * command's own transaction, so a committed command always leaves a completed key, and removed when the command fails,
+ * so a failed request can be retried with the same key. Keys expire after {@code fineract.idempotency.expiry-hours}.
+ *
+ * A key left in flight by a request that died before its command committed can be claimed again once it is older than
+ * {@code fineract.idempotency.in-flight-timeout-seconds}. The claim token then changes, so if the old request was only
+ * slow its completion matches no row and its command rolls back instead of running twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CommandIdempotencyServiceImpl implements CommandIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int IN_FLIGHT = 1;
+    private static final int COMPLETED = 2;
+    private static final int COMPLETED_WITHOUT_RESULT = 3;
+
+    private static final String INSERT_SQL = "INSERT INTO m_command_idempotency_key (idempotency_key, request_hash, action_name,"
+            + " entity_name, status_enum, claim_token, created_date, expires_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Gson gson = GoogleGsonSerializerHelper.createGsonBuilder().create();
+
+    @Value("${fineract.idempotency.expiry-hours:24}")
+    private long expiryHours;
+
+    @Value("${fineract.idempotency.in-flight-timeout-seconds:300}")
+    private long inFlightTimeoutSeconds;
+
+    @Override
+    public CommandProcessingResult claim(final CommandWrapper wrapper) {
+        final String key = wrapper.getIdempotencyKey();
+        if (key.length() > MAX_KEY_LENGTH) {
+            final String message = "Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters";
+            throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.",
+                    List.of(ApiParameterError.parameterError("validation.msg.idempotency.key.too.long", message,
+                            IDEMPOTENCY_KEY_HEADER)));
+        }
+        final String requestHash = requestHash(wrapper);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        if (tryInsert(wrapper, key, requestHash, now)) {
+            return null;
+        }
+
+        final List<StoredKey> stored = this.jdbcTemplate.query(
+                "SELECT request_hash, status_enum, result, created_date, expires_on FROM m_command_idempotency_key"
+                        + " WHERE idempotency_key = ?",
+                (rs, rowNum) -> new StoredKey(rs.getString("request_hash"), rs.getInt("status_enum"), rs.getString("result"),
+                        rs.getTimestamp("created_date").toLocalDateTime(), rs.getTimestamp("expires_on").toLocalDateTime()),
+                key);
+        if (stored.isEmpty() || stored.get(0).expiresOn.isBefore(now)) {
+            // released or expired since our insert failed; expired keys are free for reuse
+            this.jdbcTemplate.update("DELETE FROM m_command_idempotency_key WHERE idempotency_key = ? AND expires_on < ?", key, now);
+            if (tryInsert(wrapper, key, requestHash, now)) {
+                return null;
+            }
+            throw inFlight(key);
+        }
+
+        final StoredKey existing = stored.get(0);
+        if (!existing.requestHash.equals(requestHash)) {
+            throw new PlatformConflictException("error.msg.idempotency.key.reused",
+                    "Idempotency-Key " + key + " was already used for a different request", key);
+        }
+        if (existing.status == IN_FLIGHT) {
+            if (existing.createdDate.isBefore(now.minusSeconds(this.inFlightTimeoutSeconds)) && takeOver(wrapper, key, now)) {
+                log.warn("Took over Idempotency-Key {} left in flight since {}", key, existing.createdDate);
+                return null;
+            }
+            throw inFlight(key);
+        }
+        log.info("Replaying result of {} {} for Idempotency-Key {}", wrapper.actionName(), wrapper.entityName(), key);
+        if (existing.status == COMPLETED_WITHOUT_RESULT) {
+            return CommandProcessingResult.empty();
+        }
+        return this.gson.fromJson(existing.result, CommandProcessingResult.class);
+    }
+
+    /**
+     * Must run in the command's transaction, so that the key is completed exactly when the command commits.
+     */
+    @Override
+    public void complete(final CommandWrapper wrapper, final CommandProcessingResult result) {
+        final int updated;
+        if (result == null) {
+            updated = this.jdbcTemplate.update("UPDATE m_command_idempotency_key SET status_enum = ?, claim_token = NULL"
+                    + " WHERE idempotency_key = ? AND claim_token = ? AND status_enum = ?", COMPLETED_WITHOUT_RESULT,
+                    wrapper.getIdempotencyKey(), wrapper.getIdempotencyClaimToken(), IN_FLIGHT);
+        } else {
+            updated = this.jdbcTemplate.update("UPDATE m_command_idempotency_key SET status_enum = ?, claim_token = NULL, command_id = ?,"
+                    + " result = ? WHERE idempotency_key = ? AND claim_token = ? AND status_enum = ?", COMPLETED, result.commandId(),
+                    this.gson.toJson(result), wrapper.getIdempotencyKey(), wrapper.getIdempotencyClaimToken(), IN_FLIGHT);
+        }
+        if (updated == 0) {
+            // the claim was taken over after the in flight timeout; rolling back leaves the command to the new owner
+            throw new PlatformConflictException("error.msg.idempotency.key.taken.over",
+                    "Idempotency-Key " + wrapper.getIdempotencyKey() + " was claimed by a later request", wrapper.getIdempotencyKey());
+        }
+    }
+
+    @Override
+    public void release(final CommandWrapper wrapper) {
+        this.jdbcTemplate.update("DELETE FROM m_command_idempotency_key WHERE idempotency_key = ? AND claim_token = ? AND status_enum = ?",
+                wrapper.getIdempotencyKey(), wrapper.getIdempotencyClaimToken(), IN_FLIGHT);
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.PURGE_IDEMPOTENCY_KEYS)
+    public void purgeExpiredKeys() {
+        final int purged = this.jdbcTemplate.update("DELETE FROM m_command_idempotency_key WHERE expires_on < ?",
+                DateUtils.getLocalDateTimeOfSystem());
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+
+    private boolean tryInsert(final CommandWrapper wrapper, final String key, final String requestHash, final LocalDateTime now) {
+        final String claimToken = UUID.randomUUID().toString();
+        try {
+            this.jdbcTemplate.update(INSERT_SQL, key, requestHash, wrapper.actionName(), wrapper.entityName(), IN_FLIGHT, claimToken, now,
+                    now.plusHours(this.expiryHours));
+        } catch (final DuplicateKeyException e) {
+            return false;
+        }
+        wrapper.setIdempotencyClaimToken(claimToken);
+        return true;
+    }
+
+    private boolean takeOver(final CommandWrapper wrapper, final String key, final LocalDateTime now) {
+        final String claimToken = UUID.randomUUID().toString();
+        final int updated = this.jdbcTemplate.update("UPDATE m_command_idempotency_key SET claim_token = ?, created_date = ?"
+                + " WHERE idempotency_key = ? AND status_enum = ? AND created_date < ?", claimToken, now, key, IN_FLIGHT,
+                now.minusSeconds(this.inFlightTimeoutSeconds));
+        if (updated == 0) {
+            return false;
+        }
+        wrapper.setIdempotencyClaimToken(claimToken);
+        return true;
+    }
+
+    private static PlatformConflictException inFlight(final String key) {
+        return new PlatformConflictException("error.msg.idempotency.key.in.flight",
+                "A request with Idempotency-Key " + key + " is still being processed", key);
+    }
+
+    private static String requestHash(final CommandWrapper wrapper) {
+        final String request = wrapper.actionName() + "|" + wrapper.entityName() + "|" + StringUtils.defaultString(wrapper.getHref())
+                + "|" + StringUtils.defaultString(wrapper.getJson());
+        return Hashing.sha256().hashString(request, StandardCharsets.UTF_8).toString();
+    }
+
+    private static final class StoredKey {
+
+        private final String requestHash;
+        private final int status;
+        private final String result;
+        private final LocalDateTime createdDate;
+        private final LocalDateTime expiresOn;
+
+        private StoredKey(final String requestHash, final int status, final String result, final LocalDateTime createdDate,
+                final LocalDateTime expiresOn) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.result = result;
+            this.createdDate = createdDate;
+            this.expiresOn = expiresOn;
+        }
+    }
+}
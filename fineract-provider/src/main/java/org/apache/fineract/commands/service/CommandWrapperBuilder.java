@@ -55,11 +55,14 @@ public class CommandWrapperBuilder {
     private Long templateId;
     private Long creditBureauId;
     private Long organisationCreditBureauId;
+    private String idempotencyKey;
 
     public CommandWrapper build() {
-        return new CommandWrapper(this.officeId, this.groupId, this.clientId, this.loanId, this.savingsId, this.actionName, this.entityName,
-                this.entityId, this.subentityId, this.href, this.json, this.transactionId, this.productId, this.templateId,
-                this.creditBureauId, this.organisationCreditBureauId);
+        final CommandWrapper wrapper = new CommandWrapper(this.officeId, this.groupId, this.clientId, this.loanId, this.savingsId,
+                this.actionName, this.entityName, this.entityId, this.subentityId, this.href, this.json, this.transactionId, this.productId,
+                this.templateId, this.creditBureauId, this.organisationCreditBureauId);
+        wrapper.setIdempotencyKey(this.idempotencyKey);
+        return wrapper;
     }
 
     public CommandWrapperBuilder updateCreditBureau() {
@@ -178,6 +181,11 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder withIdempotencyKey(final String withIdempotencyKey) {
+        this.idempotencyKey = withIdempotencyKey;
+        return this;
+    }
+
     public CommandWrapperBuilder withLoanId(final Long withLoanId) {
         this.loanId = withLoanId;
         return this;
@@ -485,6 +493,31 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder replayHook(final Long hookId) {
+        this.actionName = "REPLAY";
+        this.entityName = "HOOK";
+        this.entityId = hookId;
+        this.href = "/hooks/" + hookId + "?command=replay";
+        return this;
+    }
+
+    public CommandWrapperBuilder reindexHook(final Long hookId) {
+        this.actionName = "REINDEX";
+        this.entityName = "HOOK";
+        this.entityId = hookId;
+        this.href = "/hooks/" + hookId + "?command=reindex";
+        return this;
+    }
+
+    public CommandWrapperBuilder redeliverHookDelivery(final Long hookId, final Long deliveryId) {
+        this.actionName = "REDELIVER";
+        this.entityName = "HOOK";
+        this.entityId = hookId;
+        this.subentityId = deliveryId;
+        this.href = "/hooks/" + hookId + "/deliveries/" + deliveryId + "?command=redeliver";
+        return this;
+    }
+
     public CommandWrapperBuilder createCharge() {
         this.actionName = "CREATE";
         this.entityName = "CHARGE";
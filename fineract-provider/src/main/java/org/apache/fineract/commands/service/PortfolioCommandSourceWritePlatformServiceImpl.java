@@ -18,12 +18,23 @@
  */
 package org.apache.fineract.commands.service;
 
+import static org.apache.fineract.portfolio.account.AccountDetailConstants.fromAccountIdParamName;
+import static org.apache.fineract.portfolio.account.AccountDetailConstants.fromAccountTypeParamName;
+import static org.apache.fineract.portfolio.account.AccountDetailConstants.toAccountIdParamName;
+import static org.apache.fineract.portfolio.account.AccountDetailConstants.toAccountTypeParamName;
 import static org.apache.fineract.simplifytech.data.GeneralConstants.addModuleExistingJsonToAudit;
 
 import com.google.gson.JsonElement;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.security.SecureRandom;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import javax.persistence.LockTimeoutException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -35,16 +46,19 @@ import org.apache.fineract.commands.exception.CommandNotFoundException;
 import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.service.SchedulerJobRunnerReadService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.account.PortfolioAccountType;
 import org.apache.fineract.portfolio.client.domain.Client;
 import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.service.SavingsAccountWriteSerializer;
 import org.apache.fineract.useradministration.domain.AppUser;
-import org.springframework.dao.CannotAcquireLockException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,6 +68,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class PortfolioCommandSourceWritePlatformServiceImpl implements PortfolioCommandSourceWritePlatformService {
 
     private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long RETRY_BASE_DELAY_MILLIS = 50L;
+
+    /**
+     * Commands replayed after a deadlock, lock wait timeout or version conflict. Each of them does all of its work inside
+     * the command transaction, and publishes events only after it commits, so a rolled back attempt leaves nothing behind.
+     * A command that calls out to another system while it runs must not be listed, as a replay would repeat the call.
+     */
+    private static final Set<String> RETRYABLE_COMMANDS = Set.of("DEPOSIT_SAVINGSACCOUNT", "WITHDRAWAL_SAVINGSACCOUNT",
+            "HOLDAMOUNT_SAVINGSACCOUNT", "RELEASEAMOUNT_SAVINGSACCOUNT", "CREATE_ACCOUNTTRANSFER", "REPAYMENT_LOAN");
 
     private final PlatformSecurityContext context;
     private final CommandSourceRepository commandSourceRepository;
@@ -61,11 +84,10 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
     private final CommandProcessingService processAndLogCommandService;
     private final SchedulerJobRunnerReadService schedulerJobRunnerReadService;
     private final ClientRepositoryWrapper clientRepositoryWrapper;
+    private final SavingsAccountWriteSerializer savingsAccountWriteSerializer;
+    private final CommandIdempotencyService commandIdempotencyService;
 
     @Override
-    @SuppressWarnings("AvoidHidingCauseException")
-    @SuppressFBWarnings(value = {
-            "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
     public CommandProcessingResult logCommandSource(final CommandWrapper wrapper) {
 
         boolean isApprovedByChecker = false;
@@ -84,6 +106,25 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
         }
         validateIsUpdateAllowed();
 
+        if (StringUtils.isBlank(wrapper.getIdempotencyKey())) {
+            return processCommand(wrapper, isApprovedByChecker);
+        }
+        final CommandProcessingResult replayedResult = this.commandIdempotencyService.claim(wrapper);
+        if (replayedResult != null) {
+            return replayedResult;
+        }
+        try {
+            return processCommand(wrapper, isApprovedByChecker);
+        } catch (final RuntimeException e) {
+            this.commandIdempotencyService.release(wrapper);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("AvoidHidingCauseException")
+    @SuppressFBWarnings(value = {
+            "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
+    private CommandProcessingResult processCommand(final CommandWrapper wrapper, final boolean isApprovedByChecker) {
         final String json = wrapper.getJson();
         CommandProcessingResult result = null;
         JsonCommand command = null;
@@ -111,35 +152,46 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                 }
             }
         }
+        final JsonCommand commandToProcess = command;
+        final List<Long> savingsAccountsWritten = savingsAccountsWrittenBy(wrapper, command);
         while (numberOfRetries <= maxNumberOfRetries) {
             try {
-                result = this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
+                result = this.savingsAccountWriteSerializer.execute(savingsAccountsWritten,
+                        () -> this.processAndLogCommandService.processAndLogCommand(wrapper, commandToProcess, isApprovedByChecker));
                 numberOfRetries = maxNumberOfRetries + 1;
-            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
+            } catch (final RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
+                numberOfRetries = maxNumberOfRetries + 1;
+                result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
+                if (StringUtils.isNotBlank(wrapper.getIdempotencyKey())) {
+                    this.commandIdempotencyService.complete(wrapper, result);
+                }
+                // result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult(), wrapper, command,
+                // result);
+            } catch (final RuntimeException exception) {
+                if (!isRetryableConcurrencyFailure(exception)) {
+                    throw exception;
+                }
                 log.info("The following command {} has been retried  {} time(s)", command.json(), numberOfRetries);
                 /***
-                 * Fail if the transaction has been retired for maxNumberOfRetries
+                 * Fail if the command is not safe to replay or has been retried for maxNumberOfRetries
                  **/
-                if (numberOfRetries >= maxNumberOfRetries) {
-                    log.warn("The following command {} has been retried for the max allowed attempts of {} and will be rolled back",
-                            command.json(), numberOfRetries);
-                    throw exception;
+                if (!isRetryableCommand(wrapper) || numberOfRetries >= maxNumberOfRetries) {
+                    log.warn("The following command {} has been retried {} time(s) of the {} allowed for {} and will be rolled back",
+                            command.json(), numberOfRetries, maxNumberOfRetries, wrapper.getTaskPermissionName());
+                    throw new PlatformDataIntegrityException("error.msg.command.concurrent.operations",
+                            "Concurrent operations on the same resource prevented this command from completing: " + exception.getMessage(),
+                            exception);
                 }
                 /***
-                 * Else sleep for a random time (between 1 to 10 seconds) and continue
+                 * Else back off exponentially with full jitter, bounded by maxIntervalBetweenRetries seconds
                  **/
                 try {
-                    int randomNum = RANDOM.nextInt(maxIntervalBetweenRetries + 1);
-                    Thread.sleep(1000 + (randomNum * 1000));
+                    Thread.sleep(retryBackoffMillis(numberOfRetries, maxIntervalBetweenRetries));
                     numberOfRetries = numberOfRetries + 1;
                 } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                     throw exception;
                 }
-            } catch (final RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
-                numberOfRetries = maxNumberOfRetries + 1;
-                result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult());
-                // result = this.processAndLogCommandService.logCommand(e.getCommandSourceResult(), wrapper, command,
-                // result);
             }
         }
 
@@ -148,6 +200,54 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
         return result;
     }
 
+    /**
+     * Savings accounts whose balance the command is about to change, so that commands against the same account can queue
+     * in memory before borrowing a connection.
+     */
+    private static List<Long> savingsAccountsWrittenBy(final CommandWrapper wrapper, final JsonCommand command) {
+        final List<Long> savingsAccountIds = new ArrayList<>();
+        if ("SAVINGSACCOUNT".equalsIgnoreCase(wrapper.getEntityName()) && wrapper.getSavingsId() != null) {
+            savingsAccountIds.add(wrapper.getSavingsId());
+        } else if ("ACCOUNTTRANSFER".equalsIgnoreCase(wrapper.getEntityName()) && command.parsedJson() != null) {
+            if (PortfolioAccountType.SAVINGS.getValue().equals(command.integerValueSansLocaleOfParameterNamed(fromAccountTypeParamName))) {
+                savingsAccountIds.add(command.longValueOfParameterNamed(fromAccountIdParamName));
+            }
+            if (PortfolioAccountType.SAVINGS.getValue().equals(command.integerValueSansLocaleOfParameterNamed(toAccountTypeParamName))) {
+                savingsAccountIds.add(command.longValueOfParameterNamed(toAccountIdParamName));
+            }
+            savingsAccountIds.removeIf(Objects::isNull);
+        }
+        return savingsAccountIds;
+    }
+
+    private static boolean isRetryableCommand(final CommandWrapper wrapper) {
+        return RETRYABLE_COMMANDS.contains(wrapper.getTaskPermissionName());
+    }
+
+    /**
+     * Deadlocks, lock wait timeouts and version conflicts roll back the whole command transaction, so the command can be
+     * replayed against fresh state. The cause chain is walked because Hibernate and the JDBC driver wrap these failures
+     * differently depending on where they surface (query, flush or commit).
+     */
+    private static boolean isRetryableConcurrencyFailure(final Throwable exception) {
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof PessimisticLockingFailureException || cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException) {
+                return true;
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return false;
+    }
+
+    private static long retryBackoffMillis(final int attempt, final int maxIntervalBetweenRetries) {
+        final long ceiling = Math.max(1, maxIntervalBetweenRetries) * 1000L;
+        final long exponential = Math.min(ceiling, RETRY_BASE_DELAY_MILLIS << Math.min(attempt, 16));
+        return RETRY_BASE_DELAY_MILLIS + (long) (RANDOM.nextDouble() * exponential);
+    }
+
     @Override
     public CommandProcessingResult approveEntry(final Long makerCheckerId) {
 
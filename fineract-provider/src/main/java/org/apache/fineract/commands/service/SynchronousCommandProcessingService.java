@@ -46,9 +46,9 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuild
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingTable;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.context.ApplicationContext;
@@ -68,6 +68,9 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
     private final FromJsonHelper fromApiJsonHelper;
+    private final EventOutboxService eventOutboxService;
+    private final HookRoutingTable hookRoutingTable;
+    private final CommandIdempotencyService commandIdempotencyService;
 
     @Transactional
     @Override
@@ -139,6 +142,11 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
         publishEvent(wrapper.entityName(), wrapper.actionName(), command, result);
 
+        if (StringUtils.isNotBlank(wrapper.getIdempotencyKey())) {
+            // completed in the command's transaction, so the key commits or rolls back together with the command
+            this.commandIdempotencyService.complete(wrapper, result);
+        }
+
         return result;
     }
 
@@ -232,11 +240,13 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     }
 
     private void publishEvent(final String entityName, final String actionName, JsonCommand command, final Object result) {
+        if (!this.hookRoutingTable.hasRoute(entityName, actionName)) {
+            // no active hook listens to this command, skip building the payload altogether
+            return;
+        }
         Gson gson = new Gson();
         try {
-            final AppUser appUser = this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
-
-            final HookEventSource hookEventSource = new HookEventSource(entityName, actionName);
+            this.context.authenticatedUser(CommandWrapper.wrap(actionName, entityName, null, null));
 
             // TODO: Add support for publishing array events
             if (command.json() != null && command.json().startsWith("{")) {
@@ -276,10 +286,13 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
                 final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
 
-                final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, appUser,
-                        ThreadLocalContextUtil.getContext());
-
-                applicationContext.publishEvent(applicationEvent);
+                if (result instanceof CommandProcessingResult) {
+                    // relayed once the command's transaction commits, and dropped with it on rollback
+                    this.eventOutboxService.append(EventOutboxTopic.HOOK, entityName, actionName,
+                            ((CommandProcessingResult) result).resourceId(), serializedResult);
+                } else {
+                    this.eventOutboxService.appendIndependently(EventOutboxTopic.HOOK, entityName, actionName, null, serializedResult);
+                }
             }
         } catch (Exception e) {
             log.error("Error", e);
@@ -26,6 +26,7 @@ import javax.mail.internet.MimeMessage;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailMessageWithAttachmentData;
 import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
 import org.apache.fineract.infrastructure.configuration.service.ExternalServicesPropertiesReadPlatformService;
+import org.apache.fineract.infrastructure.core.service.email.JavaMailSenderProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,23 +39,22 @@ public final class EmailMessageJobEmailServiceImpl implements EmailMessageJobEma
 
     private static final Logger LOG = LoggerFactory.getLogger(EmailMessageJobEmailServiceImpl.class);
     private final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService;
+    private final JavaMailSenderProvider javaMailSenderProvider;
 
     @Autowired
-    public EmailMessageJobEmailServiceImpl(ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService) {
+    public EmailMessageJobEmailServiceImpl(ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService,
+            JavaMailSenderProvider javaMailSenderProvider) {
         this.externalServicesReadPlatformService = externalServicesReadPlatformService;
+        this.javaMailSenderProvider = javaMailSenderProvider;
     }
 
     @Override
     public void sendEmailWithAttachment(EmailMessageWithAttachmentData emailMessageWithAttachmentData) {
         final SMTPCredentialsData smtpCredentialsData = this.externalServicesReadPlatformService.getSMTPCredentials();
         try {
-            JavaMailSenderImpl javaMailSenderImpl = new JavaMailSenderImpl();
-            javaMailSenderImpl.setHost(smtpCredentialsData.getHost());
-            javaMailSenderImpl.setPort(Integer.parseInt(smtpCredentialsData.getPort()));
-            javaMailSenderImpl.setUsername(smtpCredentialsData.getUsername());
-            javaMailSenderImpl.setPassword(smtpCredentialsData.getPassword());
-            javaMailSenderImpl
-                    .setJavaMailProperties(this.getJavaMailProperties(smtpCredentialsData, javaMailSenderImpl.getJavaMailProperties()));
+            JavaMailSenderImpl javaMailSenderImpl = this.javaMailSenderProvider.getSender(smtpCredentialsData.getHost(),
+                    Integer.parseInt(smtpCredentialsData.getPort()), smtpCredentialsData.getUsername(), smtpCredentialsData.getPassword(),
+                    this.getJavaMailProperties(smtpCredentialsData, new Properties()));
 
             MimeMessage mimeMessage = javaMailSenderImpl.createMimeMessage();
 
@@ -45,6 +45,7 @@ import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobSe
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientActivateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientRejectBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.loan.LoanApprovedBusinessEvent;
@@ -82,19 +83,24 @@ public class SmsCampaignDomainServiceImpl implements SmsCampaignDomainService {
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendSmsOnLoanApproved());
-        businessEventNotifierService.addPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendSmsOnLoanRejected());
+        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new SendSmsOnLoanApproved(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(LoanRejectedBusinessEvent.class, new SendSmsOnLoanRejected(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
-                new SendSmsOnLoanRepayment());
-        businessEventNotifierService.addPostBusinessEventListener(ClientActivateBusinessEvent.class, new ClientActivatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ClientRejectBusinessEvent.class, new ClientRejectedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsActivateBusinessEvent.class,
-                new SavingsAccountActivatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsRejectBusinessEvent.class, new SavingsAccountRejectedListener());
+                new SendSmsOnLoanRepayment(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(ClientActivateBusinessEvent.class, new ClientActivatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(ClientRejectBusinessEvent.class, new ClientRejectedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsActivateBusinessEvent.class, new SavingsAccountActivatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsRejectBusinessEvent.class, new SavingsAccountRejectedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class,
-                new DepositSavingsAccountTransactionListener());
+                new DepositSavingsAccountTransactionListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(SavingsWithdrawalBusinessEvent.class,
-                new NonDepositSavingsAccountTransactionListener());
+                new NonDepositSavingsAccountTransactionListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
     }
 
     private void notifyRejectedLoanOwner(Loan loan) {
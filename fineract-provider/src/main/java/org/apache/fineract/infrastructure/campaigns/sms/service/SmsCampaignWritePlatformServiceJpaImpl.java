@@ -72,6 +72,7 @@ import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
 import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobService;
@@ -304,7 +305,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                             messages.add(smsMessage);
                             Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
                             smsDataMap.put(smsCampaign, messages);
-                            this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
+                            this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap, SmsMessagePriority.CAMPAIGN);
                         }
                     }
                 }
@@ -349,7 +350,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                         messages.add(smsMessage);
                         Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
                         smsDataMap.put(smsCampaign, messages);
-                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
+                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap, SmsMessagePriority.CAMPAIGN);
                     }
                 }
             }
@@ -392,7 +393,7 @@ public class SmsCampaignWritePlatformServiceJpaImpl implements SmsCampaignWriteP
                         messages.add(smsMessage);
                         Map<SmsCampaign, Collection<SmsMessage>> smsDataMap = new HashMap<>();
                         smsDataMap.put(smsCampaign, messages);
-                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap);
+                        this.smsMessageScheduledJobService.sendTriggeredMessages(smsDataMap, SmsMessagePriority.CAMPAIGN);
                     }
                 }
             }
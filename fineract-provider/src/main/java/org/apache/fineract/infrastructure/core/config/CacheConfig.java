@@ -61,6 +61,12 @@ public class CacheConfig {
         cacheManager.createCache("codes", defaultTemplate);
         cacheManager.createCache("hooks", defaultTemplate);
         cacheManager.createCache("tfConfig", defaultTemplate);
+        cacheManager.createCache("postingCurrencies", defaultTemplate);
+        cacheManager.createCache("productGLAccountMappings", defaultTemplate);
+        cacheManager.createCache("chargeGLAccounts", defaultTemplate);
+        cacheManager.createCache("financialActivityGLAccounts", defaultTemplate);
+        cacheManager.createCache("datatableColumnHeaders", defaultTemplate);
+        cacheManager.createCache("tableColumnNames", defaultTemplate);
 
         javax.cache.configuration.Configuration<Object, Object> accessTokenTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
                 CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
@@ -68,6 +74,22 @@ public class CacheConfig {
 
         cacheManager.createCache("userTFAccessToken", accessTokenTemplate);
 
+        // account identity for name/balance enquiries; expires as a safety net for writes that bypass the repository
+        // wrapper eviction (e.g. client renames)
+        javax.cache.configuration.Configuration<Object, Object> accountEnquiryTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100000))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(5))).build());
+
+        cacheManager.createCache("depositAccountEnquiry", accountEnquiryTemplate);
+
+        // office subtrees; eviction only reaches the node that changed the hierarchy, so other nodes rely on the expiry
+        javax.cache.configuration.Configuration<Object, Object> officeDescendantsTemplate = Eh107Configuration
+                .fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
+                                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(1))).build());
+
+        cacheManager.createCache("officeDescendants", officeDescendantsTemplate);
+
         return cacheManager;
     }
 }
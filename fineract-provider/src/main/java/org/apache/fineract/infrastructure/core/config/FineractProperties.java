@@ -21,6 +21,7 @@ package org.apache.fineract.infrastructure.core.config;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.fineract.infrastructure.core.domain.EventDispatchRejectionPolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @Getter
@@ -36,6 +37,8 @@ public class FineractProperties {
 
     private FineractCorrelationProperties correlation;
 
+    private FineractEventDispatchProperties eventDispatch;
+
     @Getter
     @Setter
     public static class FineractTenantProperties {
@@ -72,4 +75,14 @@ public class FineractProperties {
         private boolean enabled;
         private String headerName;
     }
+
+    @Getter
+    @Setter
+    public static class FineractEventDispatchProperties {
+
+        private int threads;
+        private int queueCapacity;
+        private EventDispatchRejectionPolicy rejectionPolicy;
+        private int shutdownTimeoutSeconds;
+    }
 }
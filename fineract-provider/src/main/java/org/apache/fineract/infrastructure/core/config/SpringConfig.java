@@ -19,25 +19,26 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.infrastructure.core.service.FineractApplicationEventMulticaster;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Configuration
 public class SpringConfig {
 
     @Bean
-    public SimpleApplicationEventMulticaster applicationEventMulticaster() {
-        SimpleApplicationEventMulticaster saem = new SimpleApplicationEventMulticaster();
-        saem.setTaskExecutor(new SimpleAsyncTaskExecutor());
-        return saem;
+    public SimpleApplicationEventMulticaster applicationEventMulticaster(final FineractProperties fineractProperties,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new FineractApplicationEventMulticaster(fineractProperties.getEventDispatch(), meterRegistry);
     }
 
-    // The application events (for importing) rely on the inheritable thread local security context strategy
-    // This is NOT compatible with threadpools so if we use threadpools the below will need to be reworked
+    // Pooled event dispatch hands the publisher's security context to the pool thread explicitly; the inheritable
+    // strategy is kept for the threads that are still started ad hoc
     @Bean
     public MethodInvokingFactoryBean methodInvokingFactoryBean() {
         MethodInvokingFactoryBean mifb = new MethodInvokingFactoryBean();
@@ -151,6 +151,22 @@ public class ApiGlobalErrorResponse {
         return globalErrorResponse;
     }
 
+    public static ApiGlobalErrorResponse conflict(final String globalisationMessageCode, final String defaultUserMessage,
+            final Object... defaultUserMessageArgs) {
+
+        final ApiGlobalErrorResponse globalErrorResponse = new ApiGlobalErrorResponse();
+        globalErrorResponse.setHttpStatusCode("409");
+        globalErrorResponse.setDeveloperMessage("The request conflicts with an earlier request made with the same idempotency key.");
+        globalErrorResponse.setUserMessageGlobalisationCode(globalisationMessageCode);
+        globalErrorResponse.setDefaultUserMessage(defaultUserMessage);
+
+        final List<ApiParameterError> errors = new ArrayList<>();
+        errors.add(ApiParameterError.generalError(globalisationMessageCode, defaultUserMessage, defaultUserMessageArgs));
+        globalErrorResponse.setErrors(errors);
+
+        return globalErrorResponse;
+    }
+
     public static ApiGlobalErrorResponse badClientRequest(final String globalisationMessageCode, final String defaultUserMessage,
             final List<ApiParameterError> errors) {
 
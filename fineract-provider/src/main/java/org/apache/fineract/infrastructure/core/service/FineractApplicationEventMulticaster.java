@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractEventDispatchProperties;
+import org.apache.fineract.infrastructure.core.domain.ContextHolder;
+import org.apache.fineract.infrastructure.core.domain.EventDispatchRejectionPolicy;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Dispatches the platform's own events (those carrying a {@link FineractContext}) on a bounded pool per listener type,
+ * so a burst of events queues up instead of starting a thread per event. Framework events are delivered synchronously,
+ * as Spring does by default.
+ *
+ * The tenant and security context of the publishing thread are handed to the pool thread for the duration of the
+ * listener call and cleared from it afterwards. On context close the pools stop accepting events and are given
+ * {@code fineract.event-dispatch.shutdown-timeout-seconds} to drain their queues.
+ */
+@Slf4j
+public class FineractApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final int DEFAULT_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final int threads;
+    private final int queueCapacity;
+    private final EventDispatchRejectionPolicy rejectionPolicy;
+    private final int shutdownTimeoutSeconds;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<Class<?>, ListenerPool> pools = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public FineractApplicationEventMulticaster(@Nullable final FineractEventDispatchProperties properties,
+            final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.threads = properties != null && properties.getThreads() > 0 ? properties.getThreads() : DEFAULT_THREADS;
+        this.queueCapacity = properties != null && properties.getQueueCapacity() > 0 ? properties.getQueueCapacity()
+                : DEFAULT_QUEUE_CAPACITY;
+        this.rejectionPolicy = properties != null && properties.getRejectionPolicy() != null ? properties.getRejectionPolicy()
+                : EventDispatchRejectionPolicy.CALLER_RUNS;
+        this.shutdownTimeoutSeconds = properties != null && properties.getShutdownTimeoutSeconds() > 0
+                ? properties.getShutdownTimeoutSeconds()
+                : DEFAULT_SHUTDOWN_TIMEOUT_SECONDS;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void multicastEvent(final ApplicationEvent event, @Nullable final ResolvableType eventType) {
+        final ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        for (final ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            if (event instanceof ContextHolder && !this.shuttingDown) {
+                dispatch(listener, event, ((ContextHolder) event).getContext());
+            } else {
+                invokeListener(listener, event);
+            }
+        }
+        if (event instanceof ContextClosedEvent) {
+            drain();
+        }
+    }
+
+    private void dispatch(final ApplicationListener<?> listener, final ApplicationEvent event, final FineractContext context) {
+        final ListenerPool pool = this.pools.computeIfAbsent(AopUtils.getTargetClass(listener), this::createPool);
+        final Thread publisher = Thread.currentThread();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final long enqueuedAt = System.nanoTime();
+        pool.executor.execute(() -> {
+            final long startedAt = System.nanoTime();
+            pool.queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+            // with CALLER_RUNS the task may run on the publisher, whose own context must survive it
+            final boolean pooled = Thread.currentThread() != publisher;
+            if (pooled) {
+                if (context != null) {
+                    ThreadLocalContextUtil.init(context);
+                }
+                SecurityContextHolder.setContext(securityContext);
+            }
+            try {
+                invokeListener(listener, event);
+            } finally {
+                if (pooled) {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.reset();
+                }
+                pool.execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private ListenerPool createPool(final Class<?> listenerType) {
+        final String name = listenerType.getSimpleName();
+        final MeterRegistry registry = this.meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        final Counter rejected = Counter.builder("fineract.events.dispatch.rejected").tag("listener", name)
+                .tag("policy", this.rejectionPolicy.name()).register(registry);
+        final RejectedExecutionHandler policy = switch (this.rejectionPolicy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> (task, executor) -> log.warn("Event dispatch queue for {} is full, discarding event", name);
+        };
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), new CustomizableThreadFactory("event-" + name + "-"), (task, pool) -> {
+                    rejected.increment();
+                    if (pool.isShutdown() && this.rejectionPolicy == EventDispatchRejectionPolicy.CALLER_RUNS) {
+                        // CallerRunsPolicy silently drops the task once the pool is shut down
+                        log.warn("Event dispatch for {} is shut down, delivering the event on the publishing thread", name);
+                        task.run();
+                        return;
+                    }
+                    policy.rejectedExecution(task, pool);
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("fineract.events.dispatch.queue.depth", executor, e -> e.getQueue().size()).tag("listener", name)
+                .register(registry);
+        Gauge.builder("fineract.events.dispatch.active", executor, ThreadPoolExecutor::getActiveCount).tag("listener", name)
+                .register(registry);
+        return new ListenerPool(executor, Timer.builder("fineract.events.dispatch.queue.wait").tag("listener", name).register(registry),
+                Timer.builder("fineract.events.dispatch.execution").tag("listener", name).register(registry));
+    }
+
+    private void drain() {
+        this.shuttingDown = true;
+        this.pools.values().forEach(pool -> pool.executor.shutdown());
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(this.shutdownTimeoutSeconds);
+        for (final Map.Entry<Class<?>, ListenerPool> pool : this.pools.entrySet()) {
+            final ThreadPoolExecutor executor = pool.getValue().executor;
+            try {
+                if (!executor.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Event dispatch for {} did not drain in time, abandoning {} queued events", pool.getKey().getSimpleName(),
+                            executor.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class ListenerPool {
+
+        private final ThreadPoolExecutor executor;
+        private final Timer queueWait;
+        private final Timer execution;
+
+        private ListenerPool(final ThreadPoolExecutor executor, final Timer queueWait, final Timer execution) {
+            this.executor = executor;
+            this.queueWait = queueWait;
+            this.execution = execution;
+        }
+    }
+}
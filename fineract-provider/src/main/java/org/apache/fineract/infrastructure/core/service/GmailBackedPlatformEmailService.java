@@ -18,24 +18,19 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.Properties;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
-import org.apache.fineract.infrastructure.configuration.service.ExternalServicesPropertiesReadPlatformService;
 import org.apache.fineract.infrastructure.core.domain.EmailDetail;
+import org.apache.fineract.infrastructure.core.service.email.EmailOutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.stereotype.Service;
 
 @Service
 public class GmailBackedPlatformEmailService implements PlatformEmailService {
 
-    private final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService;
+    private final EmailOutboxService emailOutboxService;
 
     @Autowired
-    public GmailBackedPlatformEmailService(final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService) {
-        this.externalServicesReadPlatformService = externalServicesReadPlatformService;
+    public GmailBackedPlatformEmailService(final EmailOutboxService emailOutboxService) {
+        this.emailOutboxService = emailOutboxService;
     }
 
     @Override
@@ -57,48 +52,11 @@ public class GmailBackedPlatformEmailService implements PlatformEmailService {
 
     }
 
+    /**
+     * Records the email in the outbox; it is sent by the outbox workers once the calling transaction commits.
+     */
     @Override
     public void sendDefinedEmail(EmailDetail emailDetails) {
-        final SMTPCredentialsData smtpCredentialsData = this.externalServicesReadPlatformService.getSMTPCredentials();
-
-        final String authuser = smtpCredentialsData.getUsername();
-        final String authpwd = smtpCredentialsData.getPassword();
-
-        final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost(smtpCredentialsData.getHost()); // smtp.gmail.com
-        mailSender.setPort(Integer.parseInt(smtpCredentialsData.getPort())); // 587
-
-        // Important: Enable less secure app access for the gmail account used in the following authentication
-        mailSender.setUsername(authuser); // use valid gmail address
-        mailSender.setPassword(authpwd); // use password of the above gmail account
-
-        Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.debug", "true");
-
-        // these are the added lines
-        props.put("mail.smtp.starttls.enable", "true");
-        // props.put("mail.smtp.ssl.enable", "true");
-
-        props.put("mail.smtp.socketFactory.port", Integer.parseInt(smtpCredentialsData.getPort()));
-        props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");// NOSONAR
-        props.put("mail.smtp.socketFactory.fallback", "true");
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(smtpCredentialsData.getFromEmail()); // same email address used for the authentication
-            if (StringUtils.isNotBlank(emailDetails.getAddress())) {
-                message.setTo(emailDetails.getAddress());
-            } else {
-                message.setTo(emailDetails.getBusinessAddresses());
-            }
-            message.setSubject(emailDetails.getSubject());
-            message.setText(emailDetails.getBody());
-            mailSender.send(message);
-
-        } catch (Exception e) {
-            throw new PlatformEmailSendException(e);
-        }
+        this.emailOutboxService.enqueue(emailDetails);
     }
 }
@@ -116,4 +116,15 @@ public final class ThreadLocalContextUtil {
         setBusinessDates(fineractContext.getBusinessDateContext());
         setActionContext(fineractContext.getActionContext());
     }
+
+    /**
+     * Clears every context of the current thread, for pooled threads once their task is done.
+     */
+    public static void reset() {
+        contextHolder.remove();
+        tenantContext.remove();
+        authTokenContext.remove();
+        businessDateContext.remove();
+        actionContext.remove();
+    }
 }
@@ -0,0 +1,384 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service.email;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.configuration.service.ExternalServicesPropertiesReadPlatformService;
+import org.apache.fineract.infrastructure.core.domain.EmailDetail;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.PlatformEmailSendException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxServiceImpl implements EmailOutboxService, ApplicationListener<ContextClosedEvent> {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_SUBJECT_LENGTH = 1000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService;
+    private final JavaMailSenderProvider javaMailSenderProvider;
+
+    @Value("${fineract.email.outbox.threads:2}")
+    private int threads;
+
+    // emails sent over one SMTP connection
+    @Value("${fineract.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${fineract.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${fineract.email.outbox.initial-backoff-seconds:60}")
+    private long initialBackoffSeconds;
+
+    @Value("${fineract.email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // a batch still sending after this long is presumed lost (node restart) and becomes due again; the node sending it
+    // renews the lease while the SMTP conversation runs, so slow servers and large batches do not get sent twice
+    @Value("${fineract.email.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${fineract.email.outbox.retention-days:30}")
+    private int retentionDays;
+
+    private final Set<String> drainingTenants = ConcurrentHashMap.newKeySet();
+    private final Set<String> rewakeTenants = ConcurrentHashMap.newKeySet();
+    private ExecutorService executorService;
+    private ScheduledExecutorService leaseRenewer;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.executorService = Executors.newFixedThreadPool(this.threads);
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Override
+    public void enqueue(final EmailDetail emailDetail) {
+        final List<String> recipients = StringUtils.isNotBlank(emailDetail.getAddress()) ? List.of(emailDetail.getAddress())
+                : emailDetail.getBusinessAddresses() == null ? List.of()
+                        : Arrays.stream(emailDetail.getBusinessAddresses()).filter(StringUtils::isNotBlank).toList();
+        if (recipients.isEmpty()) {
+            throw new PlatformEmailSendException(new IllegalArgumentException("Email `" + emailDetail.getSubject() + "` has no recipient"));
+        }
+
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update(
+                "INSERT INTO m_email_outbox (to_address, subject, body, status_enum, attempts, next_attempt_at, created_date,"
+                        + " last_modified_date) VALUES (?, ?, ?, ?, 0, ?, ?, ?)",
+                String.join(",", recipients), StringUtils.abbreviate(emailDetail.getSubject(), MAX_SUBJECT_LENGTH), emailDetail.getBody(),
+                EmailOutboxStatus.PENDING.getValue(), now, now, now);
+        wakeAfterCommit();
+    }
+
+    /**
+     * Picks up emails whose retry is due, or that were left behind by a restart, and purges sent and dead-lettered
+     * emails past the retention period.
+     */
+    @Override
+    @CronTarget(jobName = JobName.SEND_EMAIL_OUTBOX)
+    public void sendDueEmails() {
+        final LocalDateTime purgeBefore = DateUtils.getLocalDateTimeOfSystem().minusDays(this.retentionDays);
+        int purged;
+        do {
+            purged = this.jdbcTemplate.update("DELETE FROM m_email_outbox WHERE status_enum IN (?, ?) AND last_modified_date < ? LIMIT ?",
+                    EmailOutboxStatus.SENT.getValue(), EmailOutboxStatus.DEAD.getValue(), purgeBefore, PURGE_BATCH_SIZE);
+        } while (purged == PURGE_BATCH_SIZE);
+
+        wake(ThreadLocalContextUtil.getContext());
+    }
+
+    private void wakeAfterCommit() {
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wake(context);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                wake(context);
+            }
+        });
+    }
+
+    /**
+     * Starts draining the tenant's outbox unless a drain is already running for it, in which case that drain goes round
+     * once more when it is done.
+     */
+    private void wake(final FineractContext context) {
+        final String tenant = context.getTenantContext().getTenantIdentifier();
+        if (!this.drainingTenants.add(tenant)) {
+            this.rewakeTenants.add(tenant);
+            return;
+        }
+        try {
+            this.executorService.execute(() -> {
+                ThreadLocalContextUtil.init(context);
+                this.rewakeTenants.remove(tenant);
+                try {
+                    drain();
+                } catch (RuntimeException e) {
+                    log.error("Draining the email outbox of tenant {} failed", tenant, e);
+                } finally {
+                    this.drainingTenants.remove(tenant);
+                    if (this.rewakeTenants.remove(tenant)) {
+                        wake(context);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, the outbox job picks the emails up after restart
+            this.drainingTenants.remove(tenant);
+            log.debug("Email outbox of tenant {} not drained, executor is shut down", tenant);
+        }
+    }
+
+    private void drain() {
+        List<OutboxEmail> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == this.batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Takes up to one batch of due emails, so that several nodes and the outbox job never send the same email twice at
+     * the same time.
+     */
+    private List<OutboxEmail> claimBatch() {
+        final String claimToken = UUID.randomUUID().toString();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int claimed = this.jdbcTemplate.update("UPDATE m_email_outbox SET status_enum = ?, attempts = attempts + 1,"
+                + " claim_token = ?, next_attempt_at = ?, last_modified_date = ? WHERE status_enum IN (?, ?, ?) AND next_attempt_at <= ?"
+                + " ORDER BY next_attempt_at, id LIMIT ?", EmailOutboxStatus.SENDING.getValue(), claimToken,
+                now.plusSeconds(this.leaseSeconds), now, EmailOutboxStatus.PENDING.getValue(), EmailOutboxStatus.SENDING.getValue(),
+                EmailOutboxStatus.FAILED.getValue(), now, this.batchSize);
+        if (claimed == 0) {
+            return List.of();
+        }
+        return this.jdbcTemplate.query("SELECT id, to_address, subject, body, attempts FROM m_email_outbox WHERE claim_token = ?",
+                (rs, rowNum) -> new OutboxEmail(rs.getLong("id"), claimToken, rs.getString("to_address"), rs.getString("subject"),
+                        rs.getString("body"), rs.getInt("attempts")),
+                claimToken);
+    }
+
+    private void send(final List<OutboxEmail> batch) {
+        final SMTPCredentialsData smtpCredentialsData = this.externalServicesReadPlatformService.getSMTPCredentials();
+        if (smtpCredentialsData == null || StringUtils.isBlank(smtpCredentialsData.getHost())
+                || !StringUtils.isNumeric(smtpCredentialsData.getPort())) {
+            markFailed(batch, "SMTP host and port are not configured");
+            return;
+        }
+        final JavaMailSenderImpl mailSender = getMailSender(smtpCredentialsData);
+
+        final Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        final List<OutboxEmail> dead = new ArrayList<>();
+        for (final OutboxEmail email : batch) {
+            try {
+                final MimeMessage message = mailSender.createMimeMessage();
+                final MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom(smtpCredentialsData.getFromEmail());
+                helper.setTo(StringUtils.split(email.getToAddress(), ','));
+                helper.setSubject(email.getSubject());
+                helper.setText(email.getBody());
+                messages.put(message, email);
+            } catch (MessagingException e) {
+                // a malformed address does not get better with retries
+                log.warn("Outbox email {} to {} cannot be built: {}", email.getId(), email.getToAddress(), e.getMessage());
+                dead.add(email);
+            }
+        }
+        markDead(dead, "Invalid email");
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        final Future<?> leaseRenewal = renewLease(batch.get(0).getClaimToken());
+        try {
+            // sends every message of the batch over a single SMTP connection
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            markSent(new ArrayList<>(messages.values()));
+        } catch (MailSendException e) {
+            final Map<Object, Exception> failedMessages = e.getFailedMessages();
+            final List<OutboxEmail> sent = new ArrayList<>();
+            final List<OutboxEmail> failed = new ArrayList<>();
+            messages.forEach((message, email) -> (failedMessages.containsKey(message) ? failed : sent).add(email));
+            markSent(sent);
+            markFailed(failed, failedMessages.values().stream().findFirst().map(Exception::toString).orElse(e.toString()));
+        } catch (MailException e) {
+            markFailed(new ArrayList<>(messages.values()), e.toString());
+        } finally {
+            leaseRenewal.cancel(false);
+        }
+    }
+
+    /**
+     * Keeps pushing the lease of a claimed batch ahead while it is being sent, a batch of slow messages can otherwise
+     * outlive its lease and be claimed and sent again by another node or the outbox job.
+     */
+    private Future<?> renewLease(final String claimToken) {
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final long period = Math.max(1, this.leaseSeconds / 3);
+        try {
+            return this.leaseRenewer.scheduleAtFixedRate(() -> {
+                ThreadLocalContextUtil.init(context);
+                try {
+                    this.jdbcTemplate.update("UPDATE m_email_outbox SET next_attempt_at = ? WHERE claim_token = ? AND status_enum = ?",
+                            DateUtils.getLocalDateTimeOfSystem().plusSeconds(this.leaseSeconds), claimToken,
+                            EmailOutboxStatus.SENDING.getValue());
+                } catch (RuntimeException e) {
+                    log.warn("Renewing the lease of email outbox batch {} failed", claimToken, e);
+                } finally {
+                    ThreadLocalContextUtil.reset();
+                }
+            }, period, period, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down, the send is interrupted anyway
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private JavaMailSenderImpl getMailSender(final SMTPCredentialsData smtpCredentialsData) {
+        final int port = Integer.parseInt(smtpCredentialsData.getPort());
+        final Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.socketFactory.port", port);
+        properties.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");// NOSONAR
+        properties.put("mail.smtp.socketFactory.fallback", "true");
+        return this.javaMailSenderProvider.getSender(smtpCredentialsData.getHost(), port, smtpCredentialsData.getUsername(),
+                smtpCredentialsData.getPassword(), properties);
+    }
+
+    /**
+     * The body is cleared as soon as an email is done with, it may carry passwords and one-time tokens and is only kept
+     * for as long as the email can still be sent.
+     */
+    private void markSent(final List<OutboxEmail> emails) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.batchUpdate("UPDATE m_email_outbox SET status_enum = ?, body = NULL, next_attempt_at = NULL, claim_token = NULL,"
+                + " last_error = NULL, sent_date = ?, last_modified_date = ? WHERE id = ? AND claim_token = ?",
+                emails.stream().map(email -> new Object[] { EmailOutboxStatus.SENT.getValue(), now, now, email.getId(),
+                        email.getClaimToken() }).collect(Collectors.toList()));
+    }
+
+    private void markFailed(final List<OutboxEmail> emails, final String error) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final String lastError = StringUtils.abbreviate(error, MAX_ERROR_LENGTH);
+        final List<Object[]> params = new ArrayList<>();
+        final List<OutboxEmail> dead = new ArrayList<>();
+        for (final OutboxEmail email : emails) {
+            if (email.getAttempts() >= this.maxAttempts) {
+                log.warn("Outbox email {} to {} dead-lettered after {} attempts: {}", email.getId(), email.getToAddress(),
+                        email.getAttempts(), error);
+                dead.add(email);
+            } else {
+                params.add(new Object[] { EmailOutboxStatus.FAILED.getValue(), now.plusSeconds(backoffSeconds(email.getAttempts())),
+                        lastError, now, email.getId(), email.getClaimToken() });
+            }
+        }
+        this.jdbcTemplate.batchUpdate("UPDATE m_email_outbox SET status_enum = ?, next_attempt_at = ?, claim_token = NULL,"
+                + " last_error = ?, last_modified_date = ? WHERE id = ? AND claim_token = ?", params);
+        markDead(dead, lastError);
+    }
+
+    private void markDead(final List<OutboxEmail> emails, final String error) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.batchUpdate("UPDATE m_email_outbox SET status_enum = ?, body = NULL, next_attempt_at = NULL, claim_token = NULL,"
+                + " last_error = ?, last_modified_date = ? WHERE id = ? AND claim_token = ?",
+                emails.stream().map(email -> new Object[] { EmailOutboxStatus.DEAD.getValue(), error, now, email.getId(),
+                        email.getClaimToken() }).collect(Collectors.toList()));
+    }
+
+    private long backoffSeconds(final int attempts) {
+        final int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(this.maxBackoffSeconds, this.initialBackoffSeconds << doublings);
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.executorService != null) {
+            // emails of an interrupted batch stay SENDING until their lease runs out, then the outbox job resends them
+            this.executorService.shutdownNow();
+        }
+        if (this.leaseRenewer != null) {
+            this.leaseRenewer.shutdownNow();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class OutboxEmail {
+
+        private final Long id;
+        private final String claimToken;
+        private final String toAddress;
+        private final String subject;
+        private final String body;
+        private final int attempts;
+    }
+}
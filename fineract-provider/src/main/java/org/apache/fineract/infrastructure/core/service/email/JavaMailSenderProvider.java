@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service.email;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out one {@link JavaMailSenderImpl} per distinct SMTP configuration instead of building a sender for every
+ * message. A changed configuration (host, port, credentials or JavaMail properties) simply maps to a new sender, so the
+ * settings can be edited at runtime without a restart.
+ */
+@Slf4j
+@Component
+public class JavaMailSenderProvider {
+
+    private final Map<String, JavaMailSenderImpl> senders = new ConcurrentHashMap<>();
+
+    @Value("${fineract.email.smtp.connection-timeout-millis:10000}")
+    private int connectionTimeoutMillis;
+
+    @Value("${fineract.email.smtp.timeout-millis:30000}")
+    private int timeoutMillis;
+
+    @Value("${fineract.email.smtp.write-timeout-millis:30000}")
+    private int writeTimeoutMillis;
+
+    @Value("${fineract.email.smtp.debug:false}")
+    private boolean debug;
+
+    @Value("${fineract.email.smtp.max-cached-senders:16}")
+    private int maxCachedSenders;
+
+    public JavaMailSenderImpl getSender(final String host, final Integer port, final String username, final String password,
+            final Properties javaMailProperties) {
+        final String key = key(host, port, username, password, javaMailProperties);
+        final JavaMailSenderImpl sender = this.senders.get(key);
+        if (sender != null) {
+            return sender;
+        }
+        if (this.senders.size() >= this.maxCachedSenders) {
+            // stale configurations pile up only when the settings keep changing; start over rather than track usage
+            this.senders.clear();
+        }
+        log.info("Creating mail sender for {}:{}", host, port);
+        return this.senders.computeIfAbsent(key, k -> createSender(host, port, username, password, javaMailProperties));
+    }
+
+    private JavaMailSenderImpl createSender(final String host, final Integer port, final String username, final String password,
+            final Properties javaMailProperties) {
+        final JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(host);
+        if (port != null) {
+            sender.setPort(port);
+        }
+        sender.setUsername(username);
+        sender.setPassword(password);
+
+        final Properties properties = new Properties();
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.debug", String.valueOf(this.debug));
+        // without these a stalled server holds a sending thread forever
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(this.connectionTimeoutMillis));
+        properties.put("mail.smtp.timeout", String.valueOf(this.timeoutMillis));
+        properties.put("mail.smtp.writetimeout", String.valueOf(this.writeTimeoutMillis));
+        if (javaMailProperties != null) {
+            properties.putAll(javaMailProperties);
+        }
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+
+    private static String key(final String host, final Integer port, final String username, final String password,
+            final Properties javaMailProperties) {
+        final Map<Object, Object> sortedProperties = javaMailProperties == null ? Map.of() : new TreeMap<>(javaMailProperties);
+        return String.join("\u0000", String.valueOf(host), String.valueOf(port), String.valueOf(username), String.valueOf(password),
+                sortedProperties.toString());
+    }
+}
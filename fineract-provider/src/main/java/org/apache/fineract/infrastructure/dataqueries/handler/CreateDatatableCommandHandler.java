@@ -23,6 +23,8 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.dataqueries.service.ReadWriteNonCoreDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +40,8 @@ public class CreateDatatableCommandHandler implements NewCommandSourceHandler {
 
     @Transactional
     @Override
+    @Caching(evict = { @CacheEvict(value = "datatableColumnHeaders", allEntries = true),
+            @CacheEvict(value = "tableColumnNames", allEntries = true) })
     public CommandProcessingResult processCommand(final JsonCommand command) {
 
         return this.writePlatformService.createDatatable(command);
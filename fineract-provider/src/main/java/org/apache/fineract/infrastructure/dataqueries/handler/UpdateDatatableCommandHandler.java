@@ -24,6 +24,8 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.dataqueries.service.ReadWriteNonCoreDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +41,8 @@ public class UpdateDatatableCommandHandler implements NewCommandSourceHandler {
 
     @Transactional
     @Override
+    @Caching(evict = { @CacheEvict(value = "datatableColumnHeaders", allEntries = true),
+            @CacheEvict(value = "tableColumnNames", allEntries = true) })
     public CommandProcessingResult processCommand(final JsonCommand command) {
 
         final String datatableName = command.getUrl().replaceAll("/datatables/", "");
@@ -28,12 +28,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
-import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
-import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
-import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -47,13 +44,13 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
-    private final DatabaseIndependentQueryService databaseIndependentQueryService;
+    private final SchemaMetaDataReadService schemaMetaDataReadService;
 
     @Autowired
     public GenericDataServiceImpl(final RoutingDataSource dataSource, final JdbcTemplate jdbcTemplate,
-            DatabaseIndependentQueryService databaseIndependentQueryService) {
+            final SchemaMetaDataReadService schemaMetaDataReadService) {
         this.dataSource = dataSource;
-        this.databaseIndependentQueryService = databaseIndependentQueryService;
+        this.schemaMetaDataReadService = schemaMetaDataReadService;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
     }
 
@@ -201,68 +198,7 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
-        final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
-
-        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
-
-        columnDefinitions.beforeFirst();
-        while (columnDefinitions.next()) {
-            final String columnName = columnDefinitions.getString(1);
-            final String isNullable = columnDefinitions.getString(2);
-            final String isPrimaryKey = columnDefinitions.getString(5);
-            final String columnType = columnDefinitions.getString(3);
-            final Long columnLength = columnDefinitions.getLong(4);
-
-            final boolean columnNullable = "YES".equalsIgnoreCase(isNullable) || "TRUE".equalsIgnoreCase(isNullable);
-            final boolean columnIsPrimaryKey = "PRI".equalsIgnoreCase(isPrimaryKey) || "TRUE".equalsIgnoreCase(isPrimaryKey);
-
-            List<ResultsetColumnValueData> columnValues = new ArrayList<>();
-            String codeName = null;
-            final int codePosition = columnName.indexOf("_cd");
-            if ("varchar".equalsIgnoreCase(columnType) || "int".equalsIgnoreCase(columnType) || "integer".equalsIgnoreCase(columnType)) {
-                if (codePosition > 0) {
-                    codeName = columnName.substring(0, codePosition);
-                    columnValues = retreiveColumnValues(codeName);
-                }
-            }
-
-            columnHeaders.add(ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable, columnIsPrimaryKey,
-                    columnValues, codeName));
-        }
-
-        return columnHeaders;
-    }
-
-    /*
-     * Candidate for using caching there to get allowed 'column values' from code/codevalue tables
-     */
-    private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
-
-        final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
-
-        final String sql = "select v.id, v.code_score, v.code_value from m_code m join m_code_value v on v.code_id = m.id where m.code_name = ? order by v.order_position, v.id";
-
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, new Object[] { codeName }); // NOSONAR
-
-        rsValues.beforeFirst();
-        while (rsValues.next()) {
-            final Integer id = rsValues.getInt("id");
-            final String codeValue = rsValues.getString("code_value");
-            final Integer score = rsValues.getInt("code_score");
-
-            columnValues.add(new ResultsetColumnValueData(id, codeValue, score));
-        }
-
-        return columnValues;
-    }
-
-    @SuppressWarnings("AvoidHidingCauseException")
-    private SqlRowSet getDatatableMetaData(final String datatable) {
-        try {
-            return databaseIndependentQueryService.getTableColumns(dataSource, datatable);
-        } catch (IllegalArgumentException e) {
-            throw new DatatableNotFoundException(datatable);
-        }
+        return this.schemaMetaDataReadService.retrieveColumnHeaders(datatable);
     }
 
     private String formatDateTimeValue(String dateTimeValue) {
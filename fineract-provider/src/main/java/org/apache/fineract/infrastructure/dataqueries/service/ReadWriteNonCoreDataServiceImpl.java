@@ -73,6 +73,7 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.apache.fineract.infrastructure.security.service.SqlInjectionPreventerService;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.infrastructure.security.utils.SQLInjectionValidator;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -124,6 +125,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final ColumnValidator columnValidator;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final SqlInjectionPreventerService preventSqlInjectionService;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     @Override
     public List<DatatableData> retrieveDatatableNames(final String appTable) {
@@ -395,6 +397,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
                 final Long resourceId = addMultirowRecord(sql);
                 commandProcessingResult = CommandProcessingResult.fromCommandProcessingResult(commandProcessingResult, resourceId);
             }
+            refreshClientIdentityIndex(dataTableName, appTableId);
 
             return commandProcessingResult; //
 
@@ -1232,6 +1235,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
             LOG.info("Update sql: {}", sql);
             if (StringUtils.isNotBlank(sql)) {
                 this.jdbcTemplate.update(sql);
+                refreshClientIdentityIndex(dataTableName, appTableId);
                 changes.put("locale", dataParams.get("locale"));
                 changes.put("dateFormat", "yyyy-MM-dd");
             } else {
@@ -1265,6 +1269,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         if (rowsDeleted < 1) {
             throw new DatatableNotFoundException(dataTableName, appTableId);
         }
+        refreshClientIdentityIndex(dataTableName, appTableId);
 
         return commandProcessingResult;
     }
@@ -1282,6 +1287,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         final String sql = getDeleteEntrySql(dataTableName, datatableId);
 
         this.jdbcTemplate.update(sql);
+        refreshClientIdentityIndex(dataTableName, appTableId);
         return commandProcessingResult;
     }
 
@@ -1517,6 +1523,12 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return applicationTableName;
     }
 
+    private void refreshClientIdentityIndex(final String dataTableName, final Long appTableId) {
+        if (ClientIdentityIndexService.KYC_DATATABLE.equalsIgnoreCase(dataTableName)) {
+            this.clientIdentityIndexService.refreshKyc(appTableId);
+        }
+    }
+
     private String getFKField(final String applicationTableName) {
         return applicationTableName.substring(2) + "_id";
     }
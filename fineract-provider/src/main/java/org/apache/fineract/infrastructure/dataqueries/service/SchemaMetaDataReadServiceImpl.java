@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
+import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
+import org.apache.fineract.infrastructure.security.utils.SQLInjectionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SchemaMetaDataReadServiceImpl implements SchemaMetaDataReadService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final DatabaseIndependentQueryService databaseIndependentQueryService;
+
+    @Autowired
+    public SchemaMetaDataReadServiceImpl(final RoutingDataSource dataSource,
+            final DatabaseIndependentQueryService databaseIndependentQueryService) {
+        this.dataSource = dataSource;
+        this.databaseIndependentQueryService = databaseIndependentQueryService;
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+    }
+
+    @Override
+    @Cacheable(value = "datatableColumnHeaders", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#tableName+'ch')")
+    public List<ResultsetColumnHeaderData> retrieveColumnHeaders(final String tableName) {
+        final SqlRowSet columnDefinitions = getDatatableMetaData(tableName);
+
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
+
+        columnDefinitions.beforeFirst();
+        while (columnDefinitions.next()) {
+            final String columnName = columnDefinitions.getString(1);
+            final String isNullable = columnDefinitions.getString(2);
+            final String isPrimaryKey = columnDefinitions.getString(5);
+            final String columnType = columnDefinitions.getString(3);
+            final Long columnLength = columnDefinitions.getLong(4);
+
+            final boolean columnNullable = "YES".equalsIgnoreCase(isNullable) || "TRUE".equalsIgnoreCase(isNullable);
+            final boolean columnIsPrimaryKey = "PRI".equalsIgnoreCase(isPrimaryKey) || "TRUE".equalsIgnoreCase(isPrimaryKey);
+
+            List<ResultsetColumnValueData> columnValues = new ArrayList<>();
+            String codeName = null;
+            final int codePosition = columnName.indexOf("_cd");
+            if ("varchar".equalsIgnoreCase(columnType) || "int".equalsIgnoreCase(columnType) || "integer".equalsIgnoreCase(columnType)) {
+                if (codePosition > 0) {
+                    codeName = columnName.substring(0, codePosition);
+                    columnValues = retreiveColumnValues(codeName);
+                }
+            }
+
+            columnHeaders.add(ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable, columnIsPrimaryKey,
+                    Collections.unmodifiableList(columnValues), codeName));
+        }
+
+        return Collections.unmodifiableList(columnHeaders);
+    }
+
+    @Override
+    @Cacheable(value = "tableColumnNames", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#tableName+'cn')")
+    public Set<String> retrieveColumnNames(final String tableName) {
+        Connection connection = null;
+        try {
+            connection = DataSourceUtils.getConnection(this.dataSource);
+            final DatabaseMetaData dbMetaData = connection.getMetaData();
+            final Set<String> columns = new HashSet<>();
+            try (ResultSet resultSet = dbMetaData.getColumns(null, null, tableName, null)) {
+                while (resultSet.next()) {
+                    columns.add(resultSet.getString("column_name"));
+                }
+            }
+            return Collections.unmodifiableSet(columns);
+        } catch (SQLException e) {
+            throw new SQLInjectionException(e);
+        } finally {
+            if (connection != null) {
+                DataSourceUtils.releaseConnection(connection, this.dataSource);
+            }
+        }
+    }
+
+    private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
+
+        final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
+
+        final String sql = "select v.id, v.code_score, v.code_value from m_code m join m_code_value v on v.code_id = m.id where m.code_name = ? order by v.order_position, v.id";
+
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, new Object[] { codeName }); // NOSONAR
+
+        rsValues.beforeFirst();
+        while (rsValues.next()) {
+            final Integer id = rsValues.getInt("id");
+            final String codeValue = rsValues.getString("code_value");
+            final Integer score = rsValues.getInt("code_score");
+
+            columnValues.add(new ResultsetColumnValueData(id, codeValue, score));
+        }
+
+        return columnValues;
+    }
+
+    @SuppressWarnings("AvoidHidingCauseException")
+    private SqlRowSet getDatatableMetaData(final String datatable) {
+        try {
+            return this.databaseIndependentQueryService.getTableColumns(this.dataSource, datatable);
+        } catch (IllegalArgumentException e) {
+            throw new DatatableNotFoundException(datatable);
+        }
+    }
+}
@@ -70,6 +70,21 @@ public final class HookApiConstants {
 
     public static final String SMSProviderIdParamName = "SMS Provider Id";
 
+    public static final String fromPositionParamName = "fromPosition";
+
+    public static final String signingSecretName = "Signing Secret";
+
+    public static final String timeoutSecondsName = "Timeout Seconds";
+
+    // shown instead of the signing secret; submitting it back on update keeps the stored secret
+    public static final String MASKED_SECRET = "********";
+
+    public static final String indexNameName = "Index Name";
+
+    public static final String SIGNATURE_HEADER = "X-Fineract-Signature";
+
+    public static final String DELIVERY_HEADER = "X-Fineract-Delivery";
+
     public static final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(nameParamName, displayNameParamName,
             templateIdParamName, isActiveParamName, configParamName, eventsParamName, templateNameParamName));
 
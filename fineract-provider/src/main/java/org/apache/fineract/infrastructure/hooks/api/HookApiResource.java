@@ -30,6 +30,7 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Arrays;
 import java.util.Collection;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -39,18 +40,24 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.apache.fineract.infrastructure.hooks.data.HookData;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.stereotype.Component;
@@ -68,6 +75,8 @@ public class HookApiResource {
     private final DefaultToApiJsonSerializer<HookData> toApiJsonSerializer;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final HookDeliveryService hookDeliveryService;
+    private final DefaultToApiJsonSerializer<HookDeliveryData> deliveryJsonSerializer;
 
     @GET
     @Operation(summary = "Retrieve Hooks", description = "Returns the list of hooks.\n" + "\n" + "Example Requests:\n" + "\n" + "hooks")
@@ -139,6 +148,98 @@ public class HookApiResource {
         return this.toApiJsonSerializer.serialize(result);
     }
 
+    @POST
+    @Path("{hookId}")
+    @Operation(summary = "Replay events to a Hook, or reindex an Elastic Search Hook", description = "command=replay re-delivers"
+            + " to the hook every retained event from the given outbox position onwards. Every delivered payload carries its"
+            + " position as eventPosition.\n\n" + "Mandatory Fields: fromPosition\n\n"
+            + "command=reindex streams every client, loan and savings account the Elastic Search hook listens to into its index,"
+            + " in the background.")
+    @ApiResponses({ @ApiResponse(responseCode = "200", description = "OK") })
+    public String handleCommands(@PathParam("hookId") @Parameter(description = "hookId") final Long hookId,
+            @QueryParam("command") @Parameter(description = "command") final String commandParam,
+            @Parameter(hidden = true) final String apiRequestBodyAsJson) {
+
+        CommandProcessingResult result = null;
+        if (is(commandParam, "replay")) {
+            final CommandWrapper commandRequest = new CommandWrapperBuilder().replayHook(hookId).withJson(apiRequestBodyAsJson).build();
+            result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        } else if (is(commandParam, "reindex")) {
+            final CommandWrapper commandRequest = new CommandWrapperBuilder().reindexHook(hookId).withJson(apiRequestBodyAsJson).build();
+            result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        }
+
+        if (result == null) {
+            throw new UnrecognizedQueryParamException("command", commandParam, new Object[] { "replay", "reindex" });
+        }
+
+        return this.toApiJsonSerializer.serialize(result);
+    }
+
+    @GET
+    @Path("{hookId}/deliveries")
+    @Operation(summary = "Retrieve the delivery log of a Hook", description = "Returns the most recent deliveries of a Web hook, newest"
+            + " first. Filter with status (pending, inFlight, delivered, failed, dead) and page with offset and limit.\n\n"
+            + "Example Requests:\n\n" + "hooks/1/deliveries?status=dead")
+    @ApiResponses({ @ApiResponse(responseCode = "200", description = "OK") })
+    public String retrieveDeliveries(@PathParam("hookId") @Parameter(description = "hookId") final Long hookId,
+            @QueryParam("status") @Parameter(description = "status") final String status,
+            @QueryParam("offset") @Parameter(description = "offset") final Integer offset,
+            @QueryParam("limit") @Parameter(description = "limit") final Integer limit, @Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(HOOK_RESOURCE_NAME);
+        this.readPlatformService.retrieveHook(hookId);
+
+        HookDeliveryStatus deliveryStatus = null;
+        if (StringUtils.isNotBlank(status)) {
+            deliveryStatus = Arrays.stream(HookDeliveryStatus.values())
+                    .filter(candidate -> candidate.getCode().equalsIgnoreCase("hookDeliveryStatus." + status.trim())).findFirst()
+                    .orElseThrow(() -> new UnrecognizedQueryParamException("status", status,
+                            Arrays.stream(HookDeliveryStatus.values()).map(HookDeliveryStatus::getCode).toArray()));
+        }
+        final Collection<HookDeliveryData> deliveries = this.hookDeliveryService.retrieveDeliveries(hookId, deliveryStatus, offset, limit);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.deliveryJsonSerializer.serialize(settings, deliveries);
+    }
+
+    @GET
+    @Path("{hookId}/deliveries/{deliveryId}")
+    @Operation(summary = "Retrieve a Hook delivery", description = "Returns one delivery of a Web hook with its payload and last error.")
+    @ApiResponses({ @ApiResponse(responseCode = "200", description = "OK") })
+    public String retrieveDelivery(@PathParam("hookId") @Parameter(description = "hookId") final Long hookId,
+            @PathParam("deliveryId") @Parameter(description = "deliveryId") final Long deliveryId, @Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(HOOK_RESOURCE_NAME);
+
+        final HookDeliveryData delivery = this.hookDeliveryService.retrieveDelivery(hookId, deliveryId);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.deliveryJsonSerializer.serialize(settings, delivery);
+    }
+
+    @POST
+    @Path("{hookId}/deliveries/{deliveryId}")
+    @Operation(summary = "Redeliver a Hook delivery", description = "Puts a delivered, failed or dead-lettered delivery back in line"
+            + " for a fresh round of attempts.\n\n" + "Example Requests:\n\n" + "hooks/1/deliveries/20?command=redeliver")
+    @ApiResponses({ @ApiResponse(responseCode = "200", description = "OK") })
+    public String handleDeliveryCommands(@PathParam("hookId") @Parameter(description = "hookId") final Long hookId,
+            @PathParam("deliveryId") @Parameter(description = "deliveryId") final Long deliveryId,
+            @QueryParam("command") @Parameter(description = "command") final String commandParam) {
+
+        CommandProcessingResult result = null;
+        if (is(commandParam, "redeliver")) {
+            final CommandWrapper commandRequest = new CommandWrapperBuilder().redeliverHookDelivery(hookId, deliveryId).build();
+            result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        }
+
+        if (result == null) {
+            throw new UnrecognizedQueryParamException("command", commandParam, new Object[] { "redeliver" });
+        }
+
+        return this.toApiJsonSerializer.serialize(result);
+    }
+
     @PUT
     @Path("{hookId}")
     @Operation(summary = "Update a Hook", description = "Updates the details of a hook.")
@@ -169,4 +270,7 @@ public class HookApiResource {
         return this.toApiJsonSerializer.serialize(result);
     }
 
+    private boolean is(final String commandParam, final String commandValue) {
+        return StringUtils.isNotBlank(commandParam) && commandParam.trim().equalsIgnoreCase(commandValue);
+    }
 }
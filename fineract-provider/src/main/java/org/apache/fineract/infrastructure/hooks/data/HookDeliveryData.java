@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+
+public final class HookDeliveryData implements Serializable {
+
+    private final Long id;
+    private final Long hookId;
+    private final String entityName;
+    private final String actionName;
+    private final String payload;
+    private final EnumOptionData status;
+    private final Integer attempts;
+    private final LocalDateTime nextAttemptAt;
+    private final Integer lastResponseCode;
+    private final String lastError;
+    private final LocalDateTime createdDate;
+    private final LocalDateTime lastModifiedDate;
+
+    public HookDeliveryData(final Long id, final Long hookId, final String entityName, final String actionName, final String payload,
+            final EnumOptionData status, final Integer attempts, final LocalDateTime nextAttemptAt, final Integer lastResponseCode,
+            final String lastError, final LocalDateTime createdDate, final LocalDateTime lastModifiedDate) {
+        this.id = id;
+        this.hookId = hookId;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.payload = payload;
+        this.status = status;
+        this.attempts = attempts;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastResponseCode = lastResponseCode;
+        this.lastError = lastError;
+        this.createdDate = createdDate;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getHookId() {
+        return this.hookId;
+    }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public EnumOptionData getStatus() {
+        return this.status;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public Integer getLastResponseCode() {
+        return this.lastResponseCode;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public LocalDateTime getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+}
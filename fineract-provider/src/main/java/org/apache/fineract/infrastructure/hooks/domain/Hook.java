@@ -26,6 +26,7 @@ import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.temp
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -205,4 +206,8 @@ public class Hook extends AbstractAuditableCustom {
         this.ugdTemplate = ugdTemplate;
     }
 
+    public Set<HookResource> getEvents() {
+        return Collections.unmodifiableSet(this.events);
+    }
+
 }
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.domain;
+
+/**
+ * Status of an entry in the hook delivery log ({@code m_hook_delivery}).
+ */
+public enum HookDeliveryStatus {
+
+    PENDING(1, "hookDeliveryStatus.pending"), //
+    IN_FLIGHT(2, "hookDeliveryStatus.inFlight"), //
+    DELIVERED(3, "hookDeliveryStatus.delivered"), //
+    FAILED(4, "hookDeliveryStatus.failed"), //
+    DEAD(5, "hookDeliveryStatus.dead");
+
+    private final Integer value;
+    private final String code;
+
+    HookDeliveryStatus(final Integer value, final String code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    public Integer getValue() {
+        return this.value;
+    }
+
+    public String getCode() {
+        return this.code;
+    }
+
+    public static HookDeliveryStatus fromInt(final Integer value) {
+        for (final HookDeliveryStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
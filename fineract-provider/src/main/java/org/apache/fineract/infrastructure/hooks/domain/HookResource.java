@@ -56,4 +56,12 @@ public class HookResource extends AbstractPersistableCustom {
     public void update(final Hook hook) {
         this.hook = hook;
     }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
 }
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.listener;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.processor.ElasticSearchBulkIndexer;
+import org.apache.fineract.infrastructure.hooks.processor.ElasticSearchHookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.WebHookProcessor;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingTable;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingTable.HookRoute;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.infrastructure.outbox.service.BatchingEventOutboxConsumer;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxConsumer;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxSubscriber;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers hook events from the outbox. Every active hook is a consumer with a cursor of its own, so a hook whose
+ * endpoint fails is retried from the failed event without holding back or repeating deliveries to other hooks.
+ * Elastic Search hooks are batched into bulk requests; one backing off after a failed batch is left out of the pass.
+ */
+@Service
+@RequiredArgsConstructor
+public class HookOutboxSubscriber implements EventOutboxSubscriber {
+
+    public static final String CONSUMER_PREFIX = "hook:";
+
+    private final HookRoutingTable hookRoutingTable;
+    private final ElasticSearchBulkIndexer elasticSearchBulkIndexer;
+
+    public static String consumerName(final Long hookId) {
+        return CONSUMER_PREFIX + hookId;
+    }
+
+    @Override
+    public EventOutboxTopic getTopic() {
+        return EventOutboxTopic.HOOK;
+    }
+
+    @Override
+    public Map<String, EventOutboxConsumer> retrieveConsumers() {
+        final Map<String, EventOutboxConsumer> consumers = new HashMap<>();
+        for (final HookRoute route : this.hookRoutingTable.getRoutes().getRoutes()) {
+            if (route.getProcessor() instanceof ElasticSearchHookProcessor) {
+                if (!this.elasticSearchBulkIndexer.isBackingOff(route.getHook().getId())) {
+                    final BatchingEventOutboxConsumer consumer = this.elasticSearchBulkIndexer.createConsumer(route);
+                    if (consumer != null) {
+                        consumers.put(consumerName(route.getHook().getId()), consumer);
+                    }
+                }
+                continue;
+            }
+            consumers.put(consumerName(route.getHook().getId()), entry -> {
+                if (!route.listensTo(entry.getEntityName(), entry.getActionName())) {
+                    return;
+                }
+                // lets receivers recognise an event they have already seen after a retry or replay
+                final JsonObject payload = JsonParser.parseString(entry.getPayload()).getAsJsonObject();
+                payload.addProperty("eventPosition", entry.getId());
+                if (route.getProcessor() instanceof WebHookProcessor webHookProcessor) {
+                    webHookProcessor.submit(route.getHook(), payload.toString(), entry.getEntityName(), entry.getActionName(),
+                            entry.getEntityId());
+                    return;
+                }
+                // the relay runs this as the user that produced the event, with its callback credential in place
+                route.getProcessor().process(route.getHook(), payload.toString(), entry.getEntityName(), entry.getActionName(),
+                        ThreadLocalContextUtil.getContext());
+            });
+        }
+        return consumers;
+    }
+}
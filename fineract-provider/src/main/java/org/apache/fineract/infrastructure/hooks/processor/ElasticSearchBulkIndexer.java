@@ -0,0 +1,557 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.processor;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.indexNameName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookResource;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingTable.HookRoute;
+import org.apache.fineract.infrastructure.outbox.data.EventOutboxEntry;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.infrastructure.outbox.service.BatchingEventOutboxConsumer;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxRelay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes hook events into Elasticsearch with the {@code _bulk} API.
+ *
+ * Every Elastic Search hook reads the event outbox through a {@link BatchingEventOutboxConsumer}: events are collected
+ * until the batch reaches {@code fineract.hooks.elasticsearch.bulk-max-actions} or {@code bulk-max-bytes}, or until
+ * the oldest of them has waited {@code linger-millis}. The hook's outbox cursor is the checkpoint and only moves once
+ * Elasticsearch has accepted a batch, so events survive failures and restarts. A document's id is the event's outbox
+ * position, which makes a batch sent twice harmless.
+ *
+ * A failed batch (connection error, HTTP 429 or 5xx, or a document rejected as 429 or 5xx) puts the hook in
+ * exponential backoff: the relay leaves it alone until the backoff ends, while its events wait in the outbox. Documents
+ * Elasticsearch rejects for good (a mapping error) are logged and skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticSearchBulkIndexer implements ApplicationListener<ContextClosedEvent> {
+
+    private static final MediaType NDJSON_MEDIA_TYPE = MediaType.get("application/x-ndjson");
+    private static final String DEFAULT_INDEX_PREFIX = "fineract-";
+    private static final int MAX_REINDEX_ATTEMPTS = 5;
+
+    private static final List<ReindexSource> REINDEX_SOURCES = List.of(
+            new ReindexSource("CLIENT", "SELECT c.id, c.account_no AS accountNo, c.external_id AS externalId,"
+                    + " c.display_name AS displayName, c.status_enum AS status, c.office_id AS officeId, c.mobile_no AS mobileNo,"
+                    + " c.activation_date AS activationDate FROM m_client c WHERE c.id > ? ORDER BY c.id LIMIT ?"),
+            new ReindexSource("LOAN", "SELECT l.id, l.account_no AS accountNo, l.external_id AS externalId, l.client_id AS clientId,"
+                    + " l.group_id AS groupId, l.product_id AS productId, l.loan_status_id AS status, l.currency_code AS currencyCode,"
+                    + " l.principal_amount AS principal, l.total_outstanding_derived AS totalOutstanding,"
+                    + " l.disbursedon_date AS disbursementDate FROM m_loan l WHERE l.id > ? ORDER BY l.id LIMIT ?"),
+            new ReindexSource("SAVINGSACCOUNT", "SELECT s.id, s.account_no AS accountNo, s.external_id AS externalId,"
+                    + " s.client_id AS clientId, s.group_id AS groupId, s.product_id AS productId, s.status_enum AS status,"
+                    + " s.currency_code AS currencyCode, s.account_balance_derived AS accountBalance, s.activatedon_date AS activationDate"
+                    + " FROM m_savings_account s WHERE s.id > ? ORDER BY s.id LIMIT ?"));
+
+    private final ProcessorHelper processorHelper;
+    private final EventOutboxRelay eventOutboxRelay;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${fineract.hooks.elasticsearch.bulk-max-actions:500}")
+    private int bulkMaxActions;
+
+    @Value("${fineract.hooks.elasticsearch.bulk-max-bytes:5242880}")
+    private long bulkMaxBytes;
+
+    @Value("${fineract.hooks.elasticsearch.linger-millis:1000}")
+    private long lingerMillis;
+
+    @Value("${fineract.hooks.elasticsearch.initial-backoff-seconds:5}")
+    private long initialBackoffSeconds;
+
+    @Value("${fineract.hooks.elasticsearch.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    @Value("${fineract.hooks.elasticsearch.reindex-page-size:500}")
+    private int reindexPageSize;
+
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+    private final Set<String> scheduledWakeUps = ConcurrentHashMap.newKeySet();
+    private final Set<String> runningReindexes = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService reindexExecutor;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.reindexExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * @return whether the hook's last batch failed and its backoff has not ended yet
+     */
+    public boolean isBackingOff(final Long hookId) {
+        final Backoff backoff = this.backoffs.get(key(hookId));
+        return backoff != null && backoff.retryAt.isAfter(DateUtils.getLocalDateTimeOfSystem());
+    }
+
+    /**
+     * @return a consumer collecting the hook's events for one relay pass, or null when the hook's Payload URL is unusable
+     */
+    public BatchingEventOutboxConsumer createConsumer(final HookRoute route) {
+        final BulkTarget target = BulkTarget.of(route.getHook(), tenantIdentifier());
+        if (target == null) {
+            log.warn("Elastic Search hook {} has no valid {}, its events are held in the outbox", route.getHook().getId(), payloadURLName);
+            return null;
+        }
+        return new BulkConsumer(route, target);
+    }
+
+    /**
+     * Indexes one event right away, outside the outbox; a failure is logged.
+     */
+    public void index(final Hook hook, final String payload, final String entityName, final String actionName,
+            final FineractContext context) {
+        final String tenantIdentifier = context.getTenantContext().getTenantIdentifier();
+        final BulkTarget target = BulkTarget.of(hook, tenantIdentifier);
+        if (target == null) {
+            log.warn("Elastic Search hook {} has no valid {}", hook.getId(), payloadURLName);
+            return;
+        }
+        final JsonObject document = toDocument(JsonParser.parseString(payload));
+        document.add("event", eventMetadata(entityName, actionName, null, tenantIdentifier));
+        final BulkRequest batch = new BulkRequest(target.index);
+        batch.add(null, document);
+        try {
+            send(target, batch);
+        } catch (IOException e) {
+            log.error("Failed to index {} {} event into {}", entityName, actionName, target.index, e);
+        }
+    }
+
+    /**
+     * Starts streaming the current state of every client, loan and savings account the hook listens to into its index.
+     * Each entity becomes one document with id {@code <entity>-<id>}, so running it again overwrites rather than
+     * duplicates.
+     */
+    public void reindex(final Hook hook) {
+        final String tenantIdentifier = tenantIdentifier();
+        final BulkTarget target = BulkTarget.of(hook, tenantIdentifier);
+        if (target == null) {
+            throw new GeneralPlatformDomainRuleException("error.msg.hook.reindex.invalid.url",
+                    "Hook " + hook.getId() + " has no valid " + payloadURLName, hook.getId());
+        }
+        final Set<String> entityNames = new HashSet<>();
+        for (final HookResource event : hook.getEvents()) {
+            entityNames.add(event.getEntityName().toUpperCase(Locale.ROOT));
+        }
+        final List<ReindexSource> sources = new ArrayList<>();
+        for (final ReindexSource source : REINDEX_SOURCES) {
+            if (entityNames.contains(source.entityName)) {
+                sources.add(source);
+            }
+        }
+        if (sources.isEmpty()) {
+            throw new GeneralPlatformDomainRuleException("error.msg.hook.reindex.no.entities",
+                    "Hook " + hook.getId() + " listens to none of the entities that can be reindexed", hook.getId());
+        }
+        final String key = key(hook.getId());
+        if (!this.runningReindexes.add(key)) {
+            throw new GeneralPlatformDomainRuleException("error.msg.hook.reindex.in.progress",
+                    "A reindex of hook " + hook.getId() + " is already running", hook.getId());
+        }
+
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        this.reindexExecutor.execute(() -> {
+            ThreadLocalContextUtil.init(context);
+            try {
+                for (final ReindexSource source : sources) {
+                    final long indexed = stream(source, target, tenantIdentifier);
+                    log.info("Reindexed {} {} documents into {}", indexed, source.entityName, target.index);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Reindex of hook {} into {} failed", key, target.index, e);
+            } finally {
+                this.runningReindexes.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        if (this.reindexExecutor != null) {
+            this.reindexExecutor.shutdownNow();
+        }
+    }
+
+    private long stream(final ReindexSource source, final BulkTarget target, final String tenantIdentifier) throws IOException {
+        long lastId = 0L;
+        long indexed = 0L;
+        while (!Thread.currentThread().isInterrupted()) {
+            // keyset pages keep every query short instead of holding one cursor open over the whole table
+            final List<Map<String, Object>> rows = this.jdbcTemplate.queryForList(source.sql, lastId, this.reindexPageSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            final BulkRequest batch = new BulkRequest(target.index);
+            for (final Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                final JsonObject document = new JsonObject();
+                for (final Map.Entry<String, Object> column : row.entrySet()) {
+                    addValue(document, column.getKey(), column.getValue());
+                }
+                document.add("event", eventMetadata(source.entityName, "REINDEX", lastId, tenantIdentifier));
+                batch.add(source.entityName + "-" + lastId, document);
+            }
+            sendWithRetry(target, batch);
+            indexed += rows.size();
+            if (rows.size() < this.reindexPageSize) {
+                break;
+            }
+        }
+        return indexed;
+    }
+
+    private void sendWithRetry(final BulkTarget target, final BulkRequest batch) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                send(target, batch);
+                return;
+            } catch (IOException e) {
+                if (attempt >= MAX_REINDEX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Reindex batch to {} failed, attempt {} of {}", target.index, attempt, MAX_REINDEX_ATTEMPTS, e);
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(backoffSeconds(attempt)));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends one {@code _bulk} request.
+     *
+     * @throws IOException
+     *             when the request failed or Elasticsearch asked for any of its documents to be sent again
+     */
+    private void send(final BulkTarget target, final BulkRequest batch) throws IOException {
+        final Request.Builder request = new Request.Builder().url(target.bulkUrl)
+                .post(RequestBody.create(batch.body.toString(), NDJSON_MEDIA_TYPE));
+        if (target.authorization != null) {
+            request.header("Authorization", target.authorization);
+        }
+        try (Response response = this.processorHelper.getHttpClient().newCall(request.build()).execute()) {
+            final String responseBody = response.body() == null ? "" : response.body().string();
+            if (!response.isSuccessful()) {
+                throw new IOException("Bulk request to " + target.bulkUrl + " returned HTTP " + response.code() + ": "
+                        + StringUtils.abbreviate(responseBody, 500));
+            }
+            final JsonObject result = JsonParser.parseString(responseBody).getAsJsonObject();
+            if (!result.has("errors") || !result.get("errors").getAsBoolean()) {
+                return;
+            }
+            int retryable = 0;
+            for (final JsonElement item : result.getAsJsonArray("items")) {
+                final JsonObject outcome = item.getAsJsonObject().entrySet().iterator().next().getValue().getAsJsonObject();
+                final int status = outcome.get("status").getAsInt();
+                if (status == 429 || status >= 500) {
+                    retryable++;
+                } else if (status >= 300) {
+                    log.warn("Elasticsearch rejected document {} in {}: {}", outcome.get("_id"), target.index, outcome.get("error"));
+                }
+            }
+            if (retryable > 0) {
+                throw new IOException(retryable + " of " + batch.actions + " documents were not accepted by " + target.index);
+            }
+        }
+    }
+
+    private void backOff(final String key) {
+        final Backoff backoff = this.backoffs.compute(key, (k, previous) -> {
+            final int failures = previous == null ? 1 : previous.failures + 1;
+            return new Backoff(failures, DateUtils.getLocalDateTimeOfSystem().plusSeconds(backoffSeconds(failures)));
+        });
+        scheduleWakeUp(key, TimeUnit.SECONDS.toMillis(backoffSeconds(backoff.failures)));
+    }
+
+    private long backoffSeconds(final int failures) {
+        return Math.min(this.maxBackoffSeconds, this.initialBackoffSeconds << Math.min(failures - 1, 20));
+    }
+
+    /**
+     * Asks the relay for another pass once a held back batch is due or a backoff has ended.
+     */
+    private void scheduleWakeUp(final String key, final long delayMillis) {
+        if (!this.scheduledWakeUps.add(key)) {
+            return;
+        }
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        this.scheduler.schedule(() -> {
+            this.scheduledWakeUps.remove(key);
+            ThreadLocalContextUtil.init(context);
+            this.eventOutboxRelay.wake();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static JsonObject toDocument(final JsonElement payload) {
+        if (payload.isJsonObject()) {
+            return payload.getAsJsonObject();
+        }
+        final JsonObject document = new JsonObject();
+        document.add("payload", payload);
+        return document;
+    }
+
+    private static JsonObject eventMetadata(final String entityName, final String actionName, final Long entityId,
+            final String tenantIdentifier) {
+        final JsonObject event = new JsonObject();
+        event.addProperty("entityName", entityName);
+        event.addProperty("actionName", actionName);
+        if (entityId != null) {
+            event.addProperty("entityId", entityId);
+        }
+        event.addProperty("tenantIdentifier", tenantIdentifier);
+        return event;
+    }
+
+    private static void addValue(final JsonObject document, final String name, final Object value) {
+        if (value instanceof Number) {
+            document.addProperty(name, (Number) value);
+        } else if (value instanceof Boolean) {
+            document.addProperty(name, (Boolean) value);
+        } else if (value != null) {
+            document.addProperty(name, value.toString());
+        }
+    }
+
+    private String key(final Long hookId) {
+        return tenantIdentifier() + ":" + hookId;
+    }
+
+    private static String tenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+
+    /**
+     * Collects one hook's events during a relay pass.
+     */
+    private final class BulkConsumer implements BatchingEventOutboxConsumer {
+
+        private final HookRoute route;
+        private final BulkTarget target;
+        private final String key;
+        private BulkRequest batch;
+        private LocalDateTime oldestCollected;
+        private Long lastOffered;
+        private Long acknowledged;
+
+        private BulkConsumer(final HookRoute route, final BulkTarget target) {
+            this.route = route;
+            this.target = target;
+            this.key = key(route.getHook().getId());
+            this.batch = new BulkRequest(target.index);
+        }
+
+        @Override
+        public void consume(final EventOutboxEntry entry) throws IOException {
+            if (entry.getTopic() == EventOutboxTopic.HOOK && this.route.listensTo(entry.getEntityName(), entry.getActionName())) {
+                final JsonObject document = toDocument(JsonParser.parseString(entry.getPayload()));
+                document.addProperty("eventPosition", entry.getId());
+                final JsonObject event = eventMetadata(entry.getEntityName(), entry.getActionName(), entry.getEntityId(),
+                        tenantIdentifier());
+                event.addProperty("createdDate", entry.getCreatedDate().toString());
+                document.add("event", event);
+                if (this.batch.actions == 0) {
+                    this.oldestCollected = entry.getCreatedDate();
+                }
+                this.batch.add(String.valueOf(entry.getId()), document);
+            }
+            this.lastOffered = entry.getId();
+            if (this.batch.actions == 0) {
+                this.acknowledged = this.lastOffered;
+            } else if (this.batch.actions >= bulkMaxActions || this.batch.bytes >= bulkMaxBytes) {
+                deliver();
+            }
+        }
+
+        @Override
+        public Long getAcknowledgedPosition() {
+            return this.acknowledged;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.batch.actions == 0) {
+                return;
+            }
+            final LocalDateTime lingerLimit = DateUtils.getLocalDateTimeOfSystem().minus(Duration.ofMillis(lingerMillis));
+            if (this.oldestCollected.isAfter(lingerLimit)) {
+                // too small and too recent to be worth a request yet
+                scheduleWakeUp(this.key, Duration.between(lingerLimit, this.oldestCollected).toMillis() + 1);
+                return;
+            }
+            deliver();
+        }
+
+        private void deliver() throws IOException {
+            try {
+                send(this.target, this.batch);
+            } catch (IOException | RuntimeException e) {
+                backOff(this.key);
+                throw e;
+            }
+            backoffs.remove(this.key);
+            this.acknowledged = this.lastOffered;
+            this.batch = new BulkRequest(this.target.index);
+        }
+    }
+
+    /**
+     * The {@code _bulk} endpoint and index of a hook: the index is the hook's Index Name, else the first segment of its
+     * Payload URL, else one per tenant. Credentials in the Payload URL are sent as basic authentication.
+     */
+    private static final class BulkTarget {
+
+        private final HttpUrl bulkUrl;
+        private final String index;
+        private final String authorization;
+
+        private BulkTarget(final HttpUrl bulkUrl, final String index, final String authorization) {
+            this.bulkUrl = bulkUrl;
+            this.index = index;
+            this.authorization = authorization;
+        }
+
+        private static BulkTarget of(final Hook hook, final String tenantIdentifier) {
+            String url = null;
+            String indexName = null;
+            for (final HookConfiguration conf : hook.getHookConfig()) {
+                if (payloadURLName.equals(conf.getFieldName())) {
+                    url = conf.getFieldValue();
+                } else if (indexNameName.equals(conf.getFieldName())) {
+                    indexName = conf.getFieldValue();
+                }
+            }
+            final HttpUrl payloadUrl = url == null ? null : HttpUrl.parse(url.trim());
+            if (payloadUrl == null) {
+                return null;
+            }
+            if (StringUtils.isBlank(indexName)) {
+                indexName = payloadUrl.pathSegments().stream().filter(segment -> !segment.isEmpty() && !segment.startsWith("_"))
+                        .findFirst().orElse(DEFAULT_INDEX_PREFIX + tenantIdentifier);
+            }
+            final HttpUrl bulkUrl = new HttpUrl.Builder().scheme(payloadUrl.scheme()).host(payloadUrl.host()).port(payloadUrl.port())
+                    .addPathSegment("_bulk").build();
+            final String authorization = payloadUrl.username().isEmpty() ? null
+                    : Credentials.basic(payloadUrl.username(), payloadUrl.password());
+            return new BulkTarget(bulkUrl, indexName.trim().toLowerCase(Locale.ROOT), authorization);
+        }
+    }
+
+    /**
+     * The newline delimited body of a {@code _bulk} request, made of index actions only.
+     */
+    private static final class BulkRequest {
+
+        private final String index;
+        private final StringBuilder body = new StringBuilder();
+        private int actions;
+        private long bytes;
+
+        private BulkRequest(final String index) {
+            this.index = index;
+        }
+
+        private void add(final String id, final JsonObject document) {
+            final JsonObject target = new JsonObject();
+            target.addProperty("_index", this.index);
+            if (id != null) {
+                target.addProperty("_id", id);
+            }
+            final JsonObject action = new JsonObject();
+            action.add("index", target);
+            final String lines = action + "\n" + document + "\n";
+            this.body.append(lines);
+            this.bytes += lines.getBytes(StandardCharsets.UTF_8).length;
+            this.actions++;
+        }
+    }
+
+    private static final class Backoff {
+
+        private final int failures;
+        private final LocalDateTime retryAt;
+
+        private Backoff(final int failures, final LocalDateTime retryAt) {
+            this.failures = failures;
+            this.retryAt = retryAt;
+        }
+    }
+
+    private static final class ReindexSource {
+
+        private final String entityName;
+        private final String sql;
+
+        private ReindexSource(final String entityName, final String sql) {
+            this.entityName = entityName;
+            this.sql = sql;
+        }
+    }
+}
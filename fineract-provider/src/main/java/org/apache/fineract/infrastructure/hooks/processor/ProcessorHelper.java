@@ -23,13 +23,18 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -67,22 +72,40 @@ public final class ProcessorHelper {
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
 
-    public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
+    /**
+     * Shared by every hook so that connections to the same endpoint are pooled and kept alive; per-hook settings are
+     * applied with {@link OkHttpClient#newBuilder()}, which shares the pool.
+     */
+    private final OkHttpClient httpClient;
+    private final Map<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
+    public ProcessorHelper(@Value("${fineract.hooks.delivery.max-idle-connections:20}") final int maxIdleConnections,
+            @Value("${fineract.hooks.delivery.connect-timeout-seconds:5}") final int connectTimeoutSeconds,
+            @Value("${fineract.hooks.delivery.read-timeout-seconds:10}") final int readTimeoutSeconds)
+            throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
             insecureSSLContext = createInsecureSSLContext();
         } else {
             insecureSSLContext = null;
         }
+        this.httpClient = createClient(maxIdleConnections, connectTimeoutSeconds, readTimeoutSeconds);
     }
 
-    private OkHttpClient createClient() {
-        var okBuilder = new OkHttpClient.Builder();
+    private OkHttpClient createClient(final int maxIdleConnections, final int connectTimeoutSeconds, final int readTimeoutSeconds) {
+        var okBuilder = new OkHttpClient.Builder() //
+                .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES)) //
+                .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS) //
+                .readTimeout(readTimeoutSeconds, TimeUnit.SECONDS);
         if (insecureHttpClient) {
             configureInsecureClient(okBuilder);
         }
         return okBuilder.build();
     }
 
+    public OkHttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
     private void configureInsecureClient(final OkHttpClient.Builder okBuilder) {
         okBuilder.sslSocketFactory(insecureSSLContext.getSocketFactory(), insecureX509TrustManager);
         HostnameVerifier insecureHostnameVerifier = (hostname, session) -> true;// NOSONAR
@@ -113,13 +136,14 @@ public final class ProcessorHelper {
     }
 
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
-        final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
-        retrofitBuilder.baseUrl(url);
-        retrofitBuilder.client(client);
-        retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
-        final Retrofit retrofit = retrofitBuilder.build();
-        return retrofit.create(WebHookService.class);
+        return this.webHookServices.computeIfAbsent(url, baseUrl -> {
+            final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
+            retrofitBuilder.baseUrl(baseUrl);
+            retrofitBuilder.client(this.httpClient);
+            retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
+            final Retrofit retrofit = retrofitBuilder.build();
+            return retrofit.create(WebHookService.class);
+        });
     }
 
     @SuppressWarnings("rawtypes")
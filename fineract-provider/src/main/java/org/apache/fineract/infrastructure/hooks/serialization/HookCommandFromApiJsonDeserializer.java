@@ -97,6 +97,25 @@ public class HookCommandFromApiJsonDeserializer {
         throwExceptionIfValidationWarningsExist(dataValidationErrors);
     }
 
+    public void validateForReplay(final String json) {
+        if (StringUtils.isBlank(json)) {
+            throw new InvalidJsonException();
+        }
+
+        final Type typeOfMap = new TypeToken<Map<String, Object>>() {}.getType();
+        this.fromApiJsonHelper.checkForUnsupportedParameters(typeOfMap, json,
+                new HashSet<>(Arrays.asList(HookApiConstants.fromPositionParamName)));
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("hook");
+
+        final JsonElement element = this.fromApiJsonHelper.parse(json);
+        final Long fromPosition = this.fromApiJsonHelper.extractLongNamed(HookApiConstants.fromPositionParamName, element);
+        baseDataValidator.reset().parameter(HookApiConstants.fromPositionParamName).value(fromPosition).notNull().integerGreaterThanZero();
+
+        throwExceptionIfValidationWarningsExist(dataValidationErrors);
+    }
+
     private void throwExceptionIfValidationWarningsExist(final List<ApiParameterError> dataValidationErrors) {
         if (!dataValidationErrors.isEmpty()) {
             throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist", "Validation errors exist.",
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.Collection;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Delivery engine of the Web hook template. Every event is logged in {@code m_hook_delivery} before it is sent, retried
+ * with exponential backoff on failure and kept as a dead letter once its attempts run out.
+ */
+public interface HookDeliveryService {
+
+    /**
+     * Logs the event for the hook and starts its first attempt in the background. Events of the same entity are sent to
+     * the hook one at a time, in the order they were submitted.
+     *
+     * @param entityId
+     *            the entity the event is about, or null for events that need no ordering
+     */
+    void submit(Hook hook, String entityName, String actionName, Long entityId, String payload);
+
+    /**
+     * Puts a delivered, failed or dead delivery back in line for a fresh round of attempts.
+     */
+    void redeliver(Long hookId, Long deliveryId);
+
+    Collection<HookDeliveryData> retrieveDeliveries(Long hookId, HookDeliveryStatus status, Integer offset, Integer limit);
+
+    HookDeliveryData retrieveDelivery(Long hookId, Long deliveryId);
+
+    void retryDueDeliveries() throws JobExecutionException;
+}
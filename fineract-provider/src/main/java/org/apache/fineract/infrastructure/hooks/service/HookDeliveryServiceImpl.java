@@ -0,0 +1,477 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.signingSecretName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.timeoutSecondsName;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.FormBody;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.exception.HookDeliveryNotFoundException;
+import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
+import org.apache.fineract.infrastructure.hooks.processor.WebHookService;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HookDeliveryServiceImpl implements HookDeliveryService, ApplicationListener<ContextClosedEvent> {
+
+    private static final int RETRY_BATCH_SIZE = 500;
+    private static final int PURGE_BATCH_SIZE = 5000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final long CONTENDED_RETRY_DELAY_SECONDS = 1L;
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookRepository hookRepository;
+    private final ProcessorHelper processorHelper;
+
+    @Value("${fineract.hooks.delivery.threads:4}")
+    private int threads;
+
+    @Value("${fineract.hooks.delivery.max-concurrent-per-hook:2}")
+    private int maxConcurrentPerHook;
+
+    @Value("${fineract.hooks.delivery.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${fineract.hooks.delivery.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${fineract.hooks.delivery.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // an attempt still in flight after this long is presumed lost (node restart) and becomes due again
+    @Value("${fineract.hooks.delivery.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${fineract.hooks.delivery.retention-days:30}")
+    private int retentionDays;
+
+    private final Map<String, Semaphore> hookPermits = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executorService;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.executorService = Executors.newScheduledThreadPool(this.threads);
+    }
+
+    @Override
+    public void submit(final Hook hook, final String entityName, final String actionName, final Long entityId, final String payload) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            final var ps = connection.prepareStatement("INSERT INTO m_hook_delivery (hook_id, entity_name, action_name, entity_id, payload,"
+                    + " status_enum, attempts, next_attempt_at, created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, hook.getId());
+            ps.setString(2, entityName);
+            ps.setString(3, actionName);
+            ps.setObject(4, entityId);
+            ps.setString(5, payload);
+            ps.setInt(6, HookDeliveryStatus.PENDING.getValue());
+            ps.setObject(7, now);
+            ps.setObject(8, now);
+            ps.setObject(9, now);
+            return ps;
+        }, keyHolder);
+        scheduleAfterCommit(hook.getId(), keyHolder.getKey().longValue(), 0L);
+    }
+
+    @Override
+    public void redeliver(final Long hookId, final Long deliveryId) {
+        retrieveDelivery(hookId, deliveryId);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int updated = this.jdbcTemplate.update("UPDATE m_hook_delivery SET status_enum = ?, attempts = 0, next_attempt_at = ?,"
+                + " last_response_code = NULL, last_error = NULL, last_modified_date = ?"
+                + " WHERE id = ? AND hook_id = ? AND status_enum IN (?, ?, ?)",
+                HookDeliveryStatus.PENDING.getValue(), now, now, deliveryId, hookId, HookDeliveryStatus.DELIVERED.getValue(),
+                HookDeliveryStatus.FAILED.getValue(), HookDeliveryStatus.DEAD.getValue());
+        if (updated == 0) {
+            throw new GeneralPlatformDomainRuleException("error.msg.hook.delivery.in.progress",
+                    "Delivery with identifier " + deliveryId + " is already waiting for or in an attempt", deliveryId);
+        }
+        scheduleAfterCommit(hookId, deliveryId, 0L);
+    }
+
+    @Override
+    public Collection<HookDeliveryData> retrieveDeliveries(final Long hookId, final HookDeliveryStatus status, final Integer offset,
+            final Integer limit) {
+        final List<Object> params = new ArrayList<>();
+        final StringBuilder sql = new StringBuilder(HookDeliveryMapper.SCHEMA).append(" WHERE d.hook_id = ?");
+        params.add(hookId);
+        if (status != null) {
+            sql.append(" AND d.status_enum = ?");
+            params.add(status.getValue());
+        }
+        sql.append(" ORDER BY d.id DESC LIMIT ? OFFSET ?");
+        params.add(limit != null && limit > 0 ? limit : DEFAULT_PAGE_SIZE);
+        params.add(offset != null && offset > 0 ? offset : 0);
+        return this.jdbcTemplate.query(sql.toString(), new HookDeliveryMapper(), params.toArray());
+    }
+
+    @Override
+    public HookDeliveryData retrieveDelivery(final Long hookId, final Long deliveryId) {
+        try {
+            return this.jdbcTemplate.queryForObject(HookDeliveryMapper.SCHEMA + " WHERE d.hook_id = ? AND d.id = ?",
+                    new HookDeliveryMapper(), hookId, deliveryId);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new HookDeliveryNotFoundException(hookId, deliveryId);
+        }
+    }
+
+    /**
+     * Safety net for attempts that were scheduled in memory and lost, e.g. with a restart: picks up every delivery that
+     * is due and schedules it again. Also purges delivered and dead deliveries older than the retention period.
+     */
+    @Override
+    @CronTarget(jobName = JobName.RETRY_HOOK_DELIVERIES)
+    public void retryDueDeliveries() throws JobExecutionException {
+        final List<Throwable> errors = new ArrayList<>();
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        long afterId = 0L;
+        List<Map<String, Object>> due;
+        do {
+            due = this.jdbcTemplate.queryForList("SELECT id, hook_id FROM m_hook_delivery WHERE status_enum IN (?, ?, ?)"
+                    + " AND next_attempt_at <= ? AND id > ? ORDER BY id LIMIT ?", HookDeliveryStatus.PENDING.getValue(),
+                    HookDeliveryStatus.IN_FLIGHT.getValue(), HookDeliveryStatus.FAILED.getValue(), now, afterId, RETRY_BATCH_SIZE);
+            for (final Map<String, Object> delivery : due) {
+                afterId = ((Number) delivery.get("id")).longValue();
+                try {
+                    schedule(((Number) delivery.get("hook_id")).longValue(), afterId, 0L);
+                } catch (RuntimeException e) {
+                    errors.add(e);
+                }
+            }
+        } while (due.size() == RETRY_BATCH_SIZE);
+
+        try {
+            purgeFinishedDeliveries(now.minusDays(this.retentionDays));
+        } catch (RuntimeException e) {
+            errors.add(e);
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private void purgeFinishedDeliveries(final LocalDateTime retentionLimit) {
+        int purged;
+        do {
+            purged = this.jdbcTemplate.update("DELETE FROM m_hook_delivery WHERE status_enum IN (?, ?) AND last_modified_date < ? LIMIT ?",
+                    HookDeliveryStatus.DELIVERED.getValue(), HookDeliveryStatus.DEAD.getValue(), retentionLimit, PURGE_BATCH_SIZE);
+        } while (purged == PURGE_BATCH_SIZE);
+    }
+
+    private void scheduleAfterCommit(final Long hookId, final Long deliveryId, final long delaySeconds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(hookId, deliveryId, delaySeconds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                schedule(hookId, deliveryId, delaySeconds);
+            }
+        });
+    }
+
+    private void schedule(final Long hookId, final Long deliveryId, final long delaySeconds) {
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        try {
+            this.executorService.schedule(() -> {
+                ThreadLocalContextUtil.init(context);
+                try {
+                    attempt(hookId, deliveryId);
+                } finally {
+                    // pool threads are shared by tenants; the next task must not run with this one's context
+                    ThreadLocalContextUtil.reset();
+                }
+            }, delaySeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down, the retry job picks the delivery up after restart
+            log.debug("Hook delivery {} not scheduled, executor is shut down", deliveryId);
+        }
+    }
+
+    private void attempt(final Long hookId, final Long deliveryId) {
+        final Semaphore permits = this.hookPermits.computeIfAbsent(
+                ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + hookId, k -> new Semaphore(this.maxConcurrentPerHook));
+        if (!permits.tryAcquire()) {
+            // the hook is at its concurrency limit; try again shortly rather than tie up a delivery thread waiting
+            schedule(hookId, deliveryId, CONTENDED_RETRY_DELAY_SECONDS);
+            return;
+        }
+        try {
+            if (waitsForEarlierDelivery(deliveryId)) {
+                // started again by the earlier delivery once it is delivered or dead
+                return;
+            }
+            final Integer attempts = claim(deliveryId);
+            if (attempts == null) {
+                return;
+            }
+            final Hook hook = this.hookRepository.findById(hookId).orElse(null);
+            if (hook == null) {
+                return;
+            }
+            final Map<String, Object> delivery = this.jdbcTemplate
+                    .queryForMap("SELECT entity_name, action_name, payload FROM m_hook_delivery WHERE id = ?", deliveryId);
+            send(hook, deliveryId, attempts, (String) delivery.get("entity_name"), (String) delivery.get("action_name"),
+                    (String) delivery.get("payload"));
+        } catch (RuntimeException e) {
+            log.error("Hook delivery {} of hook {} failed unexpectedly", deliveryId, hookId, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Deliveries of one entity to one hook go out in the order they were submitted: a delivery waits while an earlier
+     * one for the same entity is still pending, in flight or failed. Deliveries without an entity are not ordered.
+     */
+    private boolean waitsForEarlierDelivery(final Long deliveryId) {
+        final Long earlier = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM m_hook_delivery d JOIN m_hook_delivery e"
+                + " ON e.hook_id = d.hook_id AND e.entity_name = d.entity_name AND e.entity_id = d.entity_id"
+                + " WHERE d.id = ? AND e.id < d.id AND e.status_enum IN (?, ?, ?)", Long.class, deliveryId,
+                HookDeliveryStatus.PENDING.getValue(), HookDeliveryStatus.IN_FLIGHT.getValue(), HookDeliveryStatus.FAILED.getValue());
+        return earlier != null && earlier > 0;
+    }
+
+    /**
+     * Starts the next waiting delivery of the same entity once this one is delivered or dead.
+     */
+    private void scheduleNextOfEntity(final Long hookId, final Long deliveryId) {
+        final Long next = this.jdbcTemplate.queryForObject("SELECT MIN(n.id) FROM m_hook_delivery d JOIN m_hook_delivery n"
+                + " ON n.hook_id = d.hook_id AND n.entity_name = d.entity_name AND n.entity_id = d.entity_id"
+                + " WHERE d.id = ? AND n.id > d.id AND n.status_enum IN (?, ?)", Long.class, deliveryId,
+                HookDeliveryStatus.PENDING.getValue(), HookDeliveryStatus.FAILED.getValue());
+        if (next != null) {
+            schedule(hookId, next, 0L);
+        }
+    }
+
+    /**
+     * Takes the delivery for one attempt if it is due, so that the in-memory schedule and the retry job never send it
+     * twice at the same time.
+     *
+     * @return the attempt number, or null when the delivery is not due or already taken
+     */
+    private Integer claim(final Long deliveryId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final int claimed = this.jdbcTemplate.update("UPDATE m_hook_delivery SET status_enum = ?, attempts = attempts + 1,"
+                + " next_attempt_at = ?, last_modified_date = ? WHERE id = ? AND status_enum IN (?, ?, ?) AND next_attempt_at <= ?",
+                HookDeliveryStatus.IN_FLIGHT.getValue(), now.plusSeconds(this.leaseSeconds), now, deliveryId,
+                HookDeliveryStatus.PENDING.getValue(), HookDeliveryStatus.IN_FLIGHT.getValue(), HookDeliveryStatus.FAILED.getValue(), now);
+        if (claimed == 0) {
+            return null;
+        }
+        return this.jdbcTemplate.queryForObject("SELECT attempts FROM m_hook_delivery WHERE id = ?", Integer.class, deliveryId);
+    }
+
+    private void send(final Hook hook, final Long deliveryId, final int attempts, final String entityName, final String actionName,
+            final String payload) {
+        String url = null;
+        String contentType = "";
+        String signingSecret = null;
+        Integer timeoutSeconds = null;
+        for (final HookConfiguration conf : hook.getHookConfig()) {
+            if (conf.getFieldName().equals(payloadURLName)) {
+                url = conf.getFieldValue();
+            } else if (conf.getFieldName().equals(contentTypeName)) {
+                contentType = conf.getFieldValue();
+            } else if (conf.getFieldName().equals(signingSecretName)) {
+                signingSecret = conf.getFieldValue();
+            } else if (conf.getFieldName().equals(timeoutSecondsName) && StringUtils.isNumeric(conf.getFieldValue())) {
+                timeoutSeconds = Integer.valueOf(conf.getFieldValue());
+            }
+        }
+
+        try {
+            final RequestBody body = createBody(contentType, payload);
+            final Buffer bodyBytes = new Buffer();
+            body.writeTo(bodyBytes);
+
+            final Request.Builder request = new Request.Builder().url(url).post(body) //
+                    .header(WebHookService.ENTITY_HEADER, entityName) //
+                    .header(WebHookService.ACTION_HEADER, actionName) //
+                    .header(WebHookService.TENANT_HEADER, ThreadLocalContextUtil.getTenant().getTenantIdentifier()) //
+                    .header(HookApiConstants.DELIVERY_HEADER, String.valueOf(deliveryId));
+            final String fineractEndpointUrl = System.getProperty("baseUrl");
+            if (fineractEndpointUrl != null) {
+                request.header(WebHookService.ENDPOINT_HEADER, fineractEndpointUrl);
+            }
+            if (StringUtils.isNotBlank(signingSecret)) {
+                request.header(HookApiConstants.SIGNATURE_HEADER, "sha256=" + sign(signingSecret, bodyBytes.readByteArray()));
+            }
+
+            OkHttpClient client = this.processorHelper.getHttpClient();
+            if (timeoutSeconds != null && timeoutSeconds > 0) {
+                client = client.newBuilder().callTimeout(timeoutSeconds, TimeUnit.SECONDS).build();
+            }
+            try (Response response = client.newCall(request.build()).execute()) {
+                if (response.isSuccessful()) {
+                    markDelivered(deliveryId, response.code());
+                    scheduleNextOfEntity(hook.getId(), deliveryId);
+                } else {
+                    final String responseBody = response.body() == null ? "" : response.body().string();
+                    markFailed(hook.getId(), deliveryId, attempts, response.code(), "HTTP " + response.code() + ": " + responseBody);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            markFailed(hook.getId(), deliveryId, attempts, null, e.toString());
+        }
+    }
+
+    private RequestBody createBody(final String contentType, final String payload) {
+        if (contentType.toLowerCase().contains("json")) {
+            return RequestBody.create(payload, JSON_MEDIA_TYPE);
+        }
+        final Map<String, Object> fields = new Gson().fromJson(payload, new TypeToken<Map<String, Object>>() {}.getType());
+        final FormBody.Builder form = new FormBody.Builder();
+        fields.forEach((name, value) -> form.add(name, String.valueOf(value)));
+        return form.build();
+    }
+
+    private static String sign(final String secret, final byte[] body) {
+        try {
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to sign hook payload", e);
+        }
+    }
+
+    private void markDelivered(final Long deliveryId, final int responseCode) {
+        this.jdbcTemplate.update("UPDATE m_hook_delivery SET status_enum = ?, next_attempt_at = NULL, last_response_code = ?,"
+                + " last_error = NULL, last_modified_date = ? WHERE id = ? AND status_enum = ?", HookDeliveryStatus.DELIVERED.getValue(),
+                responseCode, DateUtils.getLocalDateTimeOfSystem(), deliveryId, HookDeliveryStatus.IN_FLIGHT.getValue());
+    }
+
+    private void markFailed(final Long hookId, final Long deliveryId, final int attempts, final Integer responseCode, final String error) {
+        final boolean dead = attempts >= this.maxAttempts;
+        final HookDeliveryStatus status = dead ? HookDeliveryStatus.DEAD : HookDeliveryStatus.FAILED;
+        final long backoffSeconds = backoffSeconds(attempts);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update("UPDATE m_hook_delivery SET status_enum = ?, next_attempt_at = ?, last_response_code = ?,"
+                + " last_error = ?, last_modified_date = ? WHERE id = ? AND status_enum = ?", status.getValue(),
+                dead ? null : now.plusSeconds(backoffSeconds), responseCode, StringUtils.abbreviate(error, MAX_ERROR_LENGTH), now,
+                deliveryId, HookDeliveryStatus.IN_FLIGHT.getValue());
+        if (dead) {
+            log.warn("Hook delivery {} of hook {} dead-lettered after {} attempts: {}", deliveryId, hookId, attempts, error);
+            scheduleNextOfEntity(hookId, deliveryId);
+        } else {
+            schedule(hookId, deliveryId, backoffSeconds);
+        }
+    }
+
+    private long backoffSeconds(final int attempts) {
+        final int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(this.maxBackoffSeconds, this.initialBackoffSeconds << doublings);
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+    }
+
+    private static final class HookDeliveryMapper implements RowMapper<HookDeliveryData> {
+
+        static final String SCHEMA = "SELECT d.id, d.hook_id, d.entity_name, d.action_name, d.payload, d.status_enum, d.attempts,"
+                + " d.next_attempt_at, d.last_response_code, d.last_error, d.created_date, d.last_modified_date FROM m_hook_delivery d";
+
+        @Override
+        public HookDeliveryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final HookDeliveryStatus status = HookDeliveryStatus.fromInt(JdbcSupport.getInteger(rs, "status_enum"));
+            final EnumOptionData statusData = status == null ? null
+                    : new EnumOptionData(status.getValue().longValue(), status.getCode(), status.name());
+            return new HookDeliveryData(rs.getLong("id"), rs.getLong("hook_id"), rs.getString("entity_name"), rs.getString("action_name"),
+                    rs.getString("payload"), statusData, JdbcSupport.getInteger(rs, "attempts"),
+                    JdbcSupport.getLocalDateTime(rs, "next_attempt_at"), JdbcSupport.getInteger(rs, "last_response_code"),
+                    rs.getString("last_error"), JdbcSupport.getLocalDateTime(rs, "created_date"),
+                    JdbcSupport.getLocalDateTime(rs, "last_modified_date"));
+        }
+    }
+}
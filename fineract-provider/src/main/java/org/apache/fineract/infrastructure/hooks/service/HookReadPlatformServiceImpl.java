@@ -24,7 +24,9 @@ import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
 import org.apache.fineract.infrastructure.hooks.data.Event;
 import org.apache.fineract.infrastructure.hooks.data.EventResultSetExtractor;
 import org.apache.fineract.infrastructure.hooks.data.Field;
@@ -73,7 +75,8 @@ public class HookReadPlatformServiceImpl implements HookReadPlatformService {
     }
 
     @Override
-    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('HK')")
+    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant()"
+            + ".getTenantIdentifier().concat('HK').concat(#entityName).concat(':').concat(#actionName)")
     public List<Hook> retrieveHooksByEvent(final String entityName, final String actionName) {
         return hookRepository.findAllHooksListeningToEvent(entityName, actionName);
     }
@@ -177,6 +180,9 @@ public class HookReadPlatformServiceImpl implements HookReadPlatformService {
         public Field mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final String fieldName = rs.getString("field_name");
             final String fieldValue = rs.getString("field_value");
+            if (HookApiConstants.signingSecretName.equals(fieldName) && StringUtils.isNotEmpty(fieldValue)) {
+                return Field.fromConfig(fieldName, HookApiConstants.MASKED_SECRET);
+            }
             return Field.fromConfig(fieldName, fieldValue);
         }
     }
@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.domain.HookResource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-tenant routing table of the active hooks: which hooks, with their resolved processor, listen to each
+ * (entity, action) pair. A table is immutable once built and is replaced as a whole after a hook is created, updated or
+ * deleted, so readers never see a half-built table and never touch the database on the command path.
+ *
+ * Tables are also refreshed once they are older than {@code fineract.hooks.routing.refresh-seconds}, which picks up hook
+ * changes made through another node. The refresh runs in the background while callers keep reading the expired table,
+ * so a command never waits for the hooks to be read. Only the first lookup of a tenant waits, and concurrent first
+ * lookups share a single build.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HookRoutingTable implements ApplicationListener<ContextClosedEvent> {
+
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fineract.hooks.routing.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    private final Map<String, HookRoutes> routesByTenant = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> buildSequences = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<HookRoutes>> refreshes = new ConcurrentHashMap<>();
+    private ExecutorService executorService;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        // at most one refresh per tenant is in flight, so the pool never grows past the number of tenants
+        this.executorService = Executors.newCachedThreadPool();
+    }
+
+    public HookRoutes getRoutes() {
+        final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final HookRoutes routes = this.routesByTenant.get(tenant);
+        if (routes == null) {
+            return await(refresh(tenant));
+        }
+        if (routes.isOlderThan(this.refreshSeconds)) {
+            refresh(tenant);
+        }
+        return routes;
+    }
+
+    public boolean hasRoute(final String entityName, final String actionName) {
+        return getRoutes().hasRoute(entityName, actionName);
+    }
+
+    /**
+     * Replaces the current tenant's table once the surrounding transaction has committed the hook change.
+     */
+    public void rebuildAfterCommit() {
+        final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild(tenant);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                rebuild(tenant);
+            }
+        });
+    }
+
+    /**
+     * Starts a background build of the tenant's table, or returns the one already in flight.
+     */
+    private CompletableFuture<HookRoutes> refresh(final String tenant) {
+        final CompletableFuture<HookRoutes> refresh = new CompletableFuture<>();
+        final CompletableFuture<HookRoutes> inFlight = this.refreshes.putIfAbsent(tenant, refresh);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        try {
+            this.executorService.execute(() -> {
+                ThreadLocalContextUtil.init(context);
+                // unregistered before it completes, so a caller that has seen it finish can start the next one
+                try {
+                    final HookRoutes routes = rebuild(tenant);
+                    this.refreshes.remove(tenant, refresh);
+                    refresh.complete(routes);
+                } catch (RuntimeException e) {
+                    this.refreshes.remove(tenant, refresh);
+                    log.warn("Hook routing table of tenant {} not refreshed", tenant, e);
+                    refresh.completeExceptionally(e);
+                } finally {
+                    ThreadLocalContextUtil.reset();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.refreshes.remove(tenant, refresh);
+            refresh.completeExceptionally(e);
+        }
+        return refresh;
+    }
+
+    private static HookRoutes await(final CompletableFuture<HookRoutes> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the hooks outside of the map, so no map bin stays locked while the database is queried, and installs the new
+     * table unless a build that started later has already been installed.
+     */
+    private HookRoutes rebuild(final String tenant) {
+        final long sequence = this.buildSequences.computeIfAbsent(tenant, k -> new AtomicLong()).incrementAndGet();
+        final HookRoutes built = build(sequence);
+        return this.routesByTenant.merge(tenant, built,
+                (current, candidate) -> candidate.sequence > current.sequence ? candidate : current);
+    }
+
+    private HookRoutes build(final long sequence) {
+        // a transaction of its own, so the hooks are read as committed even when called from afterCommit
+        final TransactionTemplate readOnly = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            final List<HookRoute> routes = new ArrayList<>();
+            for (final Hook hook : this.hookRepository.findAllActiveHooks()) {
+                final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
+                if (processor != null) {
+                    routes.add(new HookRoute(hook, processor));
+                }
+            }
+            return new HookRoutes(routes, sequence);
+        });
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+    }
+
+    private static String eventKey(final String entityName, final String actionName) {
+        return entityName + ":" + actionName;
+    }
+
+    public static final class HookRoutes {
+
+        private final List<HookRoute> routes;
+        private final Map<String, List<HookRoute>> routesByEvent;
+        private final long sequence;
+        private final long builtAt;
+
+        private HookRoutes(final List<HookRoute> routes, final long sequence) {
+            final Map<String, List<HookRoute>> byEvent = new HashMap<>();
+            for (final HookRoute route : routes) {
+                for (final String event : route.events) {
+                    byEvent.computeIfAbsent(event, k -> new ArrayList<>()).add(route);
+                }
+            }
+            byEvent.replaceAll((event, eventRoutes) -> List.copyOf(eventRoutes));
+            this.routes = List.copyOf(routes);
+            this.routesByEvent = Map.copyOf(byEvent);
+            this.sequence = sequence;
+            this.builtAt = System.nanoTime();
+        }
+
+        private boolean isOlderThan(final long seconds) {
+            return System.nanoTime() - this.builtAt > TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        public boolean hasRoute(final String entityName, final String actionName) {
+            return this.routesByEvent.containsKey(eventKey(entityName, actionName));
+        }
+
+        public List<HookRoute> getRoutes(final String entityName, final String actionName) {
+            return this.routesByEvent.getOrDefault(eventKey(entityName, actionName), Collections.emptyList());
+        }
+
+        /**
+         * @return one route per active hook with a known processor
+         */
+        public List<HookRoute> getRoutes() {
+            return this.routes;
+        }
+    }
+
+    public static final class HookRoute {
+
+        private final Hook hook;
+        private final HookProcessor processor;
+        private final Set<String> events;
+
+        private HookRoute(final Hook hook, final HookProcessor processor) {
+            this.hook = hook;
+            this.processor = processor;
+            final Set<String> keys = new HashSet<>();
+            for (final HookResource event : hook.getEvents()) {
+                keys.add(eventKey(event.getEntityName(), event.getActionName()));
+            }
+            this.events = Set.copyOf(keys);
+        }
+
+        public Hook getHook() {
+            return this.hook;
+        }
+
+        public HookProcessor getProcessor() {
+            return this.processor;
+        }
+
+        public boolean listensTo(final String entityName, final String actionName) {
+            return this.events.contains(eventKey(entityName, actionName));
+        }
+    }
+}
@@ -29,4 +29,10 @@ public interface HookWritePlatformService {
 
     CommandProcessingResult deleteHook(Long hookId);
 
+    CommandProcessingResult replayHook(Long hookId, JsonCommand command);
+
+    CommandProcessingResult reindexHook(Long hookId);
+
+    CommandProcessingResult redeliverHookDelivery(Long hookId, Long deliveryId);
+
 }
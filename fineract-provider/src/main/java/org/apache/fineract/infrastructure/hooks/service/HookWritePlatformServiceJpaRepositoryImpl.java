@@ -21,32 +21,41 @@ package org.apache.fineract.infrastructure.hooks.service;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.actionNameParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.configParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.elasticSearchTemplateName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.entityNameParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.eventsParamName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.fromPositionParamName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.isActiveParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.nameParamName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.signingSecretName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.templateIdParamName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.timeoutSecondsName;
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
 import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
@@ -56,9 +65,12 @@ import org.apache.fineract.infrastructure.hooks.domain.HookTemplateRepository;
 import org.apache.fineract.infrastructure.hooks.domain.Schema;
 import org.apache.fineract.infrastructure.hooks.exception.HookNotFoundException;
 import org.apache.fineract.infrastructure.hooks.exception.HookTemplateNotFoundException;
+import org.apache.fineract.infrastructure.hooks.listener.HookOutboxSubscriber;
+import org.apache.fineract.infrastructure.hooks.processor.ElasticSearchBulkIndexer;
 import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
 import org.apache.fineract.infrastructure.hooks.processor.WebHookService;
 import org.apache.fineract.infrastructure.hooks.serialization.HookCommandFromApiJsonDeserializer;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateRepository;
@@ -80,6 +92,10 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
     private final HookCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final FromJsonHelper fromApiJsonHelper;
     private final ProcessorHelper processorHelper;
+    private final EventOutboxService eventOutboxService;
+    private final HookDeliveryService hookDeliveryService;
+    private final HookRoutingTable hookRoutingTable;
+    private final ElasticSearchBulkIndexer elasticSearchBulkIndexer;
 
     @Transactional
     @Override
@@ -107,6 +123,8 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
             validateHookRules(template, config, allEvents);
 
             this.hookRepository.saveAndFlush(hook);
+            this.eventOutboxService.moveCursorToEnd(HookOutboxSubscriber.consumerName(hook.getId()));
+            this.hookRoutingTable.rebuildAfterCommit();
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(hook.getId()).build();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
@@ -155,7 +173,8 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
 
                 if (changes.containsKey(configParamName)) {
                     final String configJson = command.jsonFragment(configParamName);
-                    final Set<HookConfiguration> config = assembleConfig(command.mapValueOfParameterNamed(configJson), template);
+                    final Map<String, String> submitted = keepMaskedSecret(command.mapValueOfParameterNamed(configJson), hook);
+                    final Set<HookConfiguration> config = assembleConfig(submitted, template);
                     final boolean updated = hook.updateConfig(config);
                     if (!updated) {
                         changes.remove(configParamName);
@@ -163,6 +182,12 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
                 }
 
                 this.hookRepository.saveAndFlush(hook);
+                this.hookRoutingTable.rebuildAfterCommit();
+
+                if (Boolean.TRUE.equals(changes.get(isActiveParamName))) {
+                    // a re-activated hook picks up from now rather than receiving everything it missed while inactive
+                    this.eventOutboxService.moveCursorToEnd(HookOutboxSubscriber.consumerName(hookId));
+                }
             }
 
             return new CommandProcessingResultBuilder() //
@@ -189,6 +214,8 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
         final Hook hook = retrieveHookBy(hookId);
         try {
             this.hookRepository.delete(hook);
+            this.eventOutboxService.deleteCursor(HookOutboxSubscriber.consumerName(hookId));
+            this.hookRoutingTable.rebuildAfterCommit();
         } catch (final JpaSystemException | DataIntegrityViolationException e) {
             throw new PlatformDataIntegrityException("error.msg.unknown.data.integrity.issue",
                     "Unknown data integrity issue with resource: " + e.getMostSpecificCause(), e);
@@ -196,6 +223,46 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
         return new CommandProcessingResultBuilder().withEntityId(hookId).build();
     }
 
+    @Transactional
+    @Override
+    public CommandProcessingResult replayHook(final Long hookId, final JsonCommand command) {
+
+        this.context.authenticatedUser();
+        this.fromApiJsonDeserializer.validateForReplay(command.json());
+        retrieveHookBy(hookId);
+
+        final Long fromPosition = command.longValueOfParameterNamed(fromPositionParamName);
+        this.eventOutboxService.replayFrom(HookOutboxSubscriber.consumerName(hookId), fromPosition);
+
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(hookId).build();
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult reindexHook(final Long hookId) {
+
+        this.context.authenticatedUser();
+        final Hook hook = retrieveHookBy(hookId);
+        if (!elasticSearchTemplateName.equalsIgnoreCase(hook.getHookTemplate().getName())) {
+            throw new GeneralPlatformDomainRuleException("error.msg.hook.reindex.not.supported",
+                    "Only hooks of the " + elasticSearchTemplateName + " template can be reindexed", hookId);
+        }
+        this.elasticSearchBulkIndexer.reindex(hook);
+
+        return new CommandProcessingResultBuilder().withEntityId(hookId).build();
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult redeliverHookDelivery(final Long hookId, final Long deliveryId) {
+
+        this.context.authenticatedUser();
+        retrieveHookBy(hookId);
+        this.hookDeliveryService.redeliver(hookId, deliveryId);
+
+        return new CommandProcessingResultBuilder().withEntityId(hookId).withSubEntityId(deliveryId).build();
+    }
+
     private Hook retrieveHookBy(final Long hookId) {
         return this.hookRepository.findById(hookId).orElseThrow(() -> new HookNotFoundException(hookId));
     }
@@ -208,6 +275,23 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
         return template;
     }
 
+    /**
+     * Reads return the signing secret masked; a client that sends the masked value back keeps the stored secret.
+     */
+    private static Map<String, String> keepMaskedSecret(final Map<String, String> hookConfig, final Hook hook) {
+        final Map<String, String> config = new HashMap<>(hookConfig);
+        for (final Map.Entry<String, String> entry : config.entrySet()) {
+            if (signingSecretName.equalsIgnoreCase(entry.getKey()) && HookApiConstants.MASKED_SECRET.equals(entry.getValue())) {
+                for (final HookConfiguration existing : hook.getHookConfig()) {
+                    if (signingSecretName.equalsIgnoreCase(existing.getFieldName())) {
+                        entry.setValue(existing.getFieldValue());
+                    }
+                }
+            }
+        }
+        return config;
+    }
+
     private Set<HookConfiguration> assembleConfig(final Map<String, String> hookConfig, final HookTemplate template) {
 
         final Set<HookConfiguration> configuration = new HashSet<>();
@@ -266,6 +350,12 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
                 }
             }
 
+            if (conf.getFieldName().equals(timeoutSecondsName)
+                    && (!StringUtils.isNumeric(fieldValue) || fieldValue.length() > 6 || Integer.parseInt(fieldValue) <= 0)) {
+                final String errorMessage = "timeout.seconds.must.be.a.positive.number";
+                baseDataValidator.reset().failWithCodeNoParameterAddedToErrorCode(errorMessage);
+            }
+
             if (conf.getFieldName().equals(payloadURLName)) {
                 try {
                     final WebHookService service = processorHelper.createWebHookService(fieldValue);
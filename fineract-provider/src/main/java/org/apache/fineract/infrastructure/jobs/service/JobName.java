@@ -27,6 +27,15 @@ public enum JobName {
                             "Reminder Overdraft Approval Checks"), QUEUE_OVERDRAFT_APPROVAL_CHECKS(
                                     "Queue Overdraft Approval Checks"), QUEUE_LOAN_APPROVAL_CHECKS(
                                             "Queue Loan Approval Checks"), CREATE_RECONCILIATION_WALLET("Create Reconciliation Wallet"),
+    UPDATE_SAVINGS_BALANCE_CHECKPOINTS("Update Savings Balance Checkpoints"),
+    ACCRUE_OVERDRAFT_INTEREST("Accrue Overdraft Interest"),
+    PURGE_IDEMPOTENCY_KEYS("Purge Idempotency Keys"),
+    RELEASE_EXPIRED_SAVINGS_HOLDS("Release Expired Savings Holds"),
+    RELAY_EVENT_OUTBOX("Relay Event Outbox"),
+    RETRY_HOOK_DELIVERIES("Retry Hook Deliveries"),
+    RETRY_BUSINESS_EVENT_LISTENERS("Retry Business Event Listeners"),
+    SEND_EMAIL_OUTBOX("Send Email Outbox"),
+    RECONCILE_TIER_LIMIT_COUNTERS("Reconcile Tier Limit Counters"),
     // Added Business Lofgic end here
     UPDATE_LOAN_ARREARS_AGEING("Update Loan Arrears Ageing"), APPLY_ANNUAL_FEE_FOR_SAVINGS(
             "Apply Annual Fee For Savings"), APPLY_HOLIDAYS_TO_LOANS("Apply Holidays To Loans"), POST_INTEREST_FOR_SAVINGS(
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.data;
+
+import java.time.LocalDateTime;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+
+/**
+ * Row of {@code m_event_outbox}. The id is the event's position: events are relayed in id order and consumers replay
+ * from a position.
+ */
+public class EventOutboxEntry {
+
+    private final Long id;
+    private final EventOutboxTopic topic;
+    private final String entityName;
+    private final String actionName;
+    private final Long entityId;
+    private final String payload;
+    private final Long actorUserId;
+    private final LocalDateTime createdDate;
+
+    public EventOutboxEntry(final Long id, final EventOutboxTopic topic, final String entityName, final String actionName,
+            final Long entityId, final String payload, final Long actorUserId, final LocalDateTime createdDate) {
+        this.id = id;
+        this.topic = topic;
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.entityId = entityId;
+        this.payload = payload;
+        this.actorUserId = actorUserId;
+        this.createdDate = createdDate;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public EventOutboxTopic getTopic() {
+        return this.topic;
+    }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * @return the id of the user whose request appended the event, or null for events appended without one
+     */
+    public Long getActorUserId() {
+        return this.actorUserId;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return this.createdDate;
+    }
+}
@@ -16,11 +16,13 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.listener;
+package org.apache.fineract.infrastructure.outbox.domain;
 
-import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.springframework.context.ApplicationListener;
-
-public interface HookListener extends ApplicationListener<HookEvent> {
+/**
+ * Kind of event held in the event outbox; each topic is relayed to its own set of consumers.
+ */
+public enum EventOutboxTopic {
 
+    HOOK, //
+    NOTIFICATION;
 }
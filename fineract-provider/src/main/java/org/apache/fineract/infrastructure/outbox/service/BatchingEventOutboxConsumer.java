@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.service;
+
+/**
+ * A consumer that collects events and delivers them in batches. It is offered every event past its cursor, whatever
+ * the topic, and filters them itself. The relay moves its cursor only as far as {@link #getAcknowledgedPosition()}
+ * reports, so events held in the batch are offered again after a failure or a restart.
+ */
+public interface BatchingEventOutboxConsumer extends EventOutboxConsumer {
+
+    /**
+     * @return the position up to which every event offered has been delivered or skipped, or null when none has
+     */
+    Long getAcknowledgedPosition();
+
+    /**
+     * Called once the pass has no further events for this consumer. The consumer may keep a small, recent batch back
+     * for a later pass; events it keeps are not acknowledged.
+     */
+    void flush() throws Exception;
+}
@@ -0,0 +1,406 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.outbox.data.EventOutboxEntry;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers committed outbox events to their consumers in position order.
+ *
+ * Every consumer owns a cursor in {@code m_event_outbox_cursor} holding the last position it has processed; a cursor
+ * only moves past an event once the consumer has returned normally, so delivery is at-least-once. Consumers are
+ * delivered independently of each other on a pool of their own: a consumer that is slow or throws holds back only its
+ * own cursor, and one that throws gets the same event again on its next run. Events are written by the producing
+ * transaction itself, so nothing is relayed for a rolled back transaction.
+ *
+ * Each event is delivered as the user whose request appended it, so consumers that check the authenticated user see
+ * that user. Request credentials are never written to the outbox; consumers that call back into the platform (the SMS
+ * bridge, template merges) authenticate with the service credential configured for the relay, if any.
+ *
+ * Ids are allocated when a row is inserted but become visible at commit, so a hole in the sequence may be a transaction
+ * still in flight. The relay does not read past a hole until it is older than the configured grace period, and then
+ * only once a locking read of the hole has shown which of its ids were committed late and which were rolled back.
+ *
+ * A {@link BatchingEventOutboxConsumer} is flushed once it has no further events, and its cursor only follows what it
+ * has acknowledged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventOutboxRelay implements ApplicationListener<ContextClosedEvent> {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppUserRepository appUserRepository;
+    // looked up lazily, subscribers reach back into services that append to the outbox
+    private final ObjectProvider<EventOutboxSubscriber> subscribers;
+
+    @Value("${fineract.events.outbox.relay-threads:2}")
+    private int relayThreads;
+
+    @Value("${fineract.events.outbox.consumer-threads:4}")
+    private int consumerThreads;
+
+    @Value("${fineract.events.outbox.gap-grace-seconds:60}")
+    private long gapGraceSeconds;
+
+    @Value("${fineract.events.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${fineract.events.outbox.callback-auth-token:}")
+    private String callbackAuthToken;
+
+    private final Map<String, AtomicInteger> pendingWakeUps = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingDeliveries = new ConcurrentHashMap<>();
+    private ExecutorService executorService;
+    private ExecutorService consumerExecutorService;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.executorService = Executors.newFixedThreadPool(this.relayThreads);
+        this.consumerExecutorService = Executors.newFixedThreadPool(this.consumerThreads);
+    }
+
+    /**
+     * Schedules a pass for the current tenant. Wake-ups arriving while a pass is scheduled or running are coalesced
+     * into one further pass rather than queued individually.
+     */
+    public void wake() {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) {
+            return;
+        }
+        final AtomicInteger pending = this.pendingWakeUps.computeIfAbsent(tenant.getTenantIdentifier(), k -> new AtomicInteger());
+        if (pending.getAndIncrement() > 0) {
+            return;
+        }
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        try {
+            this.executorService.execute(() -> {
+                ThreadLocalContextUtil.init(context);
+                try {
+                    int seen;
+                    do {
+                        seen = pending.get();
+                        try {
+                            relay();
+                        } catch (RuntimeException e) {
+                            log.warn("Event outbox relay pass failed for tenant {}", tenant.getTenantIdentifier(), e);
+                        }
+                    } while (!pending.compareAndSet(seen, 0));
+                } finally {
+                    ThreadLocalContextUtil.reset();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, the scheduled job picks the events up after restart
+            pending.set(0);
+        }
+    }
+
+    /**
+     * Catches up on events whose wake-up was lost (a restart, a failing consumer) and purges events that every consumer
+     * has processed and that are older than the retention period.
+     */
+    @CronTarget(jobName = JobName.RELAY_EVENT_OUTBOX)
+    public void relayPendingEvents() throws JobExecutionException {
+        final List<Throwable> errors = new ArrayList<>();
+        try {
+            final Set<String> consumers = relay();
+            purge(consumers.isEmpty() ? null : Collections.min(retrieveCursors(consumers).values()));
+        } catch (RuntimeException e) {
+            log.error("Event outbox relay job failed", e);
+            errors.add(e);
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    /**
+     * Hands every current consumer of the tenant to the consumer pool. A consumer that is already being delivered is
+     * not started twice; its running delivery makes one more round instead.
+     *
+     * @return the names of the current consumers
+     */
+    private Set<String> relay() {
+        final Map<String, EventOutboxConsumer> consumers = new HashMap<>();
+        final Map<String, EventOutboxTopic> consumerTopics = new HashMap<>();
+        for (final EventOutboxSubscriber subscriber : this.subscribers) {
+            for (final Map.Entry<String, EventOutboxConsumer> consumer : subscriber.retrieveConsumers().entrySet()) {
+                consumers.put(consumer.getKey(), consumer.getValue());
+                consumerTopics.put(consumer.getKey(), subscriber.getTopic());
+            }
+        }
+
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        for (final Map.Entry<String, EventOutboxConsumer> consumer : consumers.entrySet()) {
+            final String name = consumer.getKey();
+            dispatch(context, name, () -> deliver(name, consumer.getValue(), consumerTopics.get(name)));
+        }
+        return consumers.keySet();
+    }
+
+    private void dispatch(final FineractContext context, final String consumer, final Runnable delivery) {
+        final String key = context.getTenantContext().getTenantIdentifier() + "/" + consumer;
+        final AtomicInteger pending = this.pendingDeliveries.computeIfAbsent(key, k -> new AtomicInteger());
+        if (pending.getAndIncrement() > 0) {
+            return;
+        }
+        try {
+            this.consumerExecutorService.execute(() -> {
+                try {
+                    int seen;
+                    do {
+                        seen = pending.get();
+                        ThreadLocalContextUtil.init(context);
+                        try {
+                            delivery.run();
+                        } catch (RuntimeException e) {
+                            log.warn("Outbox consumer {} failed, it is retried on the next pass", consumer, e);
+                        }
+                    } while (!pending.compareAndSet(seen, 0));
+                } finally {
+                    ThreadLocalContextUtil.reset();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, the cursor is still in the database for the next run
+            pending.set(0);
+        }
+    }
+
+    /**
+     * Delivers the events past the consumer's cursor until there are none left, the consumer fails or the cursor is
+     * moved elsewhere (replay, hook update).
+     */
+    private void deliver(final String name, final EventOutboxConsumer consumer, final EventOutboxTopic topic) {
+        final BatchingEventOutboxConsumer batching = consumer instanceof BatchingEventOutboxConsumer b ? b : null;
+        final Map<Long, SecurityContext> actors = new HashMap<>();
+        long cursor = retrieveCursors(Set.of(name)).get(name);
+        long position = cursor;
+        while (true) {
+            final List<EventOutboxEntry> batch = this.jdbcTemplate.query(EventOutboxEntryMapper.SCHEMA, new EventOutboxEntryMapper(),
+                    position, BATCH_SIZE);
+            final List<EventOutboxEntry> deliverable = closeGaps(position, batch);
+
+            long delivered = cursor;
+            boolean failed = false;
+            for (final EventOutboxEntry entry : deliverable) {
+                if (batching != null || topic == entry.getTopic()) {
+                    // the user that produced the event, not whoever woke the relay
+                    SecurityContextHolder.setContext(actors.computeIfAbsent(entry.getActorUserId(), this::securityContextOf));
+                    ThreadLocalContextUtil.setAuthToken(StringUtils.trimToNull(this.callbackAuthToken));
+                    try {
+                        consumer.consume(entry);
+                    } catch (Exception e) {
+                        log.warn("Outbox consumer {} failed on event {}, it is retried on the next pass", name, entry.getId(), e);
+                        failed = true;
+                        break;
+                    } finally {
+                        ThreadLocalContextUtil.setAuthToken(null);
+                        SecurityContextHolder.clearContext();
+                    }
+                }
+                delivered = batching != null ? acknowledged(batching, delivered) : entry.getId();
+            }
+
+            if (delivered != cursor) {
+                if (!moveCursor(name, cursor, delivered)) {
+                    return;
+                }
+                cursor = delivered;
+            }
+            if (failed) {
+                return;
+            }
+            if (deliverable.isEmpty() || batch.size() < BATCH_SIZE
+                    || !deliverable.get(deliverable.size() - 1).getId().equals(batch.get(batch.size() - 1).getId())) {
+                break;
+            }
+            position = deliverable.get(deliverable.size() - 1).getId();
+        }
+
+        if (batching != null) {
+            try {
+                batching.flush();
+            } catch (Exception e) {
+                log.warn("Outbox consumer {} failed to deliver its batch, it is retried on the next pass", name, e);
+            }
+            // batches delivered earlier stay acknowledged even when the last one failed
+            final long acknowledged = acknowledged(batching, cursor);
+            if (acknowledged != cursor) {
+                moveCursor(name, cursor, acknowledged);
+            }
+        }
+    }
+
+    /**
+     * Authenticates as the user who produced an event. Events without a user, or whose user no longer exists, are
+     * delivered unauthenticated.
+     */
+    private SecurityContext securityContextOf(final Long actorUserId) {
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        final AppUser user = actorUserId == null ? null : this.appUserRepository.findById(actorUserId).orElse(null);
+        if (user != null) {
+            securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities()));
+        }
+        return securityContext;
+    }
+
+    private static Long acknowledged(final BatchingEventOutboxConsumer consumer, final Long cursor) {
+        final Long position = consumer.getAcknowledgedPosition();
+        return position == null ? cursor : Math.max(cursor, position);
+    }
+
+    /**
+     * Returns the part of the batch that can be delivered in position order, with late commits filled in. A hole younger
+     * than the grace period ends the batch. An older one is read again with a locking read, which waits for the
+     * transactions that inserted into it to finish: the rows it returns were committed late and are delivered in their
+     * place, and the ids it does not return were rolled back. A read that times out ends the batch, so that the hole is
+     * read again on the next pass; an id is never passed over on age alone.
+     */
+    private List<EventOutboxEntry> closeGaps(final long position, final List<EventOutboxEntry> batch) {
+        final LocalDateTime graceLimit = DateUtils.getLocalDateTimeOfSystem().minusSeconds(this.gapGraceSeconds);
+        final List<EventOutboxEntry> deliverable = new ArrayList<>(batch.size());
+        long previous = position;
+        for (final EventOutboxEntry entry : batch) {
+            if (entry.getId() != previous + 1) {
+                if (entry.getCreatedDate().isAfter(graceLimit)) {
+                    return deliverable;
+                }
+                try {
+                    deliverable.addAll(this.jdbcTemplate.query(EventOutboxEntryMapper.HOLE_SQL, new EventOutboxEntryMapper(), previous,
+                            entry.getId()));
+                } catch (PessimisticLockingFailureException e) {
+                    log.debug("Outbox events after {} are still being written, the hole is read again on the next pass", previous, e);
+                    return deliverable;
+                }
+            }
+            deliverable.add(entry);
+            previous = entry.getId();
+        }
+        return deliverable;
+    }
+
+    private Map<String, Long> retrieveCursors(final Set<String> consumers) {
+        final Map<String, Long> cursors = new HashMap<>();
+        this.jdbcTemplate.query("SELECT consumer, last_event_id FROM m_event_outbox_cursor",
+                rs -> { cursors.put(rs.getString("consumer"), rs.getLong("last_event_id")); });
+        cursors.keySet().retainAll(consumers);
+        for (final String consumer : consumers) {
+            if (!cursors.containsKey(consumer)) {
+                // a consumer without a cursor starts with the events appended after it appeared
+                this.jdbcTemplate.update("INSERT IGNORE INTO m_event_outbox_cursor (consumer, last_event_id, last_modified_date)"
+                        + " SELECT ?, COALESCE(MAX(id), 0), ? FROM m_event_outbox", consumer, DateUtils.getLocalDateTimeOfSystem());
+                cursors.put(consumer, this.jdbcTemplate.queryForObject(
+                        "SELECT last_event_id FROM m_event_outbox_cursor WHERE consumer = ?", Long.class, consumer));
+            }
+        }
+        return cursors;
+    }
+
+    private boolean moveCursor(final String consumer, final Long from, final Long to) {
+        return this.jdbcTemplate.update(
+                "UPDATE m_event_outbox_cursor SET last_event_id = ?, last_modified_date = ? WHERE consumer = ? AND last_event_id = ?", to,
+                DateUtils.getLocalDateTimeOfSystem(), consumer, from) == 1;
+    }
+
+    private void purge(final Long minCursor) {
+        final LocalDateTime retentionLimit = DateUtils.getLocalDateTimeOfSystem().minusDays(this.retentionDays);
+        if (minCursor == null) {
+            this.jdbcTemplate.update("DELETE FROM m_event_outbox WHERE created_date < ?", retentionLimit);
+        } else {
+            this.jdbcTemplate.update("DELETE FROM m_event_outbox WHERE id <= ? AND created_date < ?", minCursor, retentionLimit);
+        }
+        // cursors of hooks deleted while the relay was down
+        final int removed = this.jdbcTemplate.update("DELETE FROM m_event_outbox_cursor WHERE consumer LIKE 'hook:%'"
+                + " AND NOT EXISTS (SELECT 1 FROM m_hook h WHERE CONCAT('hook:', h.id) = consumer)");
+        if (removed > 0) {
+            log.debug("Removed {} orphaned event outbox cursors", removed);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.executorService != null) {
+            this.executorService.shutdown();
+        }
+        if (this.consumerExecutorService != null) {
+            this.consumerExecutorService.shutdown();
+        }
+    }
+
+    private static final class EventOutboxEntryMapper implements RowMapper<EventOutboxEntry> {
+
+        private static final String COLUMNS = "SELECT id, topic, entity_name, action_name, entity_id, payload, appuser_id, created_date"
+                + " FROM m_event_outbox";
+        static final String SCHEMA = COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?";
+        // waits for uncommitted inserts into the range, whose records InnoDB keeps locked until commit or rollback
+        static final String HOLE_SQL = COLUMNS + " WHERE id > ? AND id < ? ORDER BY id LOCK IN SHARE MODE";
+
+        @Override
+        public EventOutboxEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new EventOutboxEntry(rs.getLong("id"), EventOutboxTopic.valueOf(rs.getString("topic")), rs.getString("entity_name"),
+                    rs.getString("action_name"), JdbcSupport.getLong(rs, "entity_id"), rs.getString("payload"),
+                    JdbcSupport.getLong(rs, "appuser_id"), JdbcSupport.getLocalDateTime(rs, "created_date"));
+        }
+    }
+}
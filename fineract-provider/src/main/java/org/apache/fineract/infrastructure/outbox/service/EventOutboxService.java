@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.service;
+
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+
+/**
+ * Transactional outbox for events that leave the platform (hooks and notifications). Events are written with the
+ * transaction that produced them and relayed by {@link EventOutboxRelay} only once that transaction has committed.
+ */
+public interface EventOutboxService {
+
+    /**
+     * Appends an event in the current transaction; it is relayed after the transaction commits and discarded with it on
+     * rollback.
+     */
+    void append(EventOutboxTopic topic, String entityName, String actionName, Long entityId, String payload);
+
+    /**
+     * Appends an event in a transaction of its own, for events that must survive the rollback of the current one, such
+     * as the failure of a command.
+     */
+    void appendIndependently(EventOutboxTopic topic, String entityName, String actionName, Long entityId, String payload);
+
+    /**
+     * Starts (or restarts) a consumer after the newest event, so that it only receives events appended from now on.
+     */
+    void moveCursorToEnd(String consumer);
+
+    /**
+     * Makes a consumer receive every retained event from {@code fromPosition} onwards again.
+     */
+    void replayFrom(String consumer, Long fromPosition);
+
+    void deleteCursor(String consumer);
+}
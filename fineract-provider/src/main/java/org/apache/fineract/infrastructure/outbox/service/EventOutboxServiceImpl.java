@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class EventOutboxServiceImpl implements EventOutboxService {
+
+    private static final String INSERT_SQL = "INSERT INTO m_event_outbox"
+            + " (topic, entity_name, action_name, entity_id, payload, appuser_id, created_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_CURSOR_SQL = """
+            INSERT INTO m_event_outbox_cursor (consumer, last_event_id, last_modified_date) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE last_event_id = VALUES(last_event_id), last_modified_date = VALUES(last_modified_date)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventOutboxRelay eventOutboxRelay;
+
+    @Override
+    public void append(final EventOutboxTopic topic, final String entityName, final String actionName, final Long entityId,
+            final String payload) {
+        // the relay delivers the event as the user that caused it; the request's credentials are never stored
+        this.jdbcTemplate.update(INSERT_SQL, topic.name(), entityName, actionName, entityId, payload,
+                actorUserId(SecurityContextHolder.getContext()), DateUtils.getLocalDateTimeOfSystem());
+        wakeRelayAfterCommit();
+    }
+
+    @Override
+    public void appendIndependently(final EventOutboxTopic topic, final String entityName, final String actionName, final Long entityId,
+            final String payload) {
+        final TransactionTemplate requiresNew = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.executeWithoutResult(status -> append(topic, entityName, actionName, entityId, payload));
+    }
+
+    @Override
+    public void moveCursorToEnd(final String consumer) {
+        final Long lastEventId = this.jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM m_event_outbox", Long.class);
+        this.jdbcTemplate.update(UPSERT_CURSOR_SQL, consumer, lastEventId, DateUtils.getLocalDateTimeOfSystem());
+    }
+
+    @Override
+    public void replayFrom(final String consumer, final Long fromPosition) {
+        this.jdbcTemplate.update(UPSERT_CURSOR_SQL, consumer, fromPosition - 1, DateUtils.getLocalDateTimeOfSystem());
+        wakeRelayAfterCommit();
+    }
+
+    @Override
+    public void deleteCursor(final String consumer) {
+        this.jdbcTemplate.update("DELETE FROM m_event_outbox_cursor WHERE consumer = ?", consumer);
+    }
+
+    private static Long actorUserId(final SecurityContext securityContext) {
+        final Authentication authentication = securityContext == null ? null : securityContext.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AppUser) {
+            return ((AppUser) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+
+    private void wakeRelayAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.eventOutboxRelay.wake();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                EventOutboxServiceImpl.this.eventOutboxRelay.wake();
+            }
+        });
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Properties;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.email.JavaMailSenderProvider;
 import org.apache.fineract.infrastructure.reportmailingjob.ReportMailingJobConstants;
 import org.apache.fineract.infrastructure.reportmailingjob.data.ReportMailingJobConfigurationData;
 import org.apache.fineract.infrastructure.reportmailingjob.data.ReportMailingJobEmailData;
@@ -38,6 +39,7 @@ public class ReportMailingJobEmailServiceImpl implements ReportMailingJobEmailSe
 
     private static final Logger LOG = LoggerFactory.getLogger(ReportMailingJobEmailServiceImpl.class);
     private final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService;
+    private final JavaMailSenderProvider javaMailSenderProvider;
     private Collection<ReportMailingJobConfigurationData> reportMailingJobConfigurationDataCollection;
 
     /**
@@ -45,8 +47,10 @@ public class ReportMailingJobEmailServiceImpl implements ReportMailingJobEmailSe
      **/
     @Autowired
     public ReportMailingJobEmailServiceImpl(
-            final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService) {
+            final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService,
+            final JavaMailSenderProvider javaMailSenderProvider) {
         this.reportMailingJobConfigurationReadPlatformService = reportMailingJobConfigurationReadPlatformService;
+        this.javaMailSenderProvider = javaMailSenderProvider;
 
     }
 
@@ -57,12 +61,8 @@ public class ReportMailingJobEmailServiceImpl implements ReportMailingJobEmailSe
             this.reportMailingJobConfigurationDataCollection = this.reportMailingJobConfigurationReadPlatformService
                     .retrieveAllReportMailingJobConfigurations();
 
-            JavaMailSenderImpl javaMailSenderImpl = new JavaMailSenderImpl();
-            javaMailSenderImpl.setHost(this.getGmailSmtpServer());
-            javaMailSenderImpl.setPort(this.getGmailSmtpPort());
-            javaMailSenderImpl.setUsername(this.getGmailSmtpUsername());
-            javaMailSenderImpl.setPassword(this.getGmailSmtpPassword());
-            javaMailSenderImpl.setJavaMailProperties(this.getJavaMailProperties());
+            JavaMailSenderImpl javaMailSenderImpl = this.javaMailSenderProvider.getSender(this.getGmailSmtpServer(),
+                    this.getGmailSmtpPort(), this.getGmailSmtpUsername(), this.getGmailSmtpPassword(), this.getJavaMailProperties());
 
             MimeMessage mimeMessage = javaMailSenderImpl.createMimeMessage();
 
@@ -41,6 +41,7 @@ import org.apache.fineract.infrastructure.security.domain.business.LoginCountReq
 import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
 import org.apache.fineract.infrastructure.security.service.AuthenticationBusinessCommandFromApiJsonDeserializer;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
 import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobService;
@@ -170,7 +171,8 @@ public class AuthenticationBusinessWritePlatformServiceImpl implements Authentic
                 SmsMessage smsMessage = SmsMessage.instance(externalId, group, null, staff, SmsMessageStatusType.PENDING, message, mobile,
                         smsCampaign, isNotification);
                 this.smsMessageRepository.save(smsMessage);
-                this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId);
+                this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId,
+                        SmsMessagePriority.OTP);
             } catch (Exception e) {
                 log.warn("sms gateway not available: {}", e);
                 throw new PlatformDataIntegrityException("error.msg", "Sms service unavailable.");
@@ -18,75 +18,45 @@
  */
 package org.apache.fineract.infrastructure.security.utils;
 
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.fineract.infrastructure.dataqueries.service.SchemaMetaDataReadService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ColumnValidator {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ColumnValidator.class);
-    private final JdbcTemplate jdbcTemplate;
+    private static final Pattern MULTIPLE_SPACES = Pattern.compile(" +");
+    private static final List<String> OPERATORS = List.of("=", ">", "<", "> =", "< =", "! =", "!=", ">=", "<=");
+    private static final List<String> OPERAND_OPERATORS = List.of("!=", "=", ">", "<", " like ", " between ", " in ", " in(", " is ",
+            " is not ", " equals ", " not equals ");
+
+    private final SchemaMetaDataReadService schemaMetaDataReadService;
 
     @Autowired
-    public ColumnValidator(final JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public ColumnValidator(final SchemaMetaDataReadService schemaMetaDataReadService) {
+        this.schemaMetaDataReadService = schemaMetaDataReadService;
     }
 
     private void validateColumn(Map<String, Set<String>> tableColumnMap) {
-        Connection connection = null;
-        try {
-            connection = this.jdbcTemplate.getDataSource().getConnection();
-            DatabaseMetaData dbMetaData = connection.getMetaData();
-            ResultSet resultSet = null;
-            for (Map.Entry<String, Set<String>> entry : tableColumnMap.entrySet()) {
-                Set<String> columns = entry.getValue();
-                resultSet = dbMetaData.getColumns(null, null, entry.getKey(), null);
-                Set<String> tableColumns = getTableColumns(resultSet);
-                if (columns.size() > 0 && tableColumns.size() == 0) {
+        for (Map.Entry<String, Set<String>> entry : tableColumnMap.entrySet()) {
+            Set<String> columns = entry.getValue();
+            Set<String> tableColumns = this.schemaMetaDataReadService.retrieveColumnNames(entry.getKey());
+            if (columns.size() > 0 && tableColumns.size() == 0) {
+                throw new SQLInjectionException();
+            }
+            for (String requestedColumn : columns) {
+                if (!tableColumns.contains(requestedColumn)) {
                     throw new SQLInjectionException();
                 }
-                for (String requestedColumn : columns) {
-                    if (!tableColumns.contains(requestedColumn)) {
-                        throw new SQLInjectionException();
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            throw new SQLInjectionException(e);
-        } finally {
-            if (connection != null) {
-                DataSourceUtils.releaseConnection(connection, jdbcTemplate.getDataSource());
-            }
-            connection = null;
-        }
-    }
-
-    private Set<String> getTableColumns(final ResultSet rs) {
-        Set<String> columns = new HashSet<>();
-        try {
-            while (rs.next()) {
-                columns.add(rs.getString("column_name"));
             }
-        } catch (SQLException e) {
-            LOG.error("Problem occurred in getTableColumns function", e);
         }
-        return columns;
     }
 
     public void validateSqlInjection(String schema, String... conditions) {
@@ -95,13 +65,12 @@ public class ColumnValidator {
                 continue;
             }
             SQLInjectionValidator.validateSQLInput(condition);
-            List<String> operator = new ArrayList<>(Arrays.asList("=", ">", "<", "> =", "< =", "! =", "!=", ">=", "<="));
             condition = condition.trim().replace("( ", "(").replace(" )", ")").toLowerCase();
-            for (String op : operator) {
-                condition = replaceAll(condition, op).replaceAll(" +", " ");
+            for (String op : OPERATORS) {
+                condition = MULTIPLE_SPACES.matcher(replaceAll(condition, op)).replaceAll(" ");
             }
             Set<String> operands = getOperand(condition);
-            schema = schema.trim().replaceAll(" +", " ").toLowerCase();
+            schema = MULTIPLE_SPACES.matcher(schema.trim()).replaceAll(" ").toLowerCase();
             Map<String, Set<String>> tableColumnAliasMap = getTableColumnAliasMap(operands);
             Map<String, Set<String>> tableColumnMap = getTableColumnMap(schema, tableColumnAliasMap);
             validateColumn(tableColumnMap);
@@ -148,9 +117,7 @@ public class ColumnValidator {
 
     private static Set<String> getOperand(String condition) {
         Set<String> operandList = new HashSet<>();
-        List<String> operatorList = new ArrayList<>(
-                Arrays.asList("!=", "=", ">", "<", " like ", " between ", " in ", " in(", " is ", " is not ", " equals ", " not equals "));
-        for (String op : operatorList) {
+        for (String op : OPERAND_OPERATORS) {
             int startIndex = 0;
             do {
                 int index = condition.indexOf(op, startIndex);
@@ -35,7 +35,7 @@ public final class SQLInjectionValidator {
 
     private static final String[] COMMENTS = { "--", "({", "/*", "#" };
 
-    private static final String SQL_PATTERN = "[a-zA-Z_=,\\-'!><.?\"`% ()0-9*\n\r]*";
+    private static final Pattern SQL_PATTERN = Pattern.compile("[a-zA-Z_=,\\-'!><.?\"`% ()0-9*\n\r]*");
 
     public static void validateSQLInput(final String sqlSearch) {
         if (StringUtils.isBlank(sqlSearch)) {
@@ -66,12 +66,12 @@ public final class SQLInjectionValidator {
         String inputSqlString = lowerCaseSQL;
         while (inputSqlString.indexOf(" =") > 0) { // Don't remove space before
                                                    // = operator
-            inputSqlString = inputSqlString.replaceAll(" =", "=");
+            inputSqlString = inputSqlString.replace(" =", "=");
         }
 
         while (inputSqlString.indexOf("= ") > 0) { // Don't remove space after =
                                                    // operator
-            inputSqlString = inputSqlString.replaceAll("= ", "=");
+            inputSqlString = inputSqlString.replace("= ", "=");
         }
 
         StringTokenizer tokenizer = new StringTokenizer(inputSqlString, " ");
@@ -118,8 +118,7 @@ public final class SQLInjectionValidator {
             throw new SQLInjectionException();
         }
 
-        Pattern pattern = Pattern.compile(SQL_PATTERN);
-        Matcher matcher = pattern.matcher(sqlSearch);
+        Matcher matcher = SQL_PATTERN.matcher(sqlSearch);
         if (!matcher.matches()) {
             throw new SQLInjectionException();
         }
@@ -148,12 +147,12 @@ public final class SQLInjectionValidator {
         String inputSqlString = lowerCaseSQL;
         while (inputSqlString.indexOf(" =") > 0) { // Don't remove space before
                                                    // = operator
-            inputSqlString = inputSqlString.replaceAll(" =", "=");
+            inputSqlString = inputSqlString.replace(" =", "=");
         }
 
         while (inputSqlString.indexOf("= ") > 0) { // Don't remove space after =
                                                    // operator
-            inputSqlString = inputSqlString.replaceAll("= ", "=");
+            inputSqlString = inputSqlString.replace("= ", "=");
         }
 
         StringTokenizer tokenizer = new StringTokenizer(inputSqlString, " ");
@@ -200,8 +199,7 @@ public final class SQLInjectionValidator {
             throw new SQLInjectionException();
         }
 
-        Pattern pattern = Pattern.compile(SQL_PATTERN);
-        Matcher matcher = pattern.matcher(sqlSearch);
+        Matcher matcher = SQL_PATTERN.matcher(sqlSearch);
         if (!matcher.matches()) {
             throw new SQLInjectionException();
         }
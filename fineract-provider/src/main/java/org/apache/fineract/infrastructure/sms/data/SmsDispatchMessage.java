@@ -16,24 +16,23 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.notification.eventandlistener;
+package org.apache.fineract.infrastructure.sms.data;
 
-import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.domain.FineractEvent;
-import org.apache.fineract.notification.data.NotificationData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 
-@SuppressWarnings("serial")
-public class NotificationEvent extends FineractEvent {
-
-    private NotificationData notificationData;
-
-    public NotificationEvent(Object source, NotificationData notificationData, FineractContext context) {
-        super(source, context);
-        this.notificationData = notificationData;
-    }
-
-    public NotificationData getNotificationData() {
-        return notificationData;
-    }
+/**
+ * An SMS queued on the dispatcher, detached from the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class SmsDispatchMessage {
 
+    private final Long id;
+    private final String mobileNo;
+    private final String message;
+    private final Long providerId;
+    private final SmsMessagePriority priority;
+    private final long enqueuedAt;
 }
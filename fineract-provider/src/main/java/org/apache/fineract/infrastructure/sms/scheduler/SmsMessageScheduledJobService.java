@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Map;
 import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 
 /**
  * Scheduled Job service interface for SMS message
@@ -40,6 +41,14 @@ public interface SmsMessageScheduledJobService {
      */
     void sendTriggeredMessages(Map<SmsCampaign, Collection<SmsMessage>> smsDataMap);
 
+    /**
+     * sends triggered batch SMS messages to SMS gateway on the given dispatch lane
+     *
+     * @param smsDataMap
+     * @param priority
+     */
+    void sendTriggeredMessages(Map<SmsCampaign, Collection<SmsMessage>> smsDataMap, SmsMessagePriority priority);
+
     /**
      * Sends a triggered batch of SMS messages to SMS gateway using specified provider.
      *
@@ -50,6 +59,18 @@ public interface SmsMessageScheduledJobService {
      */
     void sendTriggeredMessage(Collection<SmsMessage> smsMessage, long providerId);
 
+    /**
+     * Sends a triggered batch of SMS messages to SMS gateway using specified provider, on the given dispatch lane.
+     *
+     * @param smsMessage
+     *            the SMS messages to queue for sending.
+     * @param providerId
+     *            the provider ID of the SMS gateway to be used
+     * @param priority
+     *            the dispatch lane, OTP for one time passwords and credentials
+     */
+    void sendTriggeredMessage(Collection<SmsMessage> smsMessage, long providerId, SmsMessagePriority priority);
+
     /**
      * get delivery report from the SMS gateway
      **/
@@ -18,45 +18,30 @@
  */
 package org.apache.fineract.infrastructure.sms.scheduler;
 
-import com.google.gson.Gson;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
-import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
 import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
-import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
-import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.service.Page;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
-import org.apache.fineract.infrastructure.sms.data.SmsMessageApiQueueResourceData;
+import org.apache.fineract.infrastructure.sms.data.SmsDispatchMessage;
 import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
-import org.apache.fineract.infrastructure.sms.service.SmsReadPlatformService;
+import org.apache.fineract.infrastructure.sms.service.SmsDispatcher;
+import org.apache.fineract.infrastructure.sms.service.SmsGatewayClient;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationListener;
-import org.springframework.context.event.ContextClosedEvent;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Scheduled job services that send SMS messages and get delivery reports for the sent SMS messages
@@ -65,137 +50,116 @@ import org.springframework.web.client.RestTemplate;
 @Slf4j
 public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJobService {
 
+    private static final int PAGE_LIMIT = 200;
+
     private final SmsMessageRepository smsMessageRepository;
-    private final SmsReadPlatformService smsReadPlatformService;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final SmsConfigUtils smsConfigUtils;
     private final NotificationSenderService notificationSenderService;
-    private ExecutorService genericExecutorService;
-    private ExecutorService triggeredExecutorService;
+    private final SmsDispatcher smsDispatcher;
+    private final SmsGatewayClient smsGatewayClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
 
     /**
      * SmsMessageScheduledJobServiceImpl constructor
      **/
     @Autowired
-    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, SmsReadPlatformService smsReadPlatformService,
-            final SmsConfigUtils smsConfigUtils, final NotificationSenderService notificationSenderService) {
+    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository,
+            final NotificationSenderService notificationSenderService, final SmsDispatcher smsDispatcher,
+            final SmsGatewayClient smsGatewayClient, final JdbcTemplate jdbcTemplate,
+            final NamedParameterJdbcTemplate namedParameterJdbcTemplate, final DatabaseSpecificSQLGenerator sqlGenerator) {
         this.smsMessageRepository = smsMessageRepository;
-        this.smsReadPlatformService = smsReadPlatformService;
-        this.smsConfigUtils = smsConfigUtils;
         this.notificationSenderService = notificationSenderService;
-    }
-
-    @PostConstruct
-    public void initializeExecutorService() {
-        genericExecutorService = Executors.newSingleThreadExecutor();
-        triggeredExecutorService = Executors.newSingleThreadExecutor();
+        this.smsDispatcher = smsDispatcher;
+        this.smsGatewayClient = smsGatewayClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.sqlGenerator = sqlGenerator;
     }
 
     /**
-     * Send batches of SMS messages to the SMS gateway (or intermediate gateway)
+     * Send batches of SMS messages to the SMS gateway (or intermediate gateway). Pending messages are queued on the
+     * campaign lane of the dispatcher, as far as its campaign backlog allows; the rest stay PENDING for the next run.
      **/
     @Override
     @Transactional
     @CronTarget(jobName = JobName.SEND_MESSAGES_TO_SMS_GATEWAY)
     public void sendMessagesToGateway() {
-        Integer pageLimit = 200;
-        Integer page = 0;
-        int totalRecords = 0;
-        do {
-            PageRequest pageRequest = PageRequest.of(0, pageLimit);
-            org.springframework.data.domain.Page<SmsMessage> pendingMessages = this.smsMessageRepository
-                    .findByStatusType(SmsMessageStatusType.PENDING.getValue(), pageRequest);
-            List<SmsMessage> toSaveMessages = new ArrayList<>();
-            List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
-            try {
-
-                if (pendingMessages.getContent().size() > 0) {
-                    final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-                    Iterator<SmsMessage> pendingMessageIterator = pendingMessages.iterator();
-                    Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    while (pendingMessageIterator.hasNext()) {
-                        SmsMessage smsData = pendingMessageIterator.next();
-                        if (smsData.isNotification()) {
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSendNotificationMessages.add(smsData);
+        final String sql = "SELECT sm.id, sm.mobile_no, sm.message, sm.is_notification, c.provider_id FROM sms_messages_outbound sm "
+                + "LEFT JOIN sms_campaign c ON c.id = sm.campaign_id WHERE sm.status_enum = ? AND sm.id > ? ORDER BY sm.id ";
+        long lastId = 0L;
+        int capacity = this.smsDispatcher.campaignCapacity();
+        while (capacity > 0) {
+            final long now = System.currentTimeMillis();
+            final List<SmsDispatchMessage> toDispatchMessages = new ArrayList<>();
+            final List<Long> notificationIds = new ArrayList<>();
+            final List<Long> pageIds = this.jdbcTemplate.query(sql + this.sqlGenerator.limit(Math.min(PAGE_LIMIT, capacity)),
+                    (rs, rowNum) -> {
+                        final Long id = rs.getLong("id");
+                        if (rs.getBoolean("is_notification")) {
+                            notificationIds.add(id);
                         } else {
-                            SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsData.getId(),
-                                    tenantIdentifier, null, null, smsData.getMobileNo(), smsData.getMessage(),
-                                    smsData.getSmsCampaign().getProviderId());
-                            apiQueueResourceDatas.add(apiQueueResourceData);
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSaveMessages.add(smsData);
+                            final Long providerId = rs.getObject("provider_id", Long.class);
+                            toDispatchMessages.add(new SmsDispatchMessage(id, rs.getString("mobile_no"), rs.getString("message"),
+                                    providerId, SmsMessagePriority.CAMPAIGN, now));
                         }
-                    }
-                    if (toSaveMessages.size() > 0) {
-                        this.smsMessageRepository.saveAll(toSaveMessages);
-                        this.smsMessageRepository.flush();
-                        this.genericExecutorService.execute(new SmsTask(apiQueueResourceDatas, ThreadLocalContextUtil.getContext()));
-                    }
-                    if (!toSendNotificationMessages.isEmpty()) {
-                        this.notificationSenderService.sendNotification(toSendNotificationMessages);
-                    }
-                    // new MyThread(ThreadLocalContextUtil.getTenant(),
-                    // apiQueueResourceDatas).start();
-                }
-            } catch (Exception e) {
-                throw new ConnectionFailureException(SmsCampaignConstants.SMS, e);
+                        return id;
+                    }, SmsMessageStatusType.PENDING.getValue(), lastId);
+            if (pageIds.isEmpty()) {
+                break;
             }
-            page++;
-            totalRecords = pendingMessages.getTotalPages();
-        } while (page < totalRecords);
-    }
+            lastId = pageIds.get(pageIds.size() - 1);
+            capacity -= pageIds.size();
 
-    private void connectAndSendToIntermediateServer(Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas) {
-        Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms",
-                SmsMessageApiQueueResourceData.toJsonString(apiQueueResourceDatas));
-        URI uri = (URI) hostConfig.get("uri");
-        HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
-        ResponseEntity<String> responseOne = restTemplate.exchange(uri, HttpMethod.POST, entity, new ParameterizedTypeReference<String>() {
-
-        });
-        if (responseOne != null) {
-            // String smsResponse = responseOne.getBody();
-            if (!responseOne.getStatusCode().equals(HttpStatus.ACCEPTED)) {
-                log.debug("{}", responseOne.getStatusCode().name());
-                throw new ConnectionFailureException(SmsCampaignConstants.SMS);
+            if (!toDispatchMessages.isEmpty()) {
+                final List<Long> ids = new ArrayList<>(toDispatchMessages.size());
+                for (final SmsDispatchMessage message : toDispatchMessages) {
+                    ids.add(message.getId());
+                }
+                markWaitingForDeliveryReport(ids);
+                this.smsDispatcher.dispatch(toDispatchMessages);
+            }
+            if (!notificationIds.isEmpty()) {
+                final List<SmsMessage> toSendNotificationMessages = this.smsMessageRepository.findAllById(notificationIds);
+                for (final SmsMessage smsMessage : toSendNotificationMessages) {
+                    smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
+                }
+                this.notificationSenderService.sendNotification(toSendNotificationMessages);
             }
         }
     }
 
+    private void markWaitingForDeliveryReport(final List<Long> ids) {
+        this.namedParameterJdbcTemplate.update("UPDATE sms_messages_outbound SET status_enum = :status WHERE id IN (:ids)",
+                new MapSqlParameterSource("status", SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue()).addValue("ids", ids));
+    }
+
     @Override
     public void sendTriggeredMessages(Map<SmsCampaign, Collection<SmsMessage>> smsDataMap) {
+        sendTriggeredMessages(smsDataMap, SmsMessagePriority.TRANSACTIONAL);
+    }
+
+    @Override
+    public void sendTriggeredMessages(Map<SmsCampaign, Collection<SmsMessage>> smsDataMap, SmsMessagePriority priority) {
         try {
-            if (!smsDataMap.isEmpty()) {
+            for (Map.Entry<SmsCampaign, Collection<SmsMessage>> entry : smsDataMap.entrySet()) {
                 List<SmsMessage> toSaveMessages = new ArrayList<>();
                 List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
-                for (Map.Entry<SmsCampaign, Collection<SmsMessage>> entry : smsDataMap.entrySet()) {
-                    Iterator<SmsMessage> smsMessageIterator = entry.getValue().iterator();
-                    Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    StringBuilder request = new StringBuilder();
-                    while (smsMessageIterator.hasNext()) {
-                        SmsMessage smsMessage = smsMessageIterator.next();
-                        if (smsMessage.isNotification()) {
-                            smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSendNotificationMessages.add(smsMessage);
-                        } else {
-                            SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(
-                                    smsMessage.getId(), null, null, null, smsMessage.getMobileNo(), smsMessage.getMessage(),
-                                    entry.getKey().getProviderId());
-                            apiQueueResourceDatas.add(apiQueueResourceData);
-                            smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSaveMessages.add(smsMessage);
-                        }
-                    }
-                    if (toSaveMessages.size() > 0) {
-                        this.smsMessageRepository.saveAll(toSaveMessages);
-                        this.smsMessageRepository.flush();
-                        this.triggeredExecutorService.execute(new SmsTask(apiQueueResourceDatas, ThreadLocalContextUtil.getContext()));
+                for (SmsMessage smsMessage : entry.getValue()) {
+                    smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
+                    if (smsMessage.isNotification()) {
+                        toSendNotificationMessages.add(smsMessage);
+                    } else {
+                        toSaveMessages.add(smsMessage);
                     }
-                    if (!toSendNotificationMessages.isEmpty()) {
-                        this.notificationSenderService.sendNotification(toSendNotificationMessages);
-                    }
-
+                }
+                if (!toSaveMessages.isEmpty()) {
+                    this.smsMessageRepository.saveAll(toSaveMessages);
+                    this.smsMessageRepository.flush();
+                    this.smsDispatcher.dispatch(toSaveMessages, entry.getKey().getProviderId(), priority);
+                }
+                if (!toSendNotificationMessages.isEmpty()) {
+                    this.notificationSenderService.sendNotification(toSendNotificationMessages);
                 }
             }
         } catch (Exception e) {
@@ -205,133 +169,84 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
 
     @Override
     public void sendTriggeredMessage(Collection<SmsMessage> smsMessages, long providerId) {
+        sendTriggeredMessage(smsMessages, providerId, SmsMessagePriority.TRANSACTIONAL);
+    }
+
+    @Override
+    public void sendTriggeredMessage(Collection<SmsMessage> smsMessages, long providerId, SmsMessagePriority priority) {
         try {
-            Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-            StringBuilder request = new StringBuilder();
             for (SmsMessage smsMessage : smsMessages) {
-                SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsMessage.getId(), null,
-                        null, null, smsMessage.getMobileNo(), smsMessage.getMessage(), providerId);
-                apiQueueResourceDatas.add(apiQueueResourceData);
                 smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
             }
             this.smsMessageRepository.saveAll(smsMessages);
-            request.append(SmsMessageApiQueueResourceData.toJsonString(apiQueueResourceDatas));
-            log.info("Sending triggered SMS to specific provider with request - {}", request);
-            this.triggeredExecutorService.execute(new SmsTask(apiQueueResourceDatas, ThreadLocalContextUtil.getContext()));
+            log.info("Queueing {} triggered SMS for provider {} on the {} lane", smsMessages.size(), providerId, priority);
+            this.smsDispatcher.dispatch(smsMessages, providerId, priority);
         } catch (Exception e) {
             log.error("Error occured.", e);
         }
     }
 
     /**
-     * get SMS message delivery reports from the SMS gateway (or intermediate gateway)
+     * get SMS message delivery reports from the SMS gateway (or intermediate gateway) and apply them with one batch
+     * update per page
      **/
     @Override
     @Transactional
     @CronTarget(jobName = JobName.GET_DELIVERY_REPORTS_FROM_SMS_GATEWAY)
     public void getDeliveryReports() {
-        int page = 0;
-        int totalRecords = 0;
-        Integer limit = 200;
-        do {
-            Page<Long> smsMessageInternalIds = this.smsReadPlatformService.retrieveAllWaitingForDeliveryReport(limit);
-            // only proceed if there are sms message with status type enum 300
+        final String sql = "SELECT id FROM sms_messages_outbound WHERE status_enum = ? AND id > ? ORDER BY id "
+                + this.sqlGenerator.limit(PAGE_LIMIT);
+        long lastId = 0L;
+        while (true) {
+            final List<Long> smsMessageInternalIds = this.jdbcTemplate.queryForList(sql, Long.class,
+                    SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue(), lastId);
+            if (smsMessageInternalIds.isEmpty()) {
+                break;
+            }
+            lastId = smsMessageInternalIds.get(smsMessageInternalIds.size() - 1);
             try {
-
-                if (smsMessageInternalIds.getPageItems().size() > 0) {
-                    // make request
-                    Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
-                            new Gson().toJson(smsMessageInternalIds.getPageItems()));
-                    URI uri = (URI) hostConfig.get("uri");
-                    HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
-                    ResponseEntity<Collection<SmsMessageDeliveryReportData>> responseOne = restTemplate.exchange(uri, HttpMethod.POST,
-                            entity, new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {
-
-                            });
-
-                    Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = responseOne.getBody();
-                    Iterator<SmsMessageDeliveryReportData> responseReportIterator = smsMessageDeliveryReportDatas.iterator();
-                    while (responseReportIterator.hasNext()) {
-                        SmsMessageDeliveryReportData smsMessageDeliveryReportData = responseReportIterator.next();
-                        Integer deliveryStatus = smsMessageDeliveryReportData.getDeliveryStatus();
-
-                        if (!smsMessageDeliveryReportData.getHasError() && deliveryStatus != 100) {
-                            SmsMessage smsMessage = this.smsMessageRepository.findById(smsMessageDeliveryReportData.getId()).orElse(null);
-                            Integer statusType = smsMessage.getStatusType();
-
-                            switch (deliveryStatus) {
-                                case 0:
-                                    statusType = SmsMessageStatusType.INVALID.getValue();
-                                break;
-                                case 150:
-                                    statusType = SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
-                                break;
-                                case 200:
-                                    statusType = SmsMessageStatusType.SENT.getValue();
-                                break;
-                                case 300:
-                                    statusType = SmsMessageStatusType.DELIVERED.getValue();
-                                break;
-
-                                case 400:
-                                    statusType = SmsMessageStatusType.FAILED.getValue();
-                                break;
-
-                                default:
-                                    statusType = smsMessage.getStatusType();
-                                break;
-                            }
-
-                            boolean statusChanged = !statusType.equals(smsMessage.getStatusType());
-
-                            // update the status Type enum
-                            smsMessage.setStatusType(statusType);
-
-                            // update the externalId
-                            smsMessage.setExternalId(smsMessageDeliveryReportData.getExternalId());
-
-                            // save the SmsMessage entity
-                            this.smsMessageRepository.save(smsMessage);
-
-                            if (statusChanged) {
-                                log.info("Status of SMS message id: {} successfully changed to {}", smsMessage.getId(), statusType);
-                            }
-                        }
-                    }
-
-                    if (smsMessageDeliveryReportDatas.size() > 0) {
-                        log.info("{} delivery report(s) successfully received from the intermediate gateway - sms",
-                                smsMessageDeliveryReportDatas.size());
+                final Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = this.smsGatewayClient
+                        .retrieveDeliveryReports(smsMessageInternalIds);
+                final List<Object[]> updates = new ArrayList<>();
+                for (SmsMessageDeliveryReportData smsMessageDeliveryReportData : smsMessageDeliveryReportDatas) {
+                    final Integer deliveryStatus = smsMessageDeliveryReportData.getDeliveryStatus();
+                    if (!Boolean.TRUE.equals(smsMessageDeliveryReportData.getHasError()) && deliveryStatus != null
+                            && deliveryStatus != 100) {
+                        // a null status leaves status_enum as it is and only records the external id
+                        updates.add(new Object[] { toStatusType(deliveryStatus), smsMessageDeliveryReportData.getExternalId(),
+                                smsMessageDeliveryReportData.getId() });
                     }
                 }
+                if (!updates.isEmpty()) {
+                    this.jdbcTemplate.batchUpdate(
+                            "UPDATE sms_messages_outbound SET status_enum = COALESCE(?, status_enum), external_id = ? WHERE id = ?",
+                            updates);
+                }
+                if (smsMessageDeliveryReportDatas.size() > 0) {
+                    log.info("{} delivery report(s) successfully received from the intermediate gateway - sms",
+                            smsMessageDeliveryReportDatas.size());
+                }
             } catch (Exception e) {
                 log.error("Error occured.", e);
+                break;
             }
-            page++;
-            totalRecords = smsMessageInternalIds.getTotalFilteredRecords();
-        } while (page < totalRecords);
-    }
-
-    class SmsTask implements Runnable, ApplicationListener<ContextClosedEvent> {
-
-        private final FineractContext context;
-        private final Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas;
-
-        SmsTask(final Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas, final FineractContext context) {
-            this.context = context;
-            this.apiQueueResourceDatas = apiQueueResourceDatas;
-        }
-
-        @Override
-        public void run() {
-            ThreadLocalContextUtil.init(context);
-            connectAndSendToIntermediateServer(apiQueueResourceDatas);
         }
+    }
 
-        @Override
-        public void onApplicationEvent(ContextClosedEvent event) {
-            genericExecutorService.shutdown();
-            log.info("Shutting down the ExecutorService");
+    private static Integer toStatusType(final int deliveryStatus) {
+        switch (deliveryStatus) {
+            case 0:
+                return SmsMessageStatusType.INVALID.getValue();
+            case 150:
+                return SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
+            case 200:
+                return SmsMessageStatusType.SENT.getValue();
+            case 300:
+                return SmsMessageStatusType.DELIVERED.getValue();
+            case 400:
+                return SmsMessageStatusType.FAILED.getValue();
+            default:
+                return null;
         }
     }
 }
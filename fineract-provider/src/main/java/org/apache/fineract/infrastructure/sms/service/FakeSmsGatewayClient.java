@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.sms.data.SmsDispatchMessage;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the message gateway, enabled with the smsFakeGateway profile. It accepts every batch after the
+ * configured latency, reports every accepted message as delivered and periodically logs, per provider, the throughput,
+ * the time messages of each lane spent queued and any batch that put a lower lane ahead of a higher one.
+ */
+@Slf4j
+@Component
+@Profile("smsFakeGateway")
+public class FakeSmsGatewayClient implements SmsGatewayClient, ApplicationListener<ContextClosedEvent> {
+
+    private static final int DELIVERED = 300;
+
+    private final Map<Long, ProviderStatistics> statisticsByProvider = new ConcurrentHashMap<>();
+    private final Set<Long> undeliveredIds = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService reporter;
+
+    @Value("${fineract.sms.fake-gateway.latency-millis:0}")
+    private long latencyMillis;
+
+    @Value("${fineract.sms.fake-gateway.report-seconds:10}")
+    private long reportSeconds;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.reporter = Executors.newSingleThreadScheduledExecutor();
+        this.reporter.scheduleWithFixedDelay(this::logStatistics, this.reportSeconds, this.reportSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void send(final Long providerId, final List<SmsDispatchMessage> messages) {
+        if (this.latencyMillis > 0) {
+            try {
+                Thread.sleep(this.latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final long now = System.currentTimeMillis();
+        this.statisticsByProvider.computeIfAbsent(providerId, ProviderStatistics::new).record(messages, now);
+        for (final SmsDispatchMessage message : messages) {
+            this.undeliveredIds.add(message.getId());
+        }
+    }
+
+    @Override
+    public Collection<SmsMessageDeliveryReportData> retrieveDeliveryReports(final Collection<Long> messageIds) {
+        final String deliveredOn = DateUtils.getLocalDateTimeOfSystem().toString();
+        final List<SmsMessageDeliveryReportData> reports = new ArrayList<>();
+        for (final Long messageId : messageIds) {
+            if (this.undeliveredIds.remove(messageId)) {
+                reports.add(SmsMessageDeliveryReportData.getInstance(messageId, "fake-" + messageId, deliveredOn, deliveredOn, DELIVERED,
+                        false, null));
+            }
+        }
+        return reports;
+    }
+
+    public Map<Long, ProviderStatistics> getStatistics() {
+        return new HashMap<>(this.statisticsByProvider);
+    }
+
+    private void logStatistics() {
+        for (final ProviderStatistics statistics : this.statisticsByProvider.values()) {
+            log.info("{}", statistics);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.reporter != null) {
+            this.reporter.shutdownNow();
+        }
+    }
+
+    public static final class ProviderStatistics {
+
+        private final Long providerId;
+        private final long[] sent = new long[SmsMessagePriority.values().length];
+        private final long[] maxQueuedMillis = new long[SmsMessagePriority.values().length];
+        private long batches;
+        private long inversions;
+        private long firstSentAt;
+        private long lastSentAt;
+
+        private ProviderStatistics(final Long providerId) {
+            this.providerId = providerId;
+        }
+
+        private synchronized void record(final List<SmsDispatchMessage> messages, final long now) {
+            if (this.batches++ == 0) {
+                this.firstSentAt = now;
+            }
+            this.lastSentAt = now;
+            int previousLane = 0;
+            for (final SmsDispatchMessage message : messages) {
+                final int lane = message.getPriority().ordinal();
+                if (lane < previousLane) {
+                    this.inversions++;
+                }
+                previousLane = lane;
+                this.sent[lane]++;
+                this.maxQueuedMillis[lane] = Math.max(this.maxQueuedMillis[lane], now - message.getEnqueuedAt());
+            }
+        }
+
+        public synchronized long getSent(final SmsMessagePriority priority) {
+            return this.sent[priority.ordinal()];
+        }
+
+        public synchronized long getMaxQueuedMillis(final SmsMessagePriority priority) {
+            return this.maxQueuedMillis[priority.ordinal()];
+        }
+
+        public synchronized long getInversions() {
+            return this.inversions;
+        }
+
+        public synchronized double getMessagesPerSecond() {
+            long total = 0;
+            for (final long count : this.sent) {
+                total += count;
+            }
+            final long elapsedMillis = this.lastSentAt - this.firstSentAt;
+            return elapsedMillis <= 0 ? total : total * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public synchronized String toString() {
+            final StringBuilder builder = new StringBuilder("SMS provider ").append(this.providerId).append(": ")
+                    .append(String.format("%.1f", getMessagesPerSecond())).append(" msg/s in ").append(this.batches).append(" batches");
+            for (final SmsMessagePriority priority : SmsMessagePriority.values()) {
+                builder.append(", ").append(priority).append(' ').append(this.sent[priority.ordinal()]).append(" (max queued ")
+                        .append(this.maxQueuedMillis[priority.ordinal()]).append(" ms)");
+            }
+            return builder.append(", ").append(this.inversions).append(" lane inversions").toString();
+        }
+    }
+}
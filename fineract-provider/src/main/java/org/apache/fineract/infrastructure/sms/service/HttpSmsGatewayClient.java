@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import com.google.gson.Gson;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
+import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
+import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.sms.data.SmsDispatchMessage;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageApiQueueResourceData;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Sends to the intermediate message gateway configured in the tenant's external services.
+ */
+@Slf4j
+@Component
+@Profile("!smsFakeGateway")
+@RequiredArgsConstructor
+public class HttpSmsGatewayClient implements SmsGatewayClient {
+
+    private final SmsConfigUtils smsConfigUtils;
+    private RestTemplate restTemplate;
+
+    @Value("${fineract.sms.gateway.connect-timeout-seconds:5}")
+    private int connectTimeoutSeconds;
+
+    @Value("${fineract.sms.gateway.read-timeout-seconds:30}")
+    private int readTimeoutSeconds;
+
+    @PostConstruct
+    public void initializeRestTemplate() {
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(this.connectTimeoutSeconds * 1000);
+        requestFactory.setReadTimeout(this.readTimeoutSeconds * 1000);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public void send(final Long providerId, final List<SmsDispatchMessage> messages) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>(messages.size());
+        for (final SmsDispatchMessage message : messages) {
+            apiQueueResourceDatas.add(SmsMessageApiQueueResourceData.instance(message.getId(), tenantIdentifier, null, null,
+                    message.getMobileNo(), message.getMessage(), providerId));
+        }
+        final Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms",
+                SmsMessageApiQueueResourceData.toJsonString(apiQueueResourceDatas));
+        final URI uri = (URI) hostConfig.get("uri");
+        final HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
+        final ResponseEntity<String> response = this.restTemplate.exchange(uri, HttpMethod.POST, entity,
+                new ParameterizedTypeReference<String>() {
+
+                });
+        if (response != null && !response.getStatusCode().equals(HttpStatus.ACCEPTED)) {
+            log.debug("{}", response.getStatusCode().name());
+            throw new ConnectionFailureException(SmsCampaignConstants.SMS);
+        }
+    }
+
+    @Override
+    public Collection<SmsMessageDeliveryReportData> retrieveDeliveryReports(final Collection<Long> messageIds) {
+        final Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
+                new Gson().toJson(messageIds));
+        final URI uri = (URI) hostConfig.get("uri");
+        final HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
+        final ResponseEntity<Collection<SmsMessageDeliveryReportData>> response = this.restTemplate.exchange(uri, HttpMethod.POST,
+                entity, new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {
+
+                });
+        return response.getBody() == null ? List.of() : response.getBody();
+    }
+}
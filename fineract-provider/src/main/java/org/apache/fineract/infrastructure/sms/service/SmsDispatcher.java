@@ -0,0 +1,346 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.sms.data.SmsDispatchMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends outbound SMS to the message gateway, partitioned by tenant and gateway provider.
+ *
+ * Each partition has one lane per {@link SmsMessagePriority}, drained strictly in priority order, and a token bucket
+ * that caps its throughput at fineract.sms.dispatcher.rate-per-second (or its entry in
+ * fineract.sms.dispatcher.provider-rates). At most one thread of the shared pool drains a partition at a time; a
+ * partition out of tokens is rescheduled for when its next token is due, so a slow or throttled provider never holds
+ * a thread.
+ *
+ * Messages are queued after the enqueuing transaction commits and are already WAITING_FOR_DELIVERY_REPORT by then.
+ * A batch the gateway rejects is marked FAILED with one update.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsDispatcher implements ApplicationListener<ContextClosedEvent> {
+
+    private static final String UPDATE_STATUS_SQL = "UPDATE sms_messages_outbound SET status_enum = :status WHERE id IN (:ids)";
+
+    private final SmsGatewayClient smsGatewayClient;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedCampaignMessages = new AtomicInteger();
+    private final Map<Long, Double> ratesByProvider = new HashMap<>();
+    private ScheduledExecutorService executorService;
+
+    @Value("${fineract.sms.dispatcher.threads:4}")
+    private int threads;
+
+    @Value("${fineract.sms.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${fineract.sms.dispatcher.rate-per-second:20}")
+    private double ratePerSecond;
+
+    @Value("${fineract.sms.dispatcher.burst-seconds:2}")
+    private double burstSeconds;
+
+    @Value("${fineract.sms.dispatcher.provider-rates:}")
+    private String providerRates;
+
+    @Value("${fineract.sms.dispatcher.campaign-backlog:5000}")
+    private int campaignBacklog;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        // provider-rates is a list of providerId:messagesPerSecond pairs, e.g. 1:50,2:10
+        for (final String providerRate : StringUtils.split(StringUtils.defaultString(this.providerRates), ',')) {
+            final String[] pair = StringUtils.split(providerRate.trim(), ':');
+            if (pair.length == 2) {
+                this.ratesByProvider.put(Long.valueOf(pair[0].trim()), Double.valueOf(pair[1].trim()));
+            }
+        }
+        this.executorService = Executors.newScheduledThreadPool(this.threads);
+    }
+
+    /**
+     * Queues saved messages for the provider, or for the provider of each message's campaign when providerId is null.
+     * Ids are read once the current transaction has committed.
+     */
+    public void dispatch(final Collection<SmsMessage> smsMessages, final Long providerId, final SmsMessagePriority priority) {
+        final List<SmsMessage> messages = new ArrayList<>(smsMessages);
+        afterCommit(() -> {
+            final long now = System.currentTimeMillis();
+            final List<SmsDispatchMessage> dispatchMessages = new ArrayList<>(messages.size());
+            for (final SmsMessage smsMessage : messages) {
+                final Long messageProviderId = providerId != null || smsMessage.getSmsCampaign() == null ? providerId
+                        : smsMessage.getSmsCampaign().getProviderId();
+                dispatchMessages.add(new SmsDispatchMessage(smsMessage.getId(), smsMessage.getMobileNo(), smsMessage.getMessage(),
+                        messageProviderId, priority, now));
+            }
+            return dispatchMessages;
+        });
+    }
+
+    public void dispatch(final List<SmsDispatchMessage> messages) {
+        final List<SmsDispatchMessage> dispatchMessages = new ArrayList<>(messages);
+        afterCommit(() -> dispatchMessages);
+    }
+
+    /**
+     * How many more campaign messages may be queued before the scheduled job should leave the rest PENDING.
+     */
+    public int campaignCapacity() {
+        return Math.max(0, this.campaignBacklog - this.queuedCampaignMessages.get());
+    }
+
+    private void afterCommit(final Supplier<List<SmsDispatchMessage>> messages) {
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    enqueue(context, messages.get());
+                }
+            });
+        } else {
+            enqueue(context, messages.get());
+        }
+    }
+
+    private void enqueue(final FineractContext context, final List<SmsDispatchMessage> messages) {
+        final String tenantIdentifier = context.getTenantContext().getTenantIdentifier();
+        final Set<Partition> touched = new LinkedHashSet<>();
+        for (final SmsDispatchMessage message : messages) {
+            final Partition partition = this.partitions.computeIfAbsent(tenantIdentifier + ":" + message.getProviderId(),
+                    key -> new Partition(message.getProviderId(), rateOf(message.getProviderId()), this.burstSeconds));
+            partition.context = context;
+            partition.lanes[message.getPriority().ordinal()].add(message);
+            if (message.getPriority() == SmsMessagePriority.CAMPAIGN) {
+                this.queuedCampaignMessages.incrementAndGet();
+            }
+            touched.add(partition);
+        }
+        for (final Partition partition : touched) {
+            schedule(partition, 0);
+        }
+    }
+
+    private double rateOf(final Long providerId) {
+        return this.ratesByProvider.getOrDefault(providerId, this.ratePerSecond);
+    }
+
+    private void schedule(final Partition partition, final long delayMillis) {
+        if (partition.scheduled.compareAndSet(false, true)) {
+            this.executorService.schedule(() -> drain(partition), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain(final Partition partition) {
+        long delayMillis = 0;
+        try {
+            ThreadLocalContextUtil.init(partition.context);
+            while (!partition.isEmpty()) {
+                final int permits = partition.bucket.tryAcquire(this.batchSize);
+                if (permits == 0) {
+                    delayMillis = partition.bucket.millisUntilNextPermit();
+                    break;
+                }
+                final List<SmsDispatchMessage> batch = partition.poll(permits);
+                partition.bucket.release(permits - batch.size());
+                send(partition, batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Draining SMS provider {} failed", partition.providerId, e);
+            delayMillis = 1000;
+        } finally {
+            partition.scheduled.set(false);
+        }
+        if (!partition.isEmpty()) {
+            schedule(partition, delayMillis);
+        }
+    }
+
+    private void send(final Partition partition, final List<SmsDispatchMessage> batch) {
+        try {
+            this.smsGatewayClient.send(partition.providerId, batch);
+            log.debug("Sent {} SMS to provider {}", batch.size(), partition.providerId);
+        } catch (RuntimeException e) {
+            log.warn("Message gateway rejected {} SMS for provider {}", batch.size(), partition.providerId, e);
+            updateStatus(batch, SmsMessageStatusType.FAILED);
+        } finally {
+            releaseCampaignMessages(batch);
+        }
+    }
+
+    private void updateStatus(final List<SmsDispatchMessage> messages, final SmsMessageStatusType status) {
+        final List<Long> ids = new ArrayList<>(messages.size());
+        for (final SmsDispatchMessage message : messages) {
+            ids.add(message.getId());
+        }
+        if (!ids.isEmpty()) {
+            this.namedParameterJdbcTemplate.update(UPDATE_STATUS_SQL,
+                    new MapSqlParameterSource("status", status.getValue()).addValue("ids", ids));
+        }
+    }
+
+    private void releaseCampaignMessages(final List<SmsDispatchMessage> messages) {
+        for (final SmsDispatchMessage message : messages) {
+            if (message.getPriority() == SmsMessagePriority.CAMPAIGN) {
+                this.queuedCampaignMessages.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+        // unsent messages go back to PENDING for the scheduled job of the next start, except one time passwords,
+        // which will have expired by then
+        for (final Partition partition : this.partitions.values()) {
+            final List<SmsDispatchMessage> unsent = partition.poll(Integer.MAX_VALUE);
+            if (unsent.isEmpty()) {
+                continue;
+            }
+            final List<SmsDispatchMessage> expired = new ArrayList<>();
+            final List<SmsDispatchMessage> requeued = new ArrayList<>();
+            for (final SmsDispatchMessage message : unsent) {
+                (message.getPriority() == SmsMessagePriority.OTP ? expired : requeued).add(message);
+            }
+            try {
+                ThreadLocalContextUtil.init(partition.context);
+                updateStatus(expired, SmsMessageStatusType.FAILED);
+                updateStatus(requeued, SmsMessageStatusType.PENDING);
+            } catch (RuntimeException e) {
+                log.warn("Could not release {} unsent SMS of provider {}", unsent.size(), partition.providerId, e);
+            }
+        }
+    }
+
+    private static final class Partition {
+
+        private final Long providerId;
+        private final TokenBucket bucket;
+        private final Queue<SmsDispatchMessage>[] lanes;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile FineractContext context;
+
+        @SuppressWarnings("unchecked")
+        private Partition(final Long providerId, final double ratePerSecond, final double burstSeconds) {
+            this.providerId = providerId;
+            this.bucket = new TokenBucket(ratePerSecond, Math.max(1, ratePerSecond * burstSeconds));
+            this.lanes = new Queue[SmsMessagePriority.values().length];
+            for (int i = 0; i < this.lanes.length; i++) {
+                this.lanes[i] = new ConcurrentLinkedQueue<>();
+            }
+        }
+
+        private boolean isEmpty() {
+            for (final Queue<SmsDispatchMessage> lane : this.lanes) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // takes from the highest priority lane first
+        private List<SmsDispatchMessage> poll(final int max) {
+            final List<SmsDispatchMessage> batch = new ArrayList<>(Math.min(max, 1000));
+            for (final Queue<SmsDispatchMessage> lane : this.lanes) {
+                SmsDispatchMessage message;
+                while (batch.size() < max && (message = lane.poll()) != null) {
+                    batch.add(message);
+                }
+            }
+            return batch;
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final double ratePerSecond;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(final double ratePerSecond, final double capacity) {
+            this.ratePerSecond = ratePerSecond;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        private synchronized int tryAcquire(final int max) {
+            refill();
+            final int permits = (int) Math.min(max, Math.floor(this.tokens));
+            this.tokens -= permits;
+            return permits;
+        }
+
+        private synchronized void release(final int permits) {
+            this.tokens = Math.min(this.capacity, this.tokens + permits);
+        }
+
+        private synchronized long millisUntilNextPermit() {
+            refill();
+            return this.tokens >= 1 ? 0 : (long) Math.ceil((1 - this.tokens) * 1000 / this.ratePerSecond);
+        }
+
+        private void refill() {
+            final long now = System.nanoTime();
+            this.tokens = Math.min(this.capacity, this.tokens + (now - this.refilledAt) * this.ratePerSecond / 1_000_000_000L);
+            this.refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.data;
+
+import java.math.BigDecimal;
+import org.apache.fineract.interoperation.domain.InteropTransferState;
+
+/**
+ * Row of {@code m_interop_transfer}: the state of one transfer code on one savings account and the transactions it
+ * produced.
+ */
+public class InteropTransferData {
+
+    private final Long id;
+    private final Long savingsAccountId;
+    private final String transferCode;
+    private final Long holdTransactionId;
+    private final Long transactionId;
+    private final BigDecimal amount;
+    private final InteropTransferState state;
+
+    public InteropTransferData(final Long id, final Long savingsAccountId, final String transferCode, final Long holdTransactionId,
+            final Long transactionId, final BigDecimal amount, final InteropTransferState state) {
+        this.id = id;
+        this.savingsAccountId = savingsAccountId;
+        this.transferCode = transferCode;
+        this.holdTransactionId = holdTransactionId;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.state = state;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getSavingsAccountId() {
+        return this.savingsAccountId;
+    }
+
+    public String getTransferCode() {
+        return this.transferCode;
+    }
+
+    public Long getHoldTransactionId() {
+        return this.holdTransactionId;
+    }
+
+    public Long getTransactionId() {
+        return this.transactionId;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public InteropTransferState getState() {
+        return this.state;
+    }
+
+    public boolean isPrepared() {
+        return InteropTransferState.PREPARED.equals(this.state);
+    }
+
+    public boolean isCommitted() {
+        return InteropTransferState.COMMITTED.equals(this.state);
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.domain;
+
+/**
+ * Lifecycle of a two-phase interoperation transfer on one savings account. Debits are prepared (amount held) and then
+ * either committed or released; credits are recorded as committed directly.
+ */
+public enum InteropTransferState {
+
+    PREPARED(1, "interopTransferState.prepared"), //
+    COMMITTED(2, "interopTransferState.committed"), //
+    RELEASED(3, "interopTransferState.released");
+
+    private final Integer value;
+    private final String code;
+
+    InteropTransferState(final Integer value, final String code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    public Integer getValue() {
+        return this.value;
+    }
+
+    public String getCode() {
+        return this.code;
+    }
+
+    public static InteropTransferState fromInt(final Integer value) {
+        for (final InteropTransferState state : values()) {
+            if (state.value.equals(value)) {
+                return state;
+            }
+        }
+        return null;
+    }
+}
@@ -21,9 +21,6 @@ package org.apache.fineract.interoperation.service;
 import static org.apache.fineract.interoperation.util.InteropUtil.DEFAULT_LOCALE;
 import static org.apache.fineract.interoperation.util.InteropUtil.DEFAULT_ROUTING_CODE;
 import static org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail.instance;
-import static org.apache.fineract.portfolio.savings.SavingsAccountTransactionType.AMOUNT_HOLD;
-import static org.apache.fineract.portfolio.savings.SavingsAccountTransactionType.DEPOSIT;
-import static org.apache.fineract.portfolio.savings.SavingsAccountTransactionType.WITHDRAWAL;
 import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction.releaseAmount;
 
 import java.math.BigDecimal;
@@ -62,6 +59,7 @@ import org.apache.fineract.interoperation.data.InteropRequestData;
 import org.apache.fineract.interoperation.data.InteropTransactionRequestData;
 import org.apache.fineract.interoperation.data.InteropTransactionRequestResponseData;
 import org.apache.fineract.interoperation.data.InteropTransactionsData;
+import org.apache.fineract.interoperation.data.InteropTransferData;
 import org.apache.fineract.interoperation.data.InteropTransferRequestData;
 import org.apache.fineract.interoperation.data.InteropTransferResponseData;
 import org.apache.fineract.interoperation.data.MoneyData;
@@ -69,6 +67,7 @@ import org.apache.fineract.interoperation.domain.InteropActionState;
 import org.apache.fineract.interoperation.domain.InteropIdentifier;
 import org.apache.fineract.interoperation.domain.InteropIdentifierRepository;
 import org.apache.fineract.interoperation.domain.InteropIdentifierType;
+import org.apache.fineract.interoperation.domain.InteropTransferState;
 import org.apache.fineract.interoperation.exception.InteropAccountNotFoundException;
 import org.apache.fineract.interoperation.exception.InteropAccountTransactionNotAllowedException;
 import org.apache.fineract.interoperation.exception.InteropKycDataNotFoundException;
@@ -93,7 +92,9 @@ import org.apache.fineract.portfolio.paymenttype.domain.PaymentType;
 import org.apache.fineract.portfolio.paymenttype.domain.PaymentTypeRepository;
 import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
 import org.apache.fineract.portfolio.savings.SavingsTransactionBooleanValues;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountDomainService;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
@@ -102,6 +103,7 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSum
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
+import org.apache.fineract.portfolio.savings.service.SavingsAccountHoldLedgerService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -134,6 +136,9 @@ public class InteropServiceImpl implements InteropService {
     private final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
 
     private final SavingsAccountDomainService savingsAccountService;
+    private final SavingsAccountAssembler savingsAccountAssembler;
+    private final InteropTransferStateService interopTransferStateService;
+    private final SavingsAccountHoldLedgerService savingsAccountHoldLedgerService;
 
     private final JdbcTemplate jdbcTemplate;
 
@@ -150,7 +155,9 @@ public class InteropServiceImpl implements InteropService {
             SavingsHelper savingsHelper, SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper,
             SavingsAccountDomainService savingsAccountService, final JdbcTemplate jdbcTemplate,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final DefaultToApiJsonSerializer<LoanAccountData> toApiJsonSerializer, DatabaseSpecificSQLGenerator sqlGenerator) {
+            final DefaultToApiJsonSerializer<LoanAccountData> toApiJsonSerializer, DatabaseSpecificSQLGenerator sqlGenerator,
+            final SavingsAccountAssembler savingsAccountAssembler, final InteropTransferStateService interopTransferStateService,
+            final SavingsAccountHoldLedgerService savingsAccountHoldLedgerService) {
         this.securityContext = securityContext;
         this.dataValidator = interopDataValidator;
         this.savingsAccountRepository = savingsAccountRepository;
@@ -167,6 +174,9 @@ public class InteropServiceImpl implements InteropService {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.sqlGenerator = sqlGenerator;
+        this.savingsAccountAssembler = savingsAccountAssembler;
+        this.interopTransferStateService = interopTransferStateService;
+        this.savingsAccountHoldLedgerService = savingsAccountHoldLedgerService;
     }
 
     private static final class KycMapper implements RowMapper<InteropKycData> {
@@ -393,7 +403,7 @@ public class InteropServiceImpl implements InteropService {
                 throw new InsufficientAccountBalanceException(savingsAccount.getExternalId(), savingsAccount.getWithdrawableBalance(), null,
                         total);
             }
-            if (findTransaction(savingsAccount, transferCode, AMOUNT_HOLD.getValue()) != null) {
+            if (interopTransferStateService.findTransfer(savingsAccount.getId(), transferCode) != null) {
                 throw new InteropTransferAlreadyOnHoldException(savingsAccount.getExternalId(), transferCode);
             }
 
@@ -407,10 +417,16 @@ public class InteropServiceImpl implements InteropService {
                     Money.of(accountCurrency, savingsAccount.getWithdrawableBalance().subtract(holdTransaction.getAmount())));
             holdTransaction.updateCumulativeBalanceAndDates(accountCurrency, transactionDate);
 
+            // saved on its own: adding it to the account would load the whole transaction history
+            holdTransaction = savingsAccountTransactionRepository.saveAndFlush(holdTransaction);
+            // no expiry: the hold lives until the transfer is committed or released
+            savingsAccountHoldLedgerService.recordHold(savingsAccount.getId(), holdTransaction.getId(), total, null);
             savingsAccount.holdAmount(total);
-            savingsAccount.addTransaction(holdTransaction);
-
             savingsAccountRepository.save(savingsAccount);
+
+            if (!interopTransferStateService.recordPrepared(savingsAccount.getId(), transferCode, holdTransaction.getId(), total)) {
+                throw new InteropTransferAlreadyOnHoldException(savingsAccount.getExternalId(), transferCode);
+            }
         }
 
         return InteropTransferResponseData.build(command.commandId(), request.getTransactionCode(), InteropActionState.ACCEPTED,
@@ -426,7 +442,8 @@ public class InteropServiceImpl implements InteropService {
         SavingsAccount savingsAccount = validateAndGetSavingAccount(request);
         String transferCode = request.getTransferCode();
 
-        if (findTransaction(savingsAccount, transferCode, (isDebit ? WITHDRAWAL : DEPOSIT).getValue()) != null) {
+        InteropTransferData transfer = interopTransferStateService.findTransfer(savingsAccount.getId(), transferCode);
+        if (transfer != null && transfer.isCommitted()) {
             throw new InteropTransferAlreadyCommittedException(savingsAccount.getExternalId(), transferCode);
         }
 
@@ -434,43 +451,45 @@ public class InteropServiceImpl implements InteropService {
         LocalDate transactionDate = DateUtils.getBusinessLocalDate();
         DateTimeFormatter fmt = getDateTimeFormatter(command);
         SavingsAccountTransaction transaction;
-        final boolean backdatedTxnsAllowedTill = false;
 
         if (isDebit) {
-            SavingsAccountTransaction holdTransaction = findTransaction(savingsAccount, transferCode, AMOUNT_HOLD.getValue());
-            if (holdTransaction == null) {
+            if (transfer == null || !transfer.isPrepared()) {
                 throw new InteropTransferMissingException(savingsAccount.getExternalId(), transferCode);
             }
 
             BigDecimal totalTransferAmount = calculateTotalTransferAmount(request, savingsAccount);
-            if (holdTransaction.getAmount().compareTo(totalTransferAmount) != 0) {
+            if (transfer.getAmount().compareTo(totalTransferAmount) != 0) {
                 throw new InteropTransferMissingException(savingsAccount.getExternalId(), transferCode);
             }
 
-            if (MathUtil.isLessThan(savingsAccount.getWithdrawableBalance().add(holdTransaction.getAmount()), totalTransferAmount)) {
+            if (MathUtil.isLessThan(savingsAccount.getWithdrawableBalance().add(transfer.getAmount()), totalTransferAmount)) {
                 throw new InsufficientAccountBalanceException(savingsAccount.getExternalId(), savingsAccount.getWithdrawableBalance(), null,
                         totalTransferAmount);
             }
 
-            if (holdTransaction.getReleaseIdOfHoldAmountTransaction() == null) {
-                SavingsAccountTransaction releaseTransaction = savingsAccountTransactionRepository.saveAndFlush(
-                        releaseAmount(holdTransaction, transactionDate, DateUtils.getLocalDateTimeOfSystem(), getLoginUser()));
-                holdTransaction.updateReleaseId(releaseTransaction.getId());
-                savingsAccount.releaseOnHoldAmount(holdTransaction.getAmount());
-                savingsAccount.addTransaction(releaseTransaction);
-
-                savingsAccountRepository.save(savingsAccount);
+            if (!interopTransferStateService.transition(transfer.getId(), InteropTransferState.PREPARED, InteropTransferState.COMMITTED)) {
+                throw new InteropTransferAlreadyCommittedException(savingsAccount.getExternalId(), transferCode);
             }
+            releaseHold(savingsAccount, transfer, transactionDate);
 
+            SavingsAccount account = savingsAccountAssembler.assembleForTransaction(savingsAccount.getId(), transactionDate);
             SavingsTransactionBooleanValues transactionValues = new SavingsTransactionBooleanValues(false, true, true, false, false);
-            transaction = savingsAccountService.handleWithdrawal(savingsAccount, fmt, transactionDate, request.getAmount().getAmount(),
+            transaction = savingsAccountService.handleWithdrawal(account, fmt, transactionDate, request.getAmount().getAmount(),
                     instance(findPaymentType(), savingsAccount.getExternalId(), null, getRoutingCode(), transferCode, null),
-                    transactionValues, backdatedTxnsAllowedTill);
+                    transactionValues, account.isTransactionsLoadedFromPivot());
         } else {
-            transaction = savingsAccountService.handleDeposit(savingsAccount, fmt, transactionDate, request.getAmount().getAmount(),
+            if (transfer != null || !interopTransferStateService.recordCommittedCredit(savingsAccount.getId(), transferCode,
+                    request.getAmount().getAmount())) {
+                throw new InteropTransferAlreadyCommittedException(savingsAccount.getExternalId(), transferCode);
+            }
+            transfer = interopTransferStateService.findTransfer(savingsAccount.getId(), transferCode);
+
+            SavingsAccount account = savingsAccountAssembler.assembleForTransaction(savingsAccount.getId(), transactionDate);
+            transaction = savingsAccountService.handleDeposit(account, fmt, transactionDate, request.getAmount().getAmount(),
                     instance(findPaymentType(), savingsAccount.getExternalId(), null, getRoutingCode(), transferCode, null), false, true,
-                    backdatedTxnsAllowedTill, false);
+                    account.isTransactionsLoadedFromPivot(), false);
         }
+        interopTransferStateService.updateTransactionId(transfer.getId(), transaction.getId());
 
         String note = request.getNote();
         if (!StringUtils.isBlank(note)) {
@@ -489,30 +508,49 @@ public class InteropServiceImpl implements InteropService {
 
         LocalDateTime transactionDateTime = DateUtils.getLocalDateTimeOfTenant();
         LocalDate transactionDate = DateUtils.getBusinessLocalDate();
-        SavingsAccountTransaction holdTransaction = findTransaction(savingsAccount, request.getTransferCode(), AMOUNT_HOLD.getValue());
-
-        if (holdTransaction != null && holdTransaction.getReleaseIdOfHoldAmountTransaction() == null) {
-            SavingsAccountTransaction releaseTransaction = releaseAmount(holdTransaction, transactionDate,
-                    DateUtils.getLocalDateTimeOfSystem(), getLoginUser());
-            MonetaryCurrency accountCurrency = savingsAccount.getCurrency().copy();
-            releaseTransaction.updateRunningBalance(
-                    Money.of(accountCurrency, savingsAccount.getWithdrawableBalance().add(holdTransaction.getAmount())));
-            releaseTransaction.updateCumulativeBalanceAndDates(accountCurrency, transactionDate);
-            releaseTransaction = savingsAccountTransactionRepository.saveAndFlush(releaseTransaction);
-            holdTransaction.updateReleaseId(releaseTransaction.getId());
+        InteropTransferData transfer = interopTransferStateService.findTransfer(savingsAccount.getId(), request.getTransferCode());
 
-            savingsAccount.releaseOnHoldAmount(holdTransaction.getAmount());
-            savingsAccount.addTransaction(releaseTransaction);
-
-            savingsAccountRepository.save(savingsAccount);
-        } else {
+        if (transfer == null || !transfer.isPrepared() || !interopTransferStateService.transition(transfer.getId(),
+                InteropTransferState.PREPARED, InteropTransferState.RELEASED)) {
             throw new InteropTransferMissingException(savingsAccount.getExternalId(), request.getTransferCode());
         }
+        releaseHold(savingsAccount, transfer, transactionDate);
 
         return InteropTransferResponseData.build(command.commandId(), request.getTransactionCode(), InteropActionState.ACCEPTED,
                 request.getExpiration(), request.getExtensionList(), request.getTransferCode(), transactionDateTime);
     }
 
+    /**
+     * Releases what is still held for a prepared transfer. Only the hold row and the account's on-hold total are touched;
+     * the caller has already moved the transfer out of {@link InteropTransferState#PREPARED}, so this runs at most once.
+     * Part of the hold may have been released through the savings API already, so the ledger decides the amount.
+     */
+    private void releaseHold(SavingsAccount savingsAccount, InteropTransferData transfer, LocalDate transactionDate) {
+        SavingsAccountTransaction holdTransaction = savingsAccountTransactionRepository.findById(transfer.getHoldTransactionId())
+                .orElseThrow(() -> new InteropTransferMissingException(savingsAccount.getExternalId(), transfer.getTransferCode()));
+        if (holdTransaction.getReleaseIdOfHoldAmountTransaction() != null) {
+            return;
+        }
+
+        SavingsAccountHoldData hold = savingsAccountHoldLedgerService.findByHoldTransactionId(holdTransaction.getId());
+        BigDecimal releasedAmount = hold == null ? holdTransaction.getAmount() : hold.getOutstandingAmount();
+        if (hold != null && !savingsAccountHoldLedgerService.release(holdTransaction.getId(), releasedAmount)) {
+            throw new PlatformDataIntegrityException("error.msg.savings.hold.concurrent.release",
+                    "Amount on hold for transaction " + holdTransaction.getId() + " was released by a concurrent request");
+        }
+
+        SavingsAccountTransaction releaseTransaction = releaseAmount(holdTransaction, releasedAmount, transactionDate,
+                DateUtils.getLocalDateTimeOfSystem(), getLoginUser());
+        MonetaryCurrency accountCurrency = savingsAccount.getCurrency().copy();
+        releaseTransaction.updateRunningBalance(Money.of(accountCurrency, savingsAccount.getWithdrawableBalance().add(releasedAmount)));
+        releaseTransaction.updateCumulativeBalanceAndDates(accountCurrency, transactionDate);
+        releaseTransaction = savingsAccountTransactionRepository.saveAndFlush(releaseTransaction);
+        holdTransaction.updateReleaseId(releaseTransaction.getId());
+
+        savingsAccount.releaseOnHoldAmount(releasedAmount);
+        savingsAccountRepository.saveAndFlush(savingsAccount);
+    }
+
     @Override
     public @NotNull InteropKycResponseData getKyc(@NotNull @NotNull String accountId) {
 
@@ -627,13 +665,6 @@ public class InteropServiceImpl implements InteropService {
         return null;
     }
 
-    private SavingsAccountTransaction findTransaction(SavingsAccount savingsAccount, String transactionCode, Integer transactionTypeValue) {
-        return savingsAccount.getTransactions().stream().filter(t -> transactionTypeValue.equals(t.getTypeOf())).filter(t -> {
-            PaymentDetail detail = t.getPaymentDetail();
-            return detail != null && getRoutingCode().equals(detail.getRoutingCode()) && transactionCode.equals(detail.getReceiptNumber());
-        }).findFirst().orElse(null);
-    }
-
     public InteropIdentifier findIdentifier(@NotNull InteropIdentifierType idType, @NotNull String idValue, String subIdOrType) {
         return identifierRepository.findOneByTypeAndValueAndSubType(idType, idValue, subIdOrType);
     }
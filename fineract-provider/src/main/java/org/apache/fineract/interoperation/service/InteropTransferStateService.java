@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.service;
+
+import java.math.BigDecimal;
+import org.apache.fineract.interoperation.data.InteropTransferData;
+import org.apache.fineract.interoperation.domain.InteropTransferState;
+
+/**
+ * Indexed state of interoperation transfers, so that prepare, commit and release find their hold by transfer code
+ * instead of scanning the account's transaction history.
+ */
+public interface InteropTransferStateService {
+
+    InteropTransferData findTransfer(Long savingsAccountId, String transferCode);
+
+    /**
+     * @return false if the account already has a transfer with this code
+     */
+    boolean recordPrepared(Long savingsAccountId, String transferCode, Long holdTransactionId, BigDecimal amount);
+
+    /**
+     * @return false if the account already has a transfer with this code
+     */
+    boolean recordCommittedCredit(Long savingsAccountId, String transferCode, BigDecimal amount);
+
+    /**
+     * Moves the transfer from one state to another in a single conditional update.
+     *
+     * @return false if the transfer was no longer in state {@code from}, i.e. a concurrent request got there first
+     */
+    boolean transition(Long transferId, InteropTransferState from, InteropTransferState to);
+
+    void updateTransactionId(Long transferId, Long transactionId);
+}
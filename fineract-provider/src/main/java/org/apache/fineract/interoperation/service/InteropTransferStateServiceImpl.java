@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.interoperation.data.InteropTransferData;
+import org.apache.fineract.interoperation.domain.InteropTransferState;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class InteropTransferStateServiceImpl implements InteropTransferStateService {
+
+    private static final String INSERT_SQL = "INSERT INTO m_interop_transfer (savings_account_id, transfer_code, hold_transaction_id,"
+            + " amount, state_enum, created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public InteropTransferData findTransfer(final Long savingsAccountId, final String transferCode) {
+        final InteropTransferMapper rm = new InteropTransferMapper();
+        final String sql = "SELECT " + rm.schema() + " WHERE it.savings_account_id = ? AND it.transfer_code = ?";
+        final List<InteropTransferData> transfers = this.jdbcTemplate.query(sql, rm, savingsAccountId, transferCode); // NOSONAR
+        return transfers.isEmpty() ? null : transfers.get(0);
+    }
+
+    @Override
+    public boolean recordPrepared(final Long savingsAccountId, final String transferCode, final Long holdTransactionId,
+            final BigDecimal amount) {
+        return insert(savingsAccountId, transferCode, holdTransactionId, amount, InteropTransferState.PREPARED);
+    }
+
+    @Override
+    public boolean recordCommittedCredit(final Long savingsAccountId, final String transferCode, final BigDecimal amount) {
+        return insert(savingsAccountId, transferCode, null, amount, InteropTransferState.COMMITTED);
+    }
+
+    @Override
+    public boolean transition(final Long transferId, final InteropTransferState from, final InteropTransferState to) {
+        final String sql = "UPDATE m_interop_transfer SET state_enum = ?, last_modified_date = ? WHERE id = ? AND state_enum = ?";
+        return this.jdbcTemplate.update(sql, to.getValue(), DateUtils.getLocalDateTimeOfSystem(), transferId, from.getValue()) == 1;
+    }
+
+    @Override
+    public void updateTransactionId(final Long transferId, final Long transactionId) {
+        this.jdbcTemplate.update("UPDATE m_interop_transfer SET transaction_id = ? WHERE id = ?", transactionId, transferId);
+    }
+
+    private boolean insert(final Long savingsAccountId, final String transferCode, final Long holdTransactionId, final BigDecimal amount,
+            final InteropTransferState state) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        try {
+            this.jdbcTemplate.update(INSERT_SQL, savingsAccountId, transferCode, holdTransactionId, amount, state.getValue(), now, now);
+            return true;
+        } catch (final DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static final class InteropTransferMapper implements RowMapper<InteropTransferData> {
+
+        public String schema() {
+            return " it.id, it.savings_account_id, it.transfer_code, it.hold_transaction_id, it.transaction_id, it.amount, it.state_enum"
+                    + " FROM m_interop_transfer it";
+        }
+
+        @Override
+        public InteropTransferData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new InteropTransferData(rs.getLong("id"), rs.getLong("savings_account_id"), rs.getString("transfer_code"),
+                    JdbcSupport.getLong(rs, "hold_transaction_id"), JdbcSupport.getLong(rs, "transaction_id"),
+                    rs.getBigDecimal("amount"), InteropTransferState.fromInt(JdbcSupport.getInteger(rs, "state_enum")));
+        }
+    }
+}
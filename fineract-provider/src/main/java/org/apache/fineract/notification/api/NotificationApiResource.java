@@ -27,10 +27,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
@@ -43,6 +46,7 @@ import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationReadPlatformService;
+import org.apache.fineract.notification.service.NotificationStreamService;
 import org.springframework.stereotype.Component;
 
 @Path("/notifications")
@@ -55,6 +59,7 @@ public class NotificationApiResource {
     private final NotificationReadPlatformService notificationReadPlatformService;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final ToApiJsonSerializer<NotificationData> toApiJsonSerializer;
+    private final NotificationStreamService notificationStreamService;
 
     @GET
     @Consumes({ MediaType.APPLICATION_JSON })
@@ -81,6 +86,22 @@ public class NotificationApiResource {
         return this.toApiJsonSerializer.serialize(settings, notificationData);
     }
 
+    @GET
+    @Path("stream")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Wait for new notifications", description = "Long-polls for the notifications after the Last-Event-ID header "
+            + "(or lastEventId parameter). Answers as soon as there are newer notifications, or with an empty list when the wait "
+            + "times out. Without a Last-Event-ID it answers straight away with the current position and unread count. "
+            + "Send the returned lastEventId back with the next request.")
+    public void streamNotifications(@HeaderParam("Last-Event-ID") @Parameter(description = "Last-Event-ID") final Long lastEventIdHeader,
+            @QueryParam("lastEventId") @Parameter(description = "lastEventId") final Long lastEventId,
+            @Suspended final AsyncResponse asyncResponse) {
+
+        final Long appUserId = this.context.authenticatedUser().getId();
+        this.notificationStreamService.await(appUserId, lastEventId != null ? lastEventId : lastEventIdHeader, asyncResponse);
+    }
+
     @PUT
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
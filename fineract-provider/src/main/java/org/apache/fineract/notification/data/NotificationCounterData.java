@@ -16,23 +16,20 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.notification.data;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import org.apache.fineract.infrastructure.core.domain.FineractContext;
-import org.apache.fineract.infrastructure.core.domain.FineractEvent;
-import org.apache.fineract.useradministration.domain.AppUser;
 
 @Getter
-public class HookEvent extends FineractEvent {
+@AllArgsConstructor
+public class NotificationCounterData {
 
-    private final String payload;
+    private final Long userId;
+    private final int unreadCount;
+    private final long lastNotificationId;
 
-    private final AppUser appUser;
-
-    public HookEvent(final HookEventSource source, final String payload, final AppUser appUser, FineractContext fineractContext) {
-        super(source, fineractContext);
-        this.payload = payload;
-        this.appUser = appUser;
+    public static NotificationCounterData empty(Long userId) {
+        return new NotificationCounterData(userId, 0, 0L);
     }
 }
@@ -37,6 +37,7 @@ public class NotificationData implements Serializable {
     private String createdAt;
     private Long officeId;
     private Set<Long> userIds;
+    private String permission;
 
     public NotificationData() {}
 
@@ -53,4 +54,10 @@ public class NotificationData implements Serializable {
         this.officeId = officeId;
         this.userIds = userIds;
     }
+
+    public NotificationData(String objectType, Long objectId, String action, Long actorId, String content, boolean isSystemGenerated,
+            boolean isRead, String tenantIdentifier, Long officeId, String permission) {
+        this(objectType, objectId, action, actorId, content, isSystemGenerated, isRead, tenantIdentifier, officeId, (Set<Long>) null);
+        this.permission = permission;
+    }
 }
@@ -49,6 +49,15 @@ public class Notification extends AbstractPersistableCustom {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "is_broadcast")
+    private boolean isBroadcast;
+
+    @Column(name = "audience_office_id")
+    private Long audienceOfficeId;
+
+    @Column(name = "audience_permission")
+    private String audiencePermission;
+
     public Notification() {}
 
     public Notification(String objectType, Long objectIdentifier, String action, Long actorId, boolean isSystemGenerated,
@@ -62,6 +71,16 @@ public class Notification extends AbstractPersistableCustom {
         this.createdAt = createdAt;
     }
 
+    public static Notification broadcast(String objectType, Long objectIdentifier, String action, Long actorId, boolean isSystemGenerated,
+            String notificationContent, LocalDateTime createdAt, Long audienceOfficeId, String audiencePermission) {
+        Notification notification = new Notification(objectType, objectIdentifier, action, actorId, isSystemGenerated,
+                notificationContent, createdAt);
+        notification.isBroadcast = true;
+        notification.audienceOfficeId = audienceOfficeId;
+        notification.audiencePermission = audiencePermission;
+        return notification;
+    }
+
     public String getObjectType() {
         return objectType;
     }
@@ -110,6 +129,18 @@ public class Notification extends AbstractPersistableCustom {
         this.notificationContent = notificationContent;
     }
 
+    public boolean isBroadcast() {
+        return isBroadcast;
+    }
+
+    public Long getAudienceOfficeId() {
+        return audienceOfficeId;
+    }
+
+    public String getAudiencePermission() {
+        return audiencePermission;
+    }
+
     @Override
     public String toString() {
         return "Notification [objectType=" + this.objectType + ", objectIdentifier=" + this.objectIdentifier + ", action=" + this.action
@@ -18,14 +18,11 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.HashSet;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.stereotype.Service;
 
@@ -39,22 +36,22 @@ public class NotificationEventListener {
     public void receive(NotificationData notificationData) {
         Long appUserId = notificationData.getActorId();
 
-        Set<Long> userIds = notificationData.getUserIds();
+        if (notificationData.getPermission() != null) {
+            // audience is resolved from the office and permission at delivery time, in the database
+            notificationWritePlatformService.notifyAudience(notificationData.getOfficeId(), notificationData.getPermission(),
+                    notificationData.getObjectType(), notificationData.getObjectId(), notificationData.getAction(), appUserId,
+                    notificationData.getContent(), notificationData.isSystemGenerated());
+            return;
+        }
+
+        Set<Long> userIds = notificationData.getUserIds() == null ? new HashSet<>() : new HashSet<>(notificationData.getUserIds());
 
-        if (notificationData.getOfficeId() != null) {
-            List<Long> tempUserIds = new ArrayList<>(userIds);
-            for (Long userId : tempUserIds) {
-                AppUser appUser = appUserRepository.findById(userId).orElseThrow();
-                if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                    userIds.remove(userId);
-                }
-            }
+        if (notificationData.getOfficeId() != null && !userIds.isEmpty()) {
+            userIds = new HashSet<>(appUserRepository.findIdsByOfficeIdAndIdIn(notificationData.getOfficeId(), userIds));
         }
 
         // Don't notify the same user who triggered the event
-        if (userIds.contains(appUserId)) {
-            userIds.remove(appUserId);
-        }
+        userIds.remove(appUserId);
 
         notificationWritePlatformService.notify(userIds, notificationData.getObjectType(), notificationData.getObjectId(),
                 notificationData.getAction(), notificationData.getActorId(), notificationData.getContent(),
@@ -18,11 +18,14 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
+import com.google.gson.Gson;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxConsumer;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxSubscriber;
 import org.apache.fineract.notification.data.NotificationData;
-import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
@@ -30,15 +33,22 @@ import org.springframework.stereotype.Component;
 @Profile("!activeMqEnabled")
 @RequiredArgsConstructor
 @Slf4j
-public class SpringNotificationEventListener implements ApplicationListener<NotificationEvent> {
+public class NotificationOutboxSubscriber implements EventOutboxSubscriber {
+
+    private static final String CONSUMER = "notification";
 
     private final NotificationEventListener notificationEventListener;
 
     @Override
-    public void onApplicationEvent(NotificationEvent event) {
-        log.debug("Processing Spring notification event {}", event);
-        ThreadLocalContextUtil.init(event.getContext());
-        NotificationData notificationData = event.getNotificationData();
-        notificationEventListener.receive(notificationData);
+    public EventOutboxTopic getTopic() {
+        return EventOutboxTopic.NOTIFICATION;
+    }
+
+    @Override
+    public Map<String, EventOutboxConsumer> retrieveConsumers() {
+        return Map.of(CONSUMER, entry -> {
+            log.debug("Processing notification event {}", entry.getId());
+            this.notificationEventListener.receive(new Gson().fromJson(entry.getPayload(), NotificationData.class));
+        });
     }
 }
@@ -18,11 +18,12 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
+import com.google.gson.Gson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.infrastructure.outbox.service.EventOutboxService;
 import org.apache.fineract.notification.data.NotificationData;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -32,13 +33,12 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class SpringNotificationEventPublisher implements NotificationEventPublisher {
 
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EventOutboxService eventOutboxService;
 
     @Override
     public void broadcastNotification(final NotificationData notificationData) {
-        log.debug("Sending Spring notification event: {}", notificationData);
-        NotificationEvent event = new NotificationEvent(SpringNotificationEventPublisher.class, notificationData,
-                ThreadLocalContextUtil.getContext());
-        applicationEventPublisher.publishEvent(event);
+        log.debug("Queueing notification event: {}", notificationData);
+        this.eventOutboxService.append(EventOutboxTopic.NOTIFICATION, notificationData.getObjectType(), notificationData.getAction(),
+                notificationData.getObjectId(), new Gson().toJson(notificationData));
     }
 }
@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+public interface NotificationBroadcastService {
+
+    /**
+     * Whether any broadcast addressed to the user is still unread. Broadcasts the user has not touched yet have no
+     * notification_mapper row, so they count as unread.
+     */
+    boolean hasUnreadBroadcasts(Long appUserId);
+
+    /**
+     * Writes the user's notification_mapper rows for the broadcasts addressed to them that they have not seen yet, so
+     * the regular per-user queries and read-status updates cover them.
+     */
+    int materializeBroadcasts(Long appUserId);
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationBroadcastServiceImpl implements NotificationBroadcastService {
+
+    // broadcasts addressed to user u that u has no notification_mapper row for yet, leaving out those sent before u was
+    // created; users created before m_appuser.created_date existed have no date and see every broadcast
+    private static final String PENDING_BROADCASTS = "FROM notification_generator ng JOIN m_appuser u ON u.id = ? "
+            + "WHERE ng.is_broadcast = true AND (u.created_date IS NULL OR ng.created_at >= u.created_date) "
+            + "AND (ng.audience_office_id IS NULL OR ng.audience_office_id = u.office_id) "
+            + "AND (ng.actor IS NULL OR ng.actor <> u.id) "
+            + "AND (ng.audience_permission IS NULL OR EXISTS (SELECT 1 FROM m_appuser_role ur "
+            + "JOIN m_role_permission rp ON rp.role_id = ur.role_id JOIN m_permission p ON p.id = rp.permission_id "
+            + "WHERE ur.appuser_id = u.id AND p.code IN (ng.audience_permission, 'ALL_FUNCTIONS'))) "
+            + "AND NOT EXISTS (SELECT 1 FROM notification_mapper nm WHERE nm.user_id = u.id AND nm.notification_id = ng.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final NotificationCounterService notificationCounterService;
+
+    @Override
+    public boolean hasUnreadBroadcasts(Long appUserId) {
+        final String sql = "SELECT ng.id " + PENDING_BROADCASTS + " " + this.sqlGenerator.limit(1);
+        return !this.jdbcTemplate.queryForList(sql, Long.class, appUserId).isEmpty();
+    }
+
+    @Override
+    public int materializeBroadcasts(Long appUserId) {
+        final String sql = "INSERT INTO notification_mapper (notification_id, user_id, is_read, created_at) "
+                + "SELECT ng.id, u.id, false, ng.created_at " + PENDING_BROADCASTS;
+        try {
+            final int materialized = this.jdbcTemplate.update(sql, appUserId);
+            if (materialized > 0) {
+                this.notificationCounterService.recount(appUserId);
+            }
+            return materialized;
+        } catch (DuplicateKeyException e) {
+            // a concurrent request of the same user already wrote the rows
+            log.debug("Broadcast notifications of user {} were materialized concurrently", appUserId);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.notification.data.NotificationCounterData;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps notification_user_counter in step with notification_mapper so unread checks and the notification stream read
+ * one row per user instead of counting mapper rows.
+ *
+ * Deliveries increment the counters with an upsert in the transaction that writes the mapper rows; read-status changes
+ * recount the user's row, which also repairs any drift.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationCounterServiceImpl implements NotificationCounterService {
+
+    private static final String RECORD_DELIVERED_SQL = "INSERT INTO notification_user_counter "
+            + "(user_id, unread_count, last_notification_id, last_modified_date) "
+            + "SELECT nm.user_id, 1, nm.id, ? FROM notification_mapper nm WHERE nm.notification_id = ? AND nm.user_id IS NOT NULL "
+            + "ON DUPLICATE KEY UPDATE unread_count = unread_count + VALUES(unread_count), "
+            + "last_notification_id = GREATEST(last_notification_id, VALUES(last_notification_id)), "
+            + "last_modified_date = VALUES(last_modified_date)";
+
+    private static final String RECOUNT_SQL = "INSERT INTO notification_user_counter "
+            + "(user_id, unread_count, last_notification_id, last_modified_date) "
+            + "SELECT ?, COUNT(CASE WHEN nm.is_read = false THEN 1 END), COALESCE(MAX(nm.id), 0), ? "
+            + "FROM notification_mapper nm WHERE nm.user_id = ? "
+            + "ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), last_notification_id = VALUES(last_notification_id), "
+            + "last_modified_date = VALUES(last_modified_date)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public void recordDelivered(Long notificationId) {
+        this.jdbcTemplate.update(RECORD_DELIVERED_SQL, DateUtils.getLocalDateTimeOfSystem(), notificationId);
+    }
+
+    @Override
+    public void recount(Long appUserId) {
+        this.jdbcTemplate.update(RECOUNT_SQL, appUserId, DateUtils.getLocalDateTimeOfSystem(), appUserId);
+    }
+
+    @Override
+    public NotificationCounterData retrieve(Long appUserId) {
+        return this.jdbcTemplate
+                .query("SELECT user_id, unread_count, last_notification_id FROM notification_user_counter WHERE user_id = ?",
+                        (rs, rowNum) -> new NotificationCounterData(rs.getLong("user_id"), rs.getInt("unread_count"),
+                                rs.getLong("last_notification_id")),
+                        appUserId)
+                .stream().findFirst().orElseGet(() -> NotificationCounterData.empty(appUserId));
+    }
+
+    @Override
+    public Map<Long, NotificationCounterData> retrieve(Collection<Long> appUserIds) {
+        final Map<Long, NotificationCounterData> counters = new HashMap<>();
+        if (appUserIds.isEmpty()) {
+            return counters;
+        }
+        this.namedParameterJdbcTemplate.query(
+                "SELECT user_id, unread_count, last_notification_id FROM notification_user_counter WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", appUserIds), rs -> {
+                    final Long userId = rs.getLong("user_id");
+                    counters.put(userId,
+                            new NotificationCounterData(userId, rs.getInt("unread_count"), rs.getLong("last_notification_id")));
+                });
+        for (Long appUserId : appUserIds) {
+            counters.computeIfAbsent(appUserId, NotificationCounterData::empty);
+        }
+        return counters;
+    }
+}
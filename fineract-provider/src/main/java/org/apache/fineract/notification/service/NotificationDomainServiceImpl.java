@@ -18,10 +18,6 @@
  */
 package org.apache.fineract.notification.service;
 
-import static java.util.stream.Collectors.toSet;
-
-import java.util.Collection;
-import java.util.Set;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +27,7 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.eventandlistener.NotificationEventPublisher;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
 import org.apache.fineract.portfolio.businessevent.domain.client.ClientCreateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.deposit.FixedDepositAccountCreateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.deposit.RecurringDepositAccountCreateBusinessEvent;
@@ -60,8 +57,6 @@ import org.apache.fineract.portfolio.savings.domain.RecurringDepositAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
 import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccount;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -72,36 +67,47 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
     private final BusinessEventNotifierService businessEventNotifierService;
     private final PlatformSecurityContext context;
     private final NotificationEventPublisher notificationEventPublisher;
-    private final AppUserRepository appUserRepository;
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsApproveBusinessEvent.class, new SavingsAccountApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class, new SavingsAccountDepositListener());
+        businessEventNotifierService.addPostBusinessEventListener(ClientCreateBusinessEvent.class, new ClientCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsApproveBusinessEvent.class, new SavingsAccountApprovedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(CentersCreateBusinessEvent.class, new CenterCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(GroupsCreateBusinessEvent.class, new GroupCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsDepositBusinessEvent.class, new SavingsAccountDepositListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(ShareProductDividentsCreateBusinessEvent.class,
-                new ShareProductDividendCreatedListener());
+                new ShareProductDividendCreatedListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(FixedDepositAccountCreateBusinessEvent.class,
-                new FixedDepositAccountCreatedListener());
+                new FixedDepositAccountCreatedListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(RecurringDepositAccountCreateBusinessEvent.class,
-                new RecurringDepositAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsPostInterestBusinessEvent.class,
-                new SavingsPostInterestListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener());
+                new RecurringDepositAccountCreatedListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsPostInterestBusinessEvent.class, new SavingsPostInterestListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(LoanCreatedBusinessEvent.class, new LoanCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(LoanApprovedBusinessEvent.class, new LoanApprovedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(LoanCloseBusinessEvent.class, new LoanClosedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(LoanCloseAsRescheduleBusinessEvent.class,
-                new LoanCloseAsRescheduledListener());
+                new LoanCloseAsRescheduledListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class,
-                new LoanMakeRepaymentListener());
-        businessEventNotifierService.addPostBusinessEventListener(LoanProductCreateBusinessEvent.class, new LoanProductCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class, new SavingsAccountCreatedListener());
-        businessEventNotifierService.addPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener());
-        businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class, new ShareAccountCreatedListener());
+                new LoanMakeRepaymentListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(LoanProductCreateBusinessEvent.class, new LoanProductCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsCreateBusinessEvent.class, new SavingsAccountCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(SavingsCloseBusinessEvent.class, new SavingsAccountClosedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        businessEventNotifierService.addPostBusinessEventListener(ShareAccountCreateBusinessEvent.class, new ShareAccountCreatedListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(ShareAccountApproveBusinessEvent.class,
-                new ShareAccountApprovedListener());
+                new ShareAccountApprovedListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
     }
 
     private class ClientCreatedListener implements BusinessEventListener<ClientCreateBusinessEvent> {
@@ -311,9 +317,8 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
             String eventType, Long appUserId, Long officeId) {
 
         String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        Set<Long> userIds = getNotifiableUserIds(officeId, permission);
         NotificationData notificationData = new NotificationData(objectType, objectIdentifier, eventType, appUserId, notificationContent,
-                false, false, tenantIdentifier, officeId, userIds);
+                false, false, tenantIdentifier, officeId, permission);
         try {
             notificationEventPublisher.broadcastNotification(notificationData);
         } catch (Exception e) {
@@ -321,10 +326,4 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
             log.error("Error while broadcasting notification event", e);
         }
     }
-
-    private Set<Long> getNotifiableUserIds(Long officeId, String permission) {
-        Collection<AppUser> users = appUserRepository.findByOfficeId(officeId);
-        Collection<AppUser> usersWithPermission = users.stream().filter(aU -> aU.hasAnyPermission(permission, "ALL_FUNCTIONS")).toList();
-        return usersWithPermission.stream().map(AppUser::getId).collect(toSet());
-    }
 }
@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.ws.rs.container.AsyncResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.notification.data.NotificationCounterData;
+import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.data.NotificationStreamData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Parks long-poll requests of the notification stream and completes them from one poller thread per node.
+ *
+ * Each tick reads the notification_user_counter rows of every waiting user of a tenant in one query and answers the
+ * requests whose counter moved past their Last-Event-ID. Counters are written by whichever node delivered the
+ * notification, so waiting clients see notifications from every node without any node to node messaging.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationStreamServiceImpl implements NotificationStreamService, ApplicationListener<ContextClosedEvent> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final NotificationCounterService notificationCounterService;
+    private final NotificationBroadcastService notificationBroadcastService;
+    private final ToApiJsonSerializer<NotificationStreamData> toApiJsonSerializer;
+
+    private final Map<String, TenantWaiters> waitersByTenant = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    @Value("${fineract.notification.stream.poll-millis:1000}")
+    private long pollMillis;
+
+    @Value("${fineract.notification.stream.max-wait-seconds:25}")
+    private int maxWaitSeconds;
+
+    @Value("${fineract.notification.stream.max-waiters:2000}")
+    private int maxWaiters;
+
+    @Value("${fineract.notification.stream.batch-size:50}")
+    private int batchSize;
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler.scheduleWithFixedDelay(this::poll, this.pollMillis, this.pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void await(final Long appUserId, final Long lastEventId, final AsyncResponse asyncResponse) {
+        this.notificationBroadcastService.materializeBroadcasts(appUserId);
+        final NotificationCounterData counter = this.notificationCounterService.retrieve(appUserId);
+        if (lastEventId == null || counter.getLastNotificationId() > lastEventId || this.waiterCount.get() >= this.maxWaiters) {
+            asyncResponse.resume(render(appUserId, lastEventId, counter));
+            return;
+        }
+
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final TenantWaiters tenant = this.waitersByTenant.computeIfAbsent(tenantIdentifier, key -> new TenantWaiters());
+        tenant.context = ThreadLocalContextUtil.getContext();
+
+        // the poller answers at the deadline, the container timeout only catches a stalled poller
+        asyncResponse.setTimeout(this.maxWaitSeconds + 10L, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(AsyncResponse::cancel);
+        tenant.waiters.add(new Waiter(appUserId, lastEventId, asyncResponse,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(this.maxWaitSeconds)));
+        this.waiterCount.incrementAndGet();
+    }
+
+    private void poll() {
+        for (final TenantWaiters tenant : this.waitersByTenant.values()) {
+            if (tenant.waiters.isEmpty()) {
+                continue;
+            }
+            try {
+                ThreadLocalContextUtil.init(tenant.context);
+                poll(tenant);
+            } catch (RuntimeException e) {
+                log.warn("Polling notification counters of tenant {} failed", tenant.context.getTenantContext().getTenantIdentifier(),
+                        e);
+            }
+        }
+    }
+
+    private void poll(final TenantWaiters tenant) {
+        final Set<Long> userIds = new HashSet<>();
+        for (final Waiter waiter : tenant.waiters) {
+            userIds.add(waiter.appUserId);
+        }
+
+        final Long lastBroadcastId = this.jdbcTemplate
+                .queryForObject("SELECT COALESCE(MAX(id), 0) FROM notification_generator WHERE is_broadcast = true", Long.class);
+        if (lastBroadcastId != null && lastBroadcastId > tenant.lastBroadcastId) {
+            for (final Long userId : userIds) {
+                this.notificationBroadcastService.materializeBroadcasts(userId);
+            }
+            tenant.lastBroadcastId = lastBroadcastId;
+        }
+
+        final Map<Long, NotificationCounterData> counters = this.notificationCounterService.retrieve(userIds);
+        final long now = System.currentTimeMillis();
+        for (final Iterator<Waiter> iterator = tenant.waiters.iterator(); iterator.hasNext();) {
+            final Waiter waiter = iterator.next();
+            final NotificationCounterData counter = counters.get(waiter.appUserId);
+            if (waiter.asyncResponse.isDone()) {
+                remove(iterator);
+            } else if (counter.getLastNotificationId() > waiter.lastEventId || now >= waiter.deadline) {
+                waiter.asyncResponse.resume(render(waiter.appUserId, waiter.lastEventId, counter));
+                remove(iterator);
+            }
+        }
+    }
+
+    private void remove(final Iterator<Waiter> iterator) {
+        iterator.remove();
+        this.waiterCount.decrementAndGet();
+    }
+
+    private String render(final Long appUserId, final Long lastEventId, final NotificationCounterData counter) {
+        final List<NotificationData> notifications = new ArrayList<>();
+        long position = lastEventId == null ? counter.getLastNotificationId() : lastEventId;
+        if (lastEventId != null && counter.getLastNotificationId() > lastEventId) {
+            final String sql = "SELECT nm.id as eventId, ng.id as id, nm.user_id as userId, ng.object_type as objectType, "
+                    + "ng.object_identifier as objectId, ng.actor as actor, ng." + this.sqlGenerator.escape("action")
+                    + " as action, ng.notification_content as content, ng.is_system_generated as isSystemGenerated, "
+                    + "nm.is_read as isRead, nm.created_at as createdAt "
+                    + "FROM notification_mapper nm INNER JOIN notification_generator ng ON nm.notification_id = ng.id "
+                    + "WHERE nm.user_id = ? AND nm.id > ? ORDER BY nm.id " + this.sqlGenerator.limit(this.batchSize);
+            final long[] lastMapped = { position };
+            this.jdbcTemplate.query(sql, rs -> {
+                final NotificationData notificationData = new NotificationData();
+                notificationData.setId(rs.getLong("id"));
+                notificationData.setObjectType(rs.getString("objectType"));
+                notificationData.setObjectId(rs.getLong("objectId"));
+                notificationData.setActorId(rs.getLong("actor"));
+                notificationData.setAction(rs.getString("action"));
+                notificationData.setContent(rs.getString("content"));
+                notificationData.setSystemGenerated(rs.getBoolean("isSystemGenerated"));
+                notificationData.setRead(rs.getBoolean("isRead"));
+                notificationData.setCreatedAt(rs.getString("createdAt"));
+                notifications.add(notificationData);
+                lastMapped[0] = rs.getLong("eventId");
+            }, appUserId, lastEventId);
+            position = lastMapped[0];
+        }
+        return this.toApiJsonSerializer.serialize(new NotificationStreamData(position, counter.getUnreadCount(), notifications));
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        // clients reconnect to another node with the Last-Event-ID they already have
+        for (final TenantWaiters tenant : this.waitersByTenant.values()) {
+            for (final Waiter waiter : tenant.waiters) {
+                waiter.asyncResponse.cancel();
+            }
+            tenant.waiters.clear();
+        }
+    }
+
+    private static final class TenantWaiters {
+
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        private volatile FineractContext context;
+        private long lastBroadcastId;
+    }
+
+    private static final class Waiter {
+
+        private final Long appUserId;
+        private final long lastEventId;
+        private final AsyncResponse asyncResponse;
+        private final long deadline;
+
+        private Waiter(final Long appUserId, final long lastEventId, final AsyncResponse asyncResponse, final long deadline) {
+            this.appUserId = appUserId;
+            this.lastEventId = lastEventId;
+            this.asyncResponse = asyncResponse;
+            this.deadline = deadline;
+        }
+    }
+}
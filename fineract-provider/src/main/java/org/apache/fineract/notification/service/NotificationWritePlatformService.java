@@ -27,4 +27,12 @@ public interface NotificationWritePlatformService {
 
     Long notify(Collection<Long> userIds, String objectType, Long objectId, String action, Long actorId, String notificationContent,
             boolean isSystemGenerated);
+
+    /**
+     * Notifies every user of the office holding the permission (or ALL_FUNCTIONS), except the actor. The recipients are
+     * resolved and mapped in the database; audiences of at least fineract.notification.broadcast-threshold users are
+     * stored once as a broadcast instead.
+     */
+    Long notifyAudience(Long officeId, String permission, String objectType, Long objectId, String action, Long actorId,
+            String notificationContent, boolean isSystemGenerated);
 }
@@ -18,78 +18,89 @@
  */
 package org.apache.fineract.notification.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.notification.domain.Notification;
-import org.apache.fineract.notification.domain.NotificationMapper;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class NotificationWritePlatformServiceImpl implements NotificationWritePlatformService {
 
+    private static final String INSERT_MAPPER_SQL = "INSERT INTO notification_mapper (notification_id, user_id, is_read, created_at) "
+            + "VALUES (?, ?, false, ?)";
+
+    // users of office ? holding permission ? (directly or through ALL_FUNCTIONS), actor ? excluded
+    private static final String AUDIENCE_SQL = "FROM m_appuser u WHERE u.office_id = ? AND u.id <> COALESCE(?, 0) "
+            + "AND EXISTS (SELECT 1 FROM m_appuser_role ur JOIN m_role_permission rp ON rp.role_id = ur.role_id "
+            + "JOIN m_permission p ON p.id = rp.permission_id WHERE ur.appuser_id = u.id AND p.code IN (?, 'ALL_FUNCTIONS'))";
+
     private final NotificationGeneratorWritePlatformService notificationGeneratorWritePlatformService;
-    private final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper;
-    private final AppUserRepository appUserRepository;
-    private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationCounterService notificationCounterService;
+
+    @Value("${fineract.notification.broadcast-threshold:500}")
+    private int broadcastThreshold;
 
     @Override
     public Long notify(Long userId, String objectType, Long objectIdentifier, String action, Long actorId, String notificationContent,
             boolean isSystemGenerated) {
-
-        Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectIdentifier, action, actorId, notificationContent,
-                isSystemGenerated);
-        insertIntoNotificationMapper(userId, generatedNotificationId);
-        return generatedNotificationId;
+        return notify(List.of(userId), objectType, objectIdentifier, action, actorId, notificationContent, isSystemGenerated);
     }
 
-    private Long insertIntoNotificationMapper(Long userId, Long generatedNotificationId) {
-        AppUser appUser = this.appUserRepository.findById(userId).orElse(null);
-        NotificationMapper notificationMapper = new NotificationMapper(
-                this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false,
-                DateUtils.getLocalDateTimeOfSystem());
-
-        this.notificationMapperWritePlatformService.create(notificationMapper);
-        return notificationMapper.getId();
-    }
-
-    private Long insertIntoNotificationGenerator(String objectType, Long objectIdentifier, String action, Long actorId,
-            String notificationContent, boolean isSystemGenerated) {
-
-        Notification notification = new Notification(objectType, objectIdentifier, action, actorId, isSystemGenerated, notificationContent,
-                DateUtils.getLocalDateTimeOfSystem());
+    @Override
+    public Long notify(Collection<Long> userIds, String objectType, Long objectId, String action, Long actorId, String notificationContent,
+            boolean isSystemGenerated) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        Long generatedNotificationId = this.notificationGeneratorWritePlatformService
+                .create(new Notification(objectType, objectId, action, actorId, isSystemGenerated, notificationContent, now));
 
-        return this.notificationGeneratorWritePlatformService.create(notification);
+        insertIntoNotificationMapper(userIds, generatedNotificationId, now);
+        this.notificationCounterService.recordDelivered(generatedNotificationId);
+        return generatedNotificationId;
     }
 
     @Override
-    public Long notify(Collection<Long> userIds, String objectType, Long objectId, String action, Long actorId, String notificationContent,
-            boolean isSystemGenerated) {
+    public Long notifyAudience(Long officeId, String permission, String objectType, Long objectId, String action, Long actorId,
+            String notificationContent, boolean isSystemGenerated) {
+        final Long audienceSize = this.jdbcTemplate.queryForObject("SELECT COUNT(u.id) " + AUDIENCE_SQL, Long.class, officeId, actorId,
+                permission);
+        if (audienceSize == null || audienceSize == 0) {
+            return null;
+        }
 
-        Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectId, action, actorId, notificationContent,
-                isSystemGenerated);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        if (this.broadcastThreshold > 0 && audienceSize >= this.broadcastThreshold) {
+            log.debug("Storing notification for {} users of office {} as a broadcast", audienceSize, officeId);
+            return this.notificationGeneratorWritePlatformService.create(Notification.broadcast(objectType, objectId, action, actorId,
+                    isSystemGenerated, notificationContent, now, officeId, permission));
+        }
 
-        insertIntoNotificationMapper(userIds, generatedNotificationId);
+        Long generatedNotificationId = this.notificationGeneratorWritePlatformService
+                .create(new Notification(objectType, objectId, action, actorId, isSystemGenerated, notificationContent, now));
+        this.jdbcTemplate.update("INSERT INTO notification_mapper (notification_id, user_id, is_read, created_at) SELECT ?, u.id, false, ? "
+                + AUDIENCE_SQL, generatedNotificationId, now, officeId, actorId, permission);
+        this.notificationCounterService.recordDelivered(generatedNotificationId);
         return generatedNotificationId;
     }
 
-    private List<Long> insertIntoNotificationMapper(Collection<Long> userIds, Long generatedNotificationId) {
-        List<Long> mappedIds = new ArrayList<>();
+    private void insertIntoNotificationMapper(Collection<Long> userIds, Long generatedNotificationId, LocalDateTime createdAt) {
+        final List<Object[]> batch = new ArrayList<>(userIds.size());
         for (Long userId : userIds) {
-            AppUser appUser = this.appUserRepository.findById(userId).orElseThrow();
-            NotificationMapper notificationMapper = new NotificationMapper(
-                    this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false,
-                    DateUtils.getLocalDateTimeOfSystem());
-            this.notificationMapperWritePlatformService.create(notificationMapper);
-            mappedIds.add(notificationMapper.getId());
+            batch.add(new Object[] { generatedNotificationId, userId, createdAt });
+        }
+        if (!batch.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_MAPPER_SQL, batch);
         }
-        return mappedIds;
     }
 }
@@ -18,10 +18,6 @@
  */
 package org.apache.fineract.notification.service.business;
 
-import static java.util.stream.Collectors.toSet;
-
-import java.util.Collection;
-import java.util.Set;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,13 +27,12 @@ import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.eventandlistener.NotificationEventPublisher;
 import org.apache.fineract.portfolio.business.overdraft.domain.Overdraft;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
 import org.apache.fineract.portfolio.businessevent.domain.loan.business.LoanMetricsApprovalBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.savings.business.OverdraftMetricsApprovalBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.service.BusinessEventNotifierService;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -48,14 +43,13 @@ public class NotificationBusinessDomainServiceImpl implements NotificationBusine
     private final BusinessEventNotifierService businessEventNotifierService;
     private final PlatformSecurityContext context;
     private final NotificationEventPublisher notificationEventPublisher;
-    private final AppUserRepository appUserRepository;
 
     @PostConstruct
     public void addListeners() {
-        businessEventNotifierService.addPostBusinessEventListener(LoanMetricsApprovalBusinessEvent.class,
-                new LoanMetricsApprovalListener());
+        businessEventNotifierService.addPostBusinessEventListener(LoanMetricsApprovalBusinessEvent.class, new LoanMetricsApprovalListener(),
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
         businessEventNotifierService.addPostBusinessEventListener(OverdraftMetricsApprovalBusinessEvent.class,
-                new OverdraftMetricsApprovalListener());
+                new OverdraftMetricsApprovalListener(), BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
     }
 
     private class OverdraftMetricsApprovalListener implements BusinessEventListener<OverdraftMetricsApprovalBusinessEvent> {
@@ -83,9 +77,8 @@ public class NotificationBusinessDomainServiceImpl implements NotificationBusine
             String eventType, Long appUserId, Long officeId) {
 
         String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        Set<Long> userIds = getNotifiableUserIds(officeId, permission);
         NotificationData notificationData = new NotificationData(objectType, objectIdentifier, eventType, appUserId, notificationContent,
-                false, false, tenantIdentifier, officeId, userIds);
+                false, false, tenantIdentifier, officeId, permission);
         try {
             notificationEventPublisher.broadcastNotification(notificationData);
         } catch (Exception e) {
@@ -93,10 +86,4 @@ public class NotificationBusinessDomainServiceImpl implements NotificationBusine
             log.error("Error while broadcasting notification event", e);
         }
     }
-
-    private Set<Long> getNotifiableUserIds(Long officeId, String permission) {
-        Collection<AppUser> users = appUserRepository.findByOfficeId(officeId);
-        Collection<AppUser> usersWithPermission = users.stream().filter(aU -> aU.hasAnyPermission(permission, "ALL_FUNCTIONS")).toList();
-        return usersWithPermission.stream().map(AppUser::getId).collect(toSet());
-    }
 }
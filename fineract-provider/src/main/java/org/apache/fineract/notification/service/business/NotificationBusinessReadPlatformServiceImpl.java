@@ -34,6 +34,7 @@ import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecific
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.service.NotificationBroadcastService;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -49,6 +50,7 @@ public class NotificationBusinessReadPlatformServiceImpl implements Notification
     private final ColumnValidator columnValidator;
     private final PaginationHelper paginationHelper;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final NotificationBroadcastService notificationBroadcastService;
 
     private String buildSqlStringFromNotificationCriteria(final SearchParametersBusiness searchParameters, List<Object> paramList) {
 
@@ -112,6 +114,7 @@ public class NotificationBusinessReadPlatformServiceImpl implements Notification
     }
 
     private Page<NotificationData> getNotificationDataPage(SearchParametersBusiness searchParameters, Long appUserId, String sql) {
+        this.notificationBroadcastService.materializeBroadcasts(appUserId);
         List<Object> paramList = new ArrayList<>();
         paramList.add(appUserId);
         final StringBuilder sqlBuilder = new StringBuilder(200);
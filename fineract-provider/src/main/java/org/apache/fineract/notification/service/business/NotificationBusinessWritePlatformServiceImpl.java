@@ -27,6 +27,8 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.notification.service.NotificationBroadcastService;
+import org.apache.fineract.notification.service.NotificationCounterService;
 import org.apache.fineract.notification.service.NotificationMapperReadRepositoryWrapperImpl;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -43,6 +45,8 @@ public class NotificationBusinessWritePlatformServiceImpl implements Notificatio
     private final PlatformSecurityContext context;
     private final NotificationMapperReadRepositoryWrapperImpl notificationMapperReadRepositoryWrapper;
     private final JdbcTemplate jdbcTemplate;
+    private final NotificationBroadcastService notificationBroadcastService;
+    private final NotificationCounterService notificationCounterService;
 
     @Transactional
     @Override
@@ -50,6 +54,7 @@ public class NotificationBusinessWritePlatformServiceImpl implements Notificatio
         try {
             final AppUser currentUser = this.context.authenticatedUser();
             final Long appUserId = currentUser.getId();
+            this.notificationBroadcastService.materializeBroadcasts(appUserId);
             if (notificationId == null) {
                 String sql = "UPDATE notification_mapper SET is_read = true WHERE is_read = false and user_id = ?";
                 this.jdbcTemplate.update(sql, appUserId);
@@ -58,6 +63,7 @@ public class NotificationBusinessWritePlatformServiceImpl implements Notificatio
                 String sql = "UPDATE notification_mapper SET is_read = true WHERE is_read = false and user_id = ? and notification_id = ?";
                 this.jdbcTemplate.update(sql, appUserId, notificationId);
             }
+            this.notificationCounterService.recount(appUserId);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -0,0 +1,32 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.exception;
+
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+
+/**
+ * Exception thrown when an attempt is made to move an office under one of its own child offices.
+ */
+public class CannotUpdateOfficeWithParentOfficeUnderSelf extends AbstractPlatformDomainRuleException {
+
+    public CannotUpdateOfficeWithParentOfficeUnderSelf(final Long officeId, final Long parentId) {
+        super("error.msg.office.parentId.under.id", "Cannot update office with parent that is one of its child offices.", officeId,
+                parentId);
+    }
+}
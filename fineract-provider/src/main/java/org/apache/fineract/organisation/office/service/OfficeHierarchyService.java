@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import java.util.Set;
+
+/**
+ * Maintains the ancestor/descendant closure of the office tree (<code>m_office_closure</code>) so that data scoped to a
+ * user's office can be filtered by office id instead of by <code>hierarchy like 'x%'</code>.
+ */
+public interface OfficeHierarchyService {
+
+    /**
+     * Ids of the given office and every office below it, loaded once per tenant and office.
+     */
+    Set<Long> retrieveDescendantOfficeIds(Long officeId);
+
+    /**
+     * Reads the closure table directly, for checks that must not be answered from a cached subtree that another node
+     * has since changed.
+     */
+    boolean isSameOrDescendantOffice(Long ancestorOfficeId, Long officeId);
+
+    void registerOffice(Long officeId, Long parentId);
+
+    void moveOffice(Long officeId, Long newParentId);
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.organisation.office.exception.CannotUpdateOfficeWithParentOfficeUnderSelf;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class OfficeHierarchyServiceImpl implements OfficeHierarchyService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    @Cacheable(value = "officeDescendants", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId)")
+    public Set<Long> retrieveDescendantOfficeIds(final Long officeId) {
+        final List<Long> ids = this.jdbcTemplate.queryForList("select oc.descendant_id from m_office_closure oc where oc.ancestor_id = ?",
+                Long.class, officeId);
+        return Collections.unmodifiableSet(new HashSet<>(ids));
+    }
+
+    @Override
+    public boolean isSameOrDescendantOffice(final Long ancestorOfficeId, final Long officeId) {
+        final Integer links = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_office_closure oc where oc.ancestor_id = ? and oc.descendant_id = ?", Integer.class,
+                ancestorOfficeId, officeId);
+        return links != null && links > 0;
+    }
+
+    @Override
+    public void registerOffice(final Long officeId, final Long parentId) {
+        this.jdbcTemplate.update("insert into m_office_closure (ancestor_id, descendant_id, depth) values (?, ?, 0)", officeId, officeId);
+        if (parentId != null) {
+            this.jdbcTemplate.update(
+                    "insert into m_office_closure (ancestor_id, descendant_id, depth) select oc.ancestor_id, ?, oc.depth + 1 from m_office_closure oc where oc.descendant_id = ?",
+                    officeId, parentId);
+        }
+    }
+
+    @Override
+    public void moveOffice(final Long officeId, final Long newParentId) {
+        final List<Object[]> subtree = this.jdbcTemplate.query(
+                "select oc.descendant_id, oc.depth from m_office_closure oc where oc.ancestor_id = ?",
+                (rs, rowNum) -> new Object[] { rs.getLong("descendant_id"), rs.getInt("depth") }, officeId);
+        final List<Long> subtreeIds = new ArrayList<>(subtree.size());
+        for (final Object[] node : subtree) {
+            subtreeIds.add((Long) node[0]);
+        }
+        if (subtreeIds.contains(newParentId)) {
+            throw new CannotUpdateOfficeWithParentOfficeUnderSelf(officeId, newParentId);
+        }
+
+        // detach the subtree from its current ancestors, links inside the subtree stay as they are
+        final List<Long> oldAncestorIds = this.jdbcTemplate.queryForList(
+                "select oc.ancestor_id from m_office_closure oc where oc.descendant_id = ? and oc.ancestor_id <> ?", Long.class, officeId,
+                officeId);
+        if (!oldAncestorIds.isEmpty()) {
+            final MapSqlParameterSource params = new MapSqlParameterSource().addValue("ancestorIds", oldAncestorIds)
+                    .addValue("descendantIds", subtreeIds);
+            this.namedParameterJdbcTemplate.update(
+                    "delete from m_office_closure where ancestor_id in (:ancestorIds) and descendant_id in (:descendantIds)", params);
+        }
+
+        // attach it under every ancestor of the new parent (the parent included)
+        final List<Object[]> newAncestors = this.jdbcTemplate.query(
+                "select oc.ancestor_id, oc.depth from m_office_closure oc where oc.descendant_id = ?",
+                (rs, rowNum) -> new Object[] { rs.getLong("ancestor_id"), rs.getInt("depth") }, newParentId);
+        final List<Object[]> links = new ArrayList<>(newAncestors.size() * subtree.size());
+        for (final Object[] ancestor : newAncestors) {
+            for (final Object[] node : subtree) {
+                links.add(new Object[] { ancestor[0], node[0], (Integer) ancestor[1] + (Integer) node[1] + 1 });
+            }
+        }
+        if (!links.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("insert into m_office_closure (ancestor_id, descendant_id, depth) values (?, ?, ?)", links);
+        }
+    }
+}
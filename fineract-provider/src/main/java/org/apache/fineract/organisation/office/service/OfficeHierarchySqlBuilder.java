@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+/**
+ * SQL fragments restricting a query to the offices under a given office, backed by <code>m_office_closure</code>.
+ * The bound parameter is the id of the ancestor office (usually the current user's office).
+ */
+public final class OfficeHierarchySqlBuilder {
+
+    private OfficeHierarchySqlBuilder() {}
+
+    /**
+     * @return <code>officeIdColumn in (descendants of ?)</code>
+     */
+    public static String officeUnder(final String officeIdColumn) {
+        return officeIdColumn + " in (select oc.descendant_id from m_office_closure oc where oc.ancestor_id = ?)";
+    }
+
+    /**
+     * @return <code>officeIdColumn in (descendants of :parameterName)</code>
+     */
+    public static String officeUnder(final String officeIdColumn, final String parameterName) {
+        return officeIdColumn + " in (select oc.descendant_id from m_office_closure oc where oc.ancestor_id = :" + parameterName + ")";
+    }
+
+    /**
+     * Variant for callers that only hold the hierarchy path of the ancestor office.
+     *
+     * @return <code>officeIdColumn in (descendants of the office whose hierarchy = ?)</code>
+     */
+    public static String officeUnderHierarchy(final String officeIdColumn) {
+        return officeIdColumn + " in (select oc.descendant_id from m_office_closure oc join m_office ao on ao.id = oc.ancestor_id"
+                + " where ao.hierarchy = ?)";
+    }
+}
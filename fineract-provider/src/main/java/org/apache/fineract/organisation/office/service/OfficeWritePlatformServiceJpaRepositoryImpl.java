@@ -58,12 +58,14 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
     private final OfficeTransactionRepository officeTransactionRepository;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Transactional
     @Override
     @Caching(evict = {
             @CacheEvict(value = "offices", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')"),
-            @CacheEvict(value = "officesForDropdown", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'ofd')") })
+            @CacheEvict(value = "officesForDropdown", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'ofd')"),
+            @CacheEvict(value = "officeDescendants", allEntries = true) })
     public CommandProcessingResult createOffice(final JsonCommand command) {
 
         try {
@@ -85,6 +87,7 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
             office.generateHierarchy();
 
             this.officeRepositoryWrapper.save(office);
+            this.officeHierarchyService.registerOffice(office.getId(), parent.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -106,7 +109,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     @Caching(evict = {
             @CacheEvict(value = "offices", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')"),
             @CacheEvict(value = "officesForDropdown", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'ofd')"),
-            @CacheEvict(value = "officesById", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId)") })
+            @CacheEvict(value = "officesById", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId)"),
+            @CacheEvict(value = "officeDescendants", allEntries = true) })
     public CommandProcessingResult updateOffice(final Long officeId, final JsonCommand command) {
 
         try {
@@ -126,6 +130,7 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
             if (changes.containsKey("parentId")) {
                 final Office parent = validateUserPriviledgeOnOfficeAndRetrieve(currentUser, parentId);
                 office.update(parent);
+                this.officeHierarchyService.moveOffice(office.getId(), parent.getId());
             }
 
             if (!changes.isEmpty()) {
@@ -229,17 +234,13 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private Office validateUserPriviledgeOnOfficeAndRetrieve(final AppUser currentUser, final Long officeId) {
 
         final Long userOfficeId = currentUser.getOffice().getId();
-        final Office userOffice = this.officeRepositoryWrapper.findOfficeHierarchy(userOfficeId);
-        if (userOffice.doesNotHaveAnOfficeInHierarchyWithId(officeId)) {
+        // a cached subtree can miss an office created or moved on another node, so confirm a miss before refusing
+        if (!this.officeHierarchyService.retrieveDescendantOfficeIds(userOfficeId).contains(officeId)
+                && !this.officeHierarchyService.isSameOrDescendantOffice(userOfficeId, officeId)) {
             throw new NoAuthorizationException("User does not have sufficient priviledges to act on the provided office.");
         }
 
-        Office officeToReturn = userOffice;
-        if (!userOffice.identifiedBy(officeId)) {
-            officeToReturn = this.officeRepositoryWrapper.findOfficeHierarchy(officeId);
-        }
-
-        return officeToReturn;
+        return this.officeRepositoryWrapper.findOfficeHierarchy(officeId);
     }
 
     public PlatformSecurityContext getContext() {
@@ -25,12 +25,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.commands.service.CommandIdempotencyService;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -122,9 +124,11 @@ public class AccountTransfersBusinessApiResource {
     // , content = @Content(schema = @Schema(implementation =
     // AccountTransfersApiResourceSwagger.PostAccountTransfersResponse.class))
     )
-    public String create(@Parameter(hidden = true) final String apiRequestBodyAsJson) {
+    public String create(@HeaderParam(CommandIdempotencyService.IDEMPOTENCY_KEY_HEADER) final String idempotencyKey,
+            @Parameter(hidden = true) final String apiRequestBodyAsJson) {
 
-        final CommandProcessingResult result = this.accountTransfersBusinessWritePlatformService.create(apiRequestBodyAsJson);
+        final CommandProcessingResult result = this.accountTransfersBusinessWritePlatformService.create(apiRequestBodyAsJson,
+                idempotencyKey);
 
         return this.toApiJsonSerializer.serialize(result);
     }
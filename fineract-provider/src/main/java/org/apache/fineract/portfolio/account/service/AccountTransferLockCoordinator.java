@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.account.service;
+
+import java.util.Arrays;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acquires the row locks of every savings account taking part in a transfer before any of them is mutated, always in
+ * ascending account id order. Concurrent A to B and B to A transfers then queue on the same first lock instead of each
+ * holding one account and waiting for the other.
+ *
+ * Must be called inside the transaction that performs the transfer; the locks are released on commit or rollback.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountTransferLockCoordinator {
+
+    private final SavingsAccountRepository savingsAccountRepository;
+
+    public void lockSavingsAccounts(final Long... savingsAccountIds) {
+        final Long[] orderedIds = Arrays.stream(savingsAccountIds).filter(Objects::nonNull).distinct().sorted().toArray(Long[]::new);
+        for (final Long savingsAccountId : orderedIds) {
+            final SavingsAccount account = this.savingsAccountRepository.findOneLocked(savingsAccountId);
+            if (account == null) {
+                throw new SavingsAccountNotFoundException(savingsAccountId);
+            }
+        }
+    }
+}
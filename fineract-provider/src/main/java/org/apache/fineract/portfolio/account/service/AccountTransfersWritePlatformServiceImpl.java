@@ -86,6 +86,7 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
     private final LoanReadPlatformService loanReadPlatformService;
     private final GSIMRepositoy gsimRepository;
     private final ConfigurationDomainService configurationDomainService;
+    private final AccountTransferLockCoordinator accountTransferLockCoordinator;
 
     @Autowired
     public AccountTransfersWritePlatformServiceImpl(final AccountTransfersDataValidator accountTransfersDataValidator,
@@ -94,7 +95,8 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
             final LoanAssembler loanAssembler, final LoanAccountDomainService loanAccountDomainService,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final AccountTransferDetailRepository accountTransferDetailRepository, final LoanReadPlatformService loanReadPlatformService,
-            final GSIMRepositoy gsimRepository, ConfigurationDomainService configurationDomainService) {
+            final GSIMRepositoy gsimRepository, ConfigurationDomainService configurationDomainService,
+            final AccountTransferLockCoordinator accountTransferLockCoordinator) {
         this.accountTransfersDataValidator = accountTransfersDataValidator;
         this.accountTransferAssembler = accountTransferAssembler;
         this.accountTransferRepository = accountTransferRepository;
@@ -107,6 +109,7 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
         this.loanReadPlatformService = loanReadPlatformService;
         this.gsimRepository = gsimRepository;
         this.configurationDomainService = configurationDomainService;
+        this.accountTransferLockCoordinator = accountTransferLockCoordinator;
     }
 
     @Transactional
@@ -136,27 +139,29 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
             boolean isAccountTransfer = true;
             Long fromLoanAccountId = null;
             boolean isWithdrawBalance = false;
-            final boolean backdatedTxnsAllowedTill = false;
 
             if (isSavingsToSavingsAccountTransfer(fromAccountType, toAccountType)) {
 
                 fromSavingsAccountId = command.longValueOfParameterNamed(fromAccountIdParamName);
-                final SavingsAccount fromSavingsAccount = this.savingsAccountAssembler.assembleFrom(fromSavingsAccountId,
-                        backdatedTxnsAllowedTill);
+                final Long toSavingsId = command.longValueOfParameterNamed(toAccountIdParamName);
+                this.accountTransferLockCoordinator.lockSavingsAccounts(fromSavingsAccountId, toSavingsId);
+                final SavingsAccount fromSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(fromSavingsAccountId,
+                        transactionDate);
 
                 final SavingsTransactionBooleanValues transactionBooleanValues = new SavingsTransactionBooleanValues(isAccountTransfer,
                         isRegularTransaction, fromSavingsAccount.isWithdrawalFeeApplicableForTransfer(), isInterestTransfer,
                         isWithdrawBalance);
                 final SavingsAccountTransaction withdrawal = this.savingsAccountDomainService.handleWithdrawal(fromSavingsAccount, fmt,
-                        transactionDate, transactionAmount, paymentDetail, transactionBooleanValues, backdatedTxnsAllowedTill);
+                        transactionDate, transactionAmount, paymentDetail, transactionBooleanValues,
+                        fromSavingsAccount.isTransactionsLoadedFromPivot());
 
-                final Long toSavingsId = command.longValueOfParameterNamed(toAccountIdParamName);
-                final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleFrom(toSavingsId, backdatedTxnsAllowedTill);
+                final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(toSavingsId,
+                        transactionDate);
 
                 final boolean isSelfTransfer = Objects.equals(fromSavingsAccount.getClient().getId(), toSavingsAccount.getClient().getId());
                 final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(toSavingsAccount, fmt,
                         transactionDate, transactionAmount, paymentDetail, isAccountTransfer, isRegularTransaction,
-                        backdatedTxnsAllowedTill, isSelfTransfer);
+                        toSavingsAccount.isTransactionsLoadedFromPivot(), isSelfTransfer);
 
                 if (!fromSavingsAccount.getCurrency().getCode().equals(toSavingsAccount.getCurrency().getCode())) {
                     throw new DifferentCurrenciesException(fromSavingsAccount.getCurrency().getCode(),
@@ -171,14 +176,15 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
             } else if (isSavingsToLoanAccountTransfer(fromAccountType, toAccountType)) {
                 //
                 fromSavingsAccountId = command.longValueOfParameterNamed(fromAccountIdParamName);
-                final SavingsAccount fromSavingsAccount = this.savingsAccountAssembler.assembleFrom(fromSavingsAccountId,
-                        backdatedTxnsAllowedTill);
+                final SavingsAccount fromSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(fromSavingsAccountId,
+                        transactionDate);
 
                 final SavingsTransactionBooleanValues transactionBooleanValues = new SavingsTransactionBooleanValues(isAccountTransfer,
                         isRegularTransaction, fromSavingsAccount.isWithdrawalFeeApplicableForTransfer(), isInterestTransfer,
                         isWithdrawBalance);
                 final SavingsAccountTransaction withdrawal = this.savingsAccountDomainService.handleWithdrawal(fromSavingsAccount, fmt,
-                        transactionDate, transactionAmount, paymentDetail, transactionBooleanValues, backdatedTxnsAllowedTill);
+                        transactionDate, transactionAmount, paymentDetail, transactionBooleanValues,
+                        fromSavingsAccount.isTransactionsLoadedFromPivot());
 
                 final Long toLoanAccountId = command.longValueOfParameterNamed(toAccountIdParamName);
                 final Loan toLoanAccount = this.loanAccountAssembler.assembleFrom(toLoanAccountId);
@@ -206,12 +212,12 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
                         new CommandProcessingResultBuilder(), transactionDate, transactionAmount, paymentDetail, null, null);
 
                 final Long toSavingsAccountId = command.longValueOfParameterNamed(toAccountIdParamName);
-                final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleFrom(toSavingsAccountId,
-                        backdatedTxnsAllowedTill);
+                final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(toSavingsAccountId,
+                        transactionDate);
 
                 final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(toSavingsAccount, fmt,
                         transactionDate, transactionAmount, paymentDetail, isAccountTransfer, isRegularTransaction,
-                        backdatedTxnsAllowedTill, true);
+                        toSavingsAccount.isTransactionsLoadedFromPivot(), true);
 
                 final AccountTransferDetails accountTransferDetails = this.accountTransferAssembler.assembleLoanToSavingsTransfer(command,
                         fromLoanAccount, toSavingsAccount, deposit, loanRefundTransaction);
@@ -310,7 +316,6 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
         Long transferTransactionId = null;
         final boolean isAccountTransfer = true;
         final boolean isRegularTransaction = accountTransferDTO.isRegularTransaction();
-        final boolean backdatedTxnsAllowedTill = false;
         AccountTransferDetails accountTransferDetails = accountTransferDTO.getAccountTransferDetails();
         if (isSavingsToLoanAccountTransfer(accountTransferDTO.getFromAccountType(), accountTransferDTO.getToAccountType())) {
             //
@@ -318,8 +323,8 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
             Loan toLoanAccount = null;
             if (accountTransferDetails == null) {
                 if (accountTransferDTO.getFromSavingsAccount() == null) {
-                    fromSavingsAccount = this.savingsAccountAssembler.assembleFrom(accountTransferDTO.getFromAccountId(),
-                            backdatedTxnsAllowedTill);
+                    fromSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(accountTransferDTO.getFromAccountId(),
+                            accountTransferDTO.getTransactionDate());
                 } else {
                     fromSavingsAccount = accountTransferDTO.getFromSavingsAccount();
                     this.savingsAccountAssembler.setHelpers(fromSavingsAccount);
@@ -345,7 +350,7 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
 
             final SavingsAccountTransaction withdrawal = this.savingsAccountDomainService.handleWithdrawal(fromSavingsAccount,
                     accountTransferDTO.getFmt(), accountTransferDTO.getTransactionDate(), accountTransferDTO.getTransactionAmount(),
-                    accountTransferDTO.getPaymentDetail(), transactionBooleanValues, backdatedTxnsAllowedTill);
+                    accountTransferDTO.getPaymentDetail(), transactionBooleanValues, fromSavingsAccount.isTransactionsLoadedFromPivot());
 
             LoanTransaction loanTransaction = null;
 
@@ -375,15 +380,18 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
             SavingsAccount fromSavingsAccount = null;
             SavingsAccount toSavingsAccount = null;
             if (accountTransferDetails == null) {
+                this.accountTransferLockCoordinator.lockSavingsAccounts(accountTransferDTO.getFromAccountId(),
+                        accountTransferDTO.getToAccountId());
                 if (accountTransferDTO.getFromSavingsAccount() == null) {
-                    fromSavingsAccount = this.savingsAccountAssembler.assembleFrom(accountTransferDTO.getFromAccountId(),
-                            backdatedTxnsAllowedTill);
+                    fromSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(accountTransferDTO.getFromAccountId(),
+                            accountTransferDTO.getTransactionDate());
                 } else {
                     fromSavingsAccount = accountTransferDTO.getFromSavingsAccount();
                     this.savingsAccountAssembler.setHelpers(fromSavingsAccount);
                 }
                 if (accountTransferDTO.getToSavingsAccount() == null) {
-                    toSavingsAccount = this.savingsAccountAssembler.assembleFrom(accountTransferDTO.getToAccountId(), false);
+                    toSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(accountTransferDTO.getToAccountId(),
+                            accountTransferDTO.getTransactionDate());
                 } else {
                     toSavingsAccount = accountTransferDTO.getToSavingsAccount();
                     this.savingsAccountAssembler.setHelpers(toSavingsAccount);
@@ -409,12 +417,12 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
 
             final SavingsAccountTransaction withdrawal = this.savingsAccountDomainService.handleWithdrawal(fromSavingsAccount,
                     accountTransferDTO.getFmt(), transactionDate, accountTransferDTO.getTransactionAmount(),
-                    accountTransferDTO.getPaymentDetail(), transactionBooleanValues, backdatedTxnsAllowedTill);
+                    accountTransferDTO.getPaymentDetail(), transactionBooleanValues, fromSavingsAccount.isTransactionsLoadedFromPivot());
 
             final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(toSavingsAccount,
                     accountTransferDTO.getFmt(), transactionDate, accountTransferDTO.getTransactionAmount(),
-                    accountTransferDTO.getPaymentDetail(), isAccountTransfer, isRegularTransaction, backdatedTxnsAllowedTill,
-                    isSelfTransfer);
+                    accountTransferDTO.getPaymentDetail(), isAccountTransfer, isRegularTransaction,
+                    toSavingsAccount.isTransactionsLoadedFromPivot(), isSelfTransfer);
 
             accountTransferDetails = this.accountTransferAssembler.assembleSavingsToSavingsTransfer(accountTransferDTO, fromSavingsAccount,
                     toSavingsAccount, withdrawal, deposit);
@@ -432,7 +440,8 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
                     fromLoanAccount = accountTransferDTO.getLoan();
                     this.loanAccountAssembler.setHelpers(fromLoanAccount);
                 }
-                toSavingsAccount = this.savingsAccountAssembler.assembleFrom(accountTransferDTO.getToAccountId(), backdatedTxnsAllowedTill);
+                toSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(accountTransferDTO.getToAccountId(),
+                        accountTransferDTO.getTransactionDate());
             } else {
                 fromLoanAccount = accountTransferDetails.fromLoanAccount();
                 this.loanAccountAssembler.setHelpers(fromLoanAccount);
@@ -453,7 +462,8 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
 
             final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(toSavingsAccount,
                     accountTransferDTO.getFmt(), accountTransferDTO.getTransactionDate(), accountTransferDTO.getTransactionAmount(),
-                    accountTransferDTO.getPaymentDetail(), isAccountTransfer, isRegularTransaction, backdatedTxnsAllowedTill, true);
+                    accountTransferDTO.getPaymentDetail(), isAccountTransfer, isRegularTransaction,
+                    toSavingsAccount.isTransactionsLoadedFromPivot(), true);
             accountTransferDetails = this.accountTransferAssembler.assembleLoanToSavingsTransfer(accountTransferDTO, fromLoanAccount,
                     toSavingsAccount, deposit, loanTransaction);
             this.accountTransferDetailRepository.saveAndFlush(accountTransferDetails);
@@ -550,7 +560,6 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
         final Loan fromLoanAccount = this.loanAccountAssembler.assembleFrom(fromLoanAccountId);
 
         BigDecimal overpaid = this.loanReadPlatformService.retrieveTotalPaidInAdvance(fromLoanAccountId).getPaidInAdvance();
-        final boolean backdatedTxnsAllowedTill = false;
 
         if (overpaid == null || overpaid.compareTo(BigDecimal.ZERO) == 0 ? Boolean.TRUE
                 : Boolean.FALSE || transactionAmount.floatValue() > overpaid.floatValue()) {
@@ -564,10 +573,10 @@ public class AccountTransfersWritePlatformServiceImpl implements AccountTransfer
                 new CommandProcessingResultBuilder(), transactionDate, transactionAmount, paymentDetail, null, null);
 
         final Long toSavingsAccountId = command.longValueOfParameterNamed(toAccountIdParamName);
-        final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleFrom(toSavingsAccountId, backdatedTxnsAllowedTill);
+        final SavingsAccount toSavingsAccount = this.savingsAccountAssembler.assembleForTransaction(toSavingsAccountId, transactionDate);
 
         final SavingsAccountTransaction deposit = this.savingsAccountDomainService.handleDeposit(toSavingsAccount, fmt, transactionDate,
-                transactionAmount, paymentDetail, true, true, backdatedTxnsAllowedTill, true);
+                transactionAmount, paymentDetail, true, true, toSavingsAccount.isTransactionsLoadedFromPivot(), true);
 
         final AccountTransferDetails accountTransferDetails = this.accountTransferAssembler.assembleLoanToSavingsTransfer(command,
                 fromLoanAccount, toSavingsAccount, deposit, loanRefundTransaction);
@@ -22,5 +22,5 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 
 public interface AccountTransfersBusinessWritePlatformService {
 
-    CommandProcessingResult create(final String apiRequestBodyAsJson);
+    CommandProcessingResult create(final String apiRequestBodyAsJson, final String idempotencyKey);
 }
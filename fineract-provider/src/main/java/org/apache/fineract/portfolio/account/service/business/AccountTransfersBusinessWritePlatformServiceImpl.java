@@ -52,7 +52,7 @@ public class AccountTransfersBusinessWritePlatformServiceImpl implements Account
 
     @Transactional
     @Override
-    public CommandProcessingResult create(final String apiRequestBodyAsJson) {
+    public CommandProcessingResult create(final String apiRequestBodyAsJson, final String idempotencyKey) {
         this.context.authenticatedUser();
 
         final JsonElement element = this.fromApiJsonHelper.parse(apiRequestBodyAsJson);
@@ -63,7 +63,7 @@ public class AccountTransfersBusinessWritePlatformServiceImpl implements Account
         }
 
         final CommandWrapper commandRequest = new CommandWrapperBuilder().createAccountTransfer().withJson(createTransfer.toString())
-                .build();
+                .withIdempotencyKey(idempotencyKey).build();
         final CommandProcessingResult result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
         return result;
 
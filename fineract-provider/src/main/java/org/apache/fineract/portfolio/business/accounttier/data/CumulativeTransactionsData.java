@@ -25,20 +25,23 @@ import java.util.Collection;
 public final class CumulativeTransactionsData implements Serializable {
 
     private final BigDecimal cumulativeWithdrawalAmount;
+    private final Integer cumulativeWithdrawalCount;
     private final BigDecimal savingsAccountBalance;
     private final Collection<AccountTierData> accountTierData;
 
     private CumulativeTransactionsData(Collection<AccountTierData> accountTierData, BigDecimal cumulativeWithdrawalAmount,
-            BigDecimal savingsAccountBalance) {
+            Integer cumulativeWithdrawalCount, BigDecimal savingsAccountBalance) {
         this.cumulativeWithdrawalAmount = cumulativeWithdrawalAmount;
+        this.cumulativeWithdrawalCount = cumulativeWithdrawalCount;
         this.savingsAccountBalance = savingsAccountBalance;
         this.accountTierData = accountTierData;
 
     }
 
     public static CumulativeTransactionsData instance(Collection<AccountTierData> accountTierData, BigDecimal cumulativeWithdrawalAmount,
-            BigDecimal savingsAccountBalance) {
-        return new CumulativeTransactionsData(accountTierData, cumulativeWithdrawalAmount, savingsAccountBalance);
+            Integer cumulativeWithdrawalCount, BigDecimal savingsAccountBalance) {
+        return new CumulativeTransactionsData(accountTierData, cumulativeWithdrawalAmount, cumulativeWithdrawalCount,
+                savingsAccountBalance);
 
     }
 }
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.business.accounttier.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.business.accounttier.domain.AccountTierLimitType;
+import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the per-account, per-day counters that account tier limits are checked against.
+ *
+ * Counters are adjusted with an upsert in the same transaction as the withdrawal or its reversal, so they commit or
+ * roll back with it. The savings account row is already locked by then, which serializes updates to one counter row.
+ *
+ * A scheduled job rebuilds from the transactions any counter of the current or previous business day that is missing or
+ * disagrees with them, for instance after a write path that bypassed the counters.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountTierLimitCounterServiceImpl implements AccountTierLimitCounterService {
+
+    private static final String ADJUST_SQL = "INSERT INTO m_savings_account_tier_limit_counter "
+            + "(savings_account_id, counter_date, limit_type_enum, transaction_count, amount) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + VALUES(transaction_count), "
+            + "amount = amount + VALUES(amount)";
+
+    private static final String MISMATCHED_WITHDRAWAL_COUNTERS_SQL = """
+            select tr.savings_account_id
+            from m_savings_account_transaction tr
+            left join m_savings_account_tier_limit_counter c on c.savings_account_id = tr.savings_account_id
+                and c.counter_date = tr.transaction_date and c.limit_type_enum = ?
+            where tr.transaction_date = ? and tr.transaction_type_enum = ? and tr.is_reversed = false
+            group by tr.savings_account_id, c.transaction_count, c.amount
+            having c.transaction_count is null or c.transaction_count <> count(*) or c.amount <> sum(tr.amount)
+            union
+            select c.savings_account_id
+            from m_savings_account_tier_limit_counter c
+            where c.counter_date = ? and c.limit_type_enum = ? and (c.transaction_count <> 0 or c.amount <> 0)
+                and not exists (select 1 from m_savings_account_transaction tr where tr.savings_account_id = c.savings_account_id
+                    and tr.transaction_date = c.counter_date and tr.transaction_type_enum = ? and tr.is_reversed = false)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void recordWithdrawal(final SavingsAccountTransaction withdrawal) {
+        adjust(withdrawal, 1, withdrawal.getAmount());
+    }
+
+    @Override
+    public void reverseWithdrawal(final SavingsAccountTransaction withdrawal) {
+        adjust(withdrawal, -1, withdrawal.getAmount().negate());
+    }
+
+    /**
+     * Recomputes one withdrawal counter from the account's transactions. Must run in a transaction: the account row is
+     * locked first so that a concurrent withdrawal cannot be counted twice or missed.
+     */
+    @Override
+    public void rebuildWithdrawalCounter(final Long savingsId, final LocalDate counterDate) {
+        this.jdbcTemplate.queryForList("select id from m_savings_account where id = ? for update", Long.class, savingsId);
+        this.jdbcTemplate.update(
+                "delete from m_savings_account_tier_limit_counter where savings_account_id = ? and counter_date = ? and limit_type_enum = ?",
+                savingsId, counterDate, AccountTierLimitType.WITHDRAWAL.getValue());
+        this.jdbcTemplate.update("""
+                insert into m_savings_account_tier_limit_counter
+                    (savings_account_id, counter_date, limit_type_enum, transaction_count, amount)
+                select tr.savings_account_id, tr.transaction_date, ?, count(*), sum(tr.amount)
+                from m_savings_account_transaction tr
+                where tr.savings_account_id = ? and tr.transaction_date = ?
+                    and tr.transaction_type_enum = ? and tr.is_reversed = false
+                group by tr.savings_account_id, tr.transaction_date
+                """, AccountTierLimitType.WITHDRAWAL.getValue(), savingsId, counterDate,
+                SavingsAccountTransactionType.WITHDRAWAL.getValue());
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.RECONCILE_TIER_LIMIT_COUNTERS)
+    public void reconcileWithdrawalCounters() {
+        final LocalDate today = DateUtils.getBusinessLocalDate();
+        int rebuilt = 0;
+        for (final LocalDate counterDate : List.of(today.minusDays(1), today)) {
+            final Integer limitType = AccountTierLimitType.WITHDRAWAL.getValue();
+            final Integer transactionType = SavingsAccountTransactionType.WITHDRAWAL.getValue();
+            final List<Long> savingsIds = this.jdbcTemplate.queryForList(MISMATCHED_WITHDRAWAL_COUNTERS_SQL, Long.class, limitType,
+                    counterDate, transactionType, counterDate, limitType, transactionType);
+            for (final Long savingsId : savingsIds) {
+                this.transactionTemplate.executeWithoutResult(status -> rebuildWithdrawalCounter(savingsId, counterDate));
+                rebuilt++;
+            }
+        }
+        log.info("{}: Tier limit counters rebuilt: {}", ThreadLocalContextUtil.getTenant().getName(), rebuilt);
+    }
+
+    private void adjust(final SavingsAccountTransaction withdrawal, final int count, final BigDecimal amount) {
+        if (withdrawal == null || !withdrawal.isWithdrawal()) {
+            return;
+        }
+        this.jdbcTemplate.update(ADJUST_SQL, withdrawal.getSavingsAccount().getId(), withdrawal.transactionLocalDate(),
+                AccountTierLimitType.WITHDRAWAL.getValue(), count, amount);
+    }
+}
@@ -34,10 +34,9 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.apache.fineract.portfolio.business.accounttier.api.AccountTierApiResouceConstants;
 import org.apache.fineract.portfolio.business.accounttier.data.AccountTierData;
 import org.apache.fineract.portfolio.business.accounttier.data.CumulativeTransactionsData;
+import org.apache.fineract.portfolio.business.accounttier.domain.AccountTierLimitType;
 import org.apache.fineract.portfolio.business.accounttier.execption.AccountTierNotFoundException;
-import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -50,16 +49,13 @@ public class AccountTierReadPlatformServiceImpl implements AccountTierReadPlatfo
     private final PlatformSecurityContext context;
     private final AccountTierMapper accountTierMapper = new AccountTierMapper();
     private final JdbcTemplate jdbcTemplate;
-    private final SavingsAccountRepositoryWrapper savingsAccountRepositoryWrapper;
     private final CodeValueReadPlatformService codeValueReadPlatformService;
 
     @Autowired
     public AccountTierReadPlatformServiceImpl(final PlatformSecurityContext context, final JdbcTemplate jdbcTemplate,
-            final SavingsAccountRepositoryWrapper savingsAccountRepositoryWrapper,
             final CodeValueReadPlatformService codeValueReadPlatformService) {
         this.context = context;
         this.jdbcTemplate = jdbcTemplate;
-        this.savingsAccountRepositoryWrapper = savingsAccountRepositoryWrapper;
         this.codeValueReadPlatformService = codeValueReadPlatformService;
     }
 
@@ -161,26 +157,19 @@ public class AccountTierReadPlatformServiceImpl implements AccountTierReadPlatfo
     @Override
     public CumulativeTransactionsData retrieveCumulativeTransactionsAmount(final Long savingsId, final Long channelId) {
 
-        SavingsAccount savingsAccount = this.savingsAccountRepositoryWrapper.findOneWithNotFoundDetection(savingsId);
-        Long clientTypeId = savingsAccount.getClient().clientTypeId();
-
-        LocalDate today = LocalDate.now(DateUtils.getDateTimeZoneOfTenant());
-        CumulativeTransactionMapper cumulativeTransactionMapper = new CumulativeTransactionMapper();
-        SavingsAccountBalanceMapper savingsAccountBalanceMapper = new SavingsAccountBalanceMapper();
-
-        final String cumulativeDepositAmountsql = cumulativeTransactionMapper.schema()
-                + " where sa.id = ? and transaction_type_enum = ? and tr.transaction_date = ? ";
-        final String savingsAccountBalancesql = savingsAccountBalanceMapper.schema() + " where sa.id = ?  ";
-
-        BigDecimal savingsAccountBalance = this.jdbcTemplate.queryForObject(savingsAccountBalancesql, savingsAccountBalanceMapper,
-                new Object[] { savingsId });
-
-        BigDecimal cumulativeWithdrawalAmount = this.jdbcTemplate.queryForObject(cumulativeDepositAmountsql, cumulativeTransactionMapper,
-                new Object[] { savingsId, SavingsAccountTransactionType.WITHDRAWAL.getValue(), today });
+        final LocalDate today = LocalDate.now(DateUtils.getDateTimeZoneOfTenant());
+        final TierLimitUsageMapper tierLimitUsageMapper = new TierLimitUsageMapper();
+        final TierLimitUsage usage;
+        try {
+            usage = this.jdbcTemplate.queryForObject(tierLimitUsageMapper.schema(), tierLimitUsageMapper, today,
+                    AccountTierLimitType.WITHDRAWAL.getValue(), savingsId);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new SavingsAccountNotFoundException(savingsId, e);
+        }
 
         List<Object> paramList = new ArrayList<>(Arrays.asList());
         String sql = "select " + this.accountTierMapper.schema() + " where matl.client_type_cv_id = ? ";
-        paramList.add(clientTypeId);
+        paramList.add(usage.clientTypeId);
 
         if (channelId != null) {
             sql += "and matl.activation_channel_id = ?";
@@ -188,43 +177,43 @@ public class AccountTierReadPlatformServiceImpl implements AccountTierReadPlatfo
         }
 
         Collection<AccountTierData> accountTierData = this.jdbcTemplate.query(sql, this.accountTierMapper, paramList.toArray());
-        return CumulativeTransactionsData.instance(accountTierData, cumulativeWithdrawalAmount, savingsAccountBalance);
+        return CumulativeTransactionsData.instance(accountTierData, usage.cumulativeWithdrawalAmount, usage.cumulativeWithdrawalCount,
+                usage.savingsAccountBalance);
 
     }
 
-    private static final class CumulativeTransactionMapper implements RowMapper<BigDecimal> {
+    private static final class TierLimitUsage {
 
-        private final String schema;
-
-        CumulativeTransactionMapper() {
-            final StringBuilder builder = new StringBuilder(400);
-            builder.append("select  sum(tr.amount) as cummulativeTransactionAmount " + "from m_savings_account_transaction tr ");
-            builder.append("left join m_savings_account sa on tr.savings_account_id = sa.id ");
-
-            this.schema = builder.toString();
-        }
-
-        public String schema() {
-            return this.schema;
-        }
-
-        @Override
-        public BigDecimal mapRow(final ResultSet rs, final int rowNum) throws SQLException {
-            final BigDecimal cummulativeTransactionAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs,
-                    "cummulativeTransactionAmount");
-
-            return cummulativeTransactionAmount;
+        private final Long clientTypeId;
+        private final BigDecimal savingsAccountBalance;
+        private final BigDecimal cumulativeWithdrawalAmount;
+        private final Integer cumulativeWithdrawalCount;
 
+        TierLimitUsage(final Long clientTypeId, final BigDecimal savingsAccountBalance, final BigDecimal cumulativeWithdrawalAmount,
+                final Integer cumulativeWithdrawalCount) {
+            this.clientTypeId = clientTypeId;
+            this.savingsAccountBalance = savingsAccountBalance;
+            this.cumulativeWithdrawalAmount = cumulativeWithdrawalAmount;
+            this.cumulativeWithdrawalCount = cumulativeWithdrawalCount;
         }
     }
 
-    private static final class SavingsAccountBalanceMapper implements RowMapper<BigDecimal> {
+    /**
+     * Reads the account balance and today's withdrawal counter in one row instead of summing the day's transactions.
+     */
+    private static final class TierLimitUsageMapper implements RowMapper<TierLimitUsage> {
 
         private final String schema;
 
-        SavingsAccountBalanceMapper() {
+        TierLimitUsageMapper() {
             final StringBuilder builder = new StringBuilder(400);
-            builder.append("select  account_balance_derived as accountBalanceDerived " + "from m_savings_account sa ");
+            builder.append("select c.client_type_cv_id as clientTypeId, sa.account_balance_derived as accountBalanceDerived, ");
+            builder.append("ctr.amount as cummulativeTransactionAmount, ctr.transaction_count as cummulativeTransactionCount ");
+            builder.append("from m_savings_account sa ");
+            builder.append("left join m_client c on c.id = sa.client_id ");
+            builder.append("left join m_savings_account_tier_limit_counter ctr on ctr.savings_account_id = sa.id ");
+            builder.append("and ctr.counter_date = ? and ctr.limit_type_enum = ? ");
+            builder.append("where sa.id = ? ");
 
             this.schema = builder.toString();
         }
@@ -234,10 +223,15 @@ public class AccountTierReadPlatformServiceImpl implements AccountTierReadPlatfo
         }
 
         @Override
-        public BigDecimal mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+        public TierLimitUsage mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+            final Long clientTypeId = JdbcSupport.getLong(rs, "clientTypeId");
             final BigDecimal accountBalanceDerived = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "accountBalanceDerived");
+            final BigDecimal cummulativeTransactionAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs,
+                    "cummulativeTransactionAmount");
+            final Integer cummulativeTransactionCount = JdbcSupport.getInteger(rs, "cummulativeTransactionCount");
 
-            return accountBalanceDerived;
+            return new TierLimitUsage(clientTypeId, accountBalanceDerived, cummulativeTransactionAmount,
+                    cummulativeTransactionCount == null ? Integer.valueOf(0) : cummulativeTransactionCount);
 
         }
     }
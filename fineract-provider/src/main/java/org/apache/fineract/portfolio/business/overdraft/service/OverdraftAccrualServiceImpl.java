@@ -0,0 +1,304 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.business.overdraft.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForSavings;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.business.metrics.data.LoanApprovalStatus;
+import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Daily accrual of overdraft interest for GL recognition.
+ *
+ * For each accrual date every active overdraft whose wallet closed the day below zero gets
+ * one {@code m_overdraft_accrual} row of {@code |closing balance| * rate / 100 / days in year}, posted as DR overdraft
+ * portfolio control / CR income from interest. The customer is still charged by the savings interest posting, which
+ * books the same income again; once an overdraft interest posting covers an accrual date, that accrual is settled by
+ * reversing its entry on the posting date.
+ *
+ * Offices run in parallel and each office is walked in chunks of overdraft ids, one transaction per chunk. The unique
+ * key on (overdraft, date) and the posted/settled flags make a rerun for the same date a no-op, and a run that stopped
+ * halfway resumes at the first chunk that did not commit.
+ *
+ * A date every office completed is recorded in {@code m_overdraft_accrual_run}. The job accrues each day after the
+ * latest recorded date up to the previous business day, so days missed while the job was down or failing are caught
+ * up in order. A failed date stops the run and is retried first next time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OverdraftAccrualServiceImpl implements OverdraftAccrualService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int THREAD_POOL_SIZE = 4;
+    private static final String ACCRUAL_TRANSACTION_PREFIX = "OA";
+    private static final String SETTLEMENT_TRANSACTION_PREFIX = "OAS";
+
+    private static final String OFFICE_ID_SQL = "COALESCE(c.office_id, g.office_id)";
+
+    private static final String ACTIVE_OVERDRAFT_FROM = """
+             FROM m_overdraft ov
+             JOIN m_savings_account sa ON sa.id = ov.savings_id
+             LEFT JOIN m_client c ON c.id = sa.client_id
+             LEFT JOIN m_group g ON g.id = sa.group_id
+             WHERE ov.status_enum = ? AND ov.start_date <= ? AND ov.expiry_date >= ?
+            """;
+
+    // the closing balance of the day is the running balance of its last transaction
+    private static final String ACCRUE_SQL = """
+            INSERT INTO m_overdraft_accrual (overdraft_id, savings_account_id, office_id, currency_code, accrual_date,
+             closing_balance, annual_interest_rate, days_in_year, amount, created_date)
+            SELECT ov.id, sa.id, ?, sa.currency_code, ?, bal.running_balance_derived, ov.nominal_annual_interest_rate_overdraft,
+             COALESCE(sa.interest_calculation_days_in_year_type_enum, 365),
+             ROUND(-bal.running_balance_derived * ov.nominal_annual_interest_rate_overdraft / 100
+              / COALESCE(sa.interest_calculation_days_in_year_type_enum, 365), 6), ?
+            FROM m_overdraft ov
+            JOIN m_savings_account sa ON sa.id = ov.savings_id
+            LEFT JOIN m_client c ON c.id = sa.client_id
+            LEFT JOIN m_group g ON g.id = sa.group_id
+            JOIN m_savings_account_transaction bal ON bal.id = (SELECT t.id FROM m_savings_account_transaction t
+             WHERE t.savings_account_id = sa.id AND t.is_reversed = 0 AND t.transaction_date <= ?
+             ORDER BY t.transaction_date DESC, t.id DESC LIMIT 1)
+            WHERE ov.status_enum = ? AND ov.start_date <= ? AND ov.expiry_date >= ? AND COALESCE(c.office_id, g.office_id) = ?
+             AND ov.id > ? AND ov.id <= ? AND ov.nominal_annual_interest_rate_overdraft > 0 AND bal.running_balance_derived < 0
+            ON DUPLICATE KEY UPDATE id = id
+            """;
+
+    private static final String JOURNAL_ENTRY_SQL = """
+            INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id, reversed, manual_entry,
+             entry_date, type_enum, amount, description, entity_type_enum, entity_id, createdby_id, created_date,
+             lastmodifiedby_id, lastmodified_date)
+            SELECT pm.gl_account_id, oa.office_id, oa.currency_code, CONCAT(?, oa.id), 0, 0, %s, ?, oa.amount, ?, ?,
+             oa.savings_account_id, ?, ?, ?, ?
+            FROM m_overdraft_accrual oa
+            JOIN m_savings_account sa ON sa.id = oa.savings_account_id
+            JOIN acc_product_mapping pm ON pm.product_id = sa.product_id AND pm.product_type = ?
+             AND pm.financial_account_type = ? AND pm.charge_id IS NULL AND pm.payment_type IS NULL
+            WHERE oa.amount > 0 AND EXISTS (SELECT 1 FROM acc_product_mapping cpm WHERE cpm.product_id = sa.product_id
+             AND cpm.product_type = pm.product_type AND cpm.financial_account_type = ? AND cpm.charge_id IS NULL
+             AND cpm.payment_type IS NULL)
+             AND %s
+            """;
+
+    private static final String UNPOSTED_CHUNK_SQL = "oa.office_id = ? AND oa.accrual_date = ? AND oa.overdraft_id > ?"
+            + " AND oa.overdraft_id <= ? AND oa.is_posted = 0";
+
+    private static final String SETTLEABLE_CHUNK_SQL = "oa.office_id = ? AND oa.id > ? AND oa.id <= ? AND oa.is_posted = 1"
+            + " AND oa.is_settled = 0 AND oa.settled_on_date IS NOT NULL";
+
+    private static final String SETTLEMENT_DATE_SQL = """
+            UPDATE m_overdraft_accrual oa SET oa.settled_on_date = (SELECT MIN(t.transaction_date)
+             FROM m_savings_account_transaction t WHERE t.savings_account_id = oa.savings_account_id
+             AND t.transaction_type_enum = ? AND t.is_reversed = 0 AND t.transaction_date >= oa.accrual_date)
+            WHERE oa.office_id = ? AND oa.id > ? AND oa.id <= ? AND oa.is_posted = 1 AND oa.is_settled = 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<Long> auditorAware;
+
+    @Override
+    @CronTarget(jobName = JobName.ACCRUE_OVERDRAFT_INTEREST)
+    public void accrueOverdraftInterest() throws JobExecutionException {
+        final LocalDate upToDate = DateUtils.getBusinessLocalDate().minusDays(1);
+        final LocalDate lastAccrualDate = this.jdbcTemplate.queryForObject("SELECT MAX(accrual_date) FROM m_overdraft_accrual_run",
+                LocalDate.class);
+        LocalDate accrualDate = lastAccrualDate == null ? upToDate : lastAccrualDate.plusDays(1);
+        while (!accrualDate.isAfter(upToDate)) {
+            accrueOverdraftInterest(accrualDate);
+            accrualDate = accrualDate.plusDays(1);
+        }
+    }
+
+    /**
+     * Accrues a single closed business day. Running it again for the same date adds nothing.
+     */
+    @Override
+    public void accrueOverdraftInterest(final LocalDate accrualDate) throws JobExecutionException {
+        if (!accrualDate.isBefore(DateUtils.getBusinessLocalDate())) {
+            throw new GeneralPlatformDomainRuleException("error.msg.overdraft.accrual.date.not.closed",
+                    "Overdraft interest can only be accrued for a business day that has ended", accrualDate);
+        }
+        final Set<Long> officeIds = retrieveOfficeIds(accrualDate);
+        if (officeIds.isEmpty()) {
+            markCompleted(accrualDate);
+            return;
+        }
+
+        final FineractContext context = ThreadLocalContextUtil.getContext();
+        final List<Callable<Void>> accruers = new ArrayList<>(officeIds.size());
+        for (final Long officeId : officeIds) {
+            accruers.add(() -> {
+                ThreadLocalContextUtil.init(context);
+                accrueForOffice(officeId, accrualDate);
+                settleForOffice(officeId);
+                return null;
+            });
+        }
+
+        final List<Throwable> errors = new ArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(THREAD_POOL_SIZE, officeIds.size()));
+        try {
+            for (final Future<Void> future : executorService.invokeAll(accruers)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error("Overdraft accrual failed", e.getCause());
+                    errors.add(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+        markCompleted(accrualDate);
+    }
+
+    private void markCompleted(final LocalDate accrualDate) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update("INSERT INTO m_overdraft_accrual_run (accrual_date, completed_date) VALUES (?, ?)"
+                + " ON DUPLICATE KEY UPDATE completed_date = ?", accrualDate, now, now);
+    }
+
+    private Set<Long> retrieveOfficeIds(final LocalDate accrualDate) {
+        final Set<Long> officeIds = new TreeSet<>();
+        officeIds.addAll(this.jdbcTemplate.queryForList("SELECT DISTINCT " + OFFICE_ID_SQL + ACTIVE_OVERDRAFT_FROM, Long.class,
+                LoanApprovalStatus.ACTIVE.getValue(), accrualDate, accrualDate));
+        officeIds.addAll(this.jdbcTemplate.queryForList("SELECT DISTINCT office_id FROM m_overdraft_accrual WHERE is_settled = 0",
+                Long.class));
+        officeIds.remove(null);
+        return officeIds;
+    }
+
+    private void accrueForOffice(final Long officeId, final LocalDate accrualDate) {
+        final String chunkSql = "SELECT ov.id" + ACTIVE_OVERDRAFT_FROM + " AND " + OFFICE_ID_SQL
+                + " = ? AND ov.id > ? ORDER BY ov.id LIMIT ?";
+        Long fromId = 0L;
+        while (true) {
+            final List<Long> overdraftIds = this.jdbcTemplate.queryForList(chunkSql, Long.class, LoanApprovalStatus.ACTIVE.getValue(),
+                    accrualDate, accrualDate, officeId, fromId, CHUNK_SIZE);
+            if (overdraftIds.isEmpty()) {
+                return;
+            }
+            final Long lowerId = fromId;
+            final Long upperId = overdraftIds.get(overdraftIds.size() - 1);
+            this.transactionTemplate.executeWithoutResult(status -> accrueChunk(officeId, accrualDate, lowerId, upperId));
+            fromId = upperId;
+        }
+    }
+
+    private void accrueChunk(final Long officeId, final LocalDate accrualDate, final Long lowerId, final Long upperId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update(ACCRUE_SQL, officeId, accrualDate, now, accrualDate, LoanApprovalStatus.ACTIVE.getValue(), accrualDate,
+                accrualDate, officeId, lowerId, upperId);
+
+        final Object[] chunk = { officeId, accrualDate, lowerId, upperId };
+        postJournalEntries(UNPOSTED_CHUNK_SQL, chunk, "oa.accrual_date", ACCRUAL_TRANSACTION_PREFIX, "Overdraft interest accrual",
+                CashAccountsForSavings.OVERDRAFT_PORTFOLIO_CONTROL, CashAccountsForSavings.INCOME_FROM_INTEREST);
+        this.jdbcTemplate.update("UPDATE m_overdraft_accrual oa SET oa.is_posted = 1 WHERE " + UNPOSTED_CHUNK_SQL, chunk);
+    }
+
+    private void settleForOffice(final Long officeId) {
+        final String chunkSql = "SELECT id FROM m_overdraft_accrual WHERE office_id = ? AND is_posted = 1 AND is_settled = 0"
+                + " AND id > ? ORDER BY id LIMIT ?";
+        Long fromId = 0L;
+        while (true) {
+            final List<Long> accrualIds = this.jdbcTemplate.queryForList(chunkSql, Long.class, officeId, fromId, CHUNK_SIZE);
+            if (accrualIds.isEmpty()) {
+                return;
+            }
+            final Long lowerId = fromId;
+            final Long upperId = accrualIds.get(accrualIds.size() - 1);
+            this.transactionTemplate.executeWithoutResult(status -> settleChunk(officeId, lowerId, upperId));
+            fromId = upperId;
+        }
+    }
+
+    private void settleChunk(final Long officeId, final Long lowerId, final Long upperId) {
+        this.jdbcTemplate.update(SETTLEMENT_DATE_SQL, SavingsAccountTransactionType.OVERDRAFT_INTEREST.getValue(), officeId, lowerId,
+                upperId);
+
+        final Object[] chunk = { officeId, lowerId, upperId };
+        postJournalEntries(SETTLEABLE_CHUNK_SQL, chunk, "oa.settled_on_date", SETTLEMENT_TRANSACTION_PREFIX,
+                "Overdraft interest accrual settlement", CashAccountsForSavings.INCOME_FROM_INTEREST,
+                CashAccountsForSavings.OVERDRAFT_PORTFOLIO_CONTROL);
+        this.jdbcTemplate.update("UPDATE m_overdraft_accrual oa SET oa.is_settled = 1 WHERE " + SETTLEABLE_CHUNK_SQL, chunk);
+    }
+
+    /**
+     * Writes both legs for the accruals matched by {@code chunkFilter}, skipping products without both GL mappings (no
+     * accounting).
+     */
+    private void postJournalEntries(final String chunkFilter, final Object[] chunk, final String entryDateColumn,
+            final String transactionPrefix, final String description, final CashAccountsForSavings debitAccount,
+            final CashAccountsForSavings creditAccount) {
+        final String sql = String.format(JOURNAL_ENTRY_SQL, entryDateColumn, chunkFilter);
+        final Long auditor = this.auditorAware.getCurrentAuditor().orElse(null);
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        writeLeg(sql, chunk, transactionPrefix, JournalEntryType.DEBIT, description, auditor, now, debitAccount, creditAccount);
+        writeLeg(sql, chunk, transactionPrefix, JournalEntryType.CREDIT, description, auditor, now, creditAccount, debitAccount);
+    }
+
+    private void writeLeg(final String sql, final Object[] chunk, final String transactionPrefix, final JournalEntryType type,
+            final String description, final Long auditor, final LocalDateTime now, final CashAccountsForSavings account,
+            final CashAccountsForSavings counterAccount) {
+        final List<Object> params = new ArrayList<>(List.of(transactionPrefix, type.getValue(), description,
+                PortfolioProductType.SAVING.getValue()));
+        params.add(auditor);
+        params.add(now);
+        params.add(auditor);
+        params.add(now);
+        params.add(PortfolioProductType.SAVING.getValue());
+        params.add(account.getValue());
+        params.add(counterAccount.getValue());
+        params.addAll(List.of(chunk));
+        this.jdbcTemplate.update(sql, params.toArray());
+    }
+}
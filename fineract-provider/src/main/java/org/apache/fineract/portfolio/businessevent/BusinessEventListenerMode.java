@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent;
+
+/**
+ * When a post business event listener is called relative to the transaction that raised the event.
+ */
+public enum BusinessEventListenerMode {
+
+    /**
+     * On the raising thread, inside the transaction. A failing listener rolls the business operation back; use this for
+     * listeners that keep state consistent with the operation (arrears ageing, guarantor holds).
+     */
+    IN_TRANSACTION,
+
+    /**
+     * On the raising thread once the transaction has committed, in a transaction of its own. A failure is logged and
+     * does not affect the committed operation.
+     */
+    AFTER_COMMIT,
+
+    /**
+     * On the listener's own pool once the transaction has committed. The raising thread only queues the call; a failed
+     * call is persisted and retried by the {@code Retry Business Event Listeners} job.
+     */
+    AFTER_COMMIT_ASYNC
+}
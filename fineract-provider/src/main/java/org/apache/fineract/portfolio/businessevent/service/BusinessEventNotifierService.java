@@ -18,7 +18,9 @@
  */
 package org.apache.fineract.portfolio.businessevent.service;
 
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
 import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
 
 /**
@@ -43,8 +45,21 @@ public interface BusinessEventNotifierService {
     <T extends BusinessEvent<?>> void addPreBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
 
     /**
-     * Method is to register a class as listener for post-processing of any Business event
+     * Method is to register a class as listener for post-processing of any Business event, called inside the raising
+     * transaction
      */
     <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener);
 
+    /**
+     * Method is to register a class as listener for post-processing of any Business event, called as the given mode
+     * prescribes
+     */
+    <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener,
+            BusinessEventListenerMode mode);
+
+    /**
+     * Calls asynchronous listeners again for the events they failed on, or that could not be queued to them
+     */
+    void retryFailedListeners() throws JobExecutionException;
+
 }
@@ -18,20 +18,104 @@
  */
 package org.apache.fineract.portfolio.businessevent.service;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
 import org.apache.fineract.portfolio.businessevent.domain.BusinessEvent;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEventRetryStatus;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Calls pre listeners and in-transaction post listeners on the raising thread, as part of the business operation.
+ *
+ * After-commit listeners are called once the raising transaction has committed, each in a transaction of its own, and
+ * their failures are only logged. Asynchronous listeners get a bounded pool per listener type, so a slow listener
+ * holds up neither the raising thread nor the other listeners. An asynchronous call works on a freshly loaded copy of
+ * the event's entity. Before an asynchronous call is handed to its pool it is written to {@code m_business_event_retry}
+ * as a reference to that entity, along with the user who raised the event, and not due before the initial backoff; the
+ * row is deleted in the listener's transaction once the call succeeds. A call that fails, is rejected by a full or
+ * stopped pool, or is lost with the process is picked up by the {@code Retry Business Event Listeners} job, which
+ * calls the listener again as the raising user with exponential backoff. Delivery is therefore at-least-once: a call
+ * still queued when its row falls due may run twice. Events whose value cannot be referenced are delivered at most
+ * once.
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 @SuppressWarnings({ "unchecked", "rawtypes" })
-public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierService {
+public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierService, ApplicationListener<ContextClosedEvent> {
+
+    private static final int RETRY_BATCH_SIZE = 100;
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AppUserRepository appUserRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${fineract.events.business.listener-threads:2}")
+    private int listenerThreads;
+
+    @Value("${fineract.events.business.queue-capacity:500}")
+    private int queueCapacity;
 
-    private final Map<Class, List<BusinessEventListener>> preListeners = new HashMap<>();
-    private final Map<Class, List<BusinessEventListener>> postListeners = new HashMap<>();
+    @Value("${fineract.events.business.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${fineract.events.business.initial-backoff-seconds:60}")
+    private long initialBackoffSeconds;
+
+    private final Map<Class, List<BusinessEventListener>> preListeners = new ConcurrentHashMap<>();
+    private final Map<Class, List<ListenerRegistration>> postListeners = new ConcurrentHashMap<>();
+    private final Map<Class, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
 
     @Override
     public void notifyPreBusinessEvent(BusinessEvent<?> businessEvent) {
@@ -45,32 +129,423 @@ public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierSe
 
     @Override
     public <T extends BusinessEvent<?>> void addPreBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = preListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            preListeners.put(eventType, businessEventListeners);
-        }
-        businessEventListeners.add(listener);
+        preListeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(listener);
     }
 
     @Override
     public void notifyPostBusinessEvent(BusinessEvent<?> businessEvent) {
-        List<BusinessEventListener> businessEventListeners = postListeners.get(businessEvent.getClass());
-        if (businessEventListeners != null) {
-            for (BusinessEventListener eventListener : businessEventListeners) {
-                eventListener.onBusinessEvent(businessEvent);
+        List<ListenerRegistration> registrations = postListeners.get(businessEvent.getClass());
+        if (registrations != null) {
+            for (ListenerRegistration registration : registrations) {
+                switch (registration.mode) {
+                    case IN_TRANSACTION -> registration.listener.onBusinessEvent(businessEvent);
+                    case AFTER_COMMIT -> afterCommit(() -> invokeAfterCommit(registration, businessEvent));
+                    case AFTER_COMMIT_ASYNC -> {
+                        final AsyncCall call = new AsyncCall(registration, businessEvent, ThreadLocalContextUtil.getContext(),
+                                SecurityContextHolder.getContext());
+                        afterCommit(() -> submit(call));
+                    }
+                }
             }
         }
     }
 
     @Override
     public <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener) {
-        List<BusinessEventListener> businessEventListeners = postListeners.get(eventType);
-        if (businessEventListeners == null) {
-            businessEventListeners = new ArrayList<>();
-            postListeners.put(eventType, businessEventListeners);
+        addPostBusinessEventListener(eventType, listener, BusinessEventListenerMode.IN_TRANSACTION);
+    }
+
+    @Override
+    public <T extends BusinessEvent<?>> void addPostBusinessEventListener(Class<T> eventType, BusinessEventListener<T> listener,
+            BusinessEventListenerMode mode) {
+        postListeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(new ListenerRegistration(listener, mode));
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.RETRY_BUSINESS_EVENT_LISTENERS)
+    public void retryFailedListeners() throws JobExecutionException {
+        final List<Throwable> errors = new ArrayList<>();
+        final List<QueuedCall> dueCalls = this.jdbcTemplate.query(QueuedCallMapper.SCHEMA, new QueuedCallMapper(),
+                BusinessEventRetryStatus.PENDING.getValue(), DateUtils.getLocalDateTimeOfSystem(), RETRY_BATCH_SIZE);
+        for (final QueuedCall queued : dueCalls) {
+            try {
+                retry(queued);
+            } catch (RuntimeException e) {
+                log.error("Failed to retry business event listener call {}", queued.id, e);
+                errors.add(e);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
-        businessEventListeners.add(listener);
     }
 
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        this.shuttingDown = true;
+        this.executors.values().forEach(ThreadPoolExecutor::shutdown);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        for (final ThreadPoolExecutor executor : this.executors.values()) {
+            try {
+                if (executor.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // calls still queued are kept for the retry job rather than lost with the pool
+            for (final Runnable queued : executor.shutdownNow()) {
+                final AsyncCall call = (AsyncCall) queued;
+                ThreadLocalContextUtil.init(call.context);
+                try {
+                    call.spill("Pool shut down before the call ran");
+                } finally {
+                    ThreadLocalContextUtil.reset();
+                }
+            }
+        }
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void invokeAfterCommit(final ListenerRegistration registration, final BusinessEvent<?> businessEvent) {
+        try {
+            inNewTransaction(() -> registration.listener.onBusinessEvent(businessEvent));
+        } catch (RuntimeException e) {
+            log.error("Business event listener {} failed on {} after commit", registration.name, businessEvent.getClass().getSimpleName(),
+                    e);
+        }
+    }
+
+    private void submit(final AsyncCall call) {
+        // entity ids are only certain to be assigned once the raising transaction has committed
+        call.reference = BusinessEventReference.of(call.event);
+        if (call.reference != null) {
+            try {
+                call.retryId = record(call.registration, call.reference, actorUserId(call.securityContext));
+            } catch (RuntimeException e) {
+                log.error("Business event listener {} call on {} {} could not be recorded, it will not be retried",
+                        call.registration.name, call.reference.eventType, call.reference.valueId, e);
+            }
+        }
+        if (this.shuttingDown) {
+            call.spill("Pool shut down before the call was queued");
+            return;
+        }
+        this.executors.computeIfAbsent(call.registration.listener.getClass(), this::createExecutor).execute(call);
+    }
+
+    private ThreadPoolExecutor createExecutor(final Class listenerType) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.listenerThreads, this.listenerThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                new CustomizableThreadFactory("business-event-" + listenerType.getSimpleName() + "-"),
+                (task, pool) -> ((AsyncCall) task).spill("Listener queue full or shut down"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private void retry(final QueuedCall queued) {
+        final ListenerRegistration registration = findAsyncRegistration(queued.eventType, queued.listenerName);
+        if (registration == null) {
+            markDead(queued.id, queued.attempts, "Listener is no longer registered for " + queued.eventType);
+            return;
+        }
+        final SecurityContext jobSecurityContext = SecurityContextHolder.getContext();
+        try {
+            inNewTransaction(() -> {
+                runAs(queued.actorUserId);
+                final BusinessEvent<?> businessEvent = queued.reference.load(this.entityManager);
+                if (businessEvent == null) {
+                    log.debug("{} {} no longer exists, dropping business event listener call {}", queued.reference.valueType,
+                            queued.reference.valueId, queued.id);
+                } else {
+                    registration.listener.onBusinessEvent(businessEvent);
+                }
+                this.jdbcTemplate.update("DELETE FROM m_business_event_retry WHERE id = ?", queued.id);
+            });
+        } catch (RuntimeException e) {
+            final int attempts = queued.attempts + 1;
+            if (attempts >= this.maxAttempts) {
+                log.error("Business event listener {} failed on {} {} for the last time", registration.name, queued.eventType,
+                        queued.reference.valueId, e);
+                markDead(queued.id, attempts, describe(e));
+            } else {
+                log.warn("Business event listener {} failed on {} {}, attempt {} of {}", registration.name, queued.eventType,
+                        queued.reference.valueId, attempts, this.maxAttempts, e);
+                reschedule(queued.id, attempts, describe(e));
+            }
+        } finally {
+            SecurityContextHolder.setContext(jobSecurityContext);
+        }
+    }
+
+    /**
+     * Authenticates the current thread as the user who raised the event, so listeners that check the authenticated user
+     * see the same user on a retry as on the first call. Calls raised without a user keep the job's system user.
+     */
+    private void runAs(final Long actorUserId) {
+        if (actorUserId == null) {
+            return;
+        }
+        final AppUser user = this.appUserRepository.findById(actorUserId).orElse(null);
+        if (user == null) {
+            log.warn("User {} who raised a business event no longer exists, retrying as the job's user", actorUserId);
+            return;
+        }
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities()));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    private static Long actorUserId(final SecurityContext securityContext) {
+        final Authentication authentication = securityContext == null ? null : securityContext.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AppUser) {
+            return ((AppUser) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+
+    private void reschedule(final Long id, final int attempts, final String error) {
+        this.jdbcTemplate.update(
+                "UPDATE m_business_event_retry SET attempts = ?, next_attempt_at = ?, last_error = ?, last_modified_date = ? WHERE id = ?",
+                attempts, nextAttemptAt(attempts), error, DateUtils.getLocalDateTimeOfSystem(), id);
+    }
+
+    private void makeDue(final Long id, final String reason) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update(
+                "UPDATE m_business_event_retry SET next_attempt_at = ?, last_error = ?, last_modified_date = ? WHERE id = ?", now,
+                reason, now, id);
+    }
+
+    private ListenerRegistration findAsyncRegistration(final String eventType, final String listenerName) {
+        for (final Map.Entry<Class, List<ListenerRegistration>> entry : this.postListeners.entrySet()) {
+            if (entry.getKey().getName().equals(eventType)) {
+                for (final ListenerRegistration registration : entry.getValue()) {
+                    if (registration.mode == BusinessEventListenerMode.AFTER_COMMIT_ASYNC && registration.name.equals(listenerName)) {
+                        return registration;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void markDead(final Long id, final int attempts, final String error) {
+        this.jdbcTemplate.update(
+                "UPDATE m_business_event_retry SET status_enum = ?, attempts = ?, last_error = ?, last_modified_date = ? WHERE id = ?",
+                BusinessEventRetryStatus.DEAD.getValue(), attempts, error, DateUtils.getLocalDateTimeOfSystem(), id);
+    }
+
+    /**
+     * Records a call before it is queued; it only falls due for the retry job once the initial backoff has passed, which
+     * leaves the pool that long to run it and delete the row.
+     */
+    private Long record(final ListenerRegistration registration, final BusinessEventReference reference, final Long actorUserId) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        inNewTransaction(() -> this.jdbcTemplate.update(connection -> {
+            final var ps = connection.prepareStatement("INSERT INTO m_business_event_retry (listener_name, event_type, value_type,"
+                    + " value_id, actor_user_id, status_enum, attempts, next_attempt_at, created_date, last_modified_date)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, registration.name);
+            ps.setString(2, reference.eventType);
+            ps.setString(3, reference.valueType);
+            ps.setLong(4, reference.valueId);
+            ps.setObject(5, actorUserId);
+            ps.setInt(6, BusinessEventRetryStatus.PENDING.getValue());
+            ps.setObject(7, now.plusSeconds(this.initialBackoffSeconds));
+            ps.setObject(8, now);
+            ps.setObject(9, now);
+            return ps;
+        }, keyHolder));
+        return keyHolder.getKey().longValue();
+    }
+
+    private LocalDateTime nextAttemptAt(final int attempts) {
+        return DateUtils.getLocalDateTimeOfSystem().plusSeconds(this.initialBackoffSeconds << Math.min(attempts - 1, 10));
+    }
+
+    private void inNewTransaction(final Runnable action) {
+        final TransactionTemplate requiresNew = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.executeWithoutResult(status -> action.run());
+    }
+
+    private static String describe(final Throwable error) {
+        return StringUtils.abbreviate(error.getClass().getSimpleName() + ": " + error.getMessage(), MAX_ERROR_LENGTH);
+    }
+
+    private static final class ListenerRegistration {
+
+        private final BusinessEventListener listener;
+        private final BusinessEventListenerMode mode;
+        private final String name;
+
+        private ListenerRegistration(final BusinessEventListener listener, final BusinessEventListenerMode mode) {
+            this.listener = listener;
+            this.mode = mode;
+            this.name = listener.getClass().getName();
+        }
+    }
+
+    /**
+     * A listener call handed to the listener's pool, along with the tenant and security context of the raising thread.
+     */
+    private final class AsyncCall implements Runnable {
+
+        private final ListenerRegistration registration;
+        private final BusinessEvent<?> event;
+        private final FineractContext context;
+        private final SecurityContext securityContext;
+        private BusinessEventReference reference;
+        private Long retryId;
+
+        private AsyncCall(final ListenerRegistration registration, final BusinessEvent<?> event, final FineractContext context,
+                final SecurityContext securityContext) {
+            this.registration = registration;
+            this.event = event;
+            this.context = context;
+            this.securityContext = securityContext;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalContextUtil.init(this.context);
+            SecurityContextHolder.setContext(this.securityContext);
+            try {
+                inNewTransaction(() -> {
+                    final BusinessEvent<?> businessEvent = this.reference != null ? this.reference.load(entityManager) : this.event;
+                    if (businessEvent != null) {
+                        this.registration.listener.onBusinessEvent(businessEvent);
+                    }
+                    if (this.retryId != null) {
+                        jdbcTemplate.update("DELETE FROM m_business_event_retry WHERE id = ?", this.retryId);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Business event listener {} failed on {}", this.registration.name, this.event.getClass().getSimpleName(), e);
+                if (this.retryId != null) {
+                    reschedule(this.retryId, 1, describe(e));
+                }
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.reset();
+            }
+        }
+
+        private void spill(final String reason) {
+            if (this.retryId == null) {
+                log.error("Business event listener {} skipped on {}: {}, the event cannot be retried", this.registration.name,
+                        this.event.getClass().getSimpleName(), reason);
+                return;
+            }
+            try {
+                makeDue(this.retryId, reason);
+            } catch (RuntimeException e) {
+                log.error("Business event listener {} lost a call on {} {}", this.registration.name, this.reference.eventType,
+                        this.reference.valueId, e);
+            }
+        }
+    }
+
+    /**
+     * Identifies an event by its type and the id of its value, so it can be rebuilt with a freshly loaded value in
+     * another transaction. Only events whose value is an entity or a plain id can be referenced.
+     */
+    private static final class BusinessEventReference {
+
+        private final String eventType;
+        private final String valueType;
+        private final Long valueId;
+
+        private BusinessEventReference(final String eventType, final String valueType, final Long valueId) {
+            this.eventType = eventType;
+            this.valueType = valueType;
+            this.valueId = valueId;
+        }
+
+        private static BusinessEventReference of(final BusinessEvent<?> event) {
+            final Object value = event.get();
+            final Long valueId;
+            if (value instanceof AbstractPersistableCustom) {
+                valueId = ((AbstractPersistableCustom) value).getId();
+            } else if (value instanceof Long) {
+                valueId = (Long) value;
+            } else {
+                return null;
+            }
+            if (valueId == null || findConstructor(event.getClass(), value.getClass()) == null) {
+                return null;
+            }
+            return new BusinessEventReference(event.getClass().getName(), value.getClass().getName(), valueId);
+        }
+
+        private BusinessEvent<?> load(final EntityManager entityManager) {
+            try {
+                final Class<?> type = Class.forName(this.valueType);
+                final Object value = Long.class.equals(type) ? this.valueId : entityManager.find(type, this.valueId);
+                if (value == null) {
+                    return null;
+                }
+                return (BusinessEvent<?>) findConstructor(Class.forName(this.eventType), type).newInstance(value);
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot rebuild business event " + this.eventType, e);
+            }
+        }
+
+        private static Constructor<?> findConstructor(final Class<?> eventType, final Class<?> valueType) {
+            for (final Constructor<?> constructor : eventType.getConstructors()) {
+                if (constructor.getParameterCount() == 1 && constructor.getParameterTypes()[0].isAssignableFrom(valueType)) {
+                    return constructor;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class QueuedCall {
+
+        private final Long id;
+        private final String listenerName;
+        private final String eventType;
+        private final int attempts;
+        private final BusinessEventReference reference;
+        private final Long actorUserId;
+
+        private QueuedCall(final Long id, final String listenerName, final int attempts, final BusinessEventReference reference,
+                final Long actorUserId) {
+            this.id = id;
+            this.listenerName = listenerName;
+            this.eventType = reference.eventType;
+            this.attempts = attempts;
+            this.reference = reference;
+            this.actorUserId = actorUserId;
+        }
+    }
+
+    private static final class QueuedCallMapper implements RowMapper<QueuedCall> {
+
+        static final String SCHEMA = "SELECT id, listener_name, event_type, value_type, value_id, actor_user_id, attempts"
+                + " FROM m_business_event_retry WHERE status_enum = ? AND next_attempt_at <= ? ORDER BY next_attempt_at, id LIMIT ?";
+
+        @Override
+        public QueuedCall mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new QueuedCall(rs.getLong("id"), rs.getString("listener_name"), rs.getInt("attempts"),
+                    new BusinessEventReference(rs.getString("event_type"), rs.getString("value_type"), rs.getLong("value_id")),
+                    JdbcSupport.getLong(rs, "actor_user_id"));
+        }
+    }
 }
@@ -55,17 +55,20 @@ public class ClientIdentifierWritePlatformServiceJpaRepositoryImpl implements Cl
     private final ClientIdentifierRepository clientIdentifierRepository;
     private final CodeValueRepositoryWrapper codeValueRepository;
     private final ClientIdentifierCommandFromApiJsonDeserializer clientIdentifierCommandFromApiJsonDeserializer;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     @Autowired
     public ClientIdentifierWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final ClientRepositoryWrapper clientRepository, final ClientIdentifierRepository clientIdentifierRepository,
             final CodeValueRepositoryWrapper codeValueRepository,
-            final ClientIdentifierCommandFromApiJsonDeserializer clientIdentifierCommandFromApiJsonDeserializer) {
+            final ClientIdentifierCommandFromApiJsonDeserializer clientIdentifierCommandFromApiJsonDeserializer,
+            final ClientIdentityIndexService clientIdentityIndexService) {
         this.context = context;
         this.clientRepository = clientRepository;
         this.clientIdentifierRepository = clientIdentifierRepository;
         this.codeValueRepository = codeValueRepository;
         this.clientIdentifierCommandFromApiJsonDeserializer = clientIdentifierCommandFromApiJsonDeserializer;
+        this.clientIdentityIndexService = clientIdentityIndexService;
     }
 
     @Transactional
@@ -91,6 +94,7 @@ public class ClientIdentifierWritePlatformServiceJpaRepositoryImpl implements Cl
             final ClientIdentifier clientIdentifier = ClientIdentifier.fromJson(client, documentType, command);
 
             this.clientIdentifierRepository.saveAndFlush(clientIdentifier);
+            this.clientIdentityIndexService.refreshIdentifiers(clientId);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -153,6 +157,7 @@ public class ClientIdentifierWritePlatformServiceJpaRepositoryImpl implements Cl
 
             if (!changes.isEmpty()) {
                 this.clientIdentifierRepository.saveAndFlush(clientIdentifierForUpdate);
+                this.clientIdentityIndexService.refreshIdentifiers(clientId);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -181,6 +186,8 @@ public class ClientIdentifierWritePlatformServiceJpaRepositoryImpl implements Cl
         final ClientIdentifier clientIdentifier = this.clientIdentifierRepository.findById(identifierId)
                 .orElseThrow(() -> new ClientIdentifierNotFoundException(identifierId));
         this.clientIdentifierRepository.delete(clientIdentifier);
+        this.clientIdentifierRepository.flush();
+        this.clientIdentityIndexService.refreshIdentifiers(clientId);
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(commandId) //
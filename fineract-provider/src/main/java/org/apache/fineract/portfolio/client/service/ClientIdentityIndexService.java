@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.service;
+
+import java.util.Set;
+
+/**
+ * Maintains <code>m_client_identity_index</code>: hashes of normalized client identity values (email, phone numbers,
+ * BVN/NIN/TIN and identifier documents) to client id, so de-duplication checks are a single indexed lookup.
+ */
+public interface ClientIdentityIndexService {
+
+    String KYC_DATATABLE = "secondLevelKYC";
+
+    /**
+     * Re-indexes the email and mobile number held on <code>m_client</code>.
+     */
+    void refreshClient(Long clientId);
+
+    /**
+     * Re-indexes the alternate mobile number, BVN, NIN and TIN held on the {@link #KYC_DATATABLE} datatable.
+     */
+    void refreshKyc(Long clientId);
+
+    /**
+     * Re-indexes the client's identifier documents.
+     */
+    void refreshIdentifiers(Long clientId);
+
+    void removeClient(Long clientId);
+
+    /**
+     * Ids of the clients holding any of the given values; blank values are ignored.
+     */
+    Set<Long> findMatchingClientIds(String email, String mobileNo, String altMobileNo, String bvn, String nin, String tin);
+
+    Set<Long> findClientIdsByDocument(Long documentTypeId, String documentKey);
+}
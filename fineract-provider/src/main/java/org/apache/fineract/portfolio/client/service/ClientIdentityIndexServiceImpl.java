@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ClientIdentityIndexServiceImpl implements ClientIdentityIndexService {
+
+    static final String EMAIL = "EMAIL";
+    static final String MOBILE = "MOBILE";
+    static final String ALTERNATE_MOBILE = "ALTERNATE_MOBILE";
+    static final String BVN = "BVN";
+    static final String NIN = "NIN";
+    static final String TIN = "TIN";
+    static final String DOCUMENT_PREFIX = "DOCUMENT_";
+
+    private static final List<String> CLIENT_TYPES = Arrays.asList(EMAIL, MOBILE);
+    private static final List<String> KYC_TYPES = Arrays.asList(ALTERNATE_MOBILE, BVN, NIN, TIN);
+    private static final int PHONE_SIGNIFICANT_DIGITS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public void refreshClient(final Long clientId) {
+        final Map<String, String> entries = new HashMap<>();
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet("select mc.email_address, mc.mobile_no from m_client mc where mc.id = ?",
+                clientId);
+        if (rs.next()) {
+            entries.put(EMAIL, normalize(EMAIL, rs.getString("email_address")));
+            entries.put(MOBILE, normalize(MOBILE, rs.getString("mobile_no")));
+        }
+        replace(clientId, CLIENT_TYPES, entries);
+    }
+
+    @Override
+    public void refreshKyc(final Long clientId) {
+        final Map<String, String> entries = new HashMap<>();
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(
+                "select slk.alternateMobileNumber, slk.bvn, slk.nin, slk.tin from " + KYC_DATATABLE + " slk where slk.client_id = ?",
+                clientId);
+        if (rs.next()) {
+            entries.put(ALTERNATE_MOBILE, normalize(ALTERNATE_MOBILE, rs.getString("alternateMobileNumber")));
+            entries.put(BVN, normalize(BVN, rs.getString("bvn")));
+            entries.put(NIN, normalize(NIN, rs.getString("nin")));
+            entries.put(TIN, normalize(TIN, rs.getString("tin")));
+        }
+        replace(clientId, KYC_TYPES, entries);
+    }
+
+    @Override
+    public void refreshIdentifiers(final Long clientId) {
+        this.jdbcTemplate.update("delete from m_client_identity_index where client_id = ? and identity_type like ?", clientId,
+                DOCUMENT_PREFIX + "%");
+        final SqlRowSet rs = this.jdbcTemplate
+                .queryForRowSet("select ci.document_type_id, ci.document_key from m_client_identifier ci where ci.client_id = ?", clientId);
+        final Set<List<String>> rows = new HashSet<>();
+        while (rs.next()) {
+            final String type = DOCUMENT_PREFIX + rs.getLong("document_type_id");
+            final String value = normalize(type, rs.getString("document_key"));
+            if (value != null) {
+                rows.add(Arrays.asList(type, hash(value)));
+            }
+        }
+        insert(clientId, rows);
+    }
+
+    @Override
+    public void removeClient(final Long clientId) {
+        this.jdbcTemplate.update("delete from m_client_identity_index where client_id = ?", clientId);
+    }
+
+    @Override
+    public Set<Long> findMatchingClientIds(final String email, final String mobileNo, final String altMobileNo, final String bvn,
+            final String nin, final String tin) {
+        final Map<String, String> lookup = new HashMap<>();
+        lookup.put(EMAIL, normalize(EMAIL, email));
+        lookup.put(MOBILE, normalize(MOBILE, mobileNo));
+        lookup.put(ALTERNATE_MOBILE, normalize(ALTERNATE_MOBILE, altMobileNo));
+        lookup.put(BVN, normalize(BVN, bvn));
+        lookup.put(NIN, normalize(NIN, nin));
+        lookup.put(TIN, normalize(TIN, tin));
+        return find(lookup);
+    }
+
+    @Override
+    public Set<Long> findClientIdsByDocument(final Long documentTypeId, final String documentKey) {
+        final String type = DOCUMENT_PREFIX + documentTypeId;
+        final Map<String, String> lookup = new HashMap<>();
+        lookup.put(type, normalize(type, documentKey));
+        return find(lookup);
+    }
+
+    private Set<Long> find(final Map<String, String> lookup) {
+        // several types can normalise to the same value (e.g. a number given as both mobile and alternate mobile)
+        final Map<String, Set<String>> typesByHash = new HashMap<>();
+        for (final Map.Entry<String, String> entry : lookup.entrySet()) {
+            if (entry.getValue() != null) {
+                typesByHash.computeIfAbsent(hash(entry.getValue()), k -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        final Set<Long> clientIds = new HashSet<>();
+        if (typesByHash.isEmpty()) {
+            return clientIds;
+        }
+        // a single index range over the hashes, the type is matched here rather than in an OR chain
+        final SqlRowSet rs = this.namedParameterJdbcTemplate.queryForRowSet(
+                "select cii.identity_type, cii.value_hash, cii.client_id from m_client_identity_index cii"
+                        + " where cii.value_hash in (:hashes)",
+                new MapSqlParameterSource("hashes", typesByHash.keySet()));
+        while (rs.next()) {
+            final Set<String> types = typesByHash.get(rs.getString("value_hash"));
+            if (types != null && types.contains(rs.getString("identity_type"))) {
+                clientIds.add(rs.getLong("client_id"));
+            }
+        }
+        return clientIds;
+    }
+
+    private void replace(final Long clientId, final List<String> types, final Map<String, String> entries) {
+        final MapSqlParameterSource params = new MapSqlParameterSource("clientId", clientId).addValue("types", types);
+        this.namedParameterJdbcTemplate
+                .update("delete from m_client_identity_index where client_id = :clientId and identity_type in (:types)", params);
+        final Set<List<String>> rows = new HashSet<>();
+        for (final Map.Entry<String, String> entry : entries.entrySet()) {
+            if (entry.getValue() != null) {
+                rows.add(Arrays.asList(entry.getKey(), hash(entry.getValue())));
+            }
+        }
+        insert(clientId, rows);
+    }
+
+    private void insert(final Long clientId, final Set<List<String>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final List<Object[]> batch = new ArrayList<>(rows.size());
+        for (final List<String> row : rows) {
+            batch.add(new Object[] { row.get(0), row.get(1), clientId });
+        }
+        this.jdbcTemplate.batchUpdate("insert into m_client_identity_index (identity_type, value_hash, client_id) values (?, ?, ?)",
+                batch);
+    }
+
+    /**
+     * Must stay in line with the backfill in <code>0198_m_client_identity_index.sql</code>.
+     *
+     * @return the normalized value, or null when nothing is left to index
+     */
+    static String normalize(final String type, final String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        final String normalized;
+        if (EMAIL.equals(type)) {
+            normalized = value.trim().toLowerCase(Locale.ROOT);
+        } else if (MOBILE.equals(type) || ALTERNATE_MOBILE.equals(type)) {
+            // local (080...) and international (+23480...) forms of a number share their trailing digits
+            final String digits = value.replaceAll("[^0-9]", "");
+            normalized = digits.length() > PHONE_SIGNIFICANT_DIGITS ? digits.substring(digits.length() - PHONE_SIGNIFICANT_DIGITS)
+                    : digits;
+        } else {
+            normalized = value.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+        }
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    static String hash(final String normalized) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hashed = digest.digest(normalized.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(hashed.length * 2);
+            for (final byte b : hashed) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -71,6 +71,7 @@ import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchySqlBuilder;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
@@ -92,6 +93,7 @@ import org.apache.fineract.portfolio.client.domain.ClientStatus;
 import org.apache.fineract.portfolio.client.domain.LegalForm;
 import org.apache.fineract.portfolio.client.exception.ClientNotFoundException;
 import org.apache.fineract.portfolio.client.service.ClientFamilyMembersReadPlatformService;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexService;
 import org.apache.fineract.portfolio.collateralmanagement.domain.ClientCollateralManagement;
 import org.apache.fineract.portfolio.collateralmanagement.domain.ClientCollateralManagementRepositoryWrapper;
 import org.apache.fineract.portfolio.group.data.GroupGeneralData;
@@ -150,6 +152,7 @@ public class ClientBusinessReadPlatformServiceImpl implements ClientBusinessRead
 
     private final ClientBusinessDataValidator fromApiJsonDeserializer;
     private final FromJsonHelper fromJsonHelper;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     private final LoanActiveSummaryMapper loanActiveSummaryMapper = new LoanActiveSummaryMapper();
     private final SavingsActiveSummaryMapper savingActiveSummaryMapper = new SavingsActiveSummaryMapper();
@@ -477,8 +480,8 @@ public class ClientBusinessReadPlatformServiceImpl implements ClientBusinessRead
         }
 
         if (searchParameters.isScopedByOfficeHierarchy()) {
-            paramList.add(searchParameters.getHierarchy() + "%");
-            extraCriteria += " and o.hierarchy like ? ";
+            paramList.add(searchParameters.getHierarchy());
+            extraCriteria += " and " + OfficeHierarchySqlBuilder.officeUnderHierarchy("o.id") + " ";
         }
 
         if (searchParameters.isOrphansOnly()) {
@@ -734,20 +737,13 @@ public class ClientBusinessReadPlatformServiceImpl implements ClientBusinessRead
 
     @Override
     public KycBusinessData isClientExisting(String email, String mobileNo, String altMobileNo, String bvn, String nin, String tin) {
-        Integer cnt = this.jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM client_unique_view WHERE email_address=? OR mobile_no=? OR alternateMobileNumber=? OR bvn=? OR nin=? OR tin=?  ",
-                Integer.class, email, mobileNo, altMobileNo, bvn, nin, tin);
-        Boolean agreement = cnt != null && cnt > 0;
-        if (cnt != null && cnt > 1) {
+        final Set<Long> clientIds = this.clientIdentityIndexService.findMatchingClientIds(email, mobileNo, altMobileNo, bvn, nin, tin);
+        if (clientIds.size() > 1) {
             throw new ClientNotFoundException("error.msg.client.duplicate",
                     "Customer account is not profiled correctly or duplicates, please contact support");
         }
-        Long clientId = null;
-        if (agreement) {
-            clientId = this.jdbcTemplate.queryForObject(
-                    "SELECT id FROM client_unique_view WHERE email_address=? OR mobile_no=? OR alternateMobileNumber=? OR bvn=? OR nin=? OR tin=?  ",
-                    Long.class, email, mobileNo, altMobileNo, bvn, nin, tin);
-        }
+        final Boolean agreement = !clientIds.isEmpty();
+        final Long clientId = agreement ? clientIds.iterator().next() : null;
         return new KycBusinessData(clientId, null, null, null, null, null, null, agreement, null, null);
     }
 
@@ -75,6 +75,7 @@ import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
 import org.apache.fineract.portfolio.client.domain.LegalForm;
 import org.apache.fineract.portfolio.client.exception.ClientActiveForUpdateException;
 import org.apache.fineract.portfolio.client.service.ClientFamilyMembersWritePlatformService;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexService;
 import org.apache.fineract.portfolio.group.domain.Group;
 import org.apache.fineract.portfolio.group.domain.GroupRepository;
 import org.apache.fineract.portfolio.group.exception.GroupMemberCountNotInPermissibleRangeException;
@@ -122,6 +123,7 @@ public class ClientBusinessWritePlatformServiceJpaRepositoryImpl implements Clie
     private final EntityDatatableChecksWritePlatformService entityDatatableChecksWritePlatformService;
     private final KycConfigReadService kycConfigReadService;
     private final ClientBusinessReadPlatformService clientBusinessReadPlatformService;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     @Autowired
     public ClientBusinessWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -139,7 +141,8 @@ public class ClientBusinessWritePlatformServiceJpaRepositoryImpl implements Clie
             final ClientFamilyMembersWritePlatformService clientFamilyMembersWritePlatformService,
             final BusinessEventNotifierService businessEventNotifierService,
             final EntityDatatableChecksWritePlatformService entityDatatableChecksWritePlatformService,
-            final KycConfigReadService kycConfigReadService, final ClientBusinessReadPlatformService clientBusinessReadPlatformService) {
+            final KycConfigReadService kycConfigReadService, final ClientBusinessReadPlatformService clientBusinessReadPlatformService,
+            final ClientIdentityIndexService clientIdentityIndexService) {
         this.context = context;
         this.clientRepository = clientRepository;
         this.clientNonPersonRepository = clientNonPersonRepository;
@@ -165,6 +168,7 @@ public class ClientBusinessWritePlatformServiceJpaRepositoryImpl implements Clie
         this.entityDatatableChecksWritePlatformService = entityDatatableChecksWritePlatformService;
         this.kycConfigReadService = kycConfigReadService;
         this.clientBusinessReadPlatformService = clientBusinessReadPlatformService;
+        this.clientIdentityIndexService = clientIdentityIndexService;
     }
 
     /*
@@ -269,6 +273,7 @@ public class ClientBusinessWritePlatformServiceJpaRepositoryImpl implements Clie
             final Client newClient = Client.createNew(currentUser, clientOffice, clientParentGroup, staff, savingsProductId, gender,
                     clientType, clientClassification, legalFormValue, command);
             this.clientRepository.saveAndFlush(newClient);
+            this.clientIdentityIndexService.refreshClient(newClient.getId());
             boolean rollbackTransaction = false;
             if (newClient.isActive()) {
                 validateParentGroupRulesBeforeClientActivation(newClient);
@@ -462,6 +467,7 @@ public class ClientBusinessWritePlatformServiceJpaRepositoryImpl implements Clie
 
             if (!changes.isEmpty()) {
                 this.clientRepository.saveAndFlush(clientForUpdate);
+                this.clientIdentityIndexService.refreshClient(clientId);
             }
 
             if (changes.containsKey(ClientApiConstants.legalFormIdParamName)) {
@@ -27,6 +27,8 @@ import static org.apache.fineract.portfolio.client.data.business.ClientIdentifie
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.util.HashSet;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.codes.domain.CodeValue;
 import org.apache.fineract.infrastructure.codes.domain.CodeValueRepositoryWrapper;
@@ -44,6 +46,8 @@ import org.apache.fineract.portfolio.client.data.business.ClientIdentifierBusine
 import org.apache.fineract.portfolio.client.domain.ClientIdentifierRepository;
 import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
 import org.apache.fineract.portfolio.client.exception.ClientIdentifierNotFoundException;
+import org.apache.fineract.portfolio.client.exception.DuplicateClientIdentifierException;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +68,7 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
     private final DocumentBusinessWritePlatformService documentWritePlatformService;
     private final FromJsonHelper fromApiJsonHelper;
     private final DocumentRepository documentRepository;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     @Autowired
     public ClientIdentifierBusinessWritePlatformServiceImpl(final PlatformSecurityContext context,
@@ -71,7 +76,8 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
             final CodeValueRepositoryWrapper codeValueRepository,
             final ClientIdentifierBusinessDataValidator clientIdentifierBusinessDataValidator, final FromJsonHelper fromApiJsonHelper,
             final ClientIdentifiersApiResource clientIdentifiersApiResource,
-            final DocumentBusinessWritePlatformService documentWritePlatformService, final DocumentRepository documentRepository) {
+            final DocumentBusinessWritePlatformService documentWritePlatformService, final DocumentRepository documentRepository,
+            final ClientIdentityIndexService clientIdentityIndexService) {
         this.context = context;
         this.clientRepository = clientRepository;
         this.clientIdentifierRepository = clientIdentifierRepository;
@@ -81,6 +87,7 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
         this.clientIdentifiersApiResource = clientIdentifiersApiResource;
         this.documentWritePlatformService = documentWritePlatformService;
         this.documentRepository = documentRepository;
+        this.clientIdentityIndexService = clientIdentityIndexService;
     }
 
     @Transactional
@@ -96,6 +103,7 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
         final String name = documentType.label();
 
         final String documentKey = this.fromApiJsonHelper.extractStringNamed(documentKeyParam, jsonElement);
+        validateDocumentKeyNotHeldByAnotherClient(clientId, documentTypeId, name, documentKey);
         final String description = this.fromApiJsonHelper.extractStringNamed(descriptionParam, jsonElement);
         final String type = this.fromApiJsonHelper.extractStringNamed(typeParam, jsonElement);
         String location = this.fromApiJsonHelper.extractStringNamed(locationParam, jsonElement);
@@ -153,6 +161,7 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
         final String name = documentType.label();
 
         final String documentKey = this.fromApiJsonHelper.extractStringNamed(documentKeyParam, jsonElement);
+        validateDocumentKeyNotHeldByAnotherClient(clientId, documentTypeId, name, documentKey);
         final String description = this.fromApiJsonHelper.extractStringNamed(descriptionParam, jsonElement);
         final String type = this.fromApiJsonHelper.extractStringNamed(typeParam, jsonElement);
         String location = this.fromApiJsonHelper.extractStringNamed(locationParam, jsonElement);
@@ -185,4 +194,16 @@ public class ClientIdentifierBusinessWritePlatformServiceImpl implements ClientI
                 .withEntityId(resourceId).withSubEntityId(subResourceId).build();
     }
 
+    private void validateDocumentKeyNotHeldByAnotherClient(final Long clientId, final Long documentTypeId, final String documentTypeLabel,
+            final String documentKey) {
+        if (StringUtils.isBlank(documentKey)) {
+            return;
+        }
+        final Set<Long> holders = new HashSet<>(this.clientIdentityIndexService.findClientIdsByDocument(documentTypeId, documentKey));
+        holders.remove(clientId);
+        if (!holders.isEmpty()) {
+            throw new DuplicateClientIdentifierException(documentTypeId, documentTypeLabel, documentKey);
+        }
+    }
+
 }
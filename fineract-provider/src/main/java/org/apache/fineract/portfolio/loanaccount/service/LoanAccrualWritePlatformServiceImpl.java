@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
@@ -64,13 +65,14 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     private final AppUserRepositoryWrapper userRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public LoanAccrualWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final LoanReadPlatformService loanReadPlatformService,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final AppUserRepositoryWrapper userRepository,
             final LoanRepositoryWrapper loanRepositoryWrapper, final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository,
-            DatabaseSpecificSQLGenerator sqlGenerator) {
+            DatabaseSpecificSQLGenerator sqlGenerator, final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.sqlGenerator = sqlGenerator;
         this.jdbcTemplate = jdbcTemplate;
@@ -79,6 +81,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         this.userRepository = userRepository;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     @Override
@@ -89,14 +92,17 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Collection<LoanSchedulePeriodData> loanWaiverScheduleData = new ArrayList<>(1);
         Collection<LoanTransactionData> loanWaiverTansactionData = new ArrayList<>(1);
 
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
-                loanWaiverScheduleData = this.loanReadPlatformService.fetchWaiverInterestRepaymentData(accrualData.getLoanId());
-                loanWaiverTansactionData = this.loanReadPlatformService.retrieveWaiverLoanTransactions(accrualData.getLoanId());
+        try (JournalEntryBatchWriter.Batch batch = this.journalEntryBatchWriter.openBatch()) {
+            for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+                if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
+                    loanWaiverScheduleData = this.loanReadPlatformService.fetchWaiverInterestRepaymentData(accrualData.getLoanId());
+                    loanWaiverTansactionData = this.loanReadPlatformService.retrieveWaiverLoanTransactions(accrualData.getLoanId());
+                }
+                updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
+                updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, accrualData.getDueDateAsLocaldate());
+                addAccrualAccounting(accrualData);
             }
-            updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
-            updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, accrualData.getDueDateAsLocaldate());
-            addAccrualAccounting(accrualData);
+            batch.complete();
         }
     }
 
@@ -109,28 +115,31 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Collection<LoanChargeData> chargeData = this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(loanId);
         Collection<LoanSchedulePeriodData> loanWaiverScheduleData = new ArrayList<>(1);
         Collection<LoanTransactionData> loanWaiverTansactionData = new ArrayList<>(1);
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
-                loanWaiverScheduleData = this.loanReadPlatformService.fetchWaiverInterestRepaymentData(accrualData.getLoanId());
-                loanWaiverTansactionData = this.loanReadPlatformService.retrieveWaiverLoanTransactions(accrualData.getLoanId());
-            }
-
-            if (accrualData.getDueDateAsLocaldate().isAfter(tilldate)) {
-                if (accruredTill == null || firstTime) {
-                    accruredTill = accrualData.getAccruedTill();
-                    firstTime = false;
+        try (JournalEntryBatchWriter.Batch batch = this.journalEntryBatchWriter.openBatch()) {
+            for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+                if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
+                    loanWaiverScheduleData = this.loanReadPlatformService.fetchWaiverInterestRepaymentData(accrualData.getLoanId());
+                    loanWaiverTansactionData = this.loanReadPlatformService.retrieveWaiverLoanTransactions(accrualData.getLoanId());
                 }
-                if (accruredTill == null || accruredTill.isBefore(tilldate)) {
-                    updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), tilldate);
+
+                if (accrualData.getDueDateAsLocaldate().isAfter(tilldate)) {
+                    if (accruredTill == null || firstTime) {
+                        accruredTill = accrualData.getAccruedTill();
+                        firstTime = false;
+                    }
+                    if (accruredTill == null || accruredTill.isBefore(tilldate)) {
+                        updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), tilldate);
+                        updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
+                        addAccrualTillSpecificDate(tilldate, accrualData);
+                    }
+                } else {
+                    updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
                     updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                    addAccrualTillSpecificDate(tilldate, accrualData);
+                    addAccrualAccounting(accrualData);
+                    accruredTill = accrualData.getDueDateAsLocaldate();
                 }
-            } else {
-                updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
-                updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                addAccrualAccounting(accrualData);
-                accruredTill = accrualData.getDueDateAsLocaldate();
             }
+            batch.complete();
         }
     }
 
@@ -43,6 +43,7 @@ import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecific
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchySqlBuilder;
 import org.apache.fineract.portfolio.group.data.GroupGeneralData;
 import org.apache.fineract.portfolio.loanaccount.data.LoanApplicationTimelineData;
 import org.apache.fineract.portfolio.loanaccount.data.LoanStatusEnumData;
@@ -152,8 +153,7 @@ public class LoanArrearsBusinessReadPlatformServiceImpl implements LoanArrearsBu
     public Page<LoanBusinessAccountData> retrieveAll(final SearchParametersBusiness searchParameters) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final Long userOfficeId = currentUser.getOffice().getId();
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         // sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
@@ -169,12 +169,13 @@ public class LoanArrearsBusinessReadPlatformServiceImpl implements LoanArrearsBu
         // but that at present is an edge case
         sqlBuilder.append(" join m_office o on (o.id = mla.client_office_id or o.id = mla.group_office_id) ");
         sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = mla.transfer_to_office_id ");
-        sqlBuilder.append(" where ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+        sqlBuilder.append(" where ( " + OfficeHierarchySqlBuilder.officeUnder("o.id") + " or "
+                + OfficeHierarchySqlBuilder.officeUnder("transferToOffice.id") + ")");
 
         int arrayPos = 2;
         List<Object> extraCriterias = new ArrayList<>();
-        extraCriterias.add(hierarchySearchString);
-        extraCriterias.add(hierarchySearchString);
+        extraCriterias.add(userOfficeId);
+        extraCriterias.add(userOfficeId);
 
         if (searchParameters != null) {
 
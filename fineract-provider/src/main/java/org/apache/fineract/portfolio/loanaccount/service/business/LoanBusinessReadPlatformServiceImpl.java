@@ -49,6 +49,7 @@ import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
 import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.service.OfficeHierarchySqlBuilder;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
 import org.apache.fineract.portfolio.account.data.AccountTransferData;
 import org.apache.fineract.portfolio.accountdetails.service.AccountDetailsReadPlatformService;
@@ -207,8 +208,7 @@ public class LoanBusinessReadPlatformServiceImpl implements LoanBusinessReadPlat
 
         try {
             final AppUser currentUser = this.context.authenticatedUser();
-            final String hierarchy = currentUser.getOffice().getHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final Long userOfficeId = currentUser.getOffice().getId();
 
             final LoanMapperDetails rm = new LoanMapperDetails(sqlGenerator);
 
@@ -217,9 +217,10 @@ public class LoanBusinessReadPlatformServiceImpl implements LoanBusinessReadPlat
             sqlBuilder.append(rm.loanSchema());
             sqlBuilder.append(" join m_office o on (o.id = c.office_id or o.id = g.office_id) ");
             sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-            sqlBuilder.append(" where l.id=? and ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+            sqlBuilder.append(" where l.id=? and ( " + OfficeHierarchySqlBuilder.officeUnder("o.id") + " or "
+                    + OfficeHierarchySqlBuilder.officeUnder("transferToOffice.id") + ")");
 
-            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm, loanId, hierarchySearchString, hierarchySearchString);
+            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm, loanId, userOfficeId, userOfficeId);
         } catch (final EmptyResultDataAccessException e) {
             throw new LoanNotFoundException(loanId, e);
         }
@@ -229,8 +230,7 @@ public class LoanBusinessReadPlatformServiceImpl implements LoanBusinessReadPlat
     public Page<LoanBusinessAccountData> retrieveAll(final SearchParametersBusiness searchParameters) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final Long userOfficeId = currentUser.getOffice().getId();
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         // sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
@@ -246,12 +246,13 @@ public class LoanBusinessReadPlatformServiceImpl implements LoanBusinessReadPlat
         // but that at present is an edge case
         sqlBuilder.append(" join m_office o on (o.id = c.office_id or o.id = g.office_id) ");
         sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-        sqlBuilder.append(" where ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+        sqlBuilder.append(" where ( " + OfficeHierarchySqlBuilder.officeUnder("o.id") + " or "
+                + OfficeHierarchySqlBuilder.officeUnder("transferToOffice.id") + ")");
 
         int arrayPos = 2;
         List<Object> extraCriterias = new ArrayList<>();
-        extraCriterias.add(hierarchySearchString);
-        extraCriterias.add(hierarchySearchString);
+        extraCriterias.add(userOfficeId);
+        extraCriterias.add(userOfficeId);
 
         if (searchParameters != null) {
 
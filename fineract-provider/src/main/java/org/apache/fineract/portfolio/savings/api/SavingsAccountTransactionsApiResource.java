@@ -29,6 +29,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.Collection;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -39,6 +40,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.CommandIdempotencyService;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
@@ -141,9 +143,11 @@ public class SavingsAccountTransactionsApiResource {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = SavingsAccountTransactionsApiResourceSwagger.PostSavingsAccountTransactionsResponse.class))) })
     public String transaction(@PathParam("savingsId") final Long savingsId, @QueryParam("command") final String commandParam,
+            @HeaderParam(CommandIdempotencyService.IDEMPOTENCY_KEY_HEADER) final String idempotencyKey,
             final String apiRequestBodyAsJson) {
         try {
-            final CommandWrapperBuilder builder = new CommandWrapperBuilder().withJson(apiRequestBodyAsJson);
+            final CommandWrapperBuilder builder = new CommandWrapperBuilder().withJson(apiRequestBodyAsJson)
+                    .withIdempotencyKey(idempotencyKey);
 
             CommandProcessingResult result = null;
             if (is(commandParam, "deposit")) {
@@ -191,14 +195,16 @@ public class SavingsAccountTransactionsApiResource {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = SavingsAccountTransactionsApiResourceSwagger.PostSavingsAccountBulkReversalTransactionsRequest.class)))) })
     public String adjustTransaction(@PathParam("savingsId") final Long savingsId, @PathParam("transactionId") final Long transactionId,
-            @QueryParam("command") final String commandParam, final String apiRequestBodyAsJson) {
+            @QueryParam("command") final String commandParam,
+            @HeaderParam(CommandIdempotencyService.IDEMPOTENCY_KEY_HEADER) final String idempotencyKey,
+            final String apiRequestBodyAsJson) {
 
         String jsonApiRequest = apiRequestBodyAsJson;
         if (StringUtils.isBlank(jsonApiRequest)) {
             jsonApiRequest = "{}";
         }
 
-        final CommandWrapperBuilder builder = new CommandWrapperBuilder().withJson(jsonApiRequest);
+        final CommandWrapperBuilder builder = new CommandWrapperBuilder().withJson(jsonApiRequest).withIdempotencyKey(idempotencyKey);
 
         CommandProcessingResult result = null;
         if (is(commandParam, SavingsApiConstants.COMMAND_UNDO_TRANSACTION)) {
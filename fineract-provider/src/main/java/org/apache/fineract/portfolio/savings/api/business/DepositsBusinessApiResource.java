@@ -31,6 +31,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -184,6 +187,37 @@ public class DepositsBusinessApiResource {
         return this.toApiJsonSerializer.serialize(settings, depositAccountBusinessData, DEPOSIT_RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("balance")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Retrieve balances for many accounts", description = """
+            Resolves a comma separated list of account numbers in one call. Unknown account numbers are left out of the response.
+
+            Example Requests:
+
+            deposits/balance?accountNos=0000000001,0000000002""")
+    @ApiResponses({ @ApiResponse(responseCode = "200", description = "OK") })
+    public String retrieveBalances(@QueryParam("accountNos") @Parameter(description = "accountNos") final String accountNos,
+            @Context final UriInfo uriInfo) {
+        this.context.authenticatedUser().validateHasReadPermission(DepositsBusinessApiConstants.RESOURCE_NAME);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+
+        final Set<String> accountNumbers = new LinkedHashSet<>();
+        if (StringUtils.isNotBlank(accountNos)) {
+            for (final String accountNo : accountNos.split(",")) {
+                if (StringUtils.isNotBlank(accountNo)) {
+                    accountNumbers.add(accountNo.trim());
+                }
+            }
+        }
+        final List<DepositAccountBusinessData> depositAccountBusinessData = this.depositsBusinessReadPlatformService
+                .retrieveBalances(accountNumbers);
+
+        return this.toApiJsonSerializer.serialize(settings, depositAccountBusinessData, DEPOSIT_RESPONSE_DATA_PARAMETERS);
+    }
+
     @POST
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
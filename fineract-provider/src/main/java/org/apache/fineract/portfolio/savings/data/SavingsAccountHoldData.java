@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+
+/**
+ * Row of {@code m_savings_account_hold}: one amount placed on hold on a savings account, how much of it has been released
+ * and when the remainder expires.
+ */
+public class SavingsAccountHoldData {
+
+    private final Long id;
+    private final Long savingsAccountId;
+    private final Long holdTransactionId;
+    private final BigDecimal amount;
+    private final BigDecimal releasedAmount;
+    private final SavingsAccountHoldStatus status;
+    private final LocalDateTime expiresAt;
+
+    public SavingsAccountHoldData(final Long id, final Long savingsAccountId, final Long holdTransactionId, final BigDecimal amount,
+            final BigDecimal releasedAmount, final SavingsAccountHoldStatus status, final LocalDateTime expiresAt) {
+        this.id = id;
+        this.savingsAccountId = savingsAccountId;
+        this.holdTransactionId = holdTransactionId;
+        this.amount = amount;
+        this.releasedAmount = releasedAmount;
+        this.status = status;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getSavingsAccountId() {
+        return this.savingsAccountId;
+    }
+
+    public Long getHoldTransactionId() {
+        return this.holdTransactionId;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public BigDecimal getReleasedAmount() {
+        return this.releasedAmount;
+    }
+
+    public SavingsAccountHoldStatus getStatus() {
+        return this.status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public BigDecimal getOutstandingAmount() {
+        return this.amount.subtract(this.releasedAmount);
+    }
+
+    public boolean isActive() {
+        return SavingsAccountHoldStatus.ACTIVE.equals(this.status);
+    }
+}
@@ -70,7 +70,8 @@ public class SavingsAccountTransactionDataValidator {
     private final FromJsonHelper fromApiJsonHelper;
     private static final Set<String> SAVINGS_ACCOUNT_HOLD_AMOUNT_REQUEST_DATA_PARAMETERS = new HashSet<>(
             Arrays.asList(transactionDateParamName, SavingsApiConstants.dateFormatParamName, SavingsApiConstants.localeParamName,
-                    transactionAmountParamName, lienAllowedParamName, SavingsApiConstants.reasonForBlockParamName));
+                    transactionAmountParamName, lienAllowedParamName, SavingsApiConstants.reasonForBlockParamName,
+                    SavingsApiConstants.holdExpiresInMinutesParamName));
     private final ConfigurationDomainService configurationDomainService;
     private final SavingsAccountAssembler savingAccountAssembler;
 
@@ -243,6 +244,11 @@ public class SavingsAccountTransactionDataValidator {
                 .notExceedingLengthOf(100);
 
         baseDataValidator.reset().parameter(transactionDateParamName).value(transactionDate).notNull();
+
+        final Integer expiresInMinutes = this.fromApiJsonHelper
+                .extractIntegerWithLocaleNamed(SavingsApiConstants.holdExpiresInMinutesParamName, element);
+        baseDataValidator.reset().parameter(SavingsApiConstants.holdExpiresInMinutesParamName).value(expiresInMinutes).ignoreIfNull()
+                .integerGreaterThanZero();
         boolean isActive = account.isActive();
 
         if (!isActive) {
@@ -305,7 +311,7 @@ public class SavingsAccountTransactionDataValidator {
     }
 
     public SavingsAccountTransaction validateReleaseAmountAndAssembleForm(final SavingsAccountTransaction holdTransaction,
-            final AppUser createdUser) {
+            final BigDecimal releaseAmount, final BigDecimal outstandingAmount, final AppUser createdUser) {
         final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
         final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors)
                 .resource(SAVINGS_ACCOUNT_RESOURCE_NAME);
@@ -315,6 +321,12 @@ public class SavingsAccountTransactionDataValidator {
         } else if (holdTransaction.getReleaseIdOfHoldAmountTransaction() != null) {
             baseDataValidator.parameter(SavingsApiConstants.amountParamName).value(holdTransaction.getAmount())
                     .failWithCode("validation.msg.amount.is.not.on.hold", "Transaction amount is not on hold");
+        } else {
+            baseDataValidator.reset().parameter(transactionAmountParamName).value(releaseAmount).notNull().positiveAmount();
+            if (releaseAmount != null && releaseAmount.compareTo(outstandingAmount) > 0) {
+                baseDataValidator.reset().parameter(transactionAmountParamName).value(releaseAmount).failWithCode(
+                        "exceeds.amount.on.hold", "Release amount can not exceed the amount still on hold", outstandingAmount);
+            }
         }
 
         if (holdTransaction != null) {
@@ -328,8 +340,8 @@ public class SavingsAccountTransactionDataValidator {
         throwExceptionIfValidationWarningsExist(dataValidationErrors);
         LocalDateTime createdDate = DateUtils.getLocalDateTimeOfSystem();
         LocalDate transactionDate = DateUtils.getBusinessLocalDate();
-        SavingsAccountTransaction transaction = SavingsAccountTransaction.releaseAmount(holdTransaction, transactionDate, createdDate,
-                createdUser);
+        SavingsAccountTransaction transaction = SavingsAccountTransaction.releaseAmount(holdTransaction, releaseAmount, transactionDate,
+                createdDate, createdUser);
         return transaction;
     }
 
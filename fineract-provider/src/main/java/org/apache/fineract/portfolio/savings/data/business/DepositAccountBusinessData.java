@@ -54,54 +54,18 @@ public class DepositAccountBusinessData {
     protected final String externalId;
     protected final BigDecimal minRequiredBalance;
 
-    public static DepositAccountBusinessData retrieveName(final DepositAccountBusinessData depositAccountBusinessData) {
-        Long id = depositAccountBusinessData.getId();
-        String accountNo = depositAccountBusinessData.getAccountNo();
-        EnumOptionData depositType = depositAccountBusinessData.getDepositType();
-        SavingsAccountStatusEnumData status = depositAccountBusinessData.getStatus();
-        Long clientId = depositAccountBusinessData.getClientId();
-        String clientName = depositAccountBusinessData.getClientName();
-        Long depositProductId = null;
-        String depositProductName = null;
-        BigDecimal availableBalance = null;
-        BigDecimal ledgerBalance = null;
-        LocalDate createdOn = null;
-        LocalDate activatedOn = null;
-        LocalDate lastTransactionOn = null;
-        String externalId = null;
-        Long officeId = null;
-        String officeName = null;
-        BigDecimal minRequiredBalance = null;
-        String bvn = depositAccountBusinessData.getBvn();
-        CodeValueData clientType = depositAccountBusinessData.getClientType();
-        return new DepositAccountBusinessData(id, accountNo, depositType, status, clientId, clientName, depositProductId,
-                depositProductName, availableBalance, ledgerBalance, createdOn, activatedOn, lastTransactionOn, externalId, officeId,
-                officeName, minRequiredBalance, bvn, clientType);
-    }
-
-    public static DepositAccountBusinessData retrieveBalance(final DepositAccountBusinessData depositAccountBusinessData) {
-        Long id = depositAccountBusinessData.getId();
-        String accountNo = depositAccountBusinessData.getAccountNo();
-        EnumOptionData depositType = depositAccountBusinessData.getDepositType();
-        SavingsAccountStatusEnumData status = depositAccountBusinessData.getStatus();
-        Long clientId = depositAccountBusinessData.getClientId();
-        String clientName = depositAccountBusinessData.getClientName();
-        BigDecimal availableBalance = depositAccountBusinessData.getAvailableBalance();
-        BigDecimal ledgerBalance = depositAccountBusinessData.getLedgerBalance();
-        Long depositProductId = null;
-        String depositProductName = null;
-        LocalDate createdOn = null;
-        LocalDate activatedOn = null;
-        LocalDate lastTransactionOn = null;
-        String externalId = null;
-        Long officeId = null;
-        String officeName = null;
-        BigDecimal minRequiredBalance = null;
-        String bvn = null;
-        CodeValueData clientType = null;
-        return new DepositAccountBusinessData(id, accountNo, depositType, status, clientId, clientName, depositProductId,
-                depositProductName, availableBalance, ledgerBalance, createdOn, activatedOn, lastTransactionOn, externalId, officeId,
-                officeName, minRequiredBalance, bvn, clientType);
+    public static DepositAccountBusinessData nameEnquiry(final DepositAccountEnquiryData enquiry,
+            final SavingsAccountStatusEnumData status) {
+        return new DepositAccountBusinessData(enquiry.getId(), enquiry.getAccountNo(), enquiry.getDepositType(), status,
+                enquiry.getClientId(), enquiry.getClientName(), null, null, null, null, null, null, null, null, null, null, null,
+                enquiry.getBvn(), enquiry.getClientType());
+    }
+
+    public static DepositAccountBusinessData balanceEnquiry(final DepositAccountEnquiryData enquiry,
+            final SavingsAccountStatusEnumData status, final BigDecimal availableBalance, final BigDecimal ledgerBalance) {
+        return new DepositAccountBusinessData(enquiry.getId(), enquiry.getAccountNo(), enquiry.getDepositType(), status,
+                enquiry.getClientId(), enquiry.getClientName(), null, null, availableBalance, ledgerBalance, null, null, null, null, null,
+                null, null, null, null);
     }
 
     public static DepositAccountBusinessData lookUp(Long id, String accountNo, EnumOptionData depositType,
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.data.business;
+
+import java.io.Serializable;
+import org.apache.fineract.infrastructure.codes.data.CodeValueData;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+
+/**
+ * Immutable compact projection of a deposit account used by name and balance enquiries. Holds only the fields that
+ * rarely change so it can be cached by account number; status and balances are always read fresh.
+ */
+public final class DepositAccountEnquiryData implements Serializable {
+
+    private final Long id;
+    private final String accountNo;
+    private final EnumOptionData depositType;
+    private final Long clientId;
+    private final String clientName;
+    private final String bvn;
+    private final CodeValueData clientType;
+    private final Long depositProductId;
+    private final String depositProductName;
+
+    public DepositAccountEnquiryData(final Long id, final String accountNo, final EnumOptionData depositType, final Long clientId,
+            final String clientName, final String bvn, final CodeValueData clientType, final Long depositProductId,
+            final String depositProductName) {
+        this.id = id;
+        this.accountNo = accountNo;
+        this.depositType = depositType;
+        this.clientId = clientId;
+        this.clientName = clientName;
+        this.bvn = bvn;
+        this.clientType = clientType;
+        this.depositProductId = depositProductId;
+        this.depositProductName = depositProductName;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getAccountNo() {
+        return this.accountNo;
+    }
+
+    public EnumOptionData getDepositType() {
+        return this.depositType;
+    }
+
+    public Long getClientId() {
+        return this.clientId;
+    }
+
+    public String getClientName() {
+        return this.clientName;
+    }
+
+    public String getBvn() {
+        return this.bvn;
+    }
+
+    public CodeValueData getClientType() {
+        return this.clientType;
+    }
+
+    public Long getDepositProductId() {
+        return this.depositProductId;
+    }
+
+    public String getDepositProductName() {
+        return this.depositProductName;
+    }
+}
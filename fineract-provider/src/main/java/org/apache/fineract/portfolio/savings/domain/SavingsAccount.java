@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -106,6 +107,7 @@ import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionWindow;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountBlockedException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountCreditsBlockedException;
@@ -321,6 +323,8 @@ public class SavingsAccount extends AbstractPersistableCustom {
     protected SavingsHelper savingsHelper;
     @Transient
     protected List<SavingsAccountTransaction> savingsAccountTransactions = new ArrayList<>();
+    @Transient
+    protected boolean transactionsLoadedFromPivot = false;
 
     @Column(name = "deposit_type_enum", insertable = false, updatable = false)
     private Integer depositType;
@@ -463,6 +467,46 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return this.savingsAccountTransactions;
     }
 
+    public void markTransactionsLoadedFromPivot() {
+        this.transactionsLoadedFromPivot = true;
+    }
+
+    /**
+     * True when only the transactions after a pivot date or balance checkpoint are loaded, in which case new transactions
+     * must be posted with <code>backdatedTxnsAllowedTill</code> set.
+     */
+    public boolean isTransactionsLoadedFromPivot() {
+        return this.transactionsLoadedFromPivot;
+    }
+
+    /**
+     * Balance checkpoints only apply to savings accounts with nothing to calculate interest or tax on, since the daily
+     * balances before the checkpoint are not reloaded.
+     */
+    public boolean isBalanceCheckpointApplicable() {
+        return depositAccountType().isSavingsDeposit() && this.summary.getInterestPostedTillDate() == null && !this.withHoldTax
+                && (this.nominalAnnualInterestRate == null || this.nominalAnnualInterestRate.compareTo(BigDecimal.ZERO) == 0)
+                && (this.nominalAnnualInterestRateOverdraft == null
+                        || this.nominalAnnualInterestRateOverdraft.compareTo(BigDecimal.ZERO) == 0);
+    }
+
+    /**
+     * Loads the account from a balance checkpoint and the transactions dated after it. Returns false, leaving the account
+     * untouched, when the checkpoint no longer reproduces the persisted account balance.
+     */
+    public boolean attachBalanceCheckpoint(final SavingsAccountBalanceCheckpoint balanceCheckpoint,
+            final List<SavingsAccountTransaction> transactionsAfterCheckpoint) {
+        final Money derivedBalance = Money.of(this.currency, balanceCheckpoint.deriveAccountBalance(this.currency,
+                this.savingsAccountTransactionSummaryWrapper, transactionsAfterCheckpoint));
+        if (derivedBalance.isNotEqualTo(this.summary.getAccountBalance(this.currency))) {
+            return false;
+        }
+        this.summary.setBalanceCheckpoint(balanceCheckpoint);
+        this.savingsAccountTransactions.addAll(transactionsAfterCheckpoint);
+        this.transactionsLoadedFromPivot = true;
+        return true;
+    }
+
     public String getExternalId() {
         return externalId;
     }
@@ -877,6 +921,15 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions;
+        if (backdatedTxnsAllowedTill) {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
+        } else {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        }
+        final PostingPeriodTransactionWindow<SavingsAccountTransaction> transactionWindow = PostingPeriodTransactionWindow
+                .over(orderedNonInterestPostingTransactions);
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -884,17 +937,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 isUserPosting = true;
             }
 
-            PostingPeriod postingPeriod = null;
-            List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = null;
-            if (backdatedTxnsAllowedTill) {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingSavingsTransactionsWithPivotConfig();
-            } else {
-                orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
-            }
-
-            postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedNonInterestPostingTransactions,
-                    this.currency, compoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYearType.getValue(),
-                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
+                    transactionWindow.transactionsFor(periodInterval), this.currency, compoundingPeriodType,
+                    interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
+                    interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
                     isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
                     isUserPosting, financialYearBeginningMonth);
 
@@ -1166,8 +1212,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
     public void validatePivotDateTransaction(LocalDate transactionDate, final boolean backdatedTxnsAllowedTill,
             final Long relaxingDaysConfigForPivotDate, final String resourceTypeName) {
         if (backdatedTxnsAllowedTill) {
-            if (this.getSummary().getInterestPostedTillDate() != null
-                    && transactionDate.isBefore(this.getSummary().getInterestPostedTillDate().minusDays(relaxingDaysConfigForPivotDate))) {
+            final SavingsAccountBalanceCheckpoint balanceCheckpoint = this.getSummary().getBalanceCheckpoint();
+            if ((this.getSummary().getInterestPostedTillDate() != null
+                    && transactionDate.isBefore(this.getSummary().getInterestPostedTillDate().minusDays(relaxingDaysConfigForPivotDate)))
+                    || (balanceCheckpoint != null && !transactionDate.isAfter(balanceCheckpoint.getCheckpointDate()))) {
                 final Object[] defaultUserArgs = Arrays.asList(transactionDate, getActivationLocalDate()).toArray();
                 final String defaultUserMessage = "Transaction date cannot be before transactions pivot date.";
                 final ApiParameterError error = ApiParameterError.parameterError(
@@ -1488,7 +1536,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
         }
 
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
-        LocalDate lastSavingsDate = null;
+        final List<DepositAccountOnHoldTransaction> onHoldTransactionsByDate = sortOnHoldTransactionsByDate(
+                depositAccountOnHoldTransactions);
+        int onHoldIndex = 0;
         final BigDecimal withdrawalFee = null;
         for (final SavingsAccountTransaction transaction : transactionsSortedByDate) {
             if (transaction.isNotReversed() && transaction.isCredit() && !transaction.isReversalTransaction()) {
@@ -1500,21 +1550,16 @@ public class SavingsAccount extends AbstractPersistableCustom {
             }
 
             /*
-             * Loop through the onHold funds and see if we need to deduct or add to minimum required balance and the
-             * point in time the transaction was made:
+             * Apply the onHold funds dated up to this transaction to the minimum required balance. Both lists are in
+             * date order, so each onHold transaction is applied once instead of being rescanned per transaction:
              */
-            if (depositAccountOnHoldTransactions != null) {
-                for (final DepositAccountOnHoldTransaction onHoldTransaction : depositAccountOnHoldTransactions) {
-                    // Compare the balance of the on hold:
-                    if ((onHoldTransaction.getTransactionDate().isBefore(transaction.transactionLocalDate())
-                            || onHoldTransaction.getTransactionDate().isEqual(transaction.transactionLocalDate()))
-                            && (lastSavingsDate == null || onHoldTransaction.getTransactionDate().isAfter(lastSavingsDate))) {
-                        if (onHoldTransaction.getTransactionType().isHold()) {
-                            minRequiredBalance = minRequiredBalance.plus(onHoldTransaction.getAmountMoney(this.currency));
-                        } else {
-                            minRequiredBalance = minRequiredBalance.minus(onHoldTransaction.getAmountMoney(this.currency));
-                        }
-                    }
+            while (onHoldIndex < onHoldTransactionsByDate.size()
+                    && !onHoldTransactionsByDate.get(onHoldIndex).getTransactionDate().isAfter(transaction.transactionLocalDate())) {
+                final DepositAccountOnHoldTransaction onHoldTransaction = onHoldTransactionsByDate.get(onHoldIndex++);
+                if (onHoldTransaction.getTransactionType().isHold()) {
+                    minRequiredBalance = minRequiredBalance.plus(onHoldTransaction.getAmountMoney(this.currency));
+                } else {
+                    minRequiredBalance = minRequiredBalance.minus(onHoldTransaction.getAmountMoney(this.currency));
                 }
             }
 
@@ -1526,8 +1571,6 @@ public class SavingsAccount extends AbstractPersistableCustom {
                             transactionAmount);
                 }
             }
-            lastSavingsDate = transaction.transactionLocalDate();
-
         }
 
         // In overdraft cases, minRequiredBalance can be in violation after
@@ -1570,7 +1613,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
         }
 
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
-        LocalDate lastSavingsDate = null;
+        final List<DepositAccountOnHoldTransaction> onHoldTransactionsByDate = sortOnHoldTransactionsByDate(
+                depositAccountOnHoldTransactions);
+        int onHoldIndex = 0;
         for (final SavingsAccountTransaction transaction : transactionsSortedByDate) {
             if (transaction.isNotReversed() && transaction.isCredit()) {
                 runningBalance = runningBalance.plus(transaction.getAmount(this.currency));
@@ -1579,21 +1624,16 @@ public class SavingsAccount extends AbstractPersistableCustom {
             }
 
             /*
-             * Loop through the onHold funds and see if we need to deduct or add to minimum required balance and the
-             * point in time the transaction was made:
+             * Apply the onHold funds dated up to this transaction to the minimum required balance. Both lists are in
+             * date order, so each onHold transaction is applied once instead of being rescanned per transaction:
              */
-            if (depositAccountOnHoldTransactions != null) {
-                for (final DepositAccountOnHoldTransaction onHoldTransaction : depositAccountOnHoldTransactions) {
-                    // Compare the balance of the on hold:
-                    if ((onHoldTransaction.getTransactionDate().isBefore(transaction.transactionLocalDate())
-                            || onHoldTransaction.getTransactionDate().isEqual(transaction.transactionLocalDate()))
-                            && (lastSavingsDate == null || onHoldTransaction.getTransactionDate().isAfter(lastSavingsDate))) {
-                        if (onHoldTransaction.getTransactionType().isHold()) {
-                            minRequiredBalance = minRequiredBalance.plus(onHoldTransaction.getAmountMoney(this.currency));
-                        } else {
-                            minRequiredBalance = minRequiredBalance.minus(onHoldTransaction.getAmountMoney(this.currency));
-                        }
-                    }
+            while (onHoldIndex < onHoldTransactionsByDate.size()
+                    && !onHoldTransactionsByDate.get(onHoldIndex).getTransactionDate().isAfter(transaction.transactionLocalDate())) {
+                final DepositAccountOnHoldTransaction onHoldTransaction = onHoldTransactionsByDate.get(onHoldIndex++);
+                if (onHoldTransaction.getTransactionType().isHold()) {
+                    minRequiredBalance = minRequiredBalance.plus(onHoldTransaction.getAmountMoney(this.currency));
+                } else {
+                    minRequiredBalance = minRequiredBalance.minus(onHoldTransaction.getAmountMoney(this.currency));
                 }
             }
 
@@ -1612,8 +1652,6 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 }
 
             }
-            lastSavingsDate = transaction.transactionLocalDate();
-
         }
 
         BigDecimal withdrawalFee = null;
@@ -1625,6 +1663,16 @@ public class SavingsAccount extends AbstractPersistableCustom {
         }
     }
 
+    private static List<DepositAccountOnHoldTransaction> sortOnHoldTransactionsByDate(
+            final List<DepositAccountOnHoldTransaction> depositAccountOnHoldTransactions) {
+        if (depositAccountOnHoldTransactions == null) {
+            return Collections.emptyList();
+        }
+        final List<DepositAccountOnHoldTransaction> onHoldTransactionsByDate = new ArrayList<>(depositAccountOnHoldTransactions);
+        onHoldTransactionsByDate.sort(Comparator.comparing(DepositAccountOnHoldTransaction::getTransactionDate));
+        return onHoldTransactionsByDate;
+    }
+
     protected boolean isAccountLocked(final LocalDate transactionDate) {
         boolean isLocked = false;
         final boolean accountHasLockedInSetting = this.lockedInUntilDate != null;
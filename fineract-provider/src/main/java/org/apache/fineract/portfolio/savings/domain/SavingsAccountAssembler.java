@@ -99,6 +99,7 @@ public class SavingsAccountAssembler {
     private final FromJsonHelper fromApiJsonHelper;
     private final JdbcTemplate jdbcTemplate;
     private final ConfigurationDomainService configurationDomainService;
+    private final SavingsAccountBalanceCheckpointRepository balanceCheckpointRepository;
 
     @Autowired
     public SavingsAccountAssembler(final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper,
@@ -107,7 +108,8 @@ public class SavingsAccountAssembler {
             final SavingsAccountRepositoryWrapper savingsAccountRepository,
             final SavingsAccountChargeAssembler savingsAccountChargeAssembler, final FromJsonHelper fromApiJsonHelper,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService, final JdbcTemplate jdbcTemplate,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService,
+            final SavingsAccountBalanceCheckpointRepository balanceCheckpointRepository) {
         this.savingsAccountTransactionSummaryWrapper = savingsAccountTransactionSummaryWrapper;
         this.clientRepository = clientRepository;
         this.groupRepository = groupRepository;
@@ -119,6 +121,7 @@ public class SavingsAccountAssembler {
         savingsHelper = new SavingsHelper(accountTransfersReadPlatformService);
         this.jdbcTemplate = jdbcTemplate;
         this.configurationDomainService = configurationDomainService;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
     }
 
     /**
@@ -339,6 +342,36 @@ public class SavingsAccountAssembler {
         return loadTransactionsToSavingsAccount(account, backdatedTxnsAllowedTill);
     }
 
+    /**
+     * Assembles a savings account for posting a new transaction. With the pivot date configuration enabled the interest
+     * posting pivot is used as before; otherwise an account with a balance checkpoint dated before
+     * <code>transactionDate</code> is loaded from the checkpoint plus the transactions dated after it, and any other account
+     * falls back to its full transaction history. Post against the result with
+     * {@link SavingsAccount#isTransactionsLoadedFromPivot()} as <code>backdatedTxnsAllowedTill</code>.
+     */
+    public SavingsAccount assembleForTransaction(final Long savingsId, final LocalDate transactionDate) {
+        if (getPivotConfigStatus()) {
+            final SavingsAccount account = assembleFrom(savingsId, true);
+            account.markTransactionsLoadedFromPivot();
+            return account;
+        }
+
+        final SavingsAccount account = this.savingsAccountRepository.findSavingsWithNotFoundDetection(savingsId, true);
+        account.setHelpers(this.savingsAccountTransactionSummaryWrapper, this.savingsHelper);
+        if (account.isBalanceCheckpointApplicable()) {
+            final SavingsAccountBalanceCheckpoint balanceCheckpoint = this.balanceCheckpointRepository.findBySavingsAccountId(savingsId);
+            if (balanceCheckpoint != null && balanceCheckpoint.getCheckpointDate().isBefore(transactionDate)) {
+                final List<SavingsAccountTransaction> transactionsAfterCheckpoint = this.savingsAccountRepository
+                        .findTransactionsAfterPivotDate(account, balanceCheckpoint.getCheckpointDate().plusDays(1));
+                if (!account.attachBalanceCheckpoint(balanceCheckpoint, transactionsAfterCheckpoint)) {
+                    LOG.warn("Balance checkpoint of savings account {} is stale, using full transaction history", savingsId);
+                    this.balanceCheckpointRepository.delete(balanceCheckpoint);
+                }
+            }
+        }
+        return account;
+    }
+
     public SavingsAccount loadTransactionsToSavingsAccount(final SavingsAccount account, final boolean backdatedTxnsAllowedTill) {
         List<SavingsAccountTransaction> savingsAccountTransactions = null;
         if (backdatedTxnsAllowedTill) {
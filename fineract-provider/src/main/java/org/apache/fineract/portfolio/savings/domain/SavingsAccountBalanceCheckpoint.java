@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+
+/**
+ * Durable snapshot of a savings account's running balance and summary totals at the close of
+ * <code>checkpointDate</code>. New transactions are validated and posted against the checkpoint plus the transactions dated
+ * after it, so the work done per transaction does not grow with the age of the account.
+ */
+@Entity
+@Table(name = "m_savings_account_balance_checkpoint")
+public class SavingsAccountBalanceCheckpoint extends AbstractPersistableCustom {
+
+    @Column(name = "savings_account_id", nullable = false, unique = true)
+    private Long savingsAccountId;
+
+    @Column(name = "checkpoint_date", nullable = false)
+    private LocalDate checkpointDate;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @Column(name = "running_balance", scale = 6, precision = 19, nullable = false)
+    private BigDecimal runningBalance;
+
+    @Column(name = "total_deposits", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalDeposits;
+
+    @Column(name = "total_withdrawals", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalWithdrawals;
+
+    @Column(name = "total_interest_posted", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalInterestPosted;
+
+    @Column(name = "total_withdrawal_fees", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalWithdrawalFees;
+
+    @Column(name = "total_annual_fees", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalAnnualFees;
+
+    @Column(name = "total_fees_charge", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalFeeCharge;
+
+    @Column(name = "total_penalty_charge", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalPenaltyCharge;
+
+    @Column(name = "total_overdraft_interest", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalOverdraftInterest;
+
+    @Column(name = "total_withhold_tax", scale = 6, precision = 19, nullable = false)
+    private BigDecimal totalWithholdTax;
+
+    @Column(name = "last_modified_date", nullable = false)
+    private LocalDateTime lastModifiedDate;
+
+    protected SavingsAccountBalanceCheckpoint() {}
+
+    private SavingsAccountBalanceCheckpoint(final Long savingsAccountId) {
+        this.savingsAccountId = savingsAccountId;
+        reset();
+    }
+
+    public static SavingsAccountBalanceCheckpoint startFor(final Long savingsAccountId) {
+        return new SavingsAccountBalanceCheckpoint(savingsAccountId);
+    }
+
+    /**
+     * Discards the snapshot so that the next {@link #advanceTo} rebuilds it from the account's full transaction history.
+     */
+    public void reset() {
+        this.checkpointDate = null;
+        this.lastTransactionId = null;
+        this.runningBalance = BigDecimal.ZERO;
+        this.totalDeposits = BigDecimal.ZERO;
+        this.totalWithdrawals = BigDecimal.ZERO;
+        this.totalInterestPosted = BigDecimal.ZERO;
+        this.totalWithdrawalFees = BigDecimal.ZERO;
+        this.totalAnnualFees = BigDecimal.ZERO;
+        this.totalFeeCharge = BigDecimal.ZERO;
+        this.totalPenaltyCharge = BigDecimal.ZERO;
+        this.totalOverdraftInterest = BigDecimal.ZERO;
+        this.totalWithholdTax = BigDecimal.ZERO;
+    }
+
+    /**
+     * Rolls the checkpoint forward to the close of <code>newCheckpointDate</code>. Only transactions dated after the current
+     * checkpoint and on or before the new one are folded in. The running balance seeds the balance checks in
+     * {@link SavingsAccount#validateAccountBalanceDoesNotBecomeNegative}, so like them it counts credits and debits only:
+     * liens are enforced there through {@link SavingsAccount#getSavingsHoldAmount} and must not be subtracted twice.
+     */
+    public void advanceTo(final LocalDate newCheckpointDate, final MonetaryCurrency currency,
+            final SavingsAccountTransactionSummaryWrapper wrapper, final List<SavingsAccountTransaction> transactions) {
+        final List<SavingsAccountTransaction> covered = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : transactions) {
+            final LocalDate transactionDate = transaction.transactionLocalDate();
+            if (transactionDate.isAfter(newCheckpointDate)
+                    || (this.checkpointDate != null && !transactionDate.isAfter(this.checkpointDate))) {
+                continue;
+            }
+            covered.add(transaction);
+        }
+        covered.sort(new SavingsAccountTransactionComparator());
+
+        Money running = Money.of(currency, this.runningBalance);
+        for (final SavingsAccountTransaction transaction : covered) {
+            if (this.lastTransactionId == null || transaction.getId() > this.lastTransactionId) {
+                this.lastTransactionId = transaction.getId();
+            }
+            if (transaction.isReversed() || transaction.isReversalTransaction()) {
+                continue;
+            }
+            if (transaction.isCredit()) {
+                running = running.plus(transaction.getAmount(currency));
+            } else if (transaction.isDebit()) {
+                running = running.minus(transaction.getAmount(currency));
+            }
+        }
+        this.runningBalance = running.getAmount();
+
+        this.totalDeposits = sum(currency, this.totalDeposits, wrapper.calculateTotalDeposits(currency, covered));
+        this.totalWithdrawals = sum(currency, this.totalWithdrawals, wrapper.calculateTotalWithdrawals(currency, covered));
+        this.totalInterestPosted = sum(currency, this.totalInterestPosted, wrapper.calculateTotalInterestPosted(currency, covered));
+        this.totalWithdrawalFees = sum(currency, this.totalWithdrawalFees, wrapper.calculateTotalWithdrawalFees(currency, covered));
+        this.totalAnnualFees = sum(currency, this.totalAnnualFees, wrapper.calculateTotalAnnualFees(currency, covered));
+        this.totalFeeCharge = sum(currency, this.totalFeeCharge, wrapper.calculateTotalFeesCharge(currency, covered));
+        this.totalPenaltyCharge = sum(currency, this.totalPenaltyCharge, wrapper.calculateTotalPenaltyCharge(currency, covered));
+        this.totalOverdraftInterest = sum(currency, this.totalOverdraftInterest,
+                wrapper.calculateTotalOverdraftInterest(currency, covered));
+        this.totalWithholdTax = sum(currency, this.totalWithholdTax, wrapper.calculateTotalWithholdTaxWithdrawal(currency, covered));
+
+        this.checkpointDate = newCheckpointDate;
+        this.lastModifiedDate = DateUtils.getLocalDateTimeOfSystem();
+    }
+
+    /**
+     * Account balance implied by this checkpoint and the transactions dated after it, derived the same way as
+     * {@link SavingsAccountSummary#updateSummary}. It differs from the persisted account balance when a transaction on or
+     * before the checkpoint date was added or reversed after the checkpoint was taken.
+     */
+    public BigDecimal deriveAccountBalance(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> tail) {
+        return Money.of(currency, sum(currency, this.totalDeposits, wrapper.calculateTotalDeposits(currency, tail)))
+                .plus(sum(currency, this.totalInterestPosted, wrapper.calculateTotalInterestPosted(currency, tail)))
+                .minus(sum(currency, this.totalWithdrawals, wrapper.calculateTotalWithdrawals(currency, tail)))
+                .minus(sum(currency, this.totalWithdrawalFees, wrapper.calculateTotalWithdrawalFees(currency, tail)))
+                .minus(sum(currency, this.totalAnnualFees, wrapper.calculateTotalAnnualFees(currency, tail)))
+                .minus(sum(currency, this.totalFeeCharge, wrapper.calculateTotalFeesCharge(currency, tail)))
+                .minus(sum(currency, this.totalPenaltyCharge, wrapper.calculateTotalPenaltyCharge(currency, tail)))
+                .minus(sum(currency, this.totalOverdraftInterest, wrapper.calculateTotalOverdraftInterest(currency, tail)))
+                .minus(sum(currency, this.totalWithholdTax, wrapper.calculateTotalWithholdTaxWithdrawal(currency, tail))).getAmount();
+    }
+
+    private static BigDecimal sum(final MonetaryCurrency currency, final BigDecimal checkpointed, final BigDecimal delta) {
+        return Money.of(currency, checkpointed).plus(Money.of(currency, delta)).getAmount();
+    }
+
+    public Long getSavingsAccountId() {
+        return this.savingsAccountId;
+    }
+
+    public LocalDate getCheckpointDate() {
+        return this.checkpointDate;
+    }
+
+    public Long getLastTransactionId() {
+        return this.lastTransactionId;
+    }
+
+    public BigDecimal getRunningBalance() {
+        return this.runningBalance;
+    }
+
+    public BigDecimal getTotalDeposits() {
+        return this.totalDeposits;
+    }
+
+    public BigDecimal getTotalWithdrawals() {
+        return this.totalWithdrawals;
+    }
+
+    public BigDecimal getTotalInterestPosted() {
+        return this.totalInterestPosted;
+    }
+
+    public BigDecimal getTotalWithdrawalFees() {
+        return this.totalWithdrawalFees;
+    }
+
+    public BigDecimal getTotalAnnualFees() {
+        return this.totalAnnualFees;
+    }
+
+    public BigDecimal getTotalFeeCharge() {
+        return this.totalFeeCharge;
+    }
+
+    public BigDecimal getTotalPenaltyCharge() {
+        return this.totalPenaltyCharge;
+    }
+
+    public BigDecimal getTotalOverdraftInterest() {
+        return this.totalOverdraftInterest;
+    }
+
+    public BigDecimal getTotalWithholdTax() {
+        return this.totalWithholdTax;
+    }
+}
@@ -16,16 +16,11 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.infrastructure.hooks.event;
+package org.apache.fineract.portfolio.savings.domain;
 
-import java.io.Serializable;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
 
-@RequiredArgsConstructor
-@Getter
-public class HookEventSource implements Serializable {
+public interface SavingsAccountBalanceCheckpointRepository extends JpaRepository<SavingsAccountBalanceCheckpoint, Long> {
 
-    private final String entityName;
-    private final String actionName;
+    SavingsAccountBalanceCheckpoint findBySavingsAccountId(Long savingsAccountId);
 }
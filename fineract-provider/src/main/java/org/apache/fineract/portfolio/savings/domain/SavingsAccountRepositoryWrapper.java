@@ -47,13 +47,16 @@ public class SavingsAccountRepositoryWrapper {
     private final SavingsAccountRepository repository;
     private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final SavingsAccountEnquiryCache savingsAccountEnquiryCache;
 
     @Autowired
     public SavingsAccountRepositoryWrapper(final SavingsAccountRepository repository,
-            final SavingsAccountTransactionRepository savingsAccountTransactionRepository, final JdbcTemplate jdbcTemplate) {
+            final SavingsAccountTransactionRepository savingsAccountTransactionRepository, final JdbcTemplate jdbcTemplate,
+            final SavingsAccountEnquiryCache savingsAccountEnquiryCache) {
         this.repository = repository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.savingsAccountEnquiryCache = savingsAccountEnquiryCache;
     }
 
     @Transactional(readOnly = true)
@@ -150,18 +153,24 @@ public class SavingsAccountRepositoryWrapper {
     }
 
     public SavingsAccount save(final SavingsAccount account) {
+        this.savingsAccountEnquiryCache.evict(account.getAccountNumber());
         return this.repository.save(account);
     }
 
     public List<SavingsAccount> saveAll(final List<SavingsAccount> savingAccountList) {
+        for (final SavingsAccount account : savingAccountList) {
+            this.savingsAccountEnquiryCache.evict(account.getAccountNumber());
+        }
         return this.repository.saveAll(savingAccountList);
     }
 
     public void delete(final SavingsAccount account) {
+        this.savingsAccountEnquiryCache.evict(account.getAccountNumber());
         this.repository.delete(account);
     }
 
     public SavingsAccount saveAndFlush(final SavingsAccount account) {
+        this.savingsAccountEnquiryCache.evict(account.getAccountNumber());
         return this.repository.saveAndFlush(account);
     }
 
@@ -87,6 +87,9 @@ public final class SavingsAccountSummary {
     @Transient
     private BigDecimal runningBalanceOnInterestPostingTillDate = BigDecimal.ZERO;
 
+    @Transient
+    private SavingsAccountBalanceCheckpoint balanceCheckpoint;
+
     SavingsAccountSummary() {
         //
     }
@@ -184,6 +187,8 @@ public final class SavingsAccountSummary {
                 default:
                 break;
             }
+        } else if (this.balanceCheckpoint != null) {
+            updateSummaryFromCheckpoint(currency, wrapper, savingsAccountTransactions);
         } else {
             // boolean isUpdated = false;
             Money interestTotal = Money.zero(currency);
@@ -208,6 +213,35 @@ public final class SavingsAccountSummary {
         }
     }
 
+    private void updateSummaryFromCheckpoint(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> transactions) {
+        final SavingsAccountBalanceCheckpoint checkpoint = this.balanceCheckpoint;
+        this.totalDeposits = Money.of(currency, checkpoint.getTotalDeposits())
+                .plus(Money.of(currency, wrapper.calculateTotalDeposits(currency, transactions))).getAmount();
+        this.totalWithdrawals = Money.of(currency, checkpoint.getTotalWithdrawals())
+                .plus(Money.of(currency, wrapper.calculateTotalWithdrawals(currency, transactions))).getAmount();
+        this.totalInterestPosted = Money.of(currency, checkpoint.getTotalInterestPosted())
+                .plus(Money.of(currency, wrapper.calculateTotalInterestPosted(currency, transactions))).getAmount();
+        this.totalWithdrawalFees = Money.of(currency, checkpoint.getTotalWithdrawalFees())
+                .plus(Money.of(currency, wrapper.calculateTotalWithdrawalFees(currency, transactions))).getAmount();
+        this.totalAnnualFees = Money.of(currency, checkpoint.getTotalAnnualFees())
+                .plus(Money.of(currency, wrapper.calculateTotalAnnualFees(currency, transactions))).getAmount();
+        this.totalFeeCharge = Money.of(currency, checkpoint.getTotalFeeCharge())
+                .plus(Money.of(currency, wrapper.calculateTotalFeesCharge(currency, transactions))).getAmount();
+        this.totalPenaltyCharge = Money.of(currency, checkpoint.getTotalPenaltyCharge())
+                .plus(Money.of(currency, wrapper.calculateTotalPenaltyCharge(currency, transactions))).getAmount();
+        this.totalFeeChargesWaived = wrapper.calculateTotalFeesChargeWaived(currency, transactions);
+        this.totalPenaltyChargesWaived = wrapper.calculateTotalPenaltyChargeWaived(currency, transactions);
+        this.totalOverdraftInterestDerived = Money.of(currency, checkpoint.getTotalOverdraftInterest())
+                .plus(Money.of(currency, wrapper.calculateTotalOverdraftInterest(currency, transactions))).getAmount();
+        this.totalWithholdTax = Money.of(currency, checkpoint.getTotalWithholdTax())
+                .plus(Money.of(currency, wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactions))).getAmount();
+
+        this.accountBalance = Money.of(currency, this.totalDeposits).plus(this.totalInterestPosted).minus(this.totalWithdrawals)
+                .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).minus(this.totalFeeCharge).minus(this.totalPenaltyCharge)
+                .minus(totalOverdraftInterestDerived).minus(totalWithholdTax).getAmount();
+    }
+
     @SuppressWarnings("unchecked")
     private HashMap<String, Money> updateRunningBalanceAndPivotDate(final boolean backdatedTxnsAllowedTill,
             final List<SavingsAccountTransaction> savingsAccountTransactions, Money interestTotal, Money overdraftInterestTotal,
@@ -305,6 +339,15 @@ public final class SavingsAccountSummary {
         return this.runningBalanceOnInterestPostingTillDate;
     }
 
+    public void setBalanceCheckpoint(final SavingsAccountBalanceCheckpoint balanceCheckpoint) {
+        this.balanceCheckpoint = balanceCheckpoint;
+        this.runningBalanceOnInterestPostingTillDate = balanceCheckpoint.getRunningBalance();
+    }
+
+    public SavingsAccountBalanceCheckpoint getBalanceCheckpoint() {
+        return this.balanceCheckpoint;
+    }
+
     public BigDecimal getTotalWithdrawals() {
         return this.totalWithdrawals;
     }
@@ -381,10 +381,14 @@ public final class SavingsAccountTransaction extends AbstractPersistableCustom {
 
     public static SavingsAccountTransaction releaseAmount(SavingsAccountTransaction accountTransaction, LocalDate transactionDate,
             LocalDateTime createdDate, final AppUser appUser) {
+        return releaseAmount(accountTransaction, accountTransaction.amount, transactionDate, createdDate, appUser);
+    }
+
+    public static SavingsAccountTransaction releaseAmount(SavingsAccountTransaction accountTransaction, final BigDecimal amount,
+            LocalDate transactionDate, LocalDateTime createdDate, final AppUser appUser) {
         return new SavingsAccountTransaction(accountTransaction.savingsAccount, accountTransaction.office, accountTransaction.paymentDetail,
-                SavingsAccountTransactionType.AMOUNT_RELEASE.getValue(), transactionDate, createdDate, accountTransaction.amount,
-                accountTransaction.reversed, appUser, accountTransaction.isManualTransaction, accountTransaction.lienTransaction,
-                accountTransaction.refNo);
+                SavingsAccountTransactionType.AMOUNT_RELEASE.getValue(), transactionDate, createdDate, amount, accountTransaction.reversed,
+                appUser, accountTransaction.isManualTransaction, accountTransaction.lienTransaction, accountTransaction.refNo);
     }
 
     public static SavingsAccountTransaction reversal(SavingsAccountTransaction accountTransaction) {
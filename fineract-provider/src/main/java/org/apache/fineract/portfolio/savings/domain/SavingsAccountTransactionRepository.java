@@ -44,6 +44,13 @@ public interface SavingsAccountTransactionRepository
     List<SavingsAccountTransaction> findTransactionRunningBalanceBeforePivotDate(@Param("savingsAccount") SavingsAccount savingsAccount,
             @Param("date") LocalDate date);
 
+    @Query("select st from SavingsAccountTransaction st where st.savingsAccount.id = :savingsId and st.dateOf > :checkpointDate order by st.dateOf,st.createdDate,st.id")
+    List<SavingsAccountTransaction> findTransactionsAfterCheckpointDate(@Param("savingsId") Long savingsId,
+            @Param("checkpointDate") LocalDate checkpointDate);
+
+    @Query("select st from SavingsAccountTransaction st where st.savingsAccount.id = :savingsId order by st.dateOf,st.createdDate,st.id")
+    List<SavingsAccountTransaction> findTransactionsForCheckpoint(@Param("savingsId") Long savingsId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<SavingsAccountTransaction> findBySavingsAccount(@Param("savingsAccount") SavingsAccount savingsAccount);
 
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+
+/**
+ * Walks an ordered list of non interest posting transactions alongside ascending posting periods, handing each period
+ * only the transactions that can touch it.
+ *
+ * A transaction whose balance ended before the period starts neither falls within, spans nor closes the period, and
+ * neither does one dated after the day following the period end. Leaving them out does not change the period's end of
+ * day balances. Both ends of the window only move forward, so a whole calculation is linear in the history size.
+ *
+ * The window still walks the loaded transaction history; there is no persisted end of day balance ledger. The daily
+ * balances come from the derived running balance columns of <code>m_savings_account_transaction</code>, and the savings
+ * <code>/template</code> interest preview recomputes them from the loaded history like any other calculation.
+ */
+public final class PostingPeriodTransactionWindow<T> {
+
+    private final List<T> orderedTransactions;
+    private final Function<T, LocalDate> transactionDate;
+    private final Function<T, LocalDate> endOfBalanceDate;
+    private int fromIndex = 0;
+    private int toIndex = 0;
+
+    private PostingPeriodTransactionWindow(final List<T> orderedTransactions, final Function<T, LocalDate> transactionDate,
+            final Function<T, LocalDate> endOfBalanceDate) {
+        this.orderedTransactions = orderedTransactions;
+        this.transactionDate = transactionDate;
+        this.endOfBalanceDate = endOfBalanceDate;
+    }
+
+    public static PostingPeriodTransactionWindow<SavingsAccountTransaction> over(
+            final List<SavingsAccountTransaction> orderedTransactions) {
+        return new PostingPeriodTransactionWindow<>(orderedTransactions, SavingsAccountTransaction::getTransactionLocalDate,
+                SavingsAccountTransaction::getEndOfBalanceLocalDate);
+    }
+
+    public static PostingPeriodTransactionWindow<SavingsAccountTransactionData> overData(
+            final List<SavingsAccountTransactionData> orderedTransactions) {
+        return new PostingPeriodTransactionWindow<>(orderedTransactions, SavingsAccountTransactionData::getTransactionLocalDate,
+                SavingsAccountTransactionData::getEndOfBalanceLocalDate);
+    }
+
+    /**
+     * Returns the transactions that can touch the given period. Periods must be passed in ascending order.
+     */
+    public List<T> transactionsFor(final LocalDateInterval periodInterval) {
+        while (this.fromIndex < this.orderedTransactions.size() && endsBefore(this.orderedTransactions.get(this.fromIndex),
+                periodInterval.startDate())) {
+            this.fromIndex++;
+        }
+        this.toIndex = Math.max(this.toIndex, this.fromIndex);
+        final LocalDate dayAfterPeriodEnd = periodInterval.endDate().plusDays(1);
+        while (this.toIndex < this.orderedTransactions.size()
+                && !this.transactionDate.apply(this.orderedTransactions.get(this.toIndex)).isAfter(dayAfterPeriodEnd)) {
+            this.toIndex++;
+        }
+        return this.orderedTransactions.subList(this.fromIndex, this.toIndex);
+    }
+
+    private boolean endsBefore(final T transaction, final LocalDate periodStartDate) {
+        final LocalDate balanceEndDate = this.endOfBalanceDate.apply(transaction);
+        return balanceEndDate != null && balanceEndDate.isBefore(periodStartDate);
+    }
+}
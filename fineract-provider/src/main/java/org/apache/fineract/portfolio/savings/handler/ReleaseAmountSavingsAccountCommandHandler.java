@@ -18,10 +18,12 @@
  */
 package org.apache.fineract.portfolio.savings.handler;
 
+import java.math.BigDecimal;
 import org.apache.fineract.commands.annotation.CommandType;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.portfolio.savings.SavingsApiConstants;
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -42,7 +44,11 @@ public class ReleaseAmountSavingsAccountCommandHandler implements NewCommandSour
     @Override
     public CommandProcessingResult processCommand(JsonCommand command) {
         final Long transactionId = Long.valueOf(command.getTransactionId());
-        return this.writePlatformService.releaseAmount(command.getSavingsId(), transactionId);
+        // partial release when an amount is given, the whole outstanding hold otherwise
+        final BigDecimal amount = command.parameterExists(SavingsApiConstants.transactionAmountParamName)
+                ? command.bigDecimalValueOfParameterNamed(SavingsApiConstants.transactionAmountParamName)
+                : null;
+        return this.writePlatformService.releaseAmount(command.getSavingsId(), transactionId, amount);
     }
 
 }
@@ -69,6 +69,7 @@ import org.apache.fineract.portfolio.account.domain.AccountTransferType;
 import org.apache.fineract.portfolio.account.service.AccountAssociationsReadPlatformService;
 import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
 import org.apache.fineract.portfolio.account.service.AccountTransfersWritePlatformService;
+import org.apache.fineract.portfolio.business.accounttier.service.AccountTierLimitCounterService;
 import org.apache.fineract.portfolio.calendar.domain.Calendar;
 import org.apache.fineract.portfolio.calendar.domain.CalendarEntityType;
 import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
@@ -147,6 +148,7 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
     private final HolidayRepositoryWrapper holidayRepository;
     private final WorkingDaysRepositoryWrapper workingDaysRepository;
     private final DepositAccountOnHoldTransactionRepository depositAccountOnHoldTransactionRepository;
+    private final AccountTierLimitCounterService accountTierLimitCounterService;
 
     @Autowired
     public DepositAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -166,7 +168,8 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
             final AccountTransfersWritePlatformService accountTransfersWritePlatformService,
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
             final CalendarInstanceRepository calendarInstanceRepository, final ConfigurationDomainService configurationDomainService,
-            final DepositAccountOnHoldTransactionRepository depositAccountOnHoldTransactionRepository) {
+            final DepositAccountOnHoldTransactionRepository depositAccountOnHoldTransactionRepository,
+            final AccountTierLimitCounterService accountTierLimitCounterService) {
 
         this.context = context;
         this.savingAccountRepositoryWrapper = savingAccountRepositoryWrapper;
@@ -190,6 +193,7 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
         this.calendarInstanceRepository = calendarInstanceRepository;
         this.configurationDomainService = configurationDomainService;
         this.depositAccountOnHoldTransactionRepository = depositAccountOnHoldTransactionRepository;
+        this.accountTierLimitCounterService = accountTierLimitCounterService;
     }
 
     @Transactional
@@ -641,6 +645,7 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
             throwValidationForActiveStatus(SavingsApiConstants.undoTransactionAction);
         }
         account.undoTransaction(transactionId);
+        this.accountTierLimitCounterService.reverseWithdrawal(savingsAccountTransaction);
         boolean isInterestTransfer = false;
         LocalDate postInterestOnDate = null;
         checkClientOrGroupActive(account);
@@ -741,6 +746,7 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
 
         final MathContext mc = new MathContext(10, MoneyHelper.getRoundingMode());
         account.undoTransaction(transactionId);
+        this.accountTierLimitCounterService.reverseWithdrawal(savingsAccountTransaction);
 
         SavingsAccountTransaction transaction = null;
         Integer accountType = null;
@@ -755,6 +761,7 @@ public class DepositAccountWritePlatformServiceJpaRepositoryImpl implements Depo
             transaction = account.withdraw(transactionDTO, true, false, relaxingDaysConfigForPivotDate, refNo.toString(), null);
         }
         final Long newtransactionId = saveTransactionToGenerateTransactionId(transaction);
+        this.accountTierLimitCounterService.recordWithdrawal(transaction);
         boolean isInterestTransfer = false;
         final LocalDate postInterestOnDate = null;
         final boolean postReversals = false;
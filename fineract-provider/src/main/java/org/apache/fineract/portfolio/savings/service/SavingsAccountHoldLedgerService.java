@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+
+/**
+ * Ledger of amounts put on hold on savings accounts. Each hold transaction has one entry that tracks partial releases
+ * and an optional expiry, so that neither releasing nor expiring a hold has to walk the account's transaction history.
+ * The per-account total stays on the account itself ({@code savings_amount_on_hold}).
+ */
+public interface SavingsAccountHoldLedgerService {
+
+    void recordHold(Long savingsAccountId, Long holdTransactionId, BigDecimal amount, LocalDateTime expiresAt);
+
+    SavingsAccountHoldData findByHoldTransactionId(Long holdTransactionId);
+
+    /**
+     * Releases part or all of an active hold in a single conditional update; the entry becomes released once nothing
+     * is outstanding.
+     *
+     * @return false if the hold is no longer active or has less than {@code amount} outstanding, i.e. a concurrent
+     *         release got there first
+     */
+    boolean release(Long holdTransactionId, BigDecimal amount);
+
+    /**
+     * @return up to {@code limit} active holds that expired on or before {@code asOf}, with ids above {@code afterId},
+     *         in id order
+     */
+    List<SavingsAccountHoldData> retrieveExpiredHolds(LocalDateTime asOf, Long afterId, int limit);
+}
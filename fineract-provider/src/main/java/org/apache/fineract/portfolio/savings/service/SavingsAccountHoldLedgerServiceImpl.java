@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class SavingsAccountHoldLedgerServiceImpl implements SavingsAccountHoldLedgerService {
+
+    private static final String INSERT_SQL = "INSERT INTO m_savings_account_hold (savings_account_id, hold_transaction_id, amount,"
+            + " released_amount, status_enum, expires_at, created_date, last_modified_date) VALUES (?, ?, ?, 0, ?, ?, ?, ?)";
+
+    // status is assigned first: MySQL evaluates single-table SET clauses left to right against the updated row
+    private static final String RELEASE_SQL = """
+            UPDATE m_savings_account_hold
+            SET status_enum = CASE WHEN released_amount + ? >= amount THEN ? ELSE status_enum END,
+            released_amount = released_amount + ?, last_modified_date = ?
+            WHERE hold_transaction_id = ? AND status_enum = ? AND amount - released_amount >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void recordHold(final Long savingsAccountId, final Long holdTransactionId, final BigDecimal amount,
+            final LocalDateTime expiresAt) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.jdbcTemplate.update(INSERT_SQL, savingsAccountId, holdTransactionId, amount, SavingsAccountHoldStatus.ACTIVE.getValue(),
+                expiresAt, now, now);
+    }
+
+    @Override
+    public SavingsAccountHoldData findByHoldTransactionId(final Long holdTransactionId) {
+        final SavingsAccountHoldMapper rm = new SavingsAccountHoldMapper();
+        final String sql = "SELECT " + rm.schema() + " WHERE h.hold_transaction_id = ?";
+        final List<SavingsAccountHoldData> holds = this.jdbcTemplate.query(sql, rm, holdTransactionId); // NOSONAR
+        return holds.isEmpty() ? null : holds.get(0);
+    }
+
+    @Override
+    public boolean release(final Long holdTransactionId, final BigDecimal amount) {
+        return this.jdbcTemplate.update(RELEASE_SQL, amount, SavingsAccountHoldStatus.RELEASED.getValue(), amount,
+                DateUtils.getLocalDateTimeOfSystem(), holdTransactionId, SavingsAccountHoldStatus.ACTIVE.getValue(), amount) == 1;
+    }
+
+    @Override
+    public List<SavingsAccountHoldData> retrieveExpiredHolds(final LocalDateTime asOf, final Long afterId, final int limit) {
+        final SavingsAccountHoldMapper rm = new SavingsAccountHoldMapper();
+        final String sql = "SELECT " + rm.schema() + " WHERE h.status_enum = ? AND h.expires_at <= ? AND h.id > ? ORDER BY h.id LIMIT ?";
+        return this.jdbcTemplate.query(sql, rm, SavingsAccountHoldStatus.ACTIVE.getValue(), asOf, afterId, limit); // NOSONAR
+    }
+
+    private static final class SavingsAccountHoldMapper implements RowMapper<SavingsAccountHoldData> {
+
+        public String schema() {
+            return " h.id, h.savings_account_id, h.hold_transaction_id, h.amount, h.released_amount, h.status_enum, h.expires_at"
+                    + " FROM m_savings_account_hold h";
+        }
+
+        @Override
+        public SavingsAccountHoldData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new SavingsAccountHoldData(rs.getLong("id"), rs.getLong("savings_account_id"), rs.getLong("hold_transaction_id"),
+                    rs.getBigDecimal("amount"), rs.getBigDecimal("released_amount"),
+                    SavingsAccountHoldStatus.fromInt(JdbcSupport.getInteger(rs, "status_enum")),
+                    JdbcSupport.getLocalDateTime(rs, "expires_at"));
+        }
+    }
+}
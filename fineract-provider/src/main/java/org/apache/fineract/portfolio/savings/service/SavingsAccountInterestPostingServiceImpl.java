@@ -43,6 +43,7 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountChargesPaidByD
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionDataComparator;
 import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriodTransactionWindow;
 import org.apache.fineract.portfolio.tax.data.TaxComponentData;
 import org.apache.fineract.portfolio.tax.service.TaxUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -270,6 +271,11 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
                 savingsAccountData.getMinOverdraftForInterestCalculation());
         final MonetaryCurrency monetaryCurrency = MonetaryCurrency.fromCurrencyData(savingsAccountData.currency());
 
+        final List<SavingsAccountTransactionData> orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions(
+                savingsAccountData);
+        final PostingPeriodTransactionWindow<SavingsAccountTransactionData> transactionWindow = PostingPeriodTransactionWindow
+                .overData(orderedNonInterestPostingTransactions);
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -277,7 +283,7 @@ public class SavingsAccountInterestPostingServiceImpl implements SavingsAccountI
                 isUserPosting = true;
             }
             final PostingPeriod postingPeriod = PostingPeriod.createFromDTO(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(savingsAccountData), monetaryCurrency, compoundingPeriodType,
+                    transactionWindow.transactionsFor(periodInterval), monetaryCurrency, compoundingPeriodType,
                     interestCalculationType, interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate,
                     interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation,
                     isSavingsInterestPostingAtCurrentPeriodEnd, overdraftInterestRateAsFraction, minOverdraftForInterestCalculation,
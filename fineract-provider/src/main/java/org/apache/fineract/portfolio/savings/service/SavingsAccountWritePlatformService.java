@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Set;
@@ -113,6 +114,12 @@ public interface SavingsAccountWritePlatformService {
 
     CommandProcessingResult releaseAmount(Long savingsId, Long transactionId);
 
+    /**
+     * Releases {@code amount} of the hold placed by {@code transactionId}, or everything still on hold when
+     * {@code amount} is null. Holds missing from the hold ledger can only be released in full.
+     */
+    CommandProcessingResult releaseAmount(Long savingsId, Long transactionId, BigDecimal amount);
+
     CommandProcessingResult gsimActivate(Long gsimId, JsonCommand command);
 
     CommandProcessingResult gsimDeposit(Long gsimId, JsonCommand command);
@@ -34,6 +34,7 @@ import com.google.gson.JsonElement;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,6 +49,7 @@ import java.util.Set;
 import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.apache.fineract.accounting.journalentry.service.PostingReferenceDataReadService;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
@@ -64,8 +66,7 @@ import org.apache.fineract.infrastructure.dataqueries.data.StatusEnum;
 import org.apache.fineract.infrastructure.dataqueries.service.EntityDatatableChecksWritePlatformService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
-import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
-import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
@@ -79,6 +80,7 @@ import org.apache.fineract.portfolio.account.domain.StandingInstructionRepositor
 import org.apache.fineract.portfolio.account.domain.StandingInstructionStatus;
 import org.apache.fineract.portfolio.account.service.AccountAssociationsReadPlatformService;
 import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.business.accounttier.service.AccountTierLimitCounterService;
 import org.apache.fineract.portfolio.businessevent.domain.savings.SavingsActivateBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.savings.SavingsCloseBusinessEvent;
 import org.apache.fineract.portfolio.businessevent.domain.savings.SavingsPostInterestBusinessEvent;
@@ -100,6 +102,7 @@ import org.apache.fineract.portfolio.savings.SavingsTransactionBooleanValues;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountChargeDataValidator;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountDataValidator;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDataValidator;
@@ -147,7 +150,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final SavingsAccountTransactionDataValidator savingsAccountTransactionDataValidator;
     private final SavingsAccountChargeDataValidator savingsAccountChargeDataValidator;
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
-    private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepositoryWrapper;
+    private final PostingReferenceDataReadService postingReferenceDataReadService;
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final SavingsAccountDomainService savingsAccountDomainService;
     private final NoteRepository noteRepository;
@@ -166,6 +169,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final GSIMRepositoy gsimRepository;
     private final JdbcTemplate jdbcTemplate;
     private final SavingsAccountInterestPostingService savingsAccountInterestPostingService;
+    private final AccountTierLimitCounterService accountTierLimitCounterService;
+    private final SavingsAccountHoldLedgerService savingsAccountHoldLedgerService;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -175,7 +180,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final SavingsAccountTransactionDataValidator savingsAccountTransactionDataValidator,
             final SavingsAccountChargeDataValidator savingsAccountChargeDataValidator,
             final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
-            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepositoryWrapper,
+            final PostingReferenceDataReadService postingReferenceDataReadService,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final SavingsAccountDomainService savingsAccountDomainService, final NoteRepository noteRepository,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService, final HolidayRepositoryWrapper holidayRepository,
@@ -188,7 +193,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final EntityDatatableChecksWritePlatformService entityDatatableChecksWritePlatformService,
             final AppUserRepositoryWrapper appuserRepository, final StandingInstructionRepository standingInstructionRepository,
             final BusinessEventNotifierService businessEventNotifierService, final GSIMRepositoy gsimRepository,
-            final JdbcTemplate jdbcTemplate, final SavingsAccountInterestPostingService savingsAccountInterestPostingService) {
+            final JdbcTemplate jdbcTemplate, final SavingsAccountInterestPostingService savingsAccountInterestPostingService,
+            final AccountTierLimitCounterService accountTierLimitCounterService,
+            final SavingsAccountHoldLedgerService savingsAccountHoldLedgerService) {
         this.context = context;
         this.savingAccountRepositoryWrapper = savingAccountRepositoryWrapper;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -196,7 +203,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountTransactionDataValidator = savingsAccountTransactionDataValidator;
         this.savingsAccountChargeDataValidator = savingsAccountChargeDataValidator;
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
-        this.applicationCurrencyRepositoryWrapper = applicationCurrencyRepositoryWrapper;
+        this.postingReferenceDataReadService = postingReferenceDataReadService;
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.savingsAccountDomainService = savingsAccountDomainService;
         this.noteRepository = noteRepository;
@@ -217,6 +224,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.gsimRepository = gsimRepository;
         this.jdbcTemplate = jdbcTemplate;
         this.savingsAccountInterestPostingService = savingsAccountInterestPostingService;
+        this.accountTierLimitCounterService = accountTierLimitCounterService;
+        this.savingsAccountHoldLedgerService = savingsAccountHoldLedgerService;
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(SavingsAccountWritePlatformServiceJpaRepositoryImpl.class);
@@ -347,9 +356,11 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountTransactionDataValidator.validate(command);
         boolean isGsim = false;
 
-        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
+        final LocalDate transactionDate = command.localDateValueOfParameterNamed("transactionDate");
+        final BigDecimal transactionAmount = command.bigDecimalValueOfParameterNamed("transactionAmount");
 
-        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
+        final SavingsAccount account = this.savingAccountAssembler.assembleForTransaction(savingsId, transactionDate);
+        final boolean backdatedTxnsAllowedTill = account.isTransactionsLoadedFromPivot();
 
         if (account.getGsim() != null) {
             isGsim = true;
@@ -360,9 +371,6 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Locale locale = command.extractLocale();
         final DateTimeFormatter fmt = DateTimeFormatter.ofPattern(command.dateFormat()).withLocale(locale);
 
-        final LocalDate transactionDate = command.localDateValueOfParameterNamed("transactionDate");
-        final BigDecimal transactionAmount = command.bigDecimalValueOfParameterNamed("transactionAmount");
-
         this.savingsAccountTransactionDataValidator.validateTransactionWithPivotDate(transactionDate, account);
 
         final Map<String, Object> changes = new LinkedHashMap<>();
@@ -427,9 +435,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         final Map<String, Object> changes = new LinkedHashMap<>();
         final PaymentDetail paymentDetail = this.paymentDetailWritePlatformService.createAndPersistPaymentDetail(command, changes);
 
-        final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
-
-        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
+        final SavingsAccount account = this.savingAccountAssembler.assembleForTransaction(savingsId, transactionDate);
+        final boolean backdatedTxnsAllowedTill = account.isTransactionsLoadedFromPivot();
 
         if (account.getGsim() != null) {
             isGsim = true;
@@ -773,6 +780,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             throwValidationForActiveStatus(SavingsApiConstants.undoTransactionAction);
         }
         account.undoTransaction(transactionId);
+        this.accountTierLimitCounterService.reverseWithdrawal(savingsAccountTransaction);
 
         // undoing transaction is withdrawal then undo withdrawal fee
         // transaction if any
@@ -867,6 +875,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
 
         final MathContext mc = new MathContext(10, MoneyHelper.getRoundingMode());
         account.undoTransaction(transactionId);
+        this.accountTierLimitCounterService.reverseWithdrawal(savingsAccountTransaction);
 
         // for undo withdrawal fee
         final SavingsAccountTransaction nextSavingsAccountTransaction = this.savingsAccountTransactionRepository
@@ -887,6 +896,7 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             transaction = account.withdraw(transactionDTO, true, false, relaxingDaysConfigForPivotDate, refNo.toString(), null);
         }
         final Long newtransactionId = saveTransactionToGenerateTransactionId(transaction);
+        this.accountTierLimitCounterService.recordWithdrawal(transaction);
         final LocalDate postInterestOnDate = null;
         boolean postReversals = false;
         if (account.isBeforeLastPostingPeriod(transactionDate, false)
@@ -1534,9 +1544,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final Set<Long> existingReversedTransactionIds, final boolean backdatedTxnsAllowedTill) {
 
         final MonetaryCurrency currency = savingsAccount.getCurrency();
-        final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepositoryWrapper.findOneWithNotFoundDetection(currency);
+        final CurrencyData currencyData = this.postingReferenceDataReadService.retrieveCurrency(currency);
         boolean isAccountTransfer = false;
-        final Map<String, Object> accountingBridgeData = savingsAccount.deriveAccountingBridgeData(applicationCurrency.toData(),
+        final Map<String, Object> accountingBridgeData = savingsAccount.deriveAccountingBridgeData(currencyData,
                 existingTransactionIds, existingReversedTransactionIds, isAccountTransfer, backdatedTxnsAllowedTill);
         this.journalEntryWritePlatformService.createJournalEntriesForSavings(accountingBridgeData);
     }
@@ -1852,6 +1862,11 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
 
         this.savingsAccountTransactionRepository.saveAndFlush(transaction);
 
+        final Integer expiresInMinutes = command.integerValueOfParameterNamed(SavingsApiConstants.holdExpiresInMinutesParamName);
+        final LocalDateTime expiresAt = expiresInMinutes == null ? null
+                : DateUtils.getLocalDateTimeOfSystem().plusMinutes(expiresInMinutes);
+        this.savingsAccountHoldLedgerService.recordHold(savingsId, transaction.getId(), amount, expiresAt);
+
         if (backdatedTxnsAllowedTill) {
             // Check again whether transactions are modified
             this.savingsAccountTransactionRepository.saveAll(account.getSavingsAccountTransactionsWithPivotConfig());
@@ -1866,15 +1881,35 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     @Transactional
     @Override
     public CommandProcessingResult releaseAmount(final Long savingsId, final Long savingsTransactionId) {
+        return releaseAmount(savingsId, savingsTransactionId, null);
+    }
 
-        final AppUser submittedBy = this.context.authenticatedUser();
+    @Transactional
+    @Override
+    public CommandProcessingResult releaseAmount(final Long savingsId, final Long savingsTransactionId, final BigDecimal amount) {
+
+        final AppUser submittedBy = getAppUserIfPresent();
         SavingsAccountTransaction holdTransaction = this.savingsAccountTransactionRepository
                 .findOneByIdAndSavingsAccountId(savingsTransactionId, savingsId);
 
-        holdTransaction.updateReason(null);
+        // holds placed before the ledger existed, and not seeded into it, can only be released in full
+        final SavingsAccountHoldData hold = this.savingsAccountHoldLedgerService.findByHoldTransactionId(savingsTransactionId);
+        BigDecimal outstandingAmount = null;
+        if (holdTransaction != null) {
+            outstandingAmount = hold == null ? holdTransaction.getAmount() : hold.getOutstandingAmount();
+        }
+        if (hold == null && amount != null && outstandingAmount != null && amount.compareTo(outstandingAmount) < 0) {
+            throw new GeneralPlatformDomainRuleException("error.msg.savings.hold.partial.release.not.supported",
+                    "Amount on hold for transaction " + savingsTransactionId + " can only be released in full", savingsTransactionId);
+        }
+        final BigDecimal releaseAmount = amount == null ? outstandingAmount : amount;
 
         final SavingsAccountTransaction transaction = this.savingsAccountTransactionDataValidator
-                .validateReleaseAmountAndAssembleForm(holdTransaction, submittedBy);
+                .validateReleaseAmountAndAssembleForm(holdTransaction, releaseAmount, outstandingAmount, submittedBy);
+        final boolean fullyReleased = releaseAmount.compareTo(outstandingAmount) == 0;
+        if (fullyReleased) {
+            holdTransaction.updateReason(null);
+        }
 
         final boolean backdatedTxnsAllowedTill = this.savingAccountAssembler.getPivotConfigStatus();
         final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId, backdatedTxnsAllowedTill);
@@ -1892,8 +1927,15 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountTransactionDataValidator.validateTransactionWithPivotDate(transaction.getTransactionLocalDate(), account);
         account.releaseOnHoldAmount(transaction.getAmount());
 
+        if (hold != null && !this.savingsAccountHoldLedgerService.release(savingsTransactionId, releaseAmount)) {
+            throw new PlatformDataIntegrityException("error.msg.savings.hold.concurrent.release",
+                    "Amount on hold for transaction " + savingsTransactionId + " was released by a concurrent request");
+        }
+
         this.savingsAccountTransactionRepository.saveAndFlush(transaction);
-        holdTransaction.updateReleaseId(transaction.getId());
+        if (fullyReleased) {
+            holdTransaction.updateReleaseId(transaction.getId());
+        }
 
         if (backdatedTxnsAllowedTill) {
             this.savingsAccountTransactionRepository.saveAll(account.getSavingsAccountTransactionsWithPivotConfig());
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes writes to the same savings account inside this node before they reach the database.
+ *
+ * Hot accounts (merchant collection, settlement and suspense wallets) otherwise have every concurrent request open a
+ * transaction, borrow a pooled connection and then wait on the account row lock. Taking an in-memory lock first lets
+ * those requests queue on a thread instead of on a connection. The database row lock remains the source of truth across
+ * nodes; the in-memory lock only shapes the queue locally.
+ *
+ * Each account has its own fair lock, so writers to one account are served in arrival order and never wait behind a
+ * busy account they merely share a hash with. A lock lives only while some request holds or waits for it.
+ *
+ * Must be entered outside any transaction so that no connection is held while waiting.
+ */
+@Slf4j
+@Component
+public class SavingsAccountWriteSerializer {
+
+    private static final long MAX_WAIT_SECONDS = 30L;
+
+    private final ConcurrentHashMap<Long, AccountLock> accountLocks = new ConcurrentHashMap<>();
+
+    public <T> T execute(final Collection<Long> savingsAccountIds, final Supplier<T> work) {
+        if (savingsAccountIds == null || savingsAccountIds.isEmpty()) {
+            return work.get();
+        }
+        // ascending id order, so two commands touching the same pair of accounts can never take them in opposite orders
+        final List<Long> accountIds = new ArrayList<>(new TreeSet<>(savingsAccountIds));
+        final List<AccountLock> locks = new ArrayList<>(accountIds.size());
+        for (final Long accountId : accountIds) {
+            locks.add(this.accountLocks.compute(accountId, (id, lock) -> (lock == null ? new AccountLock() : lock).retain()));
+        }
+        int acquired = 0;
+        try {
+            acquired = acquire(locks, accountIds);
+            return work.get();
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                if (i < acquired) {
+                    locks.get(i).lock.unlock();
+                }
+                this.accountLocks.computeIfPresent(accountIds.get(i), (id, lock) -> lock.release() ? null : lock);
+            }
+        }
+    }
+
+    private static int acquire(final List<AccountLock> locks, final Collection<Long> savingsAccountIds) {
+        int acquired = 0;
+        try {
+            for (final AccountLock lock : locks) {
+                if (!lock.lock.tryLock(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    // fall through to the database row lock rather than failing the request
+                    log.warn("Timed out queueing for savings account(s) {}, continuing on the database lock only", savingsAccountIds);
+                    break;
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = acquired - 1; i >= 0; i--) {
+                locks.get(i).lock.unlock();
+            }
+            throw new IllegalStateException("Interrupted while waiting to write to savings account(s) " + savingsAccountIds, e);
+        }
+        return acquired;
+    }
+
+    /**
+     * A fair lock and the number of requests holding or waiting for it; only changed inside the map's compute functions.
+     */
+    private static final class AccountLock {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int users;
+
+        private AccountLock retain() {
+            this.users++;
+            return this;
+        }
+
+        private boolean release() {
+            return --this.users == 0;
+        }
+    }
+}
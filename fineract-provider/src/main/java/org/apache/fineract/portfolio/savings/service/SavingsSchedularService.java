@@ -27,4 +27,8 @@ public interface SavingsSchedularService {
 
     void updateSavingsDormancyStatus() throws JobExecutionException;
 
+    void updateSavingsBalanceCheckpoints() throws JobExecutionException;
+
+    void releaseExpiredSavingsHolds() throws JobExecutionException;
+
 }
@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.savings.service;
 import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType.ACTIVE;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,9 +43,19 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountBalanceCheckpoint;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountBalanceCheckpointRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
 import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -55,6 +66,14 @@ import org.springframework.transaction.support.TransactionTemplate;
 @RequiredArgsConstructor
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    /**
+     * Transactions dated within this many days of the business date stay after the checkpoint, so ordinary backdating
+     * still works on checkpointed accounts.
+     */
+    private static final int BALANCE_CHECKPOINT_LAG_DAYS = 7;
+
+    private static final int EXPIRED_HOLD_BATCH_SIZE = 500;
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
@@ -63,6 +82,10 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     private final ConfigurationDomainService configurationDomainService;
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
+    private final SavingsAccountBalanceCheckpointRepository balanceCheckpointRepository;
+    private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
+    private final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
+    private final SavingsAccountHoldLedgerService savingsAccountHoldLedgerService;
     private Queue<List<SavingsAccountData>> queue = new ArrayDeque<>();
     private int queueSize = 1;
 
@@ -270,4 +293,96 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
             }
         }
     }
+
+    @Override
+    @CronTarget(jobName = JobName.UPDATE_SAVINGS_BALANCE_CHECKPOINTS)
+    public void updateSavingsBalanceCheckpoints() throws JobExecutionException {
+        final LocalDate checkpointDate = DateUtils.getBusinessLocalDate().minusDays(BALANCE_CHECKPOINT_LAG_DAYS);
+        final String sql = """
+                select sa.id from m_savings_account sa
+                left join m_savings_account_balance_checkpoint cp on cp.savings_account_id = sa.id
+                where sa.status_enum = ? and sa.deposit_type_enum = ? and sa.interest_posted_till_date is null
+                and sa.withhold_tax = false and coalesce(sa.nominal_annual_interest_rate, 0) = 0
+                and coalesce(sa.nominal_annual_interest_rate_overdraft, 0) = 0
+                and exists (select 1 from m_savings_account_transaction tr where tr.savings_account_id = sa.id
+                and tr.transaction_date <= ? and tr.id > coalesce(cp.last_transaction_id, 0))
+                order by sa.id
+                """;
+        final List<Long> savingsIds = this.jdbcTemplate.queryForList(sql, Long.class, ACTIVE.getValue(),
+                DepositAccountType.SAVINGS_DEPOSIT.getValue(), checkpointDate);
+
+        final List<Throwable> errors = new ArrayList<>();
+        for (final Long savingsId : savingsIds) {
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> updateSavingsBalanceCheckpoint(savingsId, checkpointDate));
+            } catch (final RuntimeException e) {
+                log.error("Failed to update balance checkpoint of savings account {}", savingsId, e);
+                errors.add(e);
+            }
+        }
+        log.info("{}: Savings balance checkpoints updated: {}", ThreadLocalContextUtil.getTenant().getName(),
+                savingsIds.size() - errors.size());
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.RELEASE_EXPIRED_SAVINGS_HOLDS)
+    public void releaseExpiredSavingsHolds() throws JobExecutionException {
+        final LocalDateTime asOf = DateUtils.getLocalDateTimeOfSystem();
+        final List<Throwable> errors = new ArrayList<>();
+        int released = 0;
+        Long afterId = 0L;
+        List<SavingsAccountHoldData> holds;
+        do {
+            holds = this.savingsAccountHoldLedgerService.retrieveExpiredHolds(asOf, afterId, EXPIRED_HOLD_BATCH_SIZE);
+            for (final SavingsAccountHoldData hold : holds) {
+                try {
+                    // each release commits on its own, so one failing account does not hold back the batch
+                    this.savingsAccountWritePlatformService.releaseAmount(hold.getSavingsAccountId(), hold.getHoldTransactionId(), null);
+                    released++;
+                } catch (final RuntimeException e) {
+                    log.error("Failed to release expired hold {} of savings account {}", hold.getHoldTransactionId(),
+                            hold.getSavingsAccountId(), e);
+                    errors.add(e);
+                }
+            }
+            if (!holds.isEmpty()) {
+                afterId = holds.get(holds.size() - 1).getId();
+            }
+        } while (holds.size() == EXPIRED_HOLD_BATCH_SIZE);
+
+        log.info("{}: Expired savings holds released: {}", ThreadLocalContextUtil.getTenant().getName(), released);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private void updateSavingsBalanceCheckpoint(final Long savingsId, final LocalDate checkpointDate) {
+        final SavingsAccount account = this.savingsAccountRepository.findOneWithNotFoundDetection(savingsId);
+        final MonetaryCurrency currency = account.getCurrency();
+
+        SavingsAccountBalanceCheckpoint balanceCheckpoint = this.balanceCheckpointRepository.findBySavingsAccountId(savingsId);
+        List<SavingsAccountTransaction> transactions;
+        if (balanceCheckpoint == null) {
+            balanceCheckpoint = SavingsAccountBalanceCheckpoint.startFor(savingsId);
+            transactions = this.savingsAccountTransactionRepository.findTransactionsForCheckpoint(savingsId);
+        } else if (!balanceCheckpoint.getCheckpointDate().isBefore(checkpointDate)) {
+            return;
+        } else {
+            transactions = this.savingsAccountTransactionRepository.findTransactionsAfterCheckpointDate(savingsId,
+                    balanceCheckpoint.getCheckpointDate());
+            final Money derivedBalance = Money.of(currency,
+                    balanceCheckpoint.deriveAccountBalance(currency, this.savingsAccountTransactionSummaryWrapper, transactions));
+            if (derivedBalance.isNotEqualTo(account.getSummary().getAccountBalance(currency))) {
+                // history before the checkpoint changed since it was taken
+                balanceCheckpoint.reset();
+                transactions = this.savingsAccountTransactionRepository.findTransactionsForCheckpoint(savingsId);
+            }
+        }
+
+        balanceCheckpoint.advanceTo(checkpointDate, currency, this.savingsAccountTransactionSummaryWrapper, transactions);
+        this.balanceCheckpointRepository.save(balanceCheckpoint);
+    }
 }
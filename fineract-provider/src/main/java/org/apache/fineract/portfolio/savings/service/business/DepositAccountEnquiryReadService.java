@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service.business;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.portfolio.savings.data.business.DepositAccountBusinessData;
+
+/**
+ * Fast path for name and balance enquiries by account number, as issued by the switch for every inbound and outbound
+ * transfer.
+ */
+public interface DepositAccountEnquiryReadService {
+
+    DepositAccountBusinessData retrieveName(String accountNo);
+
+    DepositAccountBusinessData retrieveBalance(String accountNo);
+
+    /**
+     * Resolves many accounts at once, in the order requested. Unknown account numbers are left out of the result.
+     */
+    List<DepositAccountBusinessData> retrieveBalances(Collection<String> accountNos);
+}
@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service.business;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.codes.data.CodeValueData;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountStatusEnumData;
+import org.apache.fineract.portfolio.savings.data.business.DepositAccountBusinessData;
+import org.apache.fineract.portfolio.savings.data.business.DepositAccountEnquiryData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountEnquiryCache;
+import org.apache.fineract.portfolio.savings.exception.DepositAccountNotFoundException;
+import org.apache.fineract.portfolio.savings.service.SavingsEnumerations;
+import org.springframework.cache.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serves enquiries from the "depositAccountEnquiry" cache (account identity, holder and product keyed by account
+ * number) and reads status and balances fresh from <code>m_savings_account</code> by primary key, avoiding the
+ * <code>m_saving_view</code> aggregate over the transaction table. The cache is evicted on the node that saved the
+ * account only, so nothing another node may change and a transfer decision depends on is cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class DepositAccountEnquiryReadServiceImpl implements DepositAccountEnquiryReadService, SavingsAccountEnquiryCache {
+
+    private static final String CACHE_NAME = "depositAccountEnquiry";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final EnquiryMapper enquiryMapper = new EnquiryMapper();
+    private final StateMapper stateMapper = new StateMapper();
+
+    @Override
+    public DepositAccountBusinessData retrieveName(final String accountNo) {
+        final DepositAccountEnquiryData enquiry = retrieveEnquiry(accountNo);
+        return DepositAccountBusinessData.nameEnquiry(enquiry, retrieveState(enquiry).status);
+    }
+
+    @Override
+    public DepositAccountBusinessData retrieveBalance(final String accountNo) {
+        final DepositAccountEnquiryData enquiry = retrieveEnquiry(accountNo);
+        final AccountState state = retrieveState(enquiry);
+        return DepositAccountBusinessData.balanceEnquiry(enquiry, state.status, state.available, state.ledger);
+    }
+
+    private AccountState retrieveState(final DepositAccountEnquiryData enquiry) {
+        final List<AccountState> states = this.jdbcTemplate.query("select " + this.stateMapper.schema() + " where sa.id = ?",
+                this.stateMapper, enquiry.getId());
+        if (states.isEmpty()) {
+            evictNow(enquiry.getAccountNo());
+            throw new DepositAccountNotFoundException("Deposit account with account " + enquiry.getAccountNo() + " does not exist");
+        }
+        return states.get(0);
+    }
+
+    @Override
+    public List<DepositAccountBusinessData> retrieveBalances(final Collection<String> accountNos) {
+        final List<DepositAccountBusinessData> result = new ArrayList<>();
+        if (accountNos == null || accountNos.isEmpty()) {
+            return result;
+        }
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        final Map<String, DepositAccountEnquiryData> enquiries = new HashMap<>();
+        final List<String> misses = new ArrayList<>();
+        for (final String accountNo : new LinkedHashSet<>(accountNos)) {
+            final DepositAccountEnquiryData cached = cache == null ? null : cache.get(cacheKey(accountNo), DepositAccountEnquiryData.class);
+            if (cached != null) {
+                enquiries.put(accountNo, cached);
+            } else {
+                misses.add(accountNo);
+            }
+        }
+        if (!misses.isEmpty()) {
+            final List<DepositAccountEnquiryData> loaded = this.namedParameterJdbcTemplate.query(
+                    "select " + this.enquiryMapper.schema() + " where sa.account_no in (:accountNos)",
+                    new MapSqlParameterSource("accountNos", misses), this.enquiryMapper);
+            for (final DepositAccountEnquiryData enquiry : loaded) {
+                enquiries.put(enquiry.getAccountNo(), enquiry);
+                if (cache != null) {
+                    cache.put(cacheKey(enquiry.getAccountNo()), enquiry);
+                }
+            }
+        }
+        if (enquiries.isEmpty()) {
+            return result;
+        }
+
+        final List<Long> ids = new ArrayList<>(enquiries.size());
+        for (final DepositAccountEnquiryData enquiry : enquiries.values()) {
+            ids.add(enquiry.getId());
+        }
+        final Map<Long, AccountState> states = new HashMap<>();
+        final List<AccountState> loadedStates = this.namedParameterJdbcTemplate.query("select " + this.stateMapper.schema()
+                + " where sa.id in (:ids)", new MapSqlParameterSource("ids", ids), this.stateMapper);
+        for (final AccountState state : loadedStates) {
+            states.put(state.id, state);
+        }
+
+        for (final String accountNo : new LinkedHashSet<>(accountNos)) {
+            final DepositAccountEnquiryData enquiry = enquiries.get(accountNo);
+            final AccountState state = enquiry == null ? null : states.get(enquiry.getId());
+            if (state != null) {
+                result.add(DepositAccountBusinessData.balanceEnquiry(enquiry, state.status, state.available, state.ledger));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(final String accountNo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(accountNo);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                evictNow(accountNo);
+            }
+        });
+    }
+
+    private void evictNow(final String accountNo) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null && accountNo != null) {
+            cache.evict(cacheKey(accountNo));
+        }
+    }
+
+    private DepositAccountEnquiryData retrieveEnquiry(final String accountNo) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        final String key = cacheKey(accountNo);
+        DepositAccountEnquiryData enquiry = cache == null ? null : cache.get(key, DepositAccountEnquiryData.class);
+        if (enquiry == null) {
+            final List<DepositAccountEnquiryData> loaded = this.jdbcTemplate.query(
+                    "select " + this.enquiryMapper.schema() + " where sa.account_no = ?", this.enquiryMapper, accountNo);
+            if (loaded.isEmpty()) {
+                throw new DepositAccountNotFoundException("Deposit account with account " + accountNo + " does not exist");
+            }
+            enquiry = loaded.get(0);
+            if (cache != null) {
+                cache.put(key, enquiry);
+            }
+        }
+        return enquiry;
+    }
+
+    private static String cacheKey(final String accountNo) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier().concat(accountNo);
+    }
+
+    private static final class EnquiryMapper implements RowMapper<DepositAccountEnquiryData> {
+
+        private final String schema;
+
+        EnquiryMapper() {
+            final StringBuilder sqlBuilder = new StringBuilder(400);
+            sqlBuilder.append(" sa.id, sa.account_no accountNo, sa.deposit_type_enum depositType, ");
+            sqlBuilder.append(" sa.product_id productId, sp.name productName, c.id clientId, c.display_name displayName, ");
+            sqlBuilder.append(" slk.bvn, c.client_type_cv_id clienttypeId, cvclienttype.code_value as clienttypeValue ");
+            sqlBuilder.append(" from m_savings_account sa ");
+            sqlBuilder.append(" join m_client c on c.id = sa.client_id ");
+            sqlBuilder.append(" join m_savings_product sp on sp.id = sa.product_id ");
+            sqlBuilder.append(" left join secondLevelKYC slk on slk.client_id = c.id ");
+            sqlBuilder.append(" left join m_code_value cvclienttype on cvclienttype.id = c.client_type_cv_id ");
+            this.schema = sqlBuilder.toString();
+        }
+
+        public String schema() {
+            return this.schema;
+        }
+
+        @Override
+        public DepositAccountEnquiryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final String accountNo = rs.getString("accountNo");
+            final EnumOptionData depositType = SavingsEnumerations.depositType(rs.getInt("depositType"));
+            final Long clientId = JdbcSupport.getLong(rs, "clientId");
+            final String clientName = rs.getString("displayName");
+            final String bvn = rs.getString("bvn");
+
+            CodeValueData clientType = null;
+            final Long clienttypeId = JdbcSupport.getLong(rs, "clienttypeId");
+            if (clienttypeId != null && clienttypeId > 0) {
+                clientType = CodeValueData.instance(clienttypeId, rs.getString("clienttypeValue"));
+            }
+
+            final Long productId = rs.getLong("productId");
+            final String productName = rs.getString("productName");
+            return new DepositAccountEnquiryData(id, accountNo, depositType, clientId, clientName, bvn, clientType, productId, productName);
+        }
+    }
+
+    private static final class AccountState {
+
+        private final Long id;
+        private final SavingsAccountStatusEnumData status;
+        private final BigDecimal ledger;
+        private final BigDecimal available;
+
+        AccountState(final Long id, final SavingsAccountStatusEnumData status, final BigDecimal ledger, final BigDecimal available) {
+            this.id = id;
+            this.status = status;
+            this.ledger = ledger;
+            this.available = available;
+        }
+    }
+
+    private static final class StateMapper implements RowMapper<AccountState> {
+
+        public String schema() {
+            return " sa.id, sa.status_enum statusEnum, sa.account_balance_derived ledgerBalance, "
+                    + " sa.total_savings_amount_on_hold amountOnHold, sa.on_hold_funds_derived onHoldFunds from m_savings_account sa ";
+        }
+
+        @Override
+        public AccountState mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final SavingsAccountStatusEnumData status = SavingsEnumerations.status(JdbcSupport.getInteger(rs, "statusEnum"));
+            final BigDecimal ledgerBalance = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "ledgerBalance");
+            final BigDecimal amountOnHold = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "amountOnHold");
+            final BigDecimal onHoldFunds = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "onHoldFunds");
+            // holds placed on the account and funds held as guarantee (lien) are not available for withdrawal
+            return new AccountState(id, status, ledgerBalance, ledgerBalance.subtract(amountOnHold).subtract(onHoldFunds));
+        }
+    }
+}
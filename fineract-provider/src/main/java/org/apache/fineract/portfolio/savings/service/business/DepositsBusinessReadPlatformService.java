@@ -19,6 +19,8 @@
 package org.apache.fineract.portfolio.savings.service.business;
 
 import com.google.gson.JsonObject;
+import java.util.Collection;
+import java.util.List;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.business.SearchParametersBusiness;
 import org.apache.fineract.portfolio.savings.data.business.DepositAccountBusinessData;
@@ -35,6 +37,8 @@ public interface DepositsBusinessReadPlatformService {
 
     DepositAccountBusinessData retrieveName(final String accountNo);
 
+    List<DepositAccountBusinessData> retrieveBalances(final Collection<String> accountNos);
+
     Page<JsonObject> retrieveAllSavingsAmountOnHold(final SearchParametersBusiness searchParameters);
 
     JsonObject retrieveSavingsAmountOnHold(final Long savingsAmountOnHoldId);
@@ -50,12 +50,12 @@ import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
+import org.apache.fineract.organisation.office.service.OfficeHierarchySqlBuilder;
 import org.apache.fineract.portfolio.client.api.ClientApiConstants;
 import org.apache.fineract.portfolio.savings.SavingsApiConstants;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountStatusEnumData;
 import org.apache.fineract.portfolio.savings.data.business.DepositAccountBusinessData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
-import org.apache.fineract.portfolio.savings.exception.DepositAccountNotFoundException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountTransactionNotFoundException;
 import org.apache.fineract.portfolio.savings.service.SavingsEnumerations;
 import org.apache.fineract.simplifytech.data.GeneralConstants;
@@ -83,6 +83,7 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
 
     private final ColumnValidator columnValidator;
+    private final DepositAccountEnquiryReadService depositAccountEnquiryReadService;
 
     @Override
     @CronTarget(jobName = JobName.CREATE_RECONCILIATION_WALLET)
@@ -163,10 +164,9 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
     @Transactional(readOnly = true)
     public Page<DepositAccountBusinessData> retrieveAll(final SearchParametersBusiness searchParameters) {
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
-        List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString));
+        List<Object> paramList = new ArrayList<>(Arrays.asList(userOfficeId));
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select ");
         sqlBuilder.append(sqlGenerator.calcFoundRows());
@@ -174,7 +174,7 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
         sqlBuilder.append(this.depositViewMapper.schema());
 
         sqlBuilder.append(" join m_office o on o.id = ms.office_id");
-        sqlBuilder.append(" where o.hierarchy like ?");
+        sqlBuilder.append(" where ").append(OfficeHierarchySqlBuilder.officeUnder("o.id"));
 
         if (searchParameters != null) {
 
@@ -290,61 +290,34 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
     @Override
     public DepositAccountBusinessData retrieveBalance(String accountNo) {
         this.context.authenticatedUser();
-        try {
-            final StringBuilder sqlBuilder = new StringBuilder(200);
-            sqlBuilder.append("select ");
-            sqlBuilder.append(this.depositViewMapper.schema());
-            sqlBuilder.append(" WHERE ms.account_no=? ");
-
-            String sql = sqlBuilder.toString();
-
-            final DepositAccountBusinessData depositAccountBusinessData = this.jdbcTemplate.queryForObject(sql, this.depositViewMapper,
-                    accountNo);
-            final DepositAccountBusinessData accountBusinessData = DepositAccountBusinessData.retrieveBalance(depositAccountBusinessData);
-            return accountBusinessData;
-
-        } catch (DataAccessException e) {
-            log.warn("retrieveBalance: {}", e);
-            throw new DepositAccountNotFoundException("Deposit account with account " + accountNo + " does not exist");
-        }
+        return this.depositAccountEnquiryReadService.retrieveBalance(accountNo);
     }
 
     @Override
     public DepositAccountBusinessData retrieveName(String accountNo) {
         this.context.authenticatedUser();
-        try {
-            final StringBuilder sqlBuilder = new StringBuilder(200);
-            sqlBuilder.append("select ");
-            sqlBuilder.append(this.depositViewMapper.schema());
-            sqlBuilder.append(" WHERE ms.account_no=? ");
-
-            String sql = sqlBuilder.toString();
-
-            final DepositAccountBusinessData depositAccountBusinessData = this.jdbcTemplate.queryForObject(sql, this.depositViewMapper,
-                    accountNo);
-            final DepositAccountBusinessData accountBusinessData = DepositAccountBusinessData.retrieveName(depositAccountBusinessData);
-            return accountBusinessData;
+        return this.depositAccountEnquiryReadService.retrieveName(accountNo);
+    }
 
-        } catch (DataAccessException e) {
-            log.warn("retrieveName: {}", e);
-            throw new DepositAccountNotFoundException("Deposit account with account " + accountNo + " does not exist");
-        }
+    @Override
+    public List<DepositAccountBusinessData> retrieveBalances(final Collection<String> accountNos) {
+        this.context.authenticatedUser();
+        return this.depositAccountEnquiryReadService.retrieveBalances(accountNos);
     }
 
     @Override
     public Page<JsonObject> retrieveAllSavingsAmountOnHold(SearchParametersBusiness searchParameters) {
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
-        List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString));
+        List<Object> paramList = new ArrayList<>(Arrays.asList(userOfficeId));
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select ");
         sqlBuilder.append(sqlGenerator.calcFoundRows());
         sqlBuilder.append(" ");
         sqlBuilder.append(this.savingsAmountOnHoldDataMapper.schema());
 
-        sqlBuilder.append(" where sav.hierarchy like ? ");
+        sqlBuilder.append(" where ").append(OfficeHierarchySqlBuilder.officeUnder("sav.office_id")).append(' ');
 
         if (searchParameters != null) {
 
@@ -460,7 +433,8 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
                     " sav.id, sav.savings_account_id, sav.amount, sav.account_no, sav.product_id, sav.product_name, sav.client_id, "
                             + " sav.display_name, sav.office_id, sav.office_name, sav.mobile_no, sav.email_address, sav.bvn, sav.nin, "
                             + " sav.tin, sav.alternateMobileNumber, sav.appuser_id, sav.originator, sav.reason_for_block, "
-                            + " sav.created_date from m_savings_amount_on_hold_view sav ");
+                            + " sav.created_date, hold.released_amount, hold.expires_at from m_savings_amount_on_hold_view sav "
+                            + " left join m_savings_account_hold hold on hold.hold_transaction_id = sav.id ");
 
             return accountsSummary.toString();
         }
@@ -487,6 +461,8 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
             final Long appuserId = rs.getLong("appuser_id");
             final String originator = rs.getString("originator");
             final LocalDateTime createdDateTime = JdbcSupport.getLocalDateTime(rs, "created_date");
+            final BigDecimal releasedAmount = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "released_amount");
+            final LocalDateTime expiresAt = JdbcSupport.getLocalDateTime(rs, "expires_at");
 
             final JsonObject savingsAmountOnHold = new JsonObject();
             savingsAmountOnHold.addProperty("id", id);
@@ -508,6 +484,11 @@ public class DepositsBusinessReadPlatformServiceImpl implements DepositsBusiness
             savingsAmountOnHold.addProperty("originator", originator);
             savingsAmountOnHold.addProperty("createdDateTime", createdDateTime.toString());
             savingsAmountOnHold.addProperty("reasonForBlock", reasonForBlock);
+            savingsAmountOnHold.addProperty("releasedAmount", releasedAmount);
+            savingsAmountOnHold.addProperty("outstandingAmount", amount.subtract(releasedAmount));
+            if (expiresAt != null) {
+                savingsAmountOnHold.addProperty("expiresAt", expiresAt.toString());
+            }
 
             return savingsAmountOnHold;
         }
@@ -25,6 +25,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -32,6 +33,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.commands.service.CommandIdempotencyService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.portfolio.account.api.business.AccountTransfersBusinessApiResource;
 import org.apache.fineract.portfolio.client.exception.ClientNotFoundException;
@@ -81,10 +83,11 @@ public class SelfAccountTransfersBusinessApiResource {
     @RequestBody(required = true)
     @ApiResponse(responseCode = "200", description = "OK")
     public String create(@PathParam("clientId") @Parameter(description = "clientId") final Long clientId,
+            @HeaderParam(CommandIdempotencyService.IDEMPOTENCY_KEY_HEADER) final String idempotencyKey,
             @Parameter(hidden = true) final String apiRequestBodyAsJson) {
         validateAppuserClientsMapping(clientId);
 
-        return this.accountTransfersBusinessApiResource.create(apiRequestBodyAsJson);
+        return this.accountTransfersBusinessApiResource.create(idempotencyKey, apiRequestBodyAsJson);
     }
 
     private void validateAppuserClientsMapping(final Long clientId) {
@@ -60,6 +60,7 @@ import org.apache.fineract.infrastructure.core.service.GmailBackedPlatformEmailS
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.security.service.RandomPasswordGenerator;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
 import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobService;
@@ -71,6 +72,7 @@ import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
 import org.apache.fineract.portfolio.client.domain.ClientStatus;
 import org.apache.fineract.portfolio.client.domain.LegalForm;
 import org.apache.fineract.portfolio.client.exception.ClientNotFoundException;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexService;
 import org.apache.fineract.portfolio.group.domain.Group;
 import org.apache.fineract.portfolio.self.registration.SelfServiceApiConstants;
 import org.apache.fineract.portfolio.self.registration.domain.SelfServiceRegistration;
@@ -136,6 +138,7 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
     private final AccountNumberFormatRepositoryWrapper accountNumberFormatRepository;
     private final AccountNumberGenerator accountNumberGenerator;
     private final AppUserExtensionRepositoryWrapper appUserExtensionRepositoryWrapper;
+    private final ClientIdentityIndexService clientIdentityIndexService;
 
     @Autowired
     public SelfServiceRegistrationWritePlatformServiceImpl(final RoutingDataSource dataSource,
@@ -150,7 +153,8 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
             final AccountNumberFormatRepositoryWrapper accountNumberFormatRepository, final AccountNumberGenerator accountNumberGenerator,
             final SelfServiceRegistrationCommandFromApiJsonDeserializer selfServiceRegistrationCommandFromApiJsonDeserializer,
             final AppUserExtensionRepositoryWrapper appUserExtensionRepositoryWrapper,
-            final AppUserMerchantMappingRepositoryWrapper appUserMerchantMappingRepositoryWrapper) {
+            final AppUserMerchantMappingRepositoryWrapper appUserMerchantMappingRepositoryWrapper,
+            final ClientIdentityIndexService clientIdentityIndexService) {
         this.selfServiceRegistrationRepository = selfServiceRegistrationRepository;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.selfServiceRegistrationReadPlatformService = selfServiceRegistrationReadPlatformService;
@@ -174,6 +178,7 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
         this.accountNumberGenerator = accountNumberGenerator;
         this.appUserExtensionRepositoryWrapper = appUserExtensionRepositoryWrapper;
         this.appUserMerchantMappingRepositoryWrapper = appUserMerchantMappingRepositoryWrapper;
+        this.clientIdentityIndexService = clientIdentityIndexService;
     }
 
     private String deriveDisplayName(String firstname, String lastname, String fullname, Integer legalForm) {
@@ -257,6 +262,7 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
         // firstName, lastName);
         // this.clientRepository.saveAndFlush(client);
         Client client = this.clientRepository.findOneWithNotFoundDetection(clientId);
+        this.clientIdentityIndexService.refreshClient(clientId);
 
         // generate accountNumber and update client
         String accountNumber = generateAccountNumberUpdateClient(client, clientId);
@@ -570,7 +576,8 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
                 SmsMessage smsMessage = SmsMessage.instance(externalId, group, client, staff, SmsMessageStatusType.PENDING, message, mobile,
                         smsCampaign, isNotification);
                 this.smsMessageRepository.save(smsMessage);
-                this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId);
+                this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId,
+                        SmsMessagePriority.OTP);
             } catch (Exception e) {
                 log.warn("sms gateway not available: {}", e);
             }
@@ -604,7 +611,8 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
             SmsMessage smsMessage = SmsMessage.instance(externalId, group, selfServiceRegistration.getClient(), staff,
                     SmsMessageStatusType.PENDING, message, selfServiceRegistration.getMobileNumber(), smsCampaign, isNotification);
             this.smsMessageRepository.save(smsMessage);
-            this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId);
+            this.smsMessageScheduledJobService.sendTriggeredMessage(new ArrayList<>(Arrays.asList(smsMessage)), providerId,
+                    SmsMessagePriority.OTP);
         } catch (PlatformDataIntegrityException e) {
             log.warn("sendAuthorizationMessage sms gateway not available: {}", e);
         }
@@ -830,6 +838,7 @@ public class SelfServiceRegistrationWritePlatformServiceImpl implements SelfServ
             // update the mobile and email if any is empty
             String clientUpdateSql = "UPDATE m_client SET mobile_no=?, email_address=? WHERE id=?";
             jdbcTemplate.update(clientUpdateSql, mobileNumber, email, clientId);
+            this.clientIdentityIndexService.refreshClient(clientId);
         }
 
         final ApiResponseMessage apiResponseMessage = new ApiResponseMessage(HttpStatus.CREATED.value(),
@@ -21,6 +21,7 @@ package org.apache.fineract.useradministration.domain;
 import static org.apache.fineract.useradministration.service.AppUserConstants.FORCE_PASSWORD_RESET;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -137,6 +138,9 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
     @Column(name = "cannot_change_password", nullable = true)
     private Boolean cannotChangePassword;
 
+    @Column(name = "created_date", nullable = true)
+    private LocalDateTime createdDate;
+
     public static AppUser fromJson(final Office userOffice, final Staff linkedStaff, final Set<Role> allRoles,
             final Collection<Client> clients, final JsonCommand command) {
 
@@ -203,6 +207,7 @@ public class AppUser extends AbstractPersistableCustom implements PlatformUser {
         this.isSelfServiceUser = isSelfServiceUser;
         this.appUserClientMappings = createAppUserClientMappings(clients);
         this.cannotChangePassword = cannotChangePassword;
+        this.createdDate = DateUtils.getLocalDateTimeOfSystem();
     }
 
     public EnumOptionData organisationalRoleData() {
@@ -19,6 +19,7 @@
 package org.apache.fineract.useradministration.domain;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.apache.fineract.infrastructure.security.domain.PlatformUserRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -36,6 +37,9 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpec
 
     Collection<AppUser> findByOfficeId(Long officeId);
 
+    @Query("Select appUser.id from AppUser appUser where appUser.office.id = :officeId and appUser.id in :ids")
+    List<Long> findIdsByOfficeIdAndIdIn(@Param("officeId") Long officeId, @Param("ids") Collection<Long> ids);
+
     @Query(nativeQuery = true, value = "SELECT * FROM m_appuser ma WHERE ma.staff_id=?1 LIMIT 1")
     Optional<AppUser> findFirstByStaffId(Long staffId);
 
@@ -0,0 +1,35 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_office_closure` (
+  `ancestor_id` BIGINT NOT NULL,
+  `descendant_id` BIGINT NOT NULL,
+  `depth` INT NOT NULL,
+  PRIMARY KEY (`ancestor_id`, `descendant_id`),
+  KEY `office_closure_descendant` (`descendant_id`, `ancestor_id`),
+  CONSTRAINT `office_closure_FK_ancestor_id` FOREIGN KEY (`ancestor_id`) REFERENCES `m_office` (`id`),
+  CONSTRAINT `office_closure_FK_descendant_id` FOREIGN KEY (`descendant_id`) REFERENCES `m_office` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- backfill from the materialised hierarchy path, depth is the difference in path segments
+INSERT INTO `m_office_closure` (`ancestor_id`, `descendant_id`, `depth`)
+SELECT a.id, d.id,
+       (LENGTH(d.hierarchy) - LENGTH(REPLACE(d.hierarchy, '.', ''))) - (LENGTH(a.hierarchy) - LENGTH(REPLACE(a.hierarchy, '.', '')))
+FROM m_office a
+JOIN m_office d ON d.hierarchy LIKE CONCAT(a.hierarchy, '%');
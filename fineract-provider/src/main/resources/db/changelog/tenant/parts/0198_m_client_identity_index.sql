@@ -0,0 +1,41 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- normalized identity values (hashed) to client, used for de-duplication lookups
+CREATE TABLE `m_client_identity_index` (
+  `identity_type` VARCHAR(50) NOT NULL,
+  `value_hash` CHAR(64) NOT NULL,
+  `client_id` BIGINT NOT NULL,
+  PRIMARY KEY (`value_hash`, `identity_type`, `client_id`),
+  KEY `client_identity_index_client_id` (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- normalization mirrors ClientIdentityIndexServiceImpl: emails are trimmed and lower-cased, phone numbers keep their
+-- last 10 digits, identity numbers and document keys drop whitespace and are upper-cased
+INSERT IGNORE INTO `m_client_identity_index` (`identity_type`, `value_hash`, `client_id`)
+SELECT t.identity_type, SHA2(t.normalized, 256), t.client_id
+FROM (
+    SELECT 'EMAIL' identity_type, LOWER(TRIM(mc.email_address)) normalized, mc.id client_id FROM m_client mc
+    UNION ALL
+    SELECT 'MOBILE', RIGHT(REGEXP_REPLACE(mc.mobile_no, '[^0-9]', ''), 10), mc.id FROM m_client mc
+    UNION ALL
+    SELECT CONCAT('DOCUMENT_', ci.document_type_id), UPPER(REGEXP_REPLACE(ci.document_key, '[[:space:]]', '')), ci.client_id
+    FROM m_client_identifier ci
+) t
+WHERE t.normalized IS NOT NULL AND t.normalized <> '';
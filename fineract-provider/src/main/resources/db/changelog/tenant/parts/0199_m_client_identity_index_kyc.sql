@@ -0,0 +1,33 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- identity numbers held on the secondLevelKYC datatable, see 0198_m_client_identity_index.sql for the normalization
+INSERT IGNORE INTO `m_client_identity_index` (`identity_type`, `value_hash`, `client_id`)
+SELECT t.identity_type, SHA2(t.normalized, 256), t.client_id
+FROM (
+    SELECT 'ALTERNATE_MOBILE' identity_type, RIGHT(REGEXP_REPLACE(slk.alternateMobileNumber, '[^0-9]', ''), 10) normalized,
+           slk.client_id client_id FROM secondLevelKYC slk
+    UNION ALL
+    SELECT 'BVN', UPPER(REGEXP_REPLACE(slk.bvn, '[[:space:]]', '')), slk.client_id FROM secondLevelKYC slk
+    UNION ALL
+    SELECT 'NIN', UPPER(REGEXP_REPLACE(slk.nin, '[[:space:]]', '')), slk.client_id FROM secondLevelKYC slk
+    UNION ALL
+    SELECT 'TIN', UPPER(REGEXP_REPLACE(slk.tin, '[[:space:]]', '')), slk.client_id FROM secondLevelKYC slk
+) t
+WHERE t.normalized IS NOT NULL AND t.normalized <> '';
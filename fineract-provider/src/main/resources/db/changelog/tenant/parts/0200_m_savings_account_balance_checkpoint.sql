@@ -0,0 +1,43 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+CREATE TABLE IF NOT EXISTS `m_savings_account_balance_checkpoint` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `savings_account_id` BIGINT NOT NULL,
+  `checkpoint_date` DATE NOT NULL,
+  `last_transaction_id` BIGINT NULL DEFAULT NULL,
+  `running_balance` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_deposits` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_withdrawals` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_interest_posted` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_withdrawal_fees` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_annual_fees` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_fees_charge` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_penalty_charge` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_overdraft_interest` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `total_withhold_tax` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_savings_balance_checkpoint_account` (`savings_account_id`),
+  CONSTRAINT `FK_savings_balance_checkpoint_account` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`)
+);
+
+CREATE INDEX `idx_savings_transaction_account_date` ON `m_savings_account_transaction` (`savings_account_id`, `transaction_date`);
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Update Savings Balance Checkpoints', 'Update Savings Balance Checkpoints', '0 30 1 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Update Savings Balance CheckpointsJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
@@ -0,0 +1,37 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `m_savings_account_tier_limit_counter` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `savings_account_id` BIGINT NOT NULL,
+  `counter_date` DATE NOT NULL,
+  `limit_type_enum` SMALLINT NOT NULL,
+  `transaction_count` INT NOT NULL DEFAULT 0,
+  `amount` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_savings_tier_limit_counter` (`savings_account_id`, `counter_date`, `limit_type_enum`),
+  CONSTRAINT `FK_savings_tier_limit_counter_account` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`)
+);
+
+-- seed counters for withdrawals already made today and yesterday so limits hold across the upgrade
+INSERT INTO `m_savings_account_tier_limit_counter` (`savings_account_id`, `counter_date`, `limit_type_enum`, `transaction_count`, `amount`)
+SELECT tr.savings_account_id, tr.transaction_date, 1, COUNT(*), SUM(tr.amount)
+FROM m_savings_account_transaction tr
+WHERE tr.transaction_type_enum = 2 AND tr.is_reversed = 0 AND tr.transaction_date >= DATE_SUB(CURDATE(), INTERVAL 1 DAY)
+GROUP BY tr.savings_account_id, tr.transaction_date;
@@ -0,0 +1,44 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `m_overdraft_accrual` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `overdraft_id` BIGINT NOT NULL,
+  `savings_account_id` BIGINT NOT NULL,
+  `office_id` BIGINT NOT NULL,
+  `currency_code` VARCHAR(3) NOT NULL,
+  `accrual_date` DATE NOT NULL,
+  `closing_balance` DECIMAL(19,6) NOT NULL,
+  `annual_interest_rate` DECIMAL(19,6) NOT NULL,
+  `days_in_year` SMALLINT NOT NULL,
+  `amount` DECIMAL(19,6) NOT NULL,
+  `is_posted` TINYINT NOT NULL DEFAULT 0,
+  `is_settled` TINYINT NOT NULL DEFAULT 0,
+  `settled_on_date` DATE NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_overdraft_accrual_date` (`overdraft_id`, `accrual_date`),
+  KEY `idx_overdraft_accrual_office_settled` (`office_id`, `is_settled`, `id`),
+  CONSTRAINT `FK_overdraft_accrual_overdraft` FOREIGN KEY (`overdraft_id`) REFERENCES `m_overdraft` (`id`),
+  CONSTRAINT `FK_overdraft_accrual_savings` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`),
+  CONSTRAINT `FK_overdraft_accrual_office` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Accrue Overdraft Interest', 'Accrue Overdraft Interest', '0 15 1 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Accrue Overdraft InterestJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
@@ -0,0 +1,37 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `m_command_idempotency_key` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `idempotency_key` VARCHAR(128) NOT NULL,
+  `request_hash` CHAR(64) NOT NULL,
+  `action_name` VARCHAR(100) NOT NULL,
+  `entity_name` VARCHAR(100) NOT NULL,
+  `status_enum` SMALLINT NOT NULL,
+  `command_id` BIGINT NULL DEFAULT NULL,
+  `result` TEXT NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `expires_on` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_command_idempotency_key` (`idempotency_key`),
+  KEY `idx_command_idempotency_key_expires_on` (`expires_on`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Purge Idempotency Keys', 'Purge Idempotency Keys', '0 0 2 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Purge Idempotency KeysJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
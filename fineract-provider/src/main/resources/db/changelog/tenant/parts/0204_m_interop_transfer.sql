@@ -0,0 +1,58 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `m_interop_transfer` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `savings_account_id` BIGINT NOT NULL,
+  `transfer_code` VARCHAR(100) NOT NULL,
+  `hold_transaction_id` BIGINT NULL DEFAULT NULL,
+  `transaction_id` BIGINT NULL DEFAULT NULL,
+  `amount` DECIMAL(19,6) NOT NULL,
+  `state_enum` SMALLINT NOT NULL,
+  `created_date` DATETIME NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_interop_transfer_account_code` (`savings_account_id`, `transfer_code`),
+  CONSTRAINT `FK_interop_transfer_savings` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`),
+  CONSTRAINT `FK_interop_transfer_hold` FOREIGN KEY (`hold_transaction_id`) REFERENCES `m_savings_account_transaction` (`id`),
+  CONSTRAINT `FK_interop_transfer_transaction` FOREIGN KEY (`transaction_id`) REFERENCES `m_savings_account_transaction` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- holds placed before this table existed: prepared (1), committed (2) or released (3)
+INSERT INTO `m_interop_transfer` (`savings_account_id`, `transfer_code`, `hold_transaction_id`, `transaction_id`, `amount`, `state_enum`,
+  `created_date`, `last_modified_date`)
+SELECT h.savings_account_id, pd.receipt_number, h.id, w.id, h.amount,
+  CASE WHEN w.id IS NOT NULL THEN 2 WHEN h.release_id_of_hold_amount IS NOT NULL THEN 3 ELSE 1 END, NOW(), NOW()
+FROM m_savings_account_transaction h
+JOIN m_payment_detail pd ON pd.id = h.payment_detail_id
+LEFT JOIN m_savings_account_transaction w ON w.id = (SELECT MIN(t.id) FROM m_savings_account_transaction t
+  JOIN m_payment_detail tpd ON tpd.id = t.payment_detail_id
+  WHERE t.savings_account_id = h.savings_account_id AND t.transaction_type_enum = 2 AND tpd.routing_code = pd.routing_code
+  AND tpd.receipt_number = pd.receipt_number)
+WHERE h.transaction_type_enum = 20 AND pd.routing_code = 'INTEROPERATION' AND pd.receipt_number IS NOT NULL
+ON DUPLICATE KEY UPDATE `id` = `id`;
+
+-- committed credits, so that a repeated commit is still detected
+INSERT INTO `m_interop_transfer` (`savings_account_id`, `transfer_code`, `transaction_id`, `amount`, `state_enum`, `created_date`,
+  `last_modified_date`)
+SELECT d.savings_account_id, pd.receipt_number, d.id, d.amount, 2, NOW(), NOW()
+FROM m_savings_account_transaction d
+JOIN m_payment_detail pd ON pd.id = d.payment_detail_id
+WHERE d.transaction_type_enum = 1 AND pd.routing_code = 'INTEROPERATION' AND pd.receipt_number IS NOT NULL
+ON DUPLICATE KEY UPDATE `id` = `id`;
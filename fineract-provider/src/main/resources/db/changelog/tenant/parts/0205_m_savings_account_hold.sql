@@ -0,0 +1,47 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `m_savings_account_hold` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `savings_account_id` BIGINT NOT NULL,
+  `hold_transaction_id` BIGINT NOT NULL,
+  `amount` DECIMAL(19,6) NOT NULL,
+  `released_amount` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `status_enum` SMALLINT NOT NULL,
+  `expires_at` DATETIME NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_savings_account_hold_transaction` (`hold_transaction_id`),
+  KEY `idx_savings_account_hold_account` (`savings_account_id`, `status_enum`),
+  KEY `idx_savings_account_hold_expiry` (`status_enum`, `expires_at`),
+  CONSTRAINT `FK_savings_account_hold_savings` FOREIGN KEY (`savings_account_id`) REFERENCES `m_savings_account` (`id`),
+  CONSTRAINT `FK_savings_account_hold_transaction` FOREIGN KEY (`hold_transaction_id`) REFERENCES `m_savings_account_transaction` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- holds still open when the ledger was introduced; they never expire
+INSERT INTO `m_savings_account_hold` (`savings_account_id`, `hold_transaction_id`, `amount`, `released_amount`, `status_enum`, `expires_at`,
+  `created_date`, `last_modified_date`)
+SELECT h.savings_account_id, h.id, h.amount, 0, 1, NULL, h.created_date, NOW()
+FROM m_savings_account_transaction h
+WHERE h.transaction_type_enum = 20 AND h.is_reversed = 0 AND h.release_id_of_hold_amount IS NULL
+ON DUPLICATE KEY UPDATE `id` = `id`;
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Release Expired Savings Holds', 'Release Expired Savings Holds', '0 0/5 * 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Release Expired Savings HoldsJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
@@ -0,0 +1,51 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- events are appended in the transaction that produced them; the id is the replay position
+CREATE TABLE IF NOT EXISTS `m_event_outbox` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `topic` VARCHAR(50) NOT NULL,
+  `entity_name` VARCHAR(100) NOT NULL,
+  `action_name` VARCHAR(100) NOT NULL,
+  `entity_id` BIGINT NULL DEFAULT NULL,
+  `payload` MEDIUMTEXT NOT NULL,
+  `created_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_event_outbox_created_date` (`created_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- last outbox position delivered to each consumer (a hook, or the notification listener)
+CREATE TABLE IF NOT EXISTS `m_event_outbox_cursor` (
+  `consumer` VARCHAR(100) NOT NULL,
+  `last_event_id` BIGINT NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`consumer`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `m_event_outbox_cursor` (`consumer`, `last_event_id`, `last_modified_date`)
+SELECT CONCAT('hook:', h.id), 0, NOW() FROM m_hook h;
+
+INSERT INTO `m_event_outbox_cursor` (`consumer`, `last_event_id`, `last_modified_date`) VALUES ('notification', 0, NOW());
+
+INSERT INTO `m_permission` (`id`, `grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`)
+VALUES
+     (NULL, 'configuration', 'REPLAY_HOOK', 'HOOK', 'REPLAY', false);
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Relay Event Outbox', 'Relay Event Outbox', '0 0/1 * 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Relay Event OutboxJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
@@ -0,0 +1,51 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- delivery log of the Web hook template: one row per event sent to a hook, kept as a dead letter once retries run out
+CREATE TABLE IF NOT EXISTS `m_hook_delivery` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `hook_id` BIGINT NOT NULL,
+  `entity_name` VARCHAR(100) NOT NULL,
+  `action_name` VARCHAR(100) NOT NULL,
+  `payload` MEDIUMTEXT NOT NULL,
+  `status_enum` SMALLINT NOT NULL,
+  `attempts` INT NOT NULL DEFAULT 0,
+  `next_attempt_at` DATETIME NULL DEFAULT NULL,
+  `last_response_code` INT NULL DEFAULT NULL,
+  `last_error` VARCHAR(1000) NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_hook_delivery_due` (`status_enum`, `next_attempt_at`),
+  KEY `idx_hook_delivery_hook_status` (`hook_id`, `status_enum`),
+  CONSTRAINT `fk_hook_delivery_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `m_hook_schema` (`hook_template_id`, `field_type`, `field_name`, `placeholder`, `optional`)
+SELECT t.id, 'string', 'Signing Secret', NULL, 1 FROM m_hook_templates t WHERE t.name = 'Web';
+
+INSERT INTO `m_hook_schema` (`hook_template_id`, `field_type`, `field_name`, `placeholder`, `optional`)
+SELECT t.id, 'string', 'Timeout Seconds', '10', 1 FROM m_hook_templates t WHERE t.name = 'Web';
+
+INSERT INTO `m_permission` (`id`, `grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`)
+VALUES
+     (NULL, 'configuration', 'REDELIVER_HOOK', 'HOOK', 'REDELIVER', false);
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Retry Hook Deliveries', 'Retry Hook Deliveries', '0 0/1 * 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Retry Hook DeliveriesJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
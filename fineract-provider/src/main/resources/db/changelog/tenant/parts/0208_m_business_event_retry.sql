@@ -0,0 +1,39 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- deliveries of after-commit asynchronous business event listeners that failed or could not be queued; the event is
+-- kept as a reference to its value so the listener can be called again with a freshly loaded entity
+CREATE TABLE IF NOT EXISTS `m_business_event_retry` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `listener_name` VARCHAR(255) NOT NULL,
+  `event_type` VARCHAR(255) NOT NULL,
+  `value_type` VARCHAR(255) NOT NULL,
+  `value_id` BIGINT NOT NULL,
+  `status_enum` SMALLINT NOT NULL,
+  `attempts` INT NOT NULL DEFAULT 0,
+  `next_attempt_at` DATETIME NOT NULL,
+  `last_error` VARCHAR(1000) NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_business_event_retry_due` (`status_enum`, `next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Retry Business Event Listeners', 'Retry Business Event Listeners', '0 0/1 * 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Retry Business Event ListenersJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
@@ -0,0 +1,27 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+-- broadcast notifications are stored once with their audience; a user's notification_mapper row is only written on first read
+ALTER TABLE `notification_generator`
+  ADD COLUMN `is_broadcast` TINYINT(1) NOT NULL DEFAULT 0,
+  ADD COLUMN `audience_office_id` BIGINT NULL DEFAULT NULL,
+  ADD COLUMN `audience_permission` VARCHAR(100) NULL DEFAULT NULL;
+
+CREATE INDEX `idx_notification_generator_broadcast` ON `notification_generator` (`is_broadcast`, `audience_office_id`);
+
+CREATE UNIQUE INDEX `uk_notification_mapper_user_notification` ON `notification_mapper` (`user_id`, `notification_id`);
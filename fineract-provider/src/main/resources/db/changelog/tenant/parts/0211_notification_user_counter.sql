@@ -0,0 +1,33 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+-- per-user unread counter of the notification_mapper rows, last_notification_id is the stream position (highest mapper id)
+CREATE TABLE IF NOT EXISTS `notification_user_counter` (
+  `user_id` BIGINT NOT NULL,
+  `unread_count` INT NOT NULL DEFAULT 0,
+  `last_notification_id` BIGINT NOT NULL DEFAULT 0,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`user_id`),
+  CONSTRAINT `fk_notification_user_counter_user` FOREIGN KEY (`user_id`) REFERENCES `m_appuser` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `notification_user_counter` (`user_id`, `unread_count`, `last_notification_id`, `last_modified_date`)
+SELECT nm.user_id, SUM(CASE WHEN nm.is_read = 0 THEN 1 ELSE 0 END), MAX(nm.id), NOW()
+FROM notification_mapper nm
+WHERE nm.user_id IS NOT NULL
+GROUP BY nm.user_id;
@@ -0,0 +1,40 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- outbound emails: written in the business transaction, sent by the outbox workers, kept as a dead letter once retries run out
+CREATE TABLE IF NOT EXISTS `m_email_outbox` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `to_address` VARCHAR(2000) NOT NULL,
+  `subject` VARCHAR(1000) NULL DEFAULT NULL,
+  `body` MEDIUMTEXT NULL,
+  `status_enum` SMALLINT NOT NULL,
+  `attempts` INT NOT NULL DEFAULT 0,
+  `next_attempt_at` DATETIME NULL DEFAULT NULL,
+  `claim_token` VARCHAR(36) NULL DEFAULT NULL,
+  `last_error` VARCHAR(1000) NULL DEFAULT NULL,
+  `sent_date` DATETIME NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  `last_modified_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_email_outbox_due` (`status_enum`, `next_attempt_at`),
+  KEY `idx_email_outbox_claim` (`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO `job` (`id`, `name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`, `node_id`)
+VALUES (NULL, 'Send Email Outbox', 'Send Email Outbox', '0 0/1 * 1/1 * ? *', curdate(), 5, NULL, NULL, '2017-02-25 00:01:00', 'Send Email OutboxJobDetail1 _ DEFAULT', NULL, 1, 0, 1, 0, 0, 1);
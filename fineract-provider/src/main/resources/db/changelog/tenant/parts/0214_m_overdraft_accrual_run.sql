@@ -0,0 +1,29 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- one row per accrual date that every office completed; the accrual job catches up from the latest one
+CREATE TABLE IF NOT EXISTS `m_overdraft_accrual_run` (
+  `accrual_date` DATE NOT NULL,
+  `completed_date` DATETIME NOT NULL,
+  PRIMARY KEY (`accrual_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- dates accrued before this table existed count as completed
+INSERT INTO `m_overdraft_accrual_run` (`accrual_date`, `completed_date`)
+SELECT MAX(`accrual_date`), NOW() FROM `m_overdraft_accrual` HAVING MAX(`accrual_date`) IS NOT NULL;
@@ -0,0 +1,24 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- deliveries of one entity to one hook are sent in order; the retention purge removes delivered and dead rows by age
+ALTER TABLE `m_hook_delivery`
+  ADD COLUMN `entity_id` BIGINT NULL DEFAULT NULL AFTER `action_name`,
+  ADD KEY `idx_hook_delivery_entity` (`hook_id`, `entity_name`, `entity_id`),
+  ADD KEY `idx_hook_delivery_retention` (`status_enum`, `last_modified_date`);
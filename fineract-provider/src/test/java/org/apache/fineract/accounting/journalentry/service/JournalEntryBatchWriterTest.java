@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests {@link JournalEntryBatchWriter}. The write amplification benchmark counts database round trips, which is what the
+ * batch removes; wall-clock time against a mocked database would say nothing.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JournalEntryBatchWriterTest {
+
+    private static final int LEGS_PER_POSTING = 4;
+    private static final int TRANSACTION_ID_COLUMN = 3;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private AuditorAware<Long> auditorAware;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    private JournalEntryBatchWriter underTest;
+    private Office office;
+    private GLAccount glAccount;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        given(this.auditorAware.getCurrentAuditor()).willReturn(Optional.of(1L));
+        this.office = mock(Office.class);
+        given(this.office.getId()).willReturn(1L);
+        this.glAccount = mock(GLAccount.class);
+        given(this.glAccount.getId()).willReturn(10L);
+        this.underTest = new JournalEntryBatchWriter(this.jdbcTemplate, this.journalEntryRepository, this.auditorAware);
+    }
+
+    @Test
+    public void entriesOutsideBatchAreSavedOneByOne() {
+        for (int i = 0; i < LEGS_PER_POSTING; i++) {
+            this.underTest.write(entry("S1"));
+        }
+
+        verify(this.journalEntryRepository, times(LEGS_PER_POSTING)).saveAndFlush(any(JournalEntry.class));
+        verify(this.jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void postingInsideBatchIsOneBatchInsertKeepingTransactionId() {
+        try (JournalEntryBatchWriter.Batch batch = this.underTest.openBatch()) {
+            for (int i = 0; i < LEGS_PER_POSTING; i++) {
+                this.underTest.write(entry("S2"));
+            }
+            verify(this.jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+            batch.complete();
+        }
+
+        verify(this.journalEntryRepository, never()).saveAndFlush(any(JournalEntry.class));
+        verify(this.jdbcTemplate).batchUpdate(anyString(), this.batchCaptor.capture());
+        final List<Object[]> rows = this.batchCaptor.getValue();
+        assertEquals(LEGS_PER_POSTING, rows.size());
+        for (final Object[] row : rows) {
+            assertEquals("S2", row[TRANSACTION_ID_COLUMN]);
+        }
+    }
+
+    @Test
+    public void nestedBatchWritesOnceAtOutermostComplete() {
+        try (JournalEntryBatchWriter.Batch outer = this.underTest.openBatch()) {
+            try (JournalEntryBatchWriter.Batch inner = this.underTest.openBatch()) {
+                this.underTest.write(entry("L1"));
+                inner.complete();
+            }
+            this.underTest.write(entry("L2"));
+            verify(this.jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+            outer.complete();
+        }
+
+        verify(this.jdbcTemplate).batchUpdate(anyString(), this.batchCaptor.capture());
+        assertEquals(2, this.batchCaptor.getValue().size());
+    }
+
+    @Test
+    public void batchClosedWithoutCompleteWritesNothing() {
+        try (JournalEntryBatchWriter.Batch batch = this.underTest.openBatch()) {
+            this.underTest.write(entry("S3"));
+        }
+        this.underTest.write(entry("S4"));
+
+        verify(this.jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(this.journalEntryRepository, times(1)).saveAndFlush(any(JournalEntry.class));
+    }
+
+    /**
+     * Benchmark: an EOD run posting 1000 four-leg transactions needs 4000 round trips one by one, and 8 in a batch.
+     */
+    @Test
+    public void eodBatchCutsRoundTripsByOrdersOfMagnitude() {
+        final int postings = 1000;
+        for (int p = 0; p < postings; p++) {
+            for (int i = 0; i < LEGS_PER_POSTING; i++) {
+                this.underTest.write(entry("U" + p));
+            }
+        }
+        try (JournalEntryBatchWriter.Batch batch = this.underTest.openBatch()) {
+            for (int p = 0; p < postings; p++) {
+                for (int i = 0; i < LEGS_PER_POSTING; i++) {
+                    this.underTest.write(entry("B" + p));
+                }
+            }
+            batch.complete();
+        }
+
+        verify(this.journalEntryRepository, times(postings * LEGS_PER_POSTING)).saveAndFlush(any(JournalEntry.class));
+        verify(this.jdbcTemplate, times(postings * LEGS_PER_POSTING / 500)).batchUpdate(anyString(), anyList());
+    }
+
+    private JournalEntry entry(final String transactionId) {
+        return JournalEntry.createNew(this.office, null, this.glAccount, "NGN", transactionId, false, LocalDate.of(2024, 1, 31),
+                JournalEntryType.DEBIT, BigDecimal.TEN, "test", 2, 7L, null, null, null, null, null);
+    }
+}
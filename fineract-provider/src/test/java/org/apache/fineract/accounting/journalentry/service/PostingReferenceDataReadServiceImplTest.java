@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.math.BigDecimal;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.accounting.closure.domain.GLClosureRepository;
+import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForSavings;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepository;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.apache.fineract.portfolio.client.domain.ClientTransactionRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Tests {@link PostingReferenceDataReadServiceImpl} behind a caching proxy the way {@link AccountingProcessorHelper}
+ * uses it: once the caches are warm, a savings posting issues no reference data queries at all.
+ */
+public class PostingReferenceDataReadServiceImplTest {
+
+    private static final Long SAVINGS_PRODUCT_ID = 7L;
+    private static final Long CHARGE_ID = 3L;
+    private static final long SAVINGS_REFERENCE_GL = 100L;
+    private static final long SAVINGS_CONTROL_GL = 200L;
+    private static final long FEE_INCOME_GL = 400L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationCurrencyRepositoryWrapper currencies = mock(ApplicationCurrencyRepositoryWrapper.class);
+    private final ChargeRepositoryWrapper charges = mock(ChargeRepositoryWrapper.class);
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccounts = mock(
+            FinancialActivityAccountRepositoryWrapper.class);
+    private final GLAccountRepository glAccountRepository = mock(GLAccountRepository.class);
+    private final SavingsAccountTransactionRepository savingsTransactions = mock(SavingsAccountTransactionRepository.class);
+    private final JournalEntryBatchWriter journalEntryBatchWriter = mock(JournalEntryBatchWriter.class);
+    private final Office office = mock(Office.class);
+    private AnnotationConfigApplicationContext context;
+    private PostingReferenceDataReadService postingReferenceDataReadService;
+    private AccountingProcessorHelper helper;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+
+        willAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(mappingRow(CashAccountsForSavings.SAVINGS_REFERENCE.getValue(), SAVINGS_REFERENCE_GL));
+            handler.processRow(mappingRow(CashAccountsForSavings.SAVINGS_CONTROL.getValue(), SAVINGS_CONTROL_GL));
+            handler.processRow(mappingRow(CashAccountsForSavings.INCOME_FROM_FEES.getValue(), FEE_INCOME_GL));
+            return null;
+        }).given(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+
+        final ApplicationCurrency currency = mock(ApplicationCurrency.class);
+        given(currency.toData()).willReturn(mock(CurrencyData.class));
+        given(this.currencies.findOneWithNotFoundDetection(any(MonetaryCurrency.class))).willReturn(currency);
+        // the fee has no GL account of its own, the product's fee income mapping applies
+        given(this.charges.findOneWithNotFoundDetection(CHARGE_ID)).willReturn(mock(Charge.class));
+        given(this.glAccountRepository.getReferenceById(anyLong())).willAnswer(invocation -> mock(GLAccount.class));
+        given(this.savingsTransactions.findById(anyLong())).willAnswer(invocation -> Optional.of(mock(SavingsAccountTransaction.class)));
+
+        this.context = new AnnotationConfigApplicationContext();
+        this.context.register(CachingConfig.class);
+        this.context.registerBean(PostingReferenceDataReadServiceImpl.class, () -> new PostingReferenceDataReadServiceImpl(
+                this.jdbcTemplate, this.currencies, this.charges, this.financialActivityAccounts));
+        this.context.refresh();
+        this.postingReferenceDataReadService = this.context.getBean(PostingReferenceDataReadService.class);
+
+        this.helper = new AccountingProcessorHelper(mock(JournalEntryRepository.class), mock(GLClosureRepository.class),
+                new GLAccountRepositoryWrapper(this.glAccountRepository), mock(OfficeRepositoryWrapper.class),
+                mock(LoanTransactionRepository.class), mock(ClientTransactionRepositoryWrapper.class), this.savingsTransactions,
+                mock(AccountTransfersReadPlatformService.class), this.postingReferenceDataReadService, this.journalEntryBatchWriter);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.context.close();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void warmPostingIssuesNoReferenceDataQueries() {
+        post(1L);
+        verify(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        clearInvocations(this.jdbcTemplate, this.currencies, this.charges, this.financialActivityAccounts, this.glAccountRepository,
+                this.journalEntryBatchWriter);
+
+        for (long transactionId = 2; transactionId <= 10; transactionId++) {
+            post(transactionId);
+        }
+
+        verifyNoInteractions(this.jdbcTemplate, this.currencies, this.charges, this.financialActivityAccounts);
+        verify(this.glAccountRepository, never()).findById(anyLong());
+        // a deposit and a fee, two legs each
+        verify(this.journalEntryBatchWriter, times(9 * 4)).write(any(JournalEntry.class));
+        assertEquals(9 * 4, mockingDetails(this.glAccountRepository).getInvocations().size(), "only lazy account references");
+    }
+
+    private void post(final long transactionId) {
+        this.postingReferenceDataReadService.retrieveCurrency(new MonetaryCurrency("USD", 2, 0));
+        this.helper.createCashBasedJournalEntriesAndReversalsForSavings(this.office, "USD",
+                CashAccountsForSavings.SAVINGS_REFERENCE.getValue(), CashAccountsForSavings.SAVINGS_CONTROL.getValue(), SAVINGS_PRODUCT_ID,
+                null, 1L, String.valueOf(transactionId), LocalDate.of(2022, 1, 1), BigDecimal.TEN, false);
+        this.helper.createCashBasedJournalEntriesAndReversalsForSavingsCharges(this.office, "USD", CashAccountsForSavings.SAVINGS_CONTROL,
+                CashAccountsForSavings.INCOME_FROM_FEES, SAVINGS_PRODUCT_ID, null, 1L, String.valueOf(transactionId),
+                LocalDate.of(2022, 1, 1), BigDecimal.ONE, false, List.of(new ChargePaymentDTO(CHARGE_ID, BigDecimal.ONE, null)));
+    }
+
+    /**
+     * A core mapping row of {@code acc_product_mapping}, no payment type or charge.
+     */
+    private static ResultSet mappingRow(final int financialAccountType, final long glAccountId) {
+        final List<String> columns = List.of("financialAccountType", "glAccountId", "paymentTypeId", "chargeId");
+        final Object[] lastValue = new Object[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    if ("findColumn".equals(method.getName())) {
+                        return columns.indexOf(args[0]) + 1;
+                    }
+                    if ("getInt".equals(method.getName())) {
+                        return financialAccountType;
+                    }
+                    if ("getLong".equals(method.getName())) {
+                        lastValue[0] = Integer.valueOf(2).equals(args[0]) ? glAccountId : null;
+                        return lastValue[0] == null ? 0L : lastValue[0];
+                    }
+                    if ("wasNull".equals(method.getName())) {
+                        return lastValue[0] == null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.exception.PlatformConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link CommandIdempotencyServiceImpl} against an in-memory stand-in for {@code m_command_idempotency_key} that
+ * keeps the unique key on {@code idempotency_key} and applies each statement atomically, as the database does.
+ */
+public class CommandIdempotencyServiceImplTest {
+
+    private static final String KEY = "4f7c1e52-deposit";
+
+    private final InMemoryKeyTable table = new InMemoryKeyTable();
+    private final CommandIdempotencyServiceImpl service = new CommandIdempotencyServiceImpl(this.table);
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(this.service, "expiryHours", 24L);
+        ReflectionTestUtils.setField(this.service, "inFlightTimeoutSeconds", 300L);
+        this.executor = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentRequestsWithTheSameKeyRunTheCommandOnce() throws Exception {
+        final int requests = 64;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+        final AtomicInteger replays = new AtomicInteger();
+        final AtomicInteger conflicts = new AtomicInteger();
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            futures.add(this.executor.submit((Callable<Void>) () -> {
+                final CommandWrapper wrapper = deposit(KEY);
+                start.await();
+                try {
+                    final CommandProcessingResult replayed = this.service.claim(wrapper);
+                    if (replayed == null) {
+                        executions.incrementAndGet();
+                        Thread.sleep(20);
+                        this.service.complete(wrapper, new CommandProcessingResultBuilder().withCommandId(7L).withEntityId(70L).build());
+                    } else {
+                        assertEquals(70L, replayed.resourceId());
+                        replays.incrementAndGet();
+                    }
+                } catch (final PlatformConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(requests - 1, replays.get() + conflicts.get());
+        assertEquals(70L, this.service.claim(deposit(KEY)).resourceId());
+    }
+
+    @Test
+    public void sameKeyWithDifferentRequestIsRejected() {
+        this.service.claim(deposit(KEY));
+
+        final CommandWrapper differentBody = new CommandWrapperBuilder().savingsAccountDeposit(1L).withJson("{\"amount\":2}").build();
+        differentBody.setIdempotencyKey(KEY);
+
+        assertThrows(PlatformConflictException.class, () -> this.service.claim(differentBody));
+    }
+
+    @Test
+    public void nullResultIsReplayedInsteadOfReadingBackAsUnclaimed() {
+        final CommandWrapper first = deposit(KEY);
+        assertNull(this.service.claim(first));
+        this.service.complete(first, null);
+
+        final CommandProcessingResult replayed = this.service.claim(deposit(KEY));
+
+        assertNotNull(replayed);
+        assertNull(replayed.resourceId());
+    }
+
+    @Test
+    public void recentInFlightKeyIsAConflict() {
+        assertNull(this.service.claim(deposit(KEY)));
+
+        assertThrows(PlatformConflictException.class, () -> this.service.claim(deposit(KEY)));
+    }
+
+    @Test
+    public void abandonedInFlightKeyIsTakenOverAndTheOldOwnerCannotComplete() {
+        final CommandWrapper crashed = deposit(KEY);
+        assertNull(this.service.claim(crashed));
+        this.table.age(KEY, 301);
+
+        final CommandWrapper retry = deposit(KEY);
+        assertNull(this.service.claim(retry));
+
+        // a slow first owner now fails to complete, which rolls its command back
+        assertThrows(PlatformConflictException.class,
+                () -> this.service.complete(crashed, new CommandProcessingResultBuilder().withEntityId(1L).build()));
+        this.service.complete(retry, new CommandProcessingResultBuilder().withEntityId(2L).build());
+        assertEquals(2L, this.service.claim(deposit(KEY)).resourceId());
+    }
+
+    @Test
+    public void failedCommandReleasesTheKeyForARetry() {
+        final CommandWrapper failed = deposit(KEY);
+        assertNull(this.service.claim(failed));
+        this.service.release(failed);
+
+        assertNull(this.service.claim(deposit(KEY)));
+    }
+
+    private static CommandWrapper deposit(final String key) {
+        final CommandWrapper wrapper = new CommandWrapperBuilder().savingsAccountDeposit(1L).withJson("{\"amount\":1}").build();
+        wrapper.setIdempotencyKey(key);
+        return wrapper;
+    }
+
+    private static final class Row {
+
+        private String requestHash;
+        private int status;
+        private String claimToken;
+        private String result;
+        private LocalDateTime createdDate;
+        private LocalDateTime expiresOn;
+    }
+
+    /**
+     * Understands exactly the statements issued by {@link CommandIdempotencyServiceImpl}.
+     */
+    private static final class InMemoryKeyTable extends JdbcTemplate {
+
+        private final Map<String, Row> rows = new HashMap<>();
+
+        synchronized void age(final String key, final long seconds) {
+            this.rows.get(key).createdDate = this.rows.get(key).createdDate.minusSeconds(seconds);
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT")) {
+                if (this.rows.containsKey((String) args[0])) {
+                    throw new DuplicateKeyException("uk_command_idempotency_key");
+                }
+                final Row row = new Row();
+                row.requestHash = (String) args[1];
+                row.status = (Integer) args[4];
+                row.claimToken = (String) args[5];
+                row.createdDate = (LocalDateTime) args[6];
+                row.expiresOn = (LocalDateTime) args[7];
+                this.rows.put((String) args[0], row);
+                return 1;
+            }
+            if (sql.startsWith("UPDATE m_command_idempotency_key SET claim_token = ?, created_date = ?")) {
+                final Row row = this.rows.get((String) args[2]);
+                if (row == null || row.status != (Integer) args[3] || !row.createdDate.isBefore((LocalDateTime) args[4])) {
+                    return 0;
+                }
+                row.claimToken = (String) args[0];
+                row.createdDate = (LocalDateTime) args[1];
+                return 1;
+            }
+            if (sql.startsWith("UPDATE m_command_idempotency_key SET status_enum = ?")) {
+                final boolean withResult = args.length == 6;
+                final int offset = withResult ? 3 : 1;
+                final Row row = this.rows.get((String) args[offset]);
+                if (row == null || !args[offset + 1].equals(row.claimToken) || row.status != (Integer) args[offset + 2]) {
+                    return 0;
+                }
+                row.status = (Integer) args[0];
+                row.claimToken = null;
+                row.result = withResult ? (String) args[2] : null;
+                return 1;
+            }
+            if (sql.startsWith("DELETE FROM m_command_idempotency_key WHERE idempotency_key = ? AND claim_token = ?")) {
+                final Row row = this.rows.get((String) args[0]);
+                if (row == null || !args[1].equals(row.claimToken) || row.status != (Integer) args[2]) {
+                    return 0;
+                }
+                this.rows.remove((String) args[0]);
+                return 1;
+            }
+            if (sql.startsWith("DELETE FROM m_command_idempotency_key WHERE idempotency_key = ? AND expires_on < ?")) {
+                final Row row = this.rows.get((String) args[0]);
+                if (row == null || !row.expiresOn.isBefore((LocalDateTime) args[1])) {
+                    return 0;
+                }
+                this.rows.remove((String) args[0]);
+                return 1;
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        @Override
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final Row row = this.rows.get((String) args[0]);
+            if (row == null) {
+                return List.of();
+            }
+            try {
+                final ResultSet rs = mock(ResultSet.class);
+                given(rs.getString("request_hash")).willReturn(row.requestHash);
+                given(rs.getInt("status_enum")).willReturn(row.status);
+                given(rs.getString("result")).willReturn(row.result);
+                given(rs.getTimestamp("created_date")).willReturn(Timestamp.valueOf(row.createdDate));
+                given(rs.getTimestamp("expires_on")).willReturn(Timestamp.valueOf(row.expiresOn));
+                return List.of(rowMapper.mapRow(rs, 0));
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
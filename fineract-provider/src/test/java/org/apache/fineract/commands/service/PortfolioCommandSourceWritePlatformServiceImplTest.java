@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.LockTimeoutException;
+import javax.persistence.OptimisticLockException;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests the retry policy of {@link PortfolioCommandSourceWritePlatformServiceImpl}.
+ */
+public class PortfolioCommandSourceWritePlatformServiceImplTest {
+
+    @Test
+    public void concurrencyFailuresAreRetryableAnywhereInTheCauseChain() {
+        assertTrue(isRetryable(new DeadlockLoserDataAccessException("deadlock", null)));
+        assertTrue(isRetryable(new CannotAcquireLockException("lock wait timeout")));
+        assertTrue(isRetryable(new ObjectOptimisticLockingFailureException("SavingsAccount", 1L)));
+        assertTrue(isRetryable(new RuntimeException(new OptimisticLockException("stale"))));
+        assertTrue(isRetryable(new IllegalStateException(new RuntimeException(new LockTimeoutException("timeout")))));
+    }
+
+    @Test
+    public void otherFailuresAreNotRetried() {
+        assertFalse(isRetryable(new DataIntegrityViolationException("duplicate")));
+        assertFalse(isRetryable(new IllegalArgumentException("bad input")));
+    }
+
+    @Test
+    public void onlyCommandsSafeToReplayAreRetried() {
+        assertTrue(isRetryableCommand(new CommandWrapperBuilder().savingsAccountDeposit(1L).build()));
+        assertTrue(isRetryableCommand(new CommandWrapperBuilder().savingsAccountWithdrawal(1L).build()));
+        assertTrue(isRetryableCommand(new CommandWrapperBuilder().createAccountTransfer().build()));
+        assertTrue(isRetryableCommand(new CommandWrapperBuilder().loanRepaymentTransaction(1L).build()));
+
+        assertFalse(isRetryableCommand(new CommandWrapperBuilder().createClient().build()));
+        assertFalse(isRetryableCommand(new CommandWrapperBuilder().createSavingsAccount().build()));
+    }
+
+    @Test
+    public void backoffIsJitteredAndBounded() {
+        for (int attempt = 0; attempt < 30; attempt++) {
+            final long delay = ReflectionTestUtils.invokeMethod(PortfolioCommandSourceWritePlatformServiceImpl.class, "retryBackoffMillis",
+                    attempt, 2);
+            assertTrue(delay >= 50L && delay <= 2050L, "delay " + delay + " for attempt " + attempt);
+        }
+    }
+
+    private static boolean isRetryableCommand(final CommandWrapper wrapper) {
+        final Boolean retryable = ReflectionTestUtils.invokeMethod(PortfolioCommandSourceWritePlatformServiceImpl.class,
+                "isRetryableCommand", wrapper);
+        return Boolean.TRUE.equals(retryable);
+    }
+
+    private static boolean isRetryable(final Throwable exception) {
+        final Boolean retryable = ReflectionTestUtils.invokeMethod(PortfolioCommandSourceWritePlatformServiceImpl.class,
+                "isRetryableConcurrencyFailure", exception);
+        return Boolean.TRUE.equals(retryable);
+    }
+}
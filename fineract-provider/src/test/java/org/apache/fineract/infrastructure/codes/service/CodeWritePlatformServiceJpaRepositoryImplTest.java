@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.codes.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.codes.domain.Code;
+import org.apache.fineract.infrastructure.codes.domain.CodeRepository;
+import org.apache.fineract.infrastructure.codes.serialization.CodeCommandFromApiJsonDeserializer;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseIndependentQueryService;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.service.SchemaMetaDataReadService;
+import org.apache.fineract.infrastructure.dataqueries.service.SchemaMetaDataReadServiceImpl;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests that code writes through {@link CodeWritePlatformServiceJpaRepositoryImpl} evict the cached datatable column
+ * headers, whose code columns carry the values of the code they are named after.
+ */
+public class CodeWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final String DATATABLE = "client_details";
+
+    // m_code joined to m_code_value, by code name
+    private final Map<String, List<String>> codeValues = new ConcurrentHashMap<>();
+    private final DatabaseIndependentQueryService databaseIndependentQueryService = mock(DatabaseIndependentQueryService.class);
+    private final CodeRepository codeRepository = mock(CodeRepository.class);
+    private AnnotationConfigApplicationContext context;
+    private SchemaMetaDataReadService schemaMetaDataReadService;
+    private CodeWritePlatformService codeWritePlatformService;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        given(this.databaseIndependentQueryService.getTableColumns(any(DataSource.class), eq(DATATABLE)))
+                .willAnswer(invocation -> rowSet(List.of(new Object[] { "Gender_cd_gender", "YES", "int", 10L, "" })));
+
+        final SchemaMetaDataReadServiceImpl schemaMetaDataReadServiceImpl = new SchemaMetaDataReadServiceImpl(
+                mock(RoutingDataSource.class), this.databaseIndependentQueryService);
+        ReflectionTestUtils.setField(schemaMetaDataReadServiceImpl, "jdbcTemplate", new JdbcTemplate() {
+
+            @Override
+            public SqlRowSet queryForRowSet(final String sql, final Object... args) {
+                final List<Object[]> rows = new ArrayList<>();
+                final List<String> values = CodeWritePlatformServiceJpaRepositoryImplTest.this.codeValues.getOrDefault(args[0], List.of());
+                for (int i = 0; i < values.size(); i++) {
+                    rows.add(new Object[] { i + 1, 0, values.get(i) });
+                }
+                return rowSet(rows);
+            }
+        });
+
+        this.context = new AnnotationConfigApplicationContext();
+        this.context.register(CachingConfig.class);
+        this.context.registerBean(SchemaMetaDataReadServiceImpl.class, () -> schemaMetaDataReadServiceImpl);
+        this.context.registerBean(CodeWritePlatformServiceJpaRepositoryImpl.class,
+                () -> new CodeWritePlatformServiceJpaRepositoryImpl(mock(PlatformSecurityContext.class), this.codeRepository,
+                        mock(CodeCommandFromApiJsonDeserializer.class)));
+        this.context.refresh();
+        this.schemaMetaDataReadService = this.context.getBean(SchemaMetaDataReadService.class);
+        this.codeWritePlatformService = this.context.getBean(CodeWritePlatformService.class);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.context.close();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void codeWritesRefreshCachedColumnHeaders() {
+        final List<ResultsetColumnHeaderData> beforeCreate = this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE);
+        assertTrue(beforeCreate.get(0).getColumnValues().isEmpty());
+        assertSame(beforeCreate, this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE), "headers are cached");
+
+        final JsonCommand command = mock(JsonCommand.class);
+        given(command.json()).willReturn("{}");
+        given(command.stringValueOfParameterNamed("name")).willReturn("Gender");
+        this.codeValues.put("Gender", List.of("Female", "Male"));
+        this.codeWritePlatformService.createCode(command);
+        assertEquals(List.of("Female", "Male"), values(this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE)));
+
+        final Code code = mock(Code.class);
+        given(this.codeRepository.findById(1L)).willReturn(Optional.of(code));
+        this.codeValues.remove("Gender");
+        this.codeValues.put("Sex", List.of("Female", "Male"));
+        this.codeWritePlatformService.updateCode(1L, command);
+        assertEquals(List.of(), values(this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE)), "code renamed away");
+
+        this.codeValues.put("Gender", List.of("Other"));
+        final List<ResultsetColumnHeaderData> beforeDelete = this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE);
+        this.codeValues.remove("Gender");
+        this.codeWritePlatformService.deleteCode(1L);
+        final List<ResultsetColumnHeaderData> afterDelete = this.schemaMetaDataReadService.retrieveColumnHeaders(DATATABLE);
+        assertNotSame(beforeDelete, afterDelete, "headers reloaded after delete");
+        assertEquals(List.of(), values(afterDelete));
+    }
+
+    private static List<String> values(final List<ResultsetColumnHeaderData> headers) {
+        final List<String> values = new ArrayList<>();
+        for (final String value : List.of("Female", "Male", "Other")) {
+            if (headers.get(0).getColumnValues().stream().anyMatch(columnValue -> columnValue.matches(value))) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * A forward-only row set over the given rows, columns read by 1-based index or, for code values, by name.
+     */
+    private static SqlRowSet rowSet(final List<Object[]> rows) {
+        final List<String> codeValueColumns = List.of("id", "code_score", "code_value");
+        final int[] cursor = { -1 };
+        return (SqlRowSet) Proxy.newProxyInstance(SqlRowSet.class.getClassLoader(), new Class<?>[] { SqlRowSet.class },
+                (proxy, method, args) -> {
+                    if ("beforeFirst".equals(method.getName())) {
+                        cursor[0] = -1;
+                        return null;
+                    }
+                    if ("next".equals(method.getName())) {
+                        return ++cursor[0] < rows.size();
+                    }
+                    final Object[] row = rows.get(cursor[0]);
+                    final Object value = args[0] instanceof String ? row[codeValueColumns.indexOf(args[0])] : row[(Integer) args[0] - 1];
+                    if ("getLong".equals(method.getName())) {
+                        return ((Number) value).longValue();
+                    }
+                    return "getString".equals(method.getName()) ? String.valueOf(value) : value;
+                });
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractEventDispatchProperties;
+import org.apache.fineract.infrastructure.core.domain.ActionContext;
+import org.apache.fineract.infrastructure.core.domain.ContextHolder;
+import org.apache.fineract.infrastructure.core.domain.EventDispatchRejectionPolicy;
+import org.apache.fineract.infrastructure.core.domain.FineractContext;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+
+/**
+ * Stress tests {@link FineractApplicationEventMulticaster}: a flood of events is absorbed by a fixed number of pool
+ * threads, and no tenant context is left behind on them.
+ */
+public class FineractApplicationEventMulticasterTest {
+
+    private static final int THREADS = 4;
+    private static final int PUBLISHERS = 8;
+    private static final int EVENTS = 100_000;
+
+    private final StressListener listener = new StressListener();
+    private FineractApplicationEventMulticaster multicaster;
+
+    @BeforeEach
+    public void init() {
+        final FineractEventDispatchProperties properties = new FineractEventDispatchProperties();
+        properties.setThreads(THREADS);
+        properties.setQueueCapacity(1000);
+        properties.setRejectionPolicy(EventDispatchRejectionPolicy.CALLER_RUNS);
+        properties.setShutdownTimeoutSeconds(30);
+        @SuppressWarnings("unchecked")
+        final ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        given(meterRegistry.getIfAvailable(any())).willReturn(new SimpleMeterRegistry());
+
+        this.multicaster = new FineractApplicationEventMulticaster(properties, meterRegistry);
+        this.multicaster.addApplicationListener(this.listener);
+    }
+
+    @AfterEach
+    public void close() {
+        this.multicaster.multicastEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+    }
+
+    @Test
+    public void hundredThousandEventsRunOnAFlatNumberOfThreads() throws Exception {
+        final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null);
+        final FineractContext context = new FineractContext(null, tenant, null, new HashMap<>(), ActionContext.DEFAULT);
+        final AtomicInteger peakThreads = new AtomicInteger();
+        final Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakThreads.accumulateAndGet(poolThreads(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        final ExecutorService publishers = Executors.newFixedThreadPool(PUBLISHERS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < PUBLISHERS; p++) {
+                futures.add(publishers.submit(() -> {
+                    // a full queue runs the event on the publisher, which has the tenant of its own request
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    for (int i = 0; i < EVENTS / PUBLISHERS; i++) {
+                        this.multicaster.multicastEvent(new StressEvent(context));
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            awaitDelivered(EVENTS);
+        } finally {
+            publishers.shutdownNow();
+            sampler.interrupt();
+        }
+
+        assertTrue(peakThreads.get() <= THREADS, "peak of " + peakThreads.get() + " dispatch threads for " + THREADS + " configured");
+        assertEquals(0, this.listener.missingTenant.get());
+
+        // events without a context must not see the tenant of an earlier event on the same pool thread
+        for (int i = 0; i < 1000; i++) {
+            this.multicaster.multicastEvent(new StressEvent(null));
+        }
+        awaitDelivered(EVENTS + 1000);
+        assertEquals(0, this.listener.leakedTenant.get());
+    }
+
+    @Test
+    public void eventsPublishedAfterCloseAreStillDelivered() throws Exception {
+        this.multicaster.multicastEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+
+        this.multicaster.multicastEvent(new StressEvent(null));
+
+        assertEquals(1, this.listener.delivered.get());
+    }
+
+    private void awaitDelivered(final int events) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (this.listener.delivered.get() < events) {
+            assertTrue(System.nanoTime() < deadline, "only " + this.listener.delivered.get() + " of " + events + " events delivered");
+            Thread.sleep(10);
+        }
+    }
+
+    private static int poolThreads() {
+        int count = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("event-StressListener-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class StressEvent extends ApplicationEvent implements ContextHolder {
+
+        private final transient FineractContext context;
+
+        private StressEvent(final FineractContext context) {
+            super("stress");
+            this.context = context;
+        }
+
+        @Override
+        public FineractContext getContext() {
+            return this.context;
+        }
+    }
+
+    private static final class StressListener implements ApplicationListener<StressEvent> {
+
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final AtomicInteger missingTenant = new AtomicInteger();
+        private final AtomicInteger leakedTenant = new AtomicInteger();
+
+        @Override
+        public void onApplicationEvent(final StressEvent event) {
+            final boolean pooled = Thread.currentThread().getName().startsWith("event-");
+            if (event.getContext() != null && ThreadLocalContextUtil.getTenant() == null) {
+                this.missingTenant.incrementAndGet();
+            }
+            if (event.getContext() == null && pooled && ThreadLocalContextUtil.getTenant() != null) {
+                this.leakedTenant.incrementAndGet();
+            }
+            this.delivered.incrementAndGet();
+        }
+    }
+}
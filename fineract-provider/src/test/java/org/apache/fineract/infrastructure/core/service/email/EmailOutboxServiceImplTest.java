@@ -0,0 +1,387 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.configuration.service.ExternalServicesPropertiesReadPlatformService;
+import org.apache.fineract.infrastructure.core.domain.EmailDetail;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link EmailOutboxServiceImpl} against a GreenMail SMTP server that answers slowly: enqueueing never waits for
+ * the server, a batch outliving its lease is not sent twice, and finished emails lose their bodies.
+ */
+public class EmailOutboxServiceImplTest {
+
+    private static final String USER = "outbox@fineract.org";
+    private static final String PASSWORD = "outbox";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser(USER, PASSWORD));
+
+    private final OutboxTable outboxTable = new OutboxTable();
+    private final ExternalServicesPropertiesReadPlatformService externalServices = mock(
+            ExternalServicesPropertiesReadPlatformService.class);
+    private final List<EmailOutboxServiceImpl> nodes = new ArrayList<>();
+    private SlowSmtpProxy slowSmtp;
+
+    @BeforeEach
+    public void init() throws IOException {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        // every server reply is held back, as by a congested or far away relay
+        this.slowSmtp = new SlowSmtpProxy(greenMail.getSmtp().getPort(), 150);
+        smtpPort(this.slowSmtp.getPort());
+    }
+
+    @AfterEach
+    public void shutdown() throws IOException {
+        this.nodes.forEach(node -> node.onApplicationEvent(null));
+        this.slowSmtp.close();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void enqueueDoesNotWaitForSlowServer() throws Exception {
+        final EmailOutboxServiceImpl outbox = node(300, 8);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            outbox.enqueue(new EmailDetail("Password reset", "Your temporary password is secret" + i, "user" + i + "@fineract.org",
+                    "User " + i));
+        }
+        final long enqueueMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(0, greenMail.getReceivedMessages().length, "nothing sent on the calling thread");
+
+        awaitUntil(() -> this.outboxTable.count(EmailOutboxStatus.SENT) == 5);
+        final long sendMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(enqueueMillis < 500, () -> "5 emails took " + enqueueMillis + "ms to enqueue");
+        assertTrue(sendMillis > 4 * enqueueMillis, () -> "sending took " + sendMillis + "ms, enqueueing " + enqueueMillis + "ms");
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertTrue(GreenMailUtil.getBody(greenMail.getReceivedMessages()[0]).contains("Your temporary password is secret"));
+        this.outboxTable.rows().forEach(row -> assertNull(row.body, "sent email keeps no body"));
+    }
+
+    @Test
+    public void leaseIsRenewedWhileSlowBatchIsSending() throws Exception {
+        // eight emails take several seconds through the slow server, well past the lease
+        final EmailOutboxServiceImpl outbox = node(3, 8);
+        final EmailOutboxServiceImpl otherNode = node(3, 8);
+        for (int i = 0; i < 8; i++) {
+            outbox.enqueue(new EmailDetail("Statement", "Statement " + i, "user" + i + "@fineract.org", "User " + i));
+        }
+
+        final long start = System.nanoTime();
+        while (this.outboxTable.count(EmailOutboxStatus.SENT) < 8) {
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30), "batch not sent in time");
+            otherNode.sendDueEmails();
+            Thread.sleep(100);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) >= 3, "the batch outlived its lease");
+
+        Thread.sleep(1000);
+        assertEquals(8, greenMail.getReceivedMessages().length, "no email sent twice");
+        this.outboxTable.rows().forEach(row -> assertEquals(1, row.attempts, "claimed once"));
+    }
+
+    @Test
+    public void deadLetterLosesBodyAndIsPurgedAfterRetention() throws Exception {
+        final EmailOutboxServiceImpl outbox = node(300, 1);
+        final int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            closedPort = serverSocket.getLocalPort();
+        }
+        smtpPort(closedPort);
+        outbox.enqueue(new EmailDetail("One-time password", "Your code is 123456", "user@fineract.org", "User"));
+
+        awaitUntil(() -> this.outboxTable.count(EmailOutboxStatus.DEAD) == 1);
+        final OutboxTable.Row dead = this.outboxTable.rows().get(0);
+        assertNull(dead.body, "dead-lettered email keeps no body");
+        assertFalse(dead.lastError.isEmpty());
+
+        final OutboxTable.Row pending = this.outboxTable.insert(EmailOutboxStatus.PENDING, LocalDateTime.now().plusDays(1));
+        outbox.sendDueEmails();
+        assertEquals(2, this.outboxTable.rows().size(), "nothing purged within the retention period");
+
+        ReflectionTestUtils.setField(outbox, "retentionDays", -1);
+        outbox.sendDueEmails();
+        assertEquals(List.of(pending), this.outboxTable.rows(), "dead letter purged, pending email kept");
+    }
+
+    private EmailOutboxServiceImpl node(final long leaseSeconds, final int maxAttempts) {
+        final JavaMailSenderProvider javaMailSenderProvider = new JavaMailSenderProvider();
+        ReflectionTestUtils.setField(javaMailSenderProvider, "connectionTimeoutMillis", 10000);
+        ReflectionTestUtils.setField(javaMailSenderProvider, "timeoutMillis", 30000);
+        ReflectionTestUtils.setField(javaMailSenderProvider, "writeTimeoutMillis", 30000);
+        ReflectionTestUtils.setField(javaMailSenderProvider, "maxCachedSenders", 16);
+
+        final EmailOutboxServiceImpl outbox = new EmailOutboxServiceImpl(this.outboxTable, this.externalServices,
+                javaMailSenderProvider);
+        ReflectionTestUtils.setField(outbox, "threads", 2);
+        ReflectionTestUtils.setField(outbox, "batchSize", 50);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(outbox, "initialBackoffSeconds", 60L);
+        ReflectionTestUtils.setField(outbox, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(outbox, "leaseSeconds", leaseSeconds);
+        ReflectionTestUtils.setField(outbox, "retentionDays", 30);
+        outbox.initializeExecutorService();
+        this.nodes.add(outbox);
+        return outbox;
+    }
+
+    private void smtpPort(final int port) {
+        given(this.externalServices.getSMTPCredentials())
+                .willReturn(new SMTPCredentialsData(USER, PASSWORD, "localhost", String.valueOf(port), false, USER, "Fineract"));
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Relays SMTP connections to GreenMail, holding back every reply of the server.
+     */
+    private static final class SlowSmtpProxy implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        private final ExecutorService pumps = Executors.newCachedThreadPool();
+        private final int serverPort;
+        private final long delayMillis;
+
+        SlowSmtpProxy(final int serverPort, final long delayMillis) throws IOException {
+            this.serverPort = serverPort;
+            this.delayMillis = delayMillis;
+            this.pumps.execute(this::accept);
+        }
+
+        int getPort() {
+            return this.serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!this.serverSocket.isClosed()) {
+                try {
+                    final Socket client = this.serverSocket.accept();
+                    final Socket server = new Socket(InetAddress.getLoopbackAddress(), this.serverPort);
+                    this.pumps.execute(() -> pump(client, server, 0));
+                    this.pumps.execute(() -> pump(server, client, this.delayMillis));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void pump(final Socket from, final Socket to, final long delayMillis) {
+            try (Socket source = from; Socket target = to) {
+                final InputStream in = source.getInputStream();
+                final OutputStream out = target.getOutputStream();
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    Thread.sleep(delayMillis);
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // either side hung up, closing both ends the conversation
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.serverSocket.close();
+            this.pumps.shutdownNow();
+        }
+    }
+
+    /**
+     * {@code m_email_outbox}, answering the statements the outbox issues.
+     */
+    private static final class OutboxTable extends JdbcTemplate {
+
+        private final TreeMap<Long, Row> rows = new TreeMap<>();
+
+        private static final class Row {
+
+            private Long id;
+            private String toAddress;
+            private String subject;
+            private String body;
+            private int status;
+            private int attempts;
+            private LocalDateTime nextAttemptAt;
+            private String claimToken;
+            private String lastError;
+            private LocalDateTime lastModifiedDate;
+        }
+
+        synchronized long count(final EmailOutboxStatus status) {
+            return this.rows.values().stream().filter(row -> row.status == status.getValue()).count();
+        }
+
+        synchronized List<Row> rows() {
+            return new ArrayList<>(this.rows.values());
+        }
+
+        synchronized Row insert(final EmailOutboxStatus status, final LocalDateTime nextAttemptAt) {
+            final Row row = new Row();
+            row.id = this.rows.isEmpty() ? 1L : this.rows.lastKey() + 1;
+            row.status = status.getValue();
+            row.nextAttemptAt = nextAttemptAt;
+            row.lastModifiedDate = LocalDateTime.now();
+            this.rows.put(row.id, row);
+            return row;
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT INTO m_email_outbox")) {
+                final Row row = insert(EmailOutboxStatus.PENDING, (LocalDateTime) args[4]);
+                row.toAddress = (String) args[0];
+                row.subject = (String) args[1];
+                row.body = (String) args[2];
+                return 1;
+            }
+            if (sql.contains("attempts = attempts + 1")) {
+                final List<Object> claimable = List.of(args[4], args[5], args[6]);
+                final List<Row> claimed = this.rows.values().stream()
+                        .filter(row -> claimable.contains(row.status) && !row.nextAttemptAt.isAfter((LocalDateTime) args[7]))
+                        .sorted(Comparator.comparing((Row row) -> row.nextAttemptAt).thenComparing(row -> row.id))
+                        .limit((Integer) args[8]).toList();
+                claimed.forEach(row -> {
+                    row.status = (Integer) args[0];
+                    row.attempts++;
+                    row.claimToken = (String) args[1];
+                    row.nextAttemptAt = (LocalDateTime) args[2];
+                    row.lastModifiedDate = (LocalDateTime) args[3];
+                });
+                return claimed.size();
+            }
+            if (sql.startsWith("UPDATE m_email_outbox SET next_attempt_at = ?")) {
+                final List<Row> leased = this.rows.values().stream()
+                        .filter(row -> args[1].equals(row.claimToken) && args[2].equals(row.status)).toList();
+                leased.forEach(row -> row.nextAttemptAt = (LocalDateTime) args[0]);
+                return leased.size();
+            }
+            if (sql.startsWith("DELETE FROM m_email_outbox")) {
+                final List<Object> purgeable = List.of(args[0], args[1]);
+                final List<Long> purged = this.rows.values().stream()
+                        .filter(row -> purgeable.contains(row.status) && row.lastModifiedDate.isBefore((LocalDateTime) args[2]))
+                        .map(row -> row.id).limit((Integer) args[3]).toList();
+                purged.forEach(this.rows::remove);
+                return purged.size();
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            final int[] updated = new int[batchArgs.size()];
+            for (int i = 0; i < updated.length; i++) {
+                final Object[] args = batchArgs.get(i);
+                final Row row = this.rows.get((Long) args[args.length - 2]);
+                if (row == null || !args[args.length - 1].equals(row.claimToken)) {
+                    continue;
+                }
+                row.status = (Integer) args[0];
+                row.claimToken = null;
+                row.lastModifiedDate = (LocalDateTime) args[args.length - 3];
+                if (sql.contains("sent_date")) {
+                    row.nextAttemptAt = null;
+                    row.lastError = null;
+                } else if (sql.contains("next_attempt_at = NULL")) {
+                    row.nextAttemptAt = null;
+                    row.lastError = (String) args[1];
+                } else {
+                    row.nextAttemptAt = (LocalDateTime) args[1];
+                    row.lastError = (String) args[2];
+                }
+                if (sql.contains("body = NULL")) {
+                    row.body = null;
+                }
+                updated[i] = 1;
+            }
+            return updated;
+        }
+
+        @Override
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final List<T> result = new ArrayList<>();
+            for (final Row row : this.rows.values()) {
+                if (!args[0].equals(row.claimToken)) {
+                    continue;
+                }
+                final Map<String, Object> columns = Map.of("id", row.id, "to_address", row.toAddress, "subject", row.subject, "body",
+                        row.body, "attempts", row.attempts);
+                final ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, (proxy, method, methodArgs) -> columns.get((String) methodArgs[0]));
+                try {
+                    result.add(rowMapper.mapRow(rs, result.size()));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return result;
+        }
+    }
+}
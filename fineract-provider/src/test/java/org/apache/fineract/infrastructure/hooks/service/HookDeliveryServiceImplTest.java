@@ -0,0 +1,406 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.api.HookApiConstants;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
+import org.apache.fineract.infrastructure.hooks.domain.HookDeliveryStatus;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link HookDeliveryServiceImpl} end to end against a local HTTP endpoint that fails some requests and answers
+ * slowly, with the delivery log kept in memory.
+ */
+public class HookDeliveryServiceImplTest {
+
+    private static final String SECRET = "s3cret";
+
+    private final DeliveryTable deliveries = new DeliveryTable();
+    private final HookRepository hookRepository = mock(HookRepository.class);
+    private final List<JsonObject> accepted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger badSignatures = new AtomicInteger();
+    private HttpServer endpoint;
+    private HookDeliveryServiceImpl deliveryService;
+
+    @BeforeEach
+    public void init() throws Exception {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDateTime.now().toLocalDate())));
+
+        this.endpoint = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.endpoint.setExecutor(Executors.newCachedThreadPool());
+        // every third request fails, and every request takes a while
+        this.endpoint.createContext("/flaky", exchange -> {
+            final byte[] body = readBody(exchange.getRequestBody());
+            if (!("sha256=" + sign(body)).equals(exchange.getRequestHeaders().getFirst(HookApiConstants.SIGNATURE_HEADER))) {
+                this.badSignatures.incrementAndGet();
+            }
+            final int request = this.requests.incrementAndGet();
+            sleep(10 + (request % 4) * 10);
+            final int status = request % 3 == 0 ? 500 : 200;
+            if (status == 200) {
+                this.accepted.add(JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject());
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        this.endpoint.createContext("/slow", exchange -> {
+            final byte[] body = readBody(exchange.getRequestBody());
+            final JsonObject event = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+            if (event.get("seq").getAsInt() == 0) {
+                sleep(3000);
+            } else {
+                this.accepted.add(event);
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        this.endpoint.start();
+
+        this.deliveryService = new HookDeliveryServiceImpl(this.deliveries, this.hookRepository, new ProcessorHelper(5, 2, 5));
+        ReflectionTestUtils.setField(this.deliveryService, "threads", 4);
+        ReflectionTestUtils.setField(this.deliveryService, "maxConcurrentPerHook", 4);
+        ReflectionTestUtils.setField(this.deliveryService, "maxAttempts", 20);
+        ReflectionTestUtils.setField(this.deliveryService, "initialBackoffSeconds", 0L);
+        ReflectionTestUtils.setField(this.deliveryService, "maxBackoffSeconds", 0L);
+        ReflectionTestUtils.setField(this.deliveryService, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(this.deliveryService, "retentionDays", 30);
+        this.deliveryService.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.deliveryService.onApplicationEvent(null);
+        this.endpoint.stop(0);
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void flakySlowEndpointGetsEveryEventOnceAndInOrderPerEntity() throws Exception {
+        final Hook hook = hook(1L, "/flaky", null);
+        final int events = 30;
+
+        final long startedAt = System.nanoTime();
+        for (int seq = 0; seq < events; seq++) {
+            final long entityId = seq % 3;
+            this.deliveryService.submit(hook, "CLIENT", "UPDATE", entityId, event(seq, entityId));
+        }
+        final long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        awaitUntil(() -> this.deliveries.count(HookDeliveryStatus.DELIVERED) == events);
+        // submitting only logs the event, it never waits for the endpoint
+        assertTrue(submitMillis < 500, "submitting " + events + " events took " + submitMillis + "ms");
+        assertTrue(this.requests.get() > events, "the endpoint failed some requests, so some were retried");
+        assertEquals(0, this.badSignatures.get());
+        assertEquals(events, this.accepted.size());
+        for (long entityId = 0; entityId < 3; entityId++) {
+            final List<Integer> received = new ArrayList<>();
+            for (final JsonObject event : this.accepted) {
+                if (event.get("entity").getAsLong() == entityId) {
+                    received.add(event.get("seq").getAsInt());
+                }
+            }
+            final List<Integer> expected = new ArrayList<>();
+            for (int seq = (int) entityId; seq < events; seq += 3) {
+                expected.add(seq);
+            }
+            assertEquals(expected, received, "events of entity " + entityId);
+        }
+    }
+
+    @Test
+    public void endpointSlowerThanTheTimeoutIsDeadLetteredAndReleasesTheEntity() throws Exception {
+        ReflectionTestUtils.setField(this.deliveryService, "maxAttempts", 2);
+        final Hook hook = hook(2L, "/slow", "1");
+
+        this.deliveryService.submit(hook, "LOAN", "DISBURSE", 7L, event(0, 7L));
+        this.deliveryService.submit(hook, "LOAN", "REPAYMENT", 7L, event(1, 7L));
+
+        awaitUntil(() -> this.deliveries.count(HookDeliveryStatus.DEAD) == 1 && this.deliveries.count(HookDeliveryStatus.DELIVERED) == 1);
+        final DeliveryTable.Row dead = this.deliveries.rows.get(1L);
+        assertEquals(2, dead.attempts);
+        assertTrue(dead.error.contains("timeout"), dead.error);
+        assertEquals(1, this.accepted.size());
+        assertEquals(1, this.accepted.get(0).get("seq").getAsInt());
+    }
+
+    @Test
+    public void retentionPurgesOnlyOldDeliveredAndDeadDeliveries() throws Exception {
+        final LocalDateTime old = LocalDateTime.now().minusDays(31);
+        final LocalDateTime recent = LocalDateTime.now().minusDays(1);
+        this.deliveries.insert(HookDeliveryStatus.DELIVERED, old);
+        this.deliveries.insert(HookDeliveryStatus.DEAD, old);
+        this.deliveries.insert(HookDeliveryStatus.DELIVERED, recent);
+        final long waiting = this.deliveries.insert(HookDeliveryStatus.FAILED, old);
+        this.deliveries.rows.get(waiting).nextAttemptAt = LocalDateTime.now().plusHours(1);
+
+        this.deliveryService.retryDueDeliveries();
+
+        assertEquals(Set.of(3L, 4L), this.deliveries.rows.keySet());
+    }
+
+    private Hook hook(final Long id, final String path, final String timeoutSeconds) {
+        final Set<HookConfiguration> config = new HashSet<>();
+        config.add(HookConfiguration.createNewWithoutHook("string", HookApiConstants.payloadURLName,
+                "http://127.0.0.1:" + this.endpoint.getAddress().getPort() + path));
+        config.add(HookConfiguration.createNewWithoutHook("string", HookApiConstants.contentTypeName, "json"));
+        config.add(HookConfiguration.createNewWithoutHook("string", HookApiConstants.signingSecretName, SECRET));
+        if (timeoutSeconds != null) {
+            config.add(HookConfiguration.createNewWithoutHook("string", HookApiConstants.timeoutSecondsName, timeoutSeconds));
+        }
+        final Hook hook = mock(Hook.class);
+        given(hook.getId()).willReturn(id);
+        given(hook.getHookConfig()).willReturn(config);
+        given(this.hookRepository.findById(id)).willReturn(Optional.of(hook));
+        return hook;
+    }
+
+    private static String event(final int seq, final long entityId) {
+        return "{\"seq\":" + seq + ",\"entity\":" + entityId + "}";
+    }
+
+    private static byte[] readBody(final InputStream body) throws IOException {
+        try (body) {
+            return body.readAllBytes();
+        }
+    }
+
+    private static String sign(final byte[] body) {
+        try {
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the deliveries");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * {@code m_hook_delivery}, answering the statements the delivery engine issues.
+     */
+    private static final class DeliveryTable extends JdbcTemplate {
+
+        private final TreeMap<Long, Row> rows = new TreeMap<>();
+
+        private static final class Row {
+
+            private Long hookId;
+            private String entityName;
+            private String actionName;
+            private Long entityId;
+            private String payload;
+            private int status;
+            private int attempts;
+            private LocalDateTime nextAttemptAt;
+            private String error;
+            private LocalDateTime lastModifiedDate;
+        }
+
+        synchronized long count(final HookDeliveryStatus status) {
+            return this.rows.values().stream().filter(row -> row.status == status.getValue()).count();
+        }
+
+        synchronized long insert(final HookDeliveryStatus status, final LocalDateTime lastModifiedDate) {
+            final Row row = new Row();
+            row.hookId = 1L;
+            row.status = status.getValue();
+            row.lastModifiedDate = lastModifiedDate;
+            final long id = this.rows.isEmpty() ? 1L : this.rows.lastKey() + 1;
+            this.rows.put(id, row);
+            return id;
+        }
+
+        @Override
+        public synchronized int update(final PreparedStatementCreator psc, final KeyHolder generatedKeyHolder) {
+            final Map<Integer, Object> params = new HashMap<>();
+            final PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                            params.put((Integer) args[0], args[1]);
+                        }
+                        return null;
+                    });
+            final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> ps);
+            try {
+                psc.createPreparedStatement(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            final long id = insert(HookDeliveryStatus.PENDING, (LocalDateTime) params.get(9));
+            final Row row = this.rows.get(id);
+            row.hookId = (Long) params.get(1);
+            row.entityName = (String) params.get(2);
+            row.actionName = (String) params.get(3);
+            row.entityId = (Long) params.get(4);
+            row.payload = (String) params.get(5);
+            row.nextAttemptAt = (LocalDateTime) params.get(7);
+            generatedKeyHolder.getKeyList().add(Map.of("GENERATED_KEY", id));
+            return 1;
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.contains("attempts = attempts + 1")) {
+                final Row row = this.rows.get((Long) args[3]);
+                final List<Object> claimable = List.of(args[4], args[5], args[6]);
+                if (row == null || !claimable.contains(row.status) || row.nextAttemptAt.isAfter((LocalDateTime) args[7])) {
+                    return 0;
+                }
+                row.status = (Integer) args[0];
+                row.attempts++;
+                row.nextAttemptAt = (LocalDateTime) args[1];
+                return 1;
+            }
+            if (sql.contains("next_attempt_at = NULL")) {
+                return finish(args[3], args[4], (Integer) args[0], null, null, (LocalDateTime) args[2]);
+            }
+            if (sql.contains("last_error = ?")) {
+                return finish(args[5], args[6], (Integer) args[0], (LocalDateTime) args[1], (String) args[3], (LocalDateTime) args[4]);
+            }
+            if (sql.startsWith("DELETE FROM m_hook_delivery")) {
+                final List<Object> purgeable = List.of(args[0], args[1]);
+                final int before = this.rows.size();
+                this.rows.values().removeIf(
+                        row -> purgeable.contains(row.status) && row.lastModifiedDate.isBefore((LocalDateTime) args[2]));
+                return before - this.rows.size();
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        private int finish(final Object id, final Object inFlight, final Integer status, final LocalDateTime nextAttemptAt,
+                final String error, final LocalDateTime now) {
+            final Row row = this.rows.get((Long) id);
+            if (row == null || !inFlight.equals(row.status)) {
+                return 0;
+            }
+            row.status = status;
+            row.nextAttemptAt = nextAttemptAt;
+            row.error = error;
+            row.lastModifiedDate = now;
+            return 1;
+        }
+
+        @Override
+        public synchronized <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            final Long id = (Long) args[0];
+            final Row row = this.rows.get(id);
+            if (sql.startsWith("SELECT attempts")) {
+                return requiredType.cast(row.attempts);
+            }
+            final List<Object> statuses = List.of(args).subList(1, args.length);
+            if (sql.startsWith("SELECT COUNT(*)")) {
+                return requiredType.cast(this.rows.headMap(id, false).values().stream()
+                        .filter(e -> sameEntity(row, e) && statuses.contains(e.status)).count());
+            }
+            if (sql.startsWith("SELECT MIN(n.id)")) {
+                return requiredType.cast(this.rows.tailMap(id, false).entrySet().stream()
+                        .filter(n -> sameEntity(row, n.getValue()) && statuses.contains(n.getValue().status)).map(Map.Entry::getKey)
+                        .findFirst().orElse(null));
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        private static boolean sameEntity(final Row row, final Row other) {
+            return row.entityId != null && row.hookId.equals(other.hookId) && row.entityName.equals(other.entityName)
+                    && row.entityId.equals(other.entityId);
+        }
+
+        @Override
+        public synchronized Map<String, Object> queryForMap(final String sql, final Object... args) {
+            final Row row = this.rows.get((Long) args[0]);
+            return Map.of("entity_name", row.entityName, "action_name", row.actionName, "payload", row.payload);
+        }
+
+        @Override
+        public synchronized List<Map<String, Object>> queryForList(final String sql, final Object... args) {
+            final List<Object> due = List.of(args[0], args[1], args[2]);
+            final List<Map<String, Object>> result = new ArrayList<>();
+            this.rows.tailMap((Long) args[4], false).forEach((id, row) -> {
+                if (result.size() < (Integer) args[5] && due.contains(row.status) && row.nextAttemptAt != null
+                        && !row.nextAttemptAt.isAfter((LocalDateTime) args[3])) {
+                    result.add(Map.of("id", id, "hook_id", row.hookId));
+                }
+            });
+            return result;
+        }
+    }
+}
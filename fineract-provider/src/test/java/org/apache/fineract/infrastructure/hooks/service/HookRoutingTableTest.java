@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.domain.HookResource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingTable.HookRoutes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests {@link HookRoutingTable} builds, expiry refreshes and concurrent first lookups, with the hooks read from a
+ * repository that can be held mid-read.
+ */
+public class HookRoutingTableTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null);
+
+    private final HookRepository hookRepository = mock(HookRepository.class);
+    private final HookProcessorProvider hookProcessorProvider = mock(HookProcessorProvider.class);
+    private final AtomicInteger reads = new AtomicInteger();
+    private volatile List<Hook> activeHooks = List.of();
+    private volatile CountDownLatch readGate;
+    private HookRoutingTable routingTable;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(TENANT);
+        given(this.hookProcessorProvider.getProcessor(any())).willReturn(mock(HookProcessor.class));
+        given(this.hookRepository.findAllActiveHooks()).willAnswer(invocation -> {
+            this.reads.incrementAndGet();
+            final CountDownLatch gate = this.readGate;
+            if (gate != null) {
+                assertTrue(gate.await(30, TimeUnit.SECONDS), "read never released");
+            }
+            return this.activeHooks;
+        });
+        this.routingTable = new HookRoutingTable(this.hookRepository, this.hookProcessorProvider,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(this.routingTable, "refreshSeconds", 60L);
+        this.routingTable.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.routingTable.onApplicationEvent(null);
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void firstLookupBuildsTheTableAndLaterLookupsReuseIt() {
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"));
+
+        final HookRoutes routes = this.routingTable.getRoutes();
+
+        assertTrue(routes.hasRoute("CLIENT", "CREATE"));
+        assertFalse(routes.hasRoute("LOAN", "APPROVE"));
+        assertSame(routes, this.routingTable.getRoutes());
+        assertEquals(1, this.reads.get());
+    }
+
+    @Test
+    public void expiredTableIsServedWhileItIsRefreshed() throws Exception {
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"));
+        final HookRoutes expired = this.routingTable.getRoutes();
+        ReflectionTestUtils.setField(this.routingTable, "refreshSeconds", 0L);
+        this.activeHooks = List.of(hook("LOAN", "APPROVE"));
+        this.readGate = new CountDownLatch(1);
+
+        // the refresh is held mid-read, every lookup meanwhile gets the expired table and no second refresh starts
+        for (int i = 0; i < 5; i++) {
+            assertSame(expired, this.routingTable.getRoutes());
+        }
+        awaitUntil(() -> this.reads.get() == 2);
+        assertSame(expired, this.routingTable.getRoutes());
+        assertEquals(2, this.reads.get());
+
+        this.readGate.countDown();
+        awaitUntil(() -> this.routingTable.getRoutes() != expired);
+        ReflectionTestUtils.setField(this.routingTable, "refreshSeconds", 60L);
+        final HookRoutes refreshed = this.routingTable.getRoutes();
+        assertTrue(refreshed.hasRoute("LOAN", "APPROVE"));
+        assertFalse(refreshed.hasRoute("CLIENT", "CREATE"));
+    }
+
+    @Test
+    public void failedRefreshKeepsServingTheExpiredTable() throws Exception {
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"));
+        final HookRoutes expired = this.routingTable.getRoutes();
+        ReflectionTestUtils.setField(this.routingTable, "refreshSeconds", 0L);
+        given(this.hookRepository.findAllActiveHooks()).willAnswer(invocation -> {
+            this.reads.incrementAndGet();
+            throw new IllegalStateException("database unavailable");
+        });
+
+        assertSame(expired, this.routingTable.getRoutes());
+        awaitUntil(() -> this.reads.get() >= 2);
+        assertSame(expired, this.routingTable.getRoutes());
+    }
+
+    @Test
+    public void concurrentFirstLookupsShareOneBuild() throws Exception {
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"));
+        this.readGate = new CountDownLatch(1);
+        final int callers = 8;
+        final ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            final List<Future<HookRoutes>> lookups = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                lookups.add(pool.submit(() -> {
+                    ThreadLocalContextUtil.setTenant(TENANT);
+                    try {
+                        return this.routingTable.getRoutes();
+                    } finally {
+                        ThreadLocalContextUtil.reset();
+                    }
+                }));
+            }
+            awaitUntil(() -> this.reads.get() == 1);
+            for (final Future<HookRoutes> lookup : lookups) {
+                assertFalse(lookup.isDone(), "first lookup returned before the table was built");
+            }
+
+            this.readGate.countDown();
+            final HookRoutes routes = lookups.get(0).get(30, TimeUnit.SECONDS);
+            for (final Future<HookRoutes> lookup : lookups) {
+                assertSame(routes, lookup.get(30, TimeUnit.SECONDS));
+            }
+            assertTrue(routes.hasRoute("CLIENT", "CREATE"));
+            assertEquals(1, this.reads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedFirstBuildIsRethrownAndRetriedOnTheNextLookup() {
+        given(this.hookRepository.findAllActiveHooks()).willThrow(new IllegalStateException("database unavailable"))
+                .willReturn(List.of(hook("CLIENT", "CREATE")));
+
+        assertThrows(IllegalStateException.class, () -> this.routingTable.getRoutes());
+        assertTrue(this.routingTable.getRoutes().hasRoute("CLIENT", "CREATE"));
+    }
+
+    @Test
+    public void rebuildOutsideATransactionReplacesTheTableAtOnce() {
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"));
+        this.routingTable.getRoutes();
+        this.activeHooks = List.of(hook("CLIENT", "CREATE"), hook("LOAN", "APPROVE"));
+
+        this.routingTable.rebuildAfterCommit();
+
+        final HookRoutes rebuilt = this.routingTable.getRoutes();
+        assertTrue(rebuilt.hasRoute("LOAN", "APPROVE"));
+        assertEquals(2, rebuilt.getRoutes().size());
+        assertEquals(2, this.reads.get());
+    }
+
+    private static Hook hook(final String entityName, final String actionName) {
+        final Hook hook = mock(Hook.class);
+        given(hook.getEvents()).willReturn(Set.of(HookResource.createNewWithoutHook(entityName, actionName)));
+        return hook;
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the routing table");
+            Thread.sleep(10);
+        }
+    }
+}
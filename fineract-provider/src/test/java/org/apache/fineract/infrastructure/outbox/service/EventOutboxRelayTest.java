@@ -0,0 +1,360 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.outbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.outbox.data.EventOutboxEntry;
+import org.apache.fineract.infrastructure.outbox.domain.EventOutboxTopic;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests {@link EventOutboxRelay} against in-memory outbox tables, crashing the platform at the points where an event
+ * could be lost or delivered twice, and leaving holes in the sequence that are committed late or rolled back.
+ */
+public class EventOutboxRelayTest {
+
+    private static final String FAST = "hook:1";
+    private static final String SLOW = "hook:2";
+    private static final String CALLBACK_TOKEN = "token-of-the-sms-bridge-user";
+
+    private final AppUser alice = user(7L);
+    private final AppUser bob = user(8L);
+    private final AppUserRepository appUserRepository = mock(AppUserRepository.class);
+
+    private final OutboxTables tables = new OutboxTables();
+    private final List<EventOutboxEntry> fastDeliveries = new CopyOnWriteArrayList<>();
+    private final List<Long> fastActors = new CopyOnWriteArrayList<>();
+    private final List<String> fastTokens = new CopyOnWriteArrayList<>();
+    private final List<EventOutboxEntry> slowDeliveries = new CopyOnWriteArrayList<>();
+    private final List<EventOutboxRelay> relays = new ArrayList<>();
+    private CountDownLatch slowEndpoint = new CountDownLatch(0);
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2024, 3, 1))));
+        this.tables.cursors.put(FAST, 0L);
+        this.tables.cursors.put(SLOW, 0L);
+        given(this.appUserRepository.findById(7L)).willReturn(Optional.of(this.alice));
+        given(this.appUserRepository.findById(8L)).willReturn(Optional.of(this.bob));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.slowEndpoint.countDown();
+        this.relays.forEach(relay -> relay.onApplicationEvent(null));
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void eventsAppendedBeforeACrashAreRelayedAfterRestart() throws Exception {
+        // the platform dies after the appending transaction commits but before the relay is woken
+        final EventOutboxService crashed = new EventOutboxServiceImpl(this.tables, mock(TransactionTemplate.class),
+                mock(EventOutboxRelay.class));
+        append(crashed, this.alice, "CLIENT", "CREATE");
+        append(crashed, this.bob, "LOAN", "APPROVE");
+        append(crashed, this.alice, "SAVINGSACCOUNT", "DEPOSIT");
+        assertTrue(this.fastDeliveries.isEmpty());
+        // only who acted is stored, never the credentials of the request
+        assertEquals(List.of(7L, 8L, 7L), this.tables.rows.values().stream().map(EventOutboxEntry::getActorUserId).toList());
+
+        // after the restart, the scheduled job runs with a token of its own
+        final EventOutboxRelay restarted = startRelay();
+        ThreadLocalContextUtil.setAuthToken("token-of-the-job");
+        restarted.relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 3L && this.tables.cursor(SLOW) == 3L);
+        assertEquals(List.of(1L, 2L, 3L), this.fastDeliveries.stream().map(EventOutboxEntry::getId).toList());
+        assertEquals(List.of(7L, 8L, 7L), this.fastActors);
+        assertEquals(List.of(CALLBACK_TOKEN, CALLBACK_TOKEN, CALLBACK_TOKEN), this.fastTokens);
+    }
+
+    @Test
+    public void eventDeliveredBeforeACrashIsDeliveredAgainAfterRestart() throws Exception {
+        final EventOutboxRelay crashing = startRelay();
+        append(new EventOutboxServiceImpl(this.tables, mock(TransactionTemplate.class), mock(EventOutboxRelay.class)), this.alice, "CLIENT",
+                "CREATE");
+
+        // the hook endpoint has the event, then the platform dies before the cursor is saved
+        this.tables.crashOnCursorMove = true;
+        crashing.relayPendingEvents();
+        awaitUntil(() -> this.tables.failedCursorMoves.containsAll(List.of(FAST, SLOW)));
+        assertEquals(1, this.fastDeliveries.size());
+        assertEquals(0L, this.tables.cursor(FAST));
+
+        this.tables.crashOnCursorMove = false;
+        startRelay().relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 1L);
+        // at-least-once: the receiver sees the same eventPosition twice and drops the repeat
+        assertEquals(List.of(1L, 1L), this.fastDeliveries.stream().map(EventOutboxEntry::getId).toList());
+    }
+
+    @Test
+    public void slowConsumerDoesNotHoldBackTheOthers() throws Exception {
+        this.slowEndpoint = new CountDownLatch(1);
+        final EventOutboxRelay relay = startRelay();
+        final EventOutboxService service = new EventOutboxServiceImpl(this.tables, mock(TransactionTemplate.class), relay);
+        for (int i = 0; i < 5; i++) {
+            append(service, this.alice, "CLIENT", "ACTIVATE");
+        }
+        relay.relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 5L);
+        assertEquals(0L, this.tables.cursor(SLOW));
+        assertEquals(1, this.slowDeliveries.size());
+
+        this.slowEndpoint.countDown();
+        awaitUntil(() -> this.tables.cursor(SLOW) == 5L);
+        assertEquals(5, this.fastDeliveries.size());
+    }
+
+    @Test
+    public void lateCommitInAnOldHoleIsDeliveredInItsPlace() throws Exception {
+        // event 2 was inserted before event 3 but its transaction is still open well past the grace period
+        givenOldEventsAroundAnOpenTransaction();
+        this.tables.inFlightOutcome = InFlightOutcome.LOCK_WAIT_TIMEOUT;
+        final EventOutboxRelay relay = startRelay();
+        relay.relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 1L && this.tables.cursor(SLOW) == 1L && this.tables.holeReads.get() >= 2);
+        assertEquals(List.of(1L), this.fastDeliveries.stream().map(EventOutboxEntry::getId).toList());
+
+        // the transaction commits while the next pass waits on it
+        this.tables.inFlightOutcome = InFlightOutcome.COMMIT;
+        relay.relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 3L && this.tables.cursor(SLOW) == 3L);
+        assertEquals(List.of(1L, 2L, 3L), this.fastDeliveries.stream().map(EventOutboxEntry::getId).toList());
+    }
+
+    @Test
+    public void rolledBackIdInAnOldHoleIsPassedOver() throws Exception {
+        givenOldEventsAroundAnOpenTransaction();
+        this.tables.inFlightOutcome = InFlightOutcome.ROLLBACK;
+        startRelay().relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 3L && this.tables.cursor(SLOW) == 3L);
+        assertEquals(List.of(1L, 3L), this.fastDeliveries.stream().map(EventOutboxEntry::getId).toList());
+        assertTrue(this.tables.inFlight.isEmpty());
+    }
+
+    @Test
+    public void recentHoleIsNotReadPast() throws Exception {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfSystem();
+        this.tables.rows.put(1L, event(1L, now));
+        this.tables.inFlight.put(2L, event(2L, now));
+        this.tables.rows.put(3L, event(3L, now));
+        startRelay().relayPendingEvents();
+
+        awaitUntil(() -> this.tables.cursor(FAST) == 1L && this.tables.cursor(SLOW) == 1L);
+        assertEquals(0, this.tables.holeReads.get());
+    }
+
+    private void givenOldEventsAroundAnOpenTransaction() {
+        final LocalDateTime fiveMinutesAgo = DateUtils.getLocalDateTimeOfSystem().minusMinutes(5);
+        this.tables.rows.put(1L, event(1L, fiveMinutesAgo));
+        this.tables.inFlight.put(2L, event(2L, fiveMinutesAgo));
+        this.tables.rows.put(3L, event(3L, fiveMinutesAgo));
+    }
+
+    private static EventOutboxEntry event(final Long id, final LocalDateTime createdDate) {
+        return new EventOutboxEntry(id, EventOutboxTopic.HOOK, "CLIENT", "CREATE", 1L, "{}", 7L, createdDate);
+    }
+
+    private static void append(final EventOutboxService service, final AppUser user, final String entityName, final String actionName) {
+        ThreadLocalContextUtil.setAuthToken("token-of-user-" + user.getId());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null));
+        service.append(EventOutboxTopic.HOOK, entityName, actionName, 1L, "{}");
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.setAuthToken(null);
+    }
+
+    private static AppUser user(final Long id) {
+        final AppUser user = mock(AppUser.class);
+        given(user.getId()).willReturn(id);
+        return user;
+    }
+
+    private EventOutboxRelay startRelay() {
+        final EventOutboxSubscriber subscriber = new EventOutboxSubscriber() {
+
+            @Override
+            public EventOutboxTopic getTopic() {
+                return EventOutboxTopic.HOOK;
+            }
+
+            @Override
+            public Map<String, EventOutboxConsumer> retrieveConsumers() {
+                return Map.of(FAST, entry -> {
+                    EventOutboxRelayTest.this.fastDeliveries.add(entry);
+                    final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                    EventOutboxRelayTest.this.fastActors.add(((AppUser) authentication.getPrincipal()).getId());
+                    EventOutboxRelayTest.this.fastTokens.add(ThreadLocalContextUtil.getAuthToken());
+                }, SLOW, entry -> {
+                    EventOutboxRelayTest.this.slowDeliveries.add(entry);
+                    EventOutboxRelayTest.this.slowEndpoint.await();
+                });
+            }
+        };
+        @SuppressWarnings("unchecked")
+        final ObjectProvider<EventOutboxSubscriber> subscribers = mock(ObjectProvider.class);
+        given(subscribers.iterator()).willAnswer(invocation -> List.of(subscriber).iterator());
+
+        final EventOutboxRelay relay = new EventOutboxRelay(this.tables, this.appUserRepository, subscribers);
+        ReflectionTestUtils.setField(relay, "relayThreads", 1);
+        ReflectionTestUtils.setField(relay, "consumerThreads", 2);
+        ReflectionTestUtils.setField(relay, "gapGraceSeconds", 60L);
+        ReflectionTestUtils.setField(relay, "retentionDays", 7);
+        ReflectionTestUtils.setField(relay, "callbackAuthToken", CALLBACK_TOKEN);
+        relay.initializeExecutorService();
+        this.relays.add(relay);
+        return relay;
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the relay");
+            Thread.sleep(10);
+        }
+    }
+
+    private enum InFlightOutcome {
+        COMMIT, ROLLBACK, LOCK_WAIT_TIMEOUT
+    }
+
+    /**
+     * {@code m_event_outbox} and {@code m_event_outbox_cursor}, answering the statements the outbox issues. Rows of open
+     * transactions are invisible to plain reads; a locking read of a hole settles them with the configured outcome.
+     */
+    private static final class OutboxTables extends JdbcTemplate {
+
+        private final TreeMap<Long, EventOutboxEntry> rows = new TreeMap<>();
+        private final TreeMap<Long, EventOutboxEntry> inFlight = new TreeMap<>();
+        private volatile InFlightOutcome inFlightOutcome = InFlightOutcome.COMMIT;
+        private final AtomicInteger holeReads = new AtomicInteger();
+        private final Map<String, Long> cursors = new HashMap<>();
+        private volatile boolean crashOnCursorMove;
+        private final List<String> failedCursorMoves = new CopyOnWriteArrayList<>();
+
+        synchronized Long cursor(final String consumer) {
+            return this.cursors.get(consumer);
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT INTO m_event_outbox ")) {
+                final long id = this.rows.isEmpty() ? 1L : this.rows.lastKey() + 1;
+                this.rows.put(id, new EventOutboxEntry(id, EventOutboxTopic.valueOf((String) args[0]), (String) args[1], (String) args[2],
+                        (Long) args[3], (String) args[4], (Long) args[5], (LocalDateTime) args[6]));
+                return 1;
+            }
+            if (sql.startsWith("INSERT IGNORE INTO m_event_outbox_cursor")) {
+                this.cursors.putIfAbsent((String) args[0], this.rows.isEmpty() ? 0L : this.rows.lastKey());
+                return 1;
+            }
+            if (sql.startsWith("UPDATE m_event_outbox_cursor")) {
+                if (this.crashOnCursorMove) {
+                    this.failedCursorMoves.add((String) args[2]);
+                    throw new IllegalStateException("platform stopped");
+                }
+                return this.cursors.replace((String) args[2], (Long) args[3], (Long) args[0]) ? 1 : 0;
+            }
+            // retention purges, nothing here is old enough
+            return 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            if (sql.endsWith("LOCK IN SHARE MODE")) {
+                this.holeReads.incrementAndGet();
+                final Map<Long, EventOutboxEntry> open = this.inFlight.subMap((Long) args[0], false, (Long) args[1], false);
+                if (!open.isEmpty()) {
+                    if (this.inFlightOutcome == InFlightOutcome.LOCK_WAIT_TIMEOUT) {
+                        throw new CannotAcquireLockException("Lock wait timeout exceeded; try restarting transaction");
+                    }
+                    if (this.inFlightOutcome == InFlightOutcome.COMMIT) {
+                        this.rows.putAll(open);
+                    }
+                    open.clear();
+                }
+                return (List<T>) List.copyOf(this.rows.subMap((Long) args[0], false, (Long) args[1], false).values());
+            }
+            return (List<T>) this.rows.tailMap((Long) args[0], false).values().stream().limit((Integer) args[1]).toList();
+        }
+
+        @Override
+        public synchronized void query(final String sql, final RowCallbackHandler rch) {
+            for (final Map.Entry<String, Long> cursor : this.cursors.entrySet()) {
+                try {
+                    final ResultSet rs = mock(ResultSet.class);
+                    given(rs.getString("consumer")).willReturn(cursor.getKey());
+                    given(rs.getLong("last_event_id")).willReturn(cursor.getValue());
+                    rch.processRow(rs);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public synchronized <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            return requiredType.cast(this.cursors.get((String) args[0]));
+        }
+    }
+}
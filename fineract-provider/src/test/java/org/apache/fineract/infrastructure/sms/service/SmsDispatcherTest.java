@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.sms.data.SmsDispatchMessage;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessagePriority;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.apache.fineract.infrastructure.sms.service.FakeSmsGatewayClient.ProviderStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link SmsDispatcher} against the {@link FakeSmsGatewayClient}: per-provider rate limits, isolation between
+ * providers and priority lanes.
+ */
+public class SmsDispatcherTest {
+
+    private static final Long THROTTLED_PROVIDER = 1L;
+    private static final Long FAST_PROVIDER = 2L;
+    private static final String UPDATE_STATUS_SQL = "UPDATE sms_messages_outbound SET status_enum = :status WHERE id IN (:ids)";
+
+    private final FakeSmsGatewayClient fakeGateway = new FakeSmsGatewayClient();
+    private final List<SmsDispatchMessage> sent = new CopyOnWriteArrayList<>();
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final AtomicLong nextId = new AtomicLong();
+    private volatile boolean gatewayDown;
+    private SmsDispatcher dispatcher;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ReflectionTestUtils.setField(this.fakeGateway, "latencyMillis", 0L);
+        ReflectionTestUtils.setField(this.fakeGateway, "reportSeconds", 60L);
+        this.fakeGateway.initializeExecutorService();
+
+        // records the order messages reach the gateway in, and can refuse batches like a gateway that is down
+        final SmsGatewayClient gateway = new SmsGatewayClient() {
+
+            @Override
+            public void send(final Long providerId, final List<SmsDispatchMessage> messages) {
+                if (SmsDispatcherTest.this.gatewayDown) {
+                    throw new IllegalStateException("Message gateway unavailable");
+                }
+                SmsDispatcherTest.this.fakeGateway.send(providerId, messages);
+                SmsDispatcherTest.this.sent.addAll(messages);
+            }
+
+            @Override
+            public Collection<SmsMessageDeliveryReportData> retrieveDeliveryReports(final Collection<Long> messageIds) {
+                return SmsDispatcherTest.this.fakeGateway.retrieveDeliveryReports(messageIds);
+            }
+        };
+        this.dispatcher = new SmsDispatcher(gateway, this.namedParameterJdbcTemplate);
+        ReflectionTestUtils.setField(this.dispatcher, "threads", 2);
+        ReflectionTestUtils.setField(this.dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(this.dispatcher, "ratePerSecond", 400.0);
+        ReflectionTestUtils.setField(this.dispatcher, "burstSeconds", 0.25);
+        ReflectionTestUtils.setField(this.dispatcher, "providerRates", FAST_PROVIDER + ":100000");
+        ReflectionTestUtils.setField(this.dispatcher, "campaignBacklog", 5000);
+        this.dispatcher.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.dispatcher.onApplicationEvent(null);
+        this.fakeGateway.onApplicationEvent(null);
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void throttledProviderKeepsToItsRateWithoutHoldingUpOthers() throws Exception {
+        final long start = System.nanoTime();
+        this.dispatcher.dispatch(messages(THROTTLED_PROVIDER, SmsMessagePriority.TRANSACTIONAL, 500));
+        this.dispatcher.dispatch(messages(FAST_PROVIDER, SmsMessagePriority.TRANSACTIONAL, 5000));
+
+        awaitUntil(() -> sent(FAST_PROVIDER) == 5000);
+        final long fastMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(sent(THROTTLED_PROVIDER) < 500, "the throttled provider is still sending");
+        awaitUntil(() -> sent(THROTTLED_PROVIDER) == 500);
+        final long throttledMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 100 messages of burst, the other 400 at 400 per second
+        assertTrue(throttledMillis >= 900, () -> "500 messages at 400/s took only " + throttledMillis + "ms");
+        assertTrue(fastMillis < throttledMillis, () -> "fast provider took " + fastMillis + "ms behind a throttled one");
+        // the initial burst counts too, so the overall rate may sit a little above the steady one
+        final ProviderStatistics throttled = this.fakeGateway.getStatistics().get(THROTTLED_PROVIDER);
+        assertTrue(throttled.getMessagesPerSecond() <= 400 * 1.5, () -> "throttled provider sent " + throttled);
+        assertEquals(500, new HashSet<>(ids(THROTTLED_PROVIDER)).size(), "every message sent exactly once");
+    }
+
+    @Test
+    public void oneTimePasswordsOvertakeCampaignBacklog() throws Exception {
+        this.dispatcher.dispatch(messages(THROTTLED_PROVIDER, SmsMessagePriority.CAMPAIGN, 500));
+        assertTrue(this.dispatcher.campaignCapacity() <= 5000 - 300, "queued campaign messages count against the backlog");
+        Thread.sleep(50);
+        this.dispatcher.dispatch(messages(THROTTLED_PROVIDER, SmsMessagePriority.OTP, 10));
+
+        awaitUntil(() -> this.sent.stream().filter(message -> message.getPriority() == SmsMessagePriority.OTP).count() == 10);
+        final long campaignsSentBefore = campaigns().size();
+        assertTrue(campaignsSentBefore < 300, () -> "OTPs waited behind " + campaignsSentBefore + " campaign messages");
+        final ProviderStatistics statistics = this.fakeGateway.getStatistics().get(THROTTLED_PROVIDER);
+        assertEquals(0, statistics.getInversions(), "no batch put a campaign message ahead of an OTP");
+        assertTrue(statistics.getMaxQueuedMillis(SmsMessagePriority.OTP) < 500,
+                () -> "OTP queued for " + statistics.getMaxQueuedMillis(SmsMessagePriority.OTP) + "ms");
+
+        // campaign messages still queued at shutdown go back to PENDING for the next start
+        this.dispatcher.onApplicationEvent(null);
+        final ExecutorService executorService = (ExecutorService) ReflectionTestUtils.getField(this.dispatcher, "executorService");
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        final ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(this.namedParameterJdbcTemplate).update(eq(UPDATE_STATUS_SQL), params.capture());
+        assertEquals(SmsMessageStatusType.PENDING.getValue(), params.getValue().getValue("status"));
+        final Set<Object> unsent = new HashSet<>((Collection<?>) params.getValue().getValue("ids"));
+        final Set<Object> campaigns = new HashSet<>(ids(campaigns()));
+        assertEquals(500, unsent.size() + campaigns.size(), "every campaign message either sent or requeued");
+        unsent.addAll(campaigns);
+        assertEquals(500, unsent.size(), "no campaign message both sent and requeued");
+    }
+
+    @Test
+    public void rejectedBatchIsMarkedFailed() throws Exception {
+        this.gatewayDown = true;
+        final List<SmsDispatchMessage> messages = messages(THROTTLED_PROVIDER, SmsMessagePriority.TRANSACTIONAL, 20);
+        this.dispatcher.dispatch(messages);
+
+        final ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        awaitUntil(() -> !mockingDetails(this.namedParameterJdbcTemplate).getInvocations().isEmpty());
+        verify(this.namedParameterJdbcTemplate).update(eq(UPDATE_STATUS_SQL), params.capture());
+        assertEquals(SmsMessageStatusType.FAILED.getValue(), params.getValue().getValue("status"));
+        assertEquals(ids(messages), params.getValue().getValue("ids"), "the whole batch in one update");
+    }
+
+    private List<SmsDispatchMessage> messages(final Long providerId, final SmsMessagePriority priority, final int count) {
+        final List<SmsDispatchMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new SmsDispatchMessage(this.nextId.incrementAndGet(), "+2348000000000", "Message", providerId, priority,
+                    System.currentTimeMillis()));
+        }
+        return messages;
+    }
+
+    private List<SmsDispatchMessage> campaigns() {
+        return this.sent.stream().filter(message -> message.getPriority() == SmsMessagePriority.CAMPAIGN).toList();
+    }
+
+    private long sent(final Long providerId) {
+        return this.sent.stream().filter(message -> providerId.equals(message.getProviderId())).count();
+    }
+
+    private List<Long> ids(final Long providerId) {
+        return this.sent.stream().filter(message -> providerId.equals(message.getProviderId())).map(SmsDispatchMessage::getId).toList();
+    }
+
+    private static List<Long> ids(final List<SmsDispatchMessage> messages) {
+        return messages.stream().map(SmsDispatchMessage::getId).toList();
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.interoperation.data.InteropTransferData;
+import org.apache.fineract.interoperation.data.InteropTransferRequestData;
+import org.apache.fineract.interoperation.data.MoneyData;
+import org.apache.fineract.interoperation.domain.InteropIdentifierRepository;
+import org.apache.fineract.interoperation.domain.InteropTransactionRole;
+import org.apache.fineract.interoperation.domain.InteropTransferState;
+import org.apache.fineract.interoperation.exception.InteropTransferAlreadyCommittedException;
+import org.apache.fineract.interoperation.serialization.InteropDataValidator;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepository;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.data.LoanAccountData;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
+import org.apache.fineract.portfolio.note.domain.NoteRepository;
+import org.apache.fineract.portfolio.paymenttype.domain.PaymentTypeRepository;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountDomainService;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionSummaryWrapper;
+import org.apache.fineract.portfolio.savings.domain.SavingsHelper;
+import org.apache.fineract.portfolio.savings.service.SavingsAccountHoldLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests the interop prepare, commit and release paths of {@link InteropServiceImpl} over the indexed transfer state, including a
+ * benchmark showing that a prepare-to-commit cycle costs the same whatever the size of the account's history.
+ */
+public class InteropServiceImplTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("NGN", 2, null);
+    private static final String ACCOUNT_ID = "ACC-0001";
+    private static final BigDecimal AMOUNT = new BigDecimal("100");
+    private static final int CYCLES = 2000;
+
+    private final InteropDataValidator dataValidator = mock(InteropDataValidator.class);
+    private final SavingsAccountRepository savingsAccountRepository = mock(SavingsAccountRepository.class);
+    private final SavingsAccountTransactionRepository transactionRepository = mock(SavingsAccountTransactionRepository.class);
+    private final ApplicationCurrencyRepository currencyRepository = mock(ApplicationCurrencyRepository.class);
+    private final SavingsAccountDomainService savingsAccountDomainService = mock(SavingsAccountDomainService.class);
+    private final SavingsAccountAssembler savingsAccountAssembler = mock(SavingsAccountAssembler.class);
+    private final SavingsAccountHoldLedgerService holdLedger = mock(SavingsAccountHoldLedgerService.class);
+    private final InMemoryTransferState transferState = new InMemoryTransferState();
+    private final Map<Long, SavingsAccountTransaction> savedTransactions = new ConcurrentHashMap<>();
+    private final AtomicLong transactionIds = new AtomicLong();
+    private final Map<JsonCommand, InteropTransferRequestData> requests = new ConcurrentHashMap<>();
+
+    private InteropServiceImpl interopService;
+
+    @BeforeEach
+    public void init() {
+        initContext();
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+
+        this.interopService = new InteropServiceImpl(mock(PlatformSecurityContext.class), this.dataValidator,
+                this.savingsAccountRepository, this.transactionRepository, this.currencyRepository, mock(NoteRepository.class),
+                mock(PaymentTypeRepository.class), mock(InteropIdentifierRepository.class), mock(LoanRepository.class),
+                mock(SavingsHelper.class), mock(SavingsAccountTransactionSummaryWrapper.class), this.savingsAccountDomainService,
+                mock(JdbcTemplate.class), mock(PortfolioCommandSourceWritePlatformService.class), mockSerializer(),
+                mock(DatabaseSpecificSQLGenerator.class), this.savingsAccountAssembler, this.transferState,
+                this.holdLedger);
+
+        given(this.dataValidator.validateAndParseTransferRequest(any(JsonCommand.class)))
+                .willAnswer(invocation -> this.requests.get(invocation.<JsonCommand>getArgument(0)));
+        final ApplicationCurrency currency = mock(ApplicationCurrency.class);
+        given(currency.getCode()).willReturn("NGN");
+        given(this.currencyRepository.findOneByCode("NGN")).willReturn(currency);
+        given(this.transactionRepository.saveAndFlush(any(SavingsAccountTransaction.class))).willAnswer(invocation -> {
+            final SavingsAccountTransaction transaction = invocation.getArgument(0);
+            final long id = this.transactionIds.incrementAndGet();
+            ReflectionTestUtils.setField(transaction, "id", id);
+            this.savedTransactions.put(id, transaction);
+            return transaction;
+        });
+        given(this.transactionRepository.findById(anyLong()))
+                .willAnswer(invocation -> Optional.ofNullable(this.savedTransactions.get(invocation.<Long>getArgument(0))));
+        given(this.savingsAccountDomainService.handleWithdrawal(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .willAnswer(invocation -> {
+                    final SavingsAccountTransaction withdrawal = transaction(invocation.getArgument(2));
+                    ReflectionTestUtils.setField(withdrawal, "id", this.transactionIds.incrementAndGet());
+                    return withdrawal;
+                });
+    }
+
+    @Test
+    public void prepareAndCommitNeverLoadTheTransactionHistory() {
+        final SavingsAccount account = account(7L, 100_000);
+
+        prepareAndCommit("transfer-1");
+
+        final InteropTransferData transfer = this.transferState.findTransfer(7L, "transfer-1");
+        assertEquals(InteropTransferState.COMMITTED, transfer.getState());
+        assertTrue(transfer.getTransactionId() != null);
+        verify(account, never()).getTransactions();
+        verify(account).holdAmount(argThat(amount -> amount.compareTo(AMOUNT) == 0));
+        verify(account).releaseOnHoldAmount(argThat(amount -> amount.compareTo(AMOUNT) == 0));
+        verify(this.savingsAccountDomainService).handleWithdrawal(eq(account), any(), any(),
+                argThat(amount -> amount.compareTo(AMOUNT) == 0), any(), any(), eq(false));
+    }
+
+    /**
+     * Benchmark: prepare-to-commit cycles against an account with 100k transactions take about as long as against one
+     * with 100, because holds are found through {@code m_interop_transfer} instead of the transaction history.
+     */
+    @Test
+    public void prepareToCommitCostDoesNotGrowWithHistory() {
+        final long youngNanos = cycleNanos(account(1L, 100), "young");
+        final long oldNanos = cycleNanos(account(2L, 100_000), "old");
+
+        assertTrue(oldNanos < youngNanos * 3 + 200_000_000L,
+                CYCLES + " cycles took " + oldNanos + "ns on 100k transactions against " + youngNanos + "ns on 100");
+        assertEquals(CYCLES * 2, this.transferState.committed());
+    }
+
+    @Test
+    public void concurrentCommitsOfOnePreparedTransferWithdrawOnce() throws Exception {
+        account(3L, 100);
+        this.interopService.prepareTransfer(command("transfer-x"));
+
+        final int commits = 16;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger rejected = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(commits);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < commits; i++) {
+                final JsonCommand commit = command("transfer-x");
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    initContext();
+                    start.await();
+                    try {
+                        this.interopService.commitTransfer(commit);
+                    } catch (final InteropTransferAlreadyCommittedException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(commits - 1, rejected.get());
+        verify(this.savingsAccountDomainService, times(1)).handleWithdrawal(any(), any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void releasingAPartlyReleasedHoldReleasesOnlyWhatIsStillHeld() {
+        final SavingsAccount account = account(4L, 100);
+        this.interopService.prepareTransfer(command("transfer-p"));
+        final Long holdTransactionId = this.transferState.findTransfer(4L, "transfer-p").getHoldTransactionId();
+        // 40 of the 100 were released through the savings API in the meantime
+        given(this.holdLedger.findByHoldTransactionId(holdTransactionId)).willReturn(new SavingsAccountHoldData(1L, 4L, holdTransactionId,
+                AMOUNT, new BigDecimal("40"), SavingsAccountHoldStatus.ACTIVE, null));
+        given(this.holdLedger.release(eq(holdTransactionId), any())).willReturn(true);
+
+        this.interopService.releaseTransfer(command("transfer-p"));
+
+        final BigDecimal remainder = new BigDecimal("60");
+        verify(this.holdLedger).release(eq(holdTransactionId), argThat(amount -> amount.compareTo(remainder) == 0));
+        verify(account).releaseOnHoldAmount(argThat(amount -> amount.compareTo(remainder) == 0));
+        final Long releaseId = this.savedTransactions.get(holdTransactionId).getReleaseIdOfHoldAmountTransaction();
+        assertEquals(0, remainder.compareTo(this.savedTransactions.get(releaseId).getAmount()));
+    }
+
+    @Test
+    public void releaseFailsWhenTheLedgerNoLongerHoldsTheAmount() {
+        final SavingsAccount account = account(5L, 100);
+        this.interopService.prepareTransfer(command("transfer-r"));
+        final Long holdTransactionId = this.transferState.findTransfer(5L, "transfer-r").getHoldTransactionId();
+        given(this.holdLedger.findByHoldTransactionId(holdTransactionId)).willReturn(new SavingsAccountHoldData(1L, 5L, holdTransactionId,
+                AMOUNT, BigDecimal.ZERO, SavingsAccountHoldStatus.ACTIVE, null));
+        // a concurrent release got there first
+        given(this.holdLedger.release(eq(holdTransactionId), any())).willReturn(false);
+
+        assertThrows(PlatformDataIntegrityException.class, () -> this.interopService.releaseTransfer(command("transfer-r")));
+
+        verify(account, never()).releaseOnHoldAmount(any());
+        assertNull(this.savedTransactions.get(holdTransactionId).getReleaseIdOfHoldAmountTransaction());
+    }
+
+    private long cycleNanos(final SavingsAccount account, final String prefix) {
+        for (int i = 0; i < CYCLES / 2; i++) {
+            prepareAndCommit(prefix + "-warmup-" + i);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < CYCLES / 2; i++) {
+            prepareAndCommit(prefix + "-" + i);
+        }
+        final long elapsed = System.nanoTime() - start;
+        verify(account, never()).getTransactions();
+        return elapsed;
+    }
+
+    private void prepareAndCommit(final String transferCode) {
+        this.interopService.prepareTransfer(command(transferCode));
+        this.interopService.commitTransfer(command(transferCode));
+    }
+
+    private JsonCommand command(final String transferCode) {
+        final JsonCommand command = mock(JsonCommand.class);
+        this.requests.put(command, new InteropTransferRequestData("tx-" + transferCode, transferCode, ACCOUNT_ID,
+                MoneyData.build(AMOUNT, "NGN"), InteropTransactionRole.PAYER));
+        return command;
+    }
+
+    /**
+     * An account whose history, if anything asked for it, would hold {@code historySize} transactions.
+     */
+    private SavingsAccount account(final Long id, final int historySize) {
+        final List<SavingsAccountTransaction> history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(transaction(LocalDate.of(2000, 1, 1).plusDays(i % 5000)));
+        }
+        final SavingsAccount account = mock(SavingsAccount.class);
+        given(account.getId()).willReturn(id);
+        given(account.getExternalId()).willReturn(ACCOUNT_ID);
+        given(account.getCurrency()).willReturn(CURRENCY);
+        given(account.getWithdrawableBalance()).willReturn(new BigDecimal("1000000000"));
+        given(account.isTransactionAllowed(any(), any())).willReturn(true);
+        given(account.getTransactions()).willReturn(history);
+        given(this.savingsAccountRepository.findByExternalId(ACCOUNT_ID)).willReturn(account);
+        given(this.savingsAccountAssembler.assembleForTransaction(eq(id), any())).willReturn(account);
+        return account;
+    }
+
+    private static SavingsAccountTransaction transaction(final LocalDate date) {
+        return SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, BigDecimal.TEN), date.atStartOfDay(), null,
+                null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DefaultToApiJsonSerializer<LoanAccountData> mockSerializer() {
+        return mock(DefaultToApiJsonSerializer.class);
+    }
+
+    private static void initContext() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2024, 3, 1))));
+    }
+
+    /**
+     * Keeps the unique (account, transfer code) key and the conditional state transition of {@code m_interop_transfer}.
+     */
+    private static final class InMemoryTransferState implements InteropTransferStateService {
+
+        private final Map<String, InteropTransferData> transfers = new HashMap<>();
+        private long nextId;
+
+        @Override
+        public synchronized InteropTransferData findTransfer(final Long savingsAccountId, final String transferCode) {
+            return this.transfers.get(savingsAccountId + "/" + transferCode);
+        }
+
+        @Override
+        public synchronized boolean recordPrepared(final Long savingsAccountId, final String transferCode, final Long holdTransactionId,
+                final BigDecimal amount) {
+            return insert(savingsAccountId, transferCode, holdTransactionId, amount, InteropTransferState.PREPARED);
+        }
+
+        @Override
+        public synchronized boolean recordCommittedCredit(final Long savingsAccountId, final String transferCode,
+                final BigDecimal amount) {
+            return insert(savingsAccountId, transferCode, null, amount, InteropTransferState.COMMITTED);
+        }
+
+        @Override
+        public synchronized boolean transition(final Long transferId, final InteropTransferState from, final InteropTransferState to) {
+            for (final Map.Entry<String, InteropTransferData> entry : this.transfers.entrySet()) {
+                final InteropTransferData transfer = entry.getValue();
+                if (transfer.getId().equals(transferId)) {
+                    if (transfer.getState() != from) {
+                        return false;
+                    }
+                    entry.setValue(copy(transfer, transfer.getTransactionId(), to));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void updateTransactionId(final Long transferId, final Long transactionId) {
+            this.transfers.replaceAll((key, transfer) -> transfer.getId().equals(transferId) ? copy(transfer, transactionId,
+                    transfer.getState()) : transfer);
+        }
+
+        synchronized long committed() {
+            return this.transfers.values().stream().filter(InteropTransferData::isCommitted).count();
+        }
+
+        private boolean insert(final Long savingsAccountId, final String transferCode, final Long holdTransactionId,
+                final BigDecimal amount, final InteropTransferState state) {
+            final String key = savingsAccountId + "/" + transferCode;
+            if (this.transfers.containsKey(key)) {
+                return false;
+            }
+            this.transfers.put(key, new InteropTransferData(++this.nextId, savingsAccountId, transferCode, holdTransactionId, null, amount,
+                    state));
+            return true;
+        }
+
+        private static InteropTransferData copy(final InteropTransferData transfer, final Long transactionId,
+                final InteropTransferState state) {
+            return new InteropTransferData(transfer.getId(), transfer.getSavingsAccountId(), transfer.getTransferCode(),
+                    transfer.getHoldTransactionId(), transactionId, transfer.getAmount(), state);
+        }
+    }
+}
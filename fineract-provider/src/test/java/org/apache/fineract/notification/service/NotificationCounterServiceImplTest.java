@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.notification.data.NotificationCounterData;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+/**
+ * Tests {@link NotificationCounterServiceImpl} reading the counters of many users at once.
+ */
+public class NotificationCounterServiceImplTest {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final NotificationCounterServiceImpl counterService = new NotificationCounterServiceImpl(mock(JdbcTemplate.class),
+            this.namedParameterJdbcTemplate);
+
+    @Test
+    public void usersWithoutCounterRowReadAsEmpty() throws Exception {
+        final ResultSet row = mock(ResultSet.class);
+        given(row.getLong("user_id")).willReturn(2L);
+        given(row.getInt("unread_count")).willReturn(3);
+        given(row.getLong("last_notification_id")).willReturn(41L);
+        willAnswer(invocation -> {
+            final SqlParameterSource params = invocation.getArgument(1);
+            assertEquals(List.of(1L, 2L, 3L), params.getValue("userIds"));
+            invocation.<RowCallbackHandler>getArgument(2).processRow(row);
+            return null;
+        }).given(this.namedParameterJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        final Map<Long, NotificationCounterData> counters = this.counterService.retrieve(List.of(1L, 2L, 3L));
+
+        assertEquals(3, counters.size());
+        assertEquals(3, counters.get(2L).getUnreadCount());
+        assertEquals(41L, counters.get(2L).getLastNotificationId());
+        assertEquals(0, counters.get(1L).getUnreadCount());
+        assertEquals(0L, counters.get(3L).getLastNotificationId());
+    }
+
+    @Test
+    public void noUsersNoQuery() {
+        assertTrue(this.counterService.retrieve(List.of()).isEmpty());
+        verifyNoInteractions(this.namedParameterJdbcTemplate);
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.ws.rs.container.AsyncResponse;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.notification.data.NotificationCounterData;
+import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.data.NotificationStreamData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link NotificationStreamServiceImpl} parking long-poll requests and answering them from the per-user
+ * notification counters.
+ */
+public class NotificationStreamServiceImplTest {
+
+    private final Counters counters = new Counters();
+    private final MapperTable mapperTable = new MapperTable();
+    private final NotificationBroadcastService broadcastService = mock(NotificationBroadcastService.class);
+    private final Map<AsyncResponse, NotificationStreamData> answers = new ConcurrentHashMap<>();
+    private final Map<AsyncResponse, Boolean> cancelled = new ConcurrentHashMap<>();
+    private final Map<Thread, NotificationStreamData> rendered = new ConcurrentHashMap<>();
+    private NotificationStreamServiceImpl streamService;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.escape(any())).willAnswer(invocation -> invocation.getArgument(0));
+        given(sqlGenerator.limit(any(Integer.class))).willAnswer(invocation -> "LIMIT " + invocation.getArgument(0));
+        @SuppressWarnings("unchecked")
+        final ToApiJsonSerializer<NotificationStreamData> serializer = mock(ToApiJsonSerializer.class);
+        // the stream renders and resumes on the same thread, so the response mock picks the data up from there
+        given(serializer.serialize(any())).willAnswer(invocation -> {
+            final NotificationStreamData data = invocation.getArgument(0);
+            this.rendered.put(Thread.currentThread(), data);
+            return "lastEventId=" + data.getLastEventId();
+        });
+
+        this.streamService = new NotificationStreamServiceImpl(this.mapperTable, sqlGenerator, this.counters, this.broadcastService,
+                serializer);
+        ReflectionTestUtils.setField(this.streamService, "pollMillis", 20L);
+        ReflectionTestUtils.setField(this.streamService, "maxWaitSeconds", 25);
+        ReflectionTestUtils.setField(this.streamService, "maxWaiters", 2000);
+        ReflectionTestUtils.setField(this.streamService, "batchSize", 50);
+        this.streamService.initializeExecutorService();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        this.streamService.onApplicationEvent(null);
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void answersStraightAwayWithoutLastEventId() {
+        this.mapperTable.deliver(1L, 7L, "Loan approved");
+
+        final AsyncResponse response = asyncResponse();
+        this.streamService.await(1L, null, response);
+
+        assertEquals(7L, this.answers.get(response).getLastEventId());
+        assertEquals(1, this.answers.get(response).getUnreadCount());
+        assertTrue(this.answers.get(response).getNotifications().isEmpty(), "only the position, no backlog");
+    }
+
+    @Test
+    public void answersStraightAwayWhenNewerNotificationsExist() {
+        this.mapperTable.deliver(1L, 7L, "Loan approved");
+        this.mapperTable.deliver(1L, 8L, "Loan disbursed");
+
+        final AsyncResponse response = asyncResponse();
+        this.streamService.await(1L, 6L, response);
+
+        final NotificationStreamData answer = this.answers.get(response);
+        assertEquals(8L, answer.getLastEventId());
+        assertEquals(List.of("Loan approved", "Loan disbursed"), contents(answer));
+    }
+
+    @Test
+    public void parkedRequestsAreAnsweredWhenTheirCounterMoves() throws Exception {
+        final int users = 500;
+        final List<AsyncResponse> responses = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            this.mapperTable.deliver(userId, userId * 10, "Welcome");
+            final AsyncResponse response = asyncResponse();
+            this.streamService.await(userId, userId * 10, response);
+            responses.add(response);
+        }
+        Thread.sleep(100);
+        assertTrue(this.answers.isEmpty(), "nothing new, every request stays parked");
+        assertTrue(this.counters.bulkQueries.get() > 0);
+        assertEquals(users, this.counters.singleQueries.get(), "one read per request as it parks, ticks read all waiters at once");
+
+        // another node delivers to every even user
+        for (long userId = 2; userId <= users; userId += 2) {
+            this.mapperTable.deliver(userId, userId * 10 + 1, "Repayment due");
+        }
+        awaitUntil(() -> this.answers.size() == users / 2);
+
+        for (int i = 0; i < users; i++) {
+            final long userId = i + 1;
+            final NotificationStreamData answer = this.answers.get(responses.get(i));
+            if (userId % 2 == 0) {
+                assertEquals(userId * 10 + 1, answer.getLastEventId());
+                assertEquals(List.of("Repayment due"), contents(answer));
+                assertEquals(2, answer.getUnreadCount());
+            } else {
+                assertNull(answer, "user " + userId + " has nothing new");
+            }
+        }
+    }
+
+    @Test
+    public void parkedRequestIsAnsweredEmptyAtTheDeadline() throws Exception {
+        ReflectionTestUtils.setField(this.streamService, "maxWaitSeconds", 0);
+        this.mapperTable.deliver(1L, 7L, "Loan approved");
+
+        final AsyncResponse response = asyncResponse();
+        this.streamService.await(1L, 7L, response);
+        awaitUntil(() -> this.answers.containsKey(response));
+
+        assertEquals(7L, this.answers.get(response).getLastEventId());
+        assertTrue(this.answers.get(response).getNotifications().isEmpty());
+    }
+
+    @Test
+    public void newBroadcastIsMaterializedForWaitingUsers() throws Exception {
+        final AsyncResponse response = asyncResponse();
+        this.streamService.await(1L, 0L, response);
+        Thread.sleep(100);
+        verify(this.broadcastService, times(1)).materializeBroadcasts(1L);
+
+        // materializing writes the user's mapper row, which moves the counter
+        given(this.broadcastService.materializeBroadcasts(1L)).willAnswer(invocation -> {
+            this.mapperTable.deliver(1L, 41L, "System maintenance tonight");
+            return 1;
+        });
+        this.mapperTable.lastBroadcastId = 40L;
+        awaitUntil(() -> this.answers.containsKey(response));
+
+        assertEquals(List.of("System maintenance tonight"), contents(this.answers.get(response)));
+    }
+
+    @Test
+    public void tooManyWaitersAreAnsweredStraightAway() {
+        ReflectionTestUtils.setField(this.streamService, "maxWaiters", 1);
+        final AsyncResponse parked = asyncResponse();
+        this.streamService.await(1L, 0L, parked);
+        final AsyncResponse overflow = asyncResponse();
+        this.streamService.await(2L, 0L, overflow);
+
+        assertFalse(this.answers.containsKey(parked));
+        assertEquals(0L, this.answers.get(overflow).getLastEventId());
+    }
+
+    @Test
+    public void shutdownCancelsParkedRequests() {
+        final AsyncResponse response = asyncResponse();
+        this.streamService.await(1L, 0L, response);
+
+        this.streamService.onApplicationEvent(null);
+
+        assertTrue(this.cancelled.containsKey(response), "clients reconnect elsewhere with their Last-Event-ID");
+    }
+
+    private AsyncResponse asyncResponse() {
+        final AsyncResponse response = mock(AsyncResponse.class);
+        given(response.resume(any(Object.class))).willAnswer(invocation -> {
+            this.answers.put(response, this.rendered.remove(Thread.currentThread()));
+            return true;
+        });
+        given(response.isDone()).willAnswer(invocation -> this.answers.containsKey(response) || this.cancelled.containsKey(response));
+        given(response.cancel()).willAnswer(invocation -> {
+            this.cancelled.put(response, true);
+            return true;
+        });
+        return response;
+    }
+
+    private static List<String> contents(final NotificationStreamData answer) {
+        return answer.getNotifications().stream().map(NotificationData::getContent).toList();
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * notification_user_counter, kept in memory and counting how it is read.
+     */
+    private final class Counters implements NotificationCounterService {
+
+        private final AtomicInteger bulkQueries = new AtomicInteger();
+        private final AtomicInteger singleQueries = new AtomicInteger();
+
+        @Override
+        public void recordDelivered(final Long notificationId) {}
+
+        @Override
+        public void recount(final Long appUserId) {}
+
+        @Override
+        public NotificationCounterData retrieve(final Long appUserId) {
+            this.singleQueries.incrementAndGet();
+            return mapperTable.counter(appUserId);
+        }
+
+        @Override
+        public Map<Long, NotificationCounterData> retrieve(final Collection<Long> appUserIds) {
+            this.bulkQueries.incrementAndGet();
+            final Map<Long, NotificationCounterData> result = new HashMap<>();
+            for (final Long appUserId : appUserIds) {
+                result.put(appUserId, mapperTable.counter(appUserId));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * notification_mapper and notification_generator rows, answering the stream's queries.
+     */
+    private static final class MapperTable extends JdbcTemplate {
+
+        private final Map<Long, List<Object[]>> rowsByUser = new HashMap<>();
+        private volatile long lastBroadcastId;
+
+        synchronized void deliver(final Long userId, final Long mapperId, final String content) {
+            this.rowsByUser.computeIfAbsent(userId, key -> new ArrayList<>()).add(new Object[] { mapperId, content });
+        }
+
+        synchronized NotificationCounterData counter(final Long userId) {
+            final List<Object[]> rows = this.rowsByUser.getOrDefault(userId, List.of());
+            final long last = rows.stream().mapToLong(row -> (Long) row[0]).max().orElse(0L);
+            return new NotificationCounterData(userId, rows.size(), last);
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType) {
+            assertTrue(sql.contains("FROM notification_generator WHERE is_broadcast = true"), sql);
+            return requiredType.cast(this.lastBroadcastId);
+        }
+
+        @Override
+        public synchronized void query(final String sql, final RowCallbackHandler rch, final Object... args) {
+            assertTrue(sql.contains("FROM notification_mapper nm"), sql);
+            for (final Object[] row : this.rowsByUser.getOrDefault((Long) args[0], List.of())) {
+                if ((Long) row[0] > (Long) args[1]) {
+                    try {
+                        rch.processRow(resultSet(row));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+
+        private static ResultSet resultSet(final Object[] row) {
+            return (ResultSet) Proxy.newProxyInstance(MapperTable.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getLong" -> "eventId".equals(args[0]) ? row[0] : 1L;
+                        case "getString" -> "content".equals(args[0]) ? row[1] : null;
+                        case "getBoolean" -> false;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
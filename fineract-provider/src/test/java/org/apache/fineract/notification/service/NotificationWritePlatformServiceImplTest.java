@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.apache.fineract.notification.domain.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link NotificationWritePlatformServiceImpl} fanning a notification out to an audience of 10,000 users.
+ */
+public class NotificationWritePlatformServiceImplTest {
+
+    private static final int AUDIENCE_SIZE = 10_000;
+    private static final long OFFICE_ID = 1L;
+    private static final long ACTOR_ID = 1L;
+    private static final long NOTIFICATION_ID = 99L;
+    private static final long MAX_FAN_OUT_MILLIS = 1000;
+
+    private final NotificationGeneratorWritePlatformService generatorWriteService = mock(NotificationGeneratorWritePlatformService.class);
+    private final NotificationCounterService counterService = mock(NotificationCounterService.class);
+    private final MapperTable mapperTable = new MapperTable();
+    private NotificationWritePlatformServiceImpl writeService;
+
+    @BeforeEach
+    public void init() {
+        given(this.generatorWriteService.create(any(Notification.class))).willReturn(NOTIFICATION_ID);
+        this.writeService = new NotificationWritePlatformServiceImpl(this.generatorWriteService, this.mapperTable, this.counterService);
+        ReflectionTestUtils.setField(this.writeService, "broadcastThreshold", 500);
+    }
+
+    @Test
+    public void largeAudienceIsStoredOnceAsBroadcast() {
+        this.mapperTable.audienceSize = AUDIENCE_SIZE;
+
+        final long start = System.nanoTime();
+        final Long notificationId = this.writeService.notifyAudience(OFFICE_ID, "READ_LOAN", "loan", 5L, "approved", ACTOR_ID,
+                "Loan approved", false);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(NOTIFICATION_ID, notificationId);
+        final ArgumentCaptor<Notification> notification = ArgumentCaptor.forClass(Notification.class);
+        verify(this.generatorWriteService, times(1)).create(notification.capture());
+        assertTrue(notification.getValue().isBroadcast());
+        assertEquals(OFFICE_ID, notification.getValue().getAudienceOfficeId());
+        assertEquals("READ_LOAN", notification.getValue().getAudiencePermission());
+        assertEquals(1, this.mapperTable.statements, "only the audience is counted, no mapper row is written");
+        assertTrue(this.mapperTable.rows.isEmpty());
+        assertTrue(elapsedMillis < MAX_FAN_OUT_MILLIS, () -> "broadcast to " + AUDIENCE_SIZE + " users took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void smallAudienceIsMappedWithOneStatement() {
+        this.mapperTable.audienceSize = 10;
+
+        this.writeService.notifyAudience(OFFICE_ID, "READ_LOAN", "loan", 5L, "approved", ACTOR_ID, "Loan approved", false);
+
+        final ArgumentCaptor<Notification> notification = ArgumentCaptor.forClass(Notification.class);
+        verify(this.generatorWriteService).create(notification.capture());
+        assertFalse(notification.getValue().isBroadcast());
+        assertEquals(2, this.mapperTable.statements, "audience count and one INSERT ... SELECT");
+        assertEquals(10, this.mapperTable.selectedRows);
+        verify(this.counterService).recordDelivered(NOTIFICATION_ID);
+    }
+
+    @Test
+    public void tenThousandUserIdsAreMappedInOneBatch() {
+        final List<Long> userIds = LongStream.rangeClosed(1, AUDIENCE_SIZE).boxed().toList();
+
+        final long start = System.nanoTime();
+        this.writeService.notify(userIds, "loan", 5L, "approved", ACTOR_ID, "Loan approved", false);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        verify(this.generatorWriteService, times(1)).create(any(Notification.class));
+        assertEquals(1, this.mapperTable.statements, "a single JDBC batch");
+        assertEquals(AUDIENCE_SIZE, this.mapperTable.rows.size());
+        assertEquals(NOTIFICATION_ID, this.mapperTable.rows.get(0)[0]);
+        assertEquals((long) AUDIENCE_SIZE, this.mapperTable.rows.get(AUDIENCE_SIZE - 1)[1]);
+        verify(this.counterService, times(1)).recordDelivered(NOTIFICATION_ID);
+        assertTrue(elapsedMillis < MAX_FAN_OUT_MILLIS, () -> "notifying " + AUDIENCE_SIZE + " users took " + elapsedMillis + "ms");
+    }
+
+    /**
+     * Answers the audience count and records the statements writing {@code notification_mapper} rows.
+     */
+    private static final class MapperTable extends JdbcTemplate {
+
+        private int audienceSize;
+        private int statements;
+        private int selectedRows;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            this.statements++;
+            assertTrue(sql.startsWith("SELECT COUNT(u.id) FROM m_appuser u"), sql);
+            return requiredType.cast((long) this.audienceSize);
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            this.statements++;
+            assertTrue(sql.startsWith("INSERT INTO notification_mapper"), sql);
+            this.selectedRows += this.audienceSize;
+            return this.audienceSize;
+        }
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            this.statements++;
+            assertTrue(sql.startsWith("INSERT INTO notification_mapper"), sql);
+            this.rows.addAll(batchArgs);
+            final int[] counts = new int[batchArgs.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.portfolio.savings.exception.SavingsAccountNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+/**
+ * Tests {@link AccountTransferLockCoordinator}. The repository is replaced by row locks held until the end of the
+ * simulated transaction, the way <code>select ... for update</code> behaves, so a wrong lock order shows up as a lock
+ * wait timeout (the database would report a deadlock).
+ */
+public class AccountTransferLockCoordinatorTest {
+
+    private static final int ACCOUNTS = 10;
+    private static final int THREADS = 200;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final long OPENING_BALANCE = 1_000_000L;
+
+    @Test
+    public void locksAccountsInAscendingIdOrder() {
+        final SavingsAccountRepository repository = mock(SavingsAccountRepository.class);
+        given(repository.findOneLocked(anyLong())).willReturn(mock(SavingsAccount.class));
+
+        new AccountTransferLockCoordinator(repository).lockSavingsAccounts(42L, null, 7L, 42L);
+
+        final InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).findOneLocked(7L);
+        inOrder.verify(repository).findOneLocked(42L);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void missingAccountIsReported() {
+        final SavingsAccountRepository repository = mock(SavingsAccountRepository.class);
+
+        assertThrows(SavingsAccountNotFoundException.class, () -> new AccountTransferLockCoordinator(repository).lockSavingsAccounts(3L));
+    }
+
+    @Test
+    public void randomCrossTransfersFinishWithoutDeadlockAndBalancedBooks() throws InterruptedException {
+        final Map<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        final ThreadLocal<Deque<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayDeque::new);
+        final AtomicInteger deadlocks = new AtomicInteger();
+        final SavingsAccount account = mock(SavingsAccount.class);
+        final SavingsAccountRepository repository = mock(SavingsAccountRepository.class);
+        given(repository.findOneLocked(anyLong())).willAnswer(invocation -> {
+            final ReentrantLock lock = rowLocks.computeIfAbsent(invocation.getArgument(0), id -> new ReentrantLock());
+            if (!lock.tryLock(2, TimeUnit.SECONDS)) {
+                deadlocks.incrementAndGet();
+                throw new IllegalStateException("lock wait timeout");
+            }
+            heldLocks.get().push(lock);
+            return account;
+        });
+        final AccountTransferLockCoordinator coordinator = new AccountTransferLockCoordinator(repository);
+
+        // plain longs on purpose: only the row locks keep the balance updates from racing
+        final long[] balances = new long[ACCOUNTS + 1];
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            balances[i] = OPENING_BALANCE;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger completed = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        final ThreadLocalRandom random = ThreadLocalRandom.current();
+                        final long from = 1 + random.nextInt(ACCOUNTS);
+                        long to = 1 + random.nextInt(ACCOUNTS - 1);
+                        if (to >= from) {
+                            to++;
+                        }
+                        try {
+                            coordinator.lockSavingsAccounts(from, to);
+                            final long amount = 1 + random.nextInt(100);
+                            balances[(int) from] -= amount;
+                            Thread.yield();
+                            balances[(int) to] += amount;
+                            completed.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            // counted as a deadlock, the transaction rolls back
+                        } finally {
+                            final Deque<ReentrantLock> locks = heldLocks.get();
+                            while (!locks.isEmpty()) {
+                                locks.pop().unlock();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "transfers did not finish");
+
+        assertEquals(0, deadlocks.get());
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed.get());
+        long total = 0;
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            total += balances[i];
+        }
+        assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.business.accounttier.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.business.accounttier.domain.AccountTierLimitType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests that {@link AccountTierLimitCounterServiceImpl} keeps one withdrawal counter per account and day, and adjusts it
+ * relative to the stored value so that concurrent withdrawals are all counted.
+ */
+public class AccountTierLimitCounterServiceImplTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("NGN", 2, null);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private final CounterTable counters = new CounterTable();
+    private final AccountTierLimitCounterServiceImpl underTest = new AccountTierLimitCounterServiceImpl(this.counters,
+            mock(TransactionTemplate.class));
+    private final SavingsAccount account = mock(SavingsAccount.class);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+        given(this.account.getId()).willReturn(5L);
+    }
+
+    @Test
+    public void withdrawalsIncrementAndReversalsDecrementTheDayCounter() {
+        final SavingsAccountTransaction first = withdrawal(MONDAY, "1500.00");
+        this.underTest.recordWithdrawal(first);
+        this.underTest.recordWithdrawal(withdrawal(MONDAY, "250.50"));
+
+        assertEquals(new Counter(2, new BigDecimal("1750.50")), this.counters.get(5L, MONDAY));
+
+        this.underTest.reverseWithdrawal(first);
+
+        assertEquals(new Counter(1, new BigDecimal("250.50")), this.counters.get(5L, MONDAY));
+    }
+
+    @Test
+    public void depositsAreNotCounted() {
+        this.underTest.recordWithdrawal(SavingsAccountTransaction.deposit(this.account, null, null, MONDAY,
+                Money.of(CURRENCY, new BigDecimal("100.00")), MONDAY.atStartOfDay(), null, null));
+
+        assertNull(this.counters.get(5L, MONDAY));
+        assertEquals(0, this.counters.statements);
+    }
+
+    @Test
+    public void aNewDayStartsANewCounterAndReversalsAdjustTheDayOfTheWithdrawal() {
+        final SavingsAccountTransaction monday = withdrawal(MONDAY, "900.00");
+        this.underTest.recordWithdrawal(monday);
+        this.underTest.recordWithdrawal(withdrawal(TUESDAY, "100.00"));
+
+        assertEquals(new Counter(1, new BigDecimal("900.00")), this.counters.get(5L, MONDAY));
+        assertEquals(new Counter(1, new BigDecimal("100.00")), this.counters.get(5L, TUESDAY));
+
+        // reversed on tuesday, but it was monday's limit that the withdrawal used up
+        this.underTest.reverseWithdrawal(monday);
+
+        assertEquals(new Counter(0, new BigDecimal("0.00")), this.counters.get(5L, MONDAY));
+        assertEquals(new Counter(1, new BigDecimal("100.00")), this.counters.get(5L, TUESDAY));
+    }
+
+    @Test
+    public void concurrentWithdrawalsAreAllCounted() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> tellers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tellers.add(executor.submit(() -> {
+                    for (int j = 0; j < 250; j++) {
+                        this.underTest.recordWithdrawal(withdrawal(MONDAY, "10.01"));
+                    }
+                }));
+            }
+            for (final Future<?> teller : tellers) {
+                teller.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(new Counter(2000, new BigDecimal("20020.00")), this.counters.get(5L, MONDAY));
+        // one relative upsert per withdrawal, never a read followed by a write
+        assertEquals(2000, this.counters.statements);
+    }
+
+    private SavingsAccountTransaction withdrawal(final LocalDate date, final String amount) {
+        return SavingsAccountTransaction.withdrawal(this.account, null, null, date, Money.of(CURRENCY, new BigDecimal(amount)),
+                date.atStartOfDay(), null, null);
+    }
+
+    private record Counter(long transactionCount, BigDecimal amount) {
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Counter counter && this.transactionCount == counter.transactionCount
+                    && this.amount.compareTo(counter.amount) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.transactionCount, this.amount.stripTrailingZeros());
+        }
+    }
+
+    /**
+     * {@code m_savings_account_tier_limit_counter}, applying the upsert the way the database does: atomically, adding to the
+     * stored values.
+     */
+    private static final class CounterTable extends JdbcTemplate {
+
+        private final Map<List<Object>, Counter> rows = new HashMap<>();
+        private int statements;
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            this.statements++;
+            final List<Object> key = List.of(args[0], args[1], args[2]);
+            final Counter stored = this.rows.getOrDefault(key, new Counter(0, BigDecimal.ZERO));
+            this.rows.put(key, new Counter(stored.transactionCount() + (Integer) args[3], stored.amount().add((BigDecimal) args[4])));
+            return 1;
+        }
+
+        private synchronized Counter get(final Long savingsId, final LocalDate counterDate) {
+            return this.rows.get(List.of(savingsId, counterDate, AccountTierLimitType.WITHDRAWAL.getValue()));
+        }
+    }
+}
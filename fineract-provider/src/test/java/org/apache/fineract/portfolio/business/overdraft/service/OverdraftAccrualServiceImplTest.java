@@ -0,0 +1,261 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.business.overdraft.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests that {@link OverdraftAccrualServiceImpl} resumes a run that died halfway through an office without accruing or
+ * posting any overdraft twice.
+ */
+public class OverdraftAccrualServiceImplTest {
+
+    private static final LocalDate ACCRUAL_DATE = LocalDate.of(2024, 3, 4);
+    private static final long HEAD_OFFICE = 1L;
+    private static final long BRANCH_OFFICE = 2L;
+
+    private final AccrualTables tables = new AccrualTables();
+    private final OverdraftAccrualServiceImpl underTest = new OverdraftAccrualServiceImpl(this.tables, new ChunkTransactions(this.tables),
+            () -> Optional.of(1L));
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, ACCRUAL_DATE.plusDays(1))));
+        // three chunks in the head office, one in the branch; every tenth wallet closed the day in credit
+        for (long id = 1; id <= 1500; id++) {
+            this.tables.overdrafts.put(id, new Overdraft(id, id <= 1200 ? HEAD_OFFICE : BRANCH_OFFICE,
+                    BigDecimal.valueOf(id % 10 == 0 ? 500 : -1000 - id)));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void rerunAfterAnInterruptedRunAccruesAndPostsEachOverdraftOnce() throws Exception {
+        // the connection drops while the head office's third chunk is writing its credit leg
+        this.tables.interruptChunkAfter = 1000L;
+
+        assertThrows(JobExecutionException.class, () -> this.underTest.accrueOverdraftInterest(ACCRUAL_DATE));
+
+        // the first two head office chunks and the branch committed, the interrupted chunk left nothing behind
+        assertEquals(900 + 270, this.tables.accruals.size());
+        assertTrue(this.tables.accruals.values().stream().allMatch(Accrual::posted));
+        assertEquals(2 * (900 + 270), this.tables.journalEntries.size());
+        assertTrue(this.tables.completedRuns.isEmpty());
+
+        this.underTest.accrueOverdraftInterest(ACCRUAL_DATE);
+
+        assertEquals(1350, this.tables.accruals.size());
+        assertEquals(1350, this.tables.accruals.values().stream().map(Accrual::overdraftId).distinct().count());
+        assertTrue(this.tables.accruals.values().stream().allMatch(Accrual::posted));
+        final Map<List<Object>, Long> legs = this.tables.journalEntries.stream()
+                .collect(Collectors.groupingBy(entry -> entry, Collectors.counting()));
+        assertEquals(2 * 1350, legs.size());
+        assertTrue(legs.values().stream().allMatch(count -> count == 1));
+        for (final Accrual accrual : this.tables.accruals.values()) {
+            assertTrue(legs.containsKey(List.of("OA" + accrual.id(), JournalEntryType.DEBIT.getValue())));
+            assertTrue(legs.containsKey(List.of("OA" + accrual.id(), JournalEntryType.CREDIT.getValue())));
+        }
+        assertEquals(Set.of(ACCRUAL_DATE), this.tables.completedRuns);
+
+        // and a third run for the same date changes nothing
+        this.underTest.accrueOverdraftInterest(ACCRUAL_DATE);
+
+        assertEquals(1350, this.tables.accruals.size());
+        assertEquals(2 * 1350, this.tables.journalEntries.size());
+    }
+
+    private record Overdraft(long id, long officeId, BigDecimal closingBalance) {}
+
+    private record Accrual(long id, long overdraftId, long officeId, LocalDate accrualDate, BigDecimal amount, boolean posted) {}
+
+    /**
+     * Runs each chunk under the table lock and puts the tables back the way they were when the chunk fails, like a rolled
+     * back database transaction.
+     */
+    private static final class ChunkTransactions extends TransactionTemplate {
+
+        private final AccrualTables tables;
+
+        private ChunkTransactions(final AccrualTables tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            synchronized (this.tables) {
+                final AccrualTables committed = this.tables.copy();
+                try {
+                    return action.doInTransaction(new SimpleTransactionStatus());
+                } catch (RuntimeException e) {
+                    this.tables.restore(committed);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code m_overdraft}, {@code m_overdraft_accrual}, {@code acc_gl_journal_entry} and {@code m_overdraft_accrual_run},
+     * answering the statements of the service. No overdraft interest has been posted, so nothing is ever settled.
+     */
+    private static final class AccrualTables extends JdbcTemplate {
+
+        private final Map<Long, Overdraft> overdrafts = new TreeMap<>();
+        private Map<Long, Accrual> accruals = new TreeMap<>();
+        private List<List<Object>> journalEntries = new ArrayList<>();
+        private Set<LocalDate> completedRuns = new TreeSet<>();
+        private long nextAccrualId = 1;
+        private Long interruptChunkAfter;
+
+        private synchronized AccrualTables copy() {
+            final AccrualTables copy = new AccrualTables();
+            copy.accruals = new TreeMap<>(this.accruals);
+            copy.journalEntries = new ArrayList<>(this.journalEntries);
+            copy.completedRuns = new TreeSet<>(this.completedRuns);
+            copy.nextAccrualId = this.nextAccrualId;
+            return copy;
+        }
+
+        private synchronized void restore(final AccrualTables committed) {
+            this.accruals = committed.accruals;
+            this.journalEntries = committed.journalEntries;
+            this.completedRuns = committed.completedRuns;
+            this.nextAccrualId = committed.nextAccrualId;
+        }
+
+        @Override
+        public synchronized <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final List<Long> ids;
+            if (sql.startsWith("SELECT DISTINCT COALESCE")) {
+                ids = this.overdrafts.values().stream().map(Overdraft::officeId).distinct().toList();
+            } else if (sql.startsWith("SELECT DISTINCT office_id FROM m_overdraft_accrual")) {
+                // settled is never set, see the class comment
+                ids = this.accruals.values().stream().map(Accrual::officeId).distinct().toList();
+            } else if (sql.startsWith("SELECT ov.id")) {
+                ids = this.overdrafts.values().stream().filter(overdraft -> overdraft.officeId() == (Long) args[3])
+                        .map(Overdraft::id).filter(id -> id > (Long) args[4]).limit((Integer) args[5]).toList();
+            } else if (sql.startsWith("SELECT id FROM m_overdraft_accrual")) {
+                ids = this.accruals.values().stream().filter(accrual -> accrual.officeId() == (Long) args[0] && accrual.posted())
+                        .map(Accrual::id).filter(id -> id > (Long) args[1]).limit((Integer) args[2]).toList();
+            } else {
+                throw new UnsupportedOperationException(sql);
+            }
+            return ids.stream().map(elementType::cast).toList();
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT INTO m_overdraft_accrual_run")) {
+                this.completedRuns.add((LocalDate) args[0]);
+                return 1;
+            } else if (sql.startsWith("INSERT INTO m_overdraft_accrual")) {
+                return accrue((Long) args[7], (LocalDate) args[1], (Long) args[8], (Long) args[9]);
+            } else if (sql.startsWith("INSERT INTO acc_gl_journal_entry")) {
+                return sql.contains("oa.is_posted = 0") ? postLeg(args) : 0;
+            } else if (sql.startsWith("UPDATE m_overdraft_accrual oa SET oa.is_posted = 1")) {
+                final List<Accrual> unposted = unposted(args, 0);
+                unposted.forEach(accrual -> this.accruals.put(accrual.id(), new Accrual(accrual.id(), accrual.overdraftId(),
+                        accrual.officeId(), accrual.accrualDate(), accrual.amount(), true)));
+                return unposted.size();
+            } else if (sql.startsWith("UPDATE m_overdraft_accrual oa SET")) {
+                return 0;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        // ON DUPLICATE KEY UPDATE id = id on the unique (overdraft_id, accrual_date) key
+        private int accrue(final Long officeId, final LocalDate accrualDate, final Long lowerId, final Long upperId) {
+            int inserted = 0;
+            for (final Overdraft overdraft : this.overdrafts.values()) {
+                if (overdraft.officeId() != officeId || overdraft.id() <= lowerId || overdraft.id() > upperId
+                        || overdraft.closingBalance().signum() >= 0 || isAccrued(overdraft.id(), accrualDate)) {
+                    continue;
+                }
+                final BigDecimal amount = overdraft.closingBalance().negate().multiply(BigDecimal.valueOf(18))
+                        .divide(BigDecimal.valueOf(100 * 365), 6, RoundingMode.HALF_UP);
+                final long id = this.nextAccrualId++;
+                this.accruals.put(id, new Accrual(id, overdraft.id(), officeId, accrualDate, amount, false));
+                inserted++;
+            }
+            return inserted;
+        }
+
+        private boolean isAccrued(final long overdraftId, final LocalDate accrualDate) {
+            return this.accruals.values().stream()
+                    .anyMatch(accrual -> accrual.overdraftId() == overdraftId && accrual.accrualDate().equals(accrualDate));
+        }
+
+        private int postLeg(final Object[] args) {
+            final Object type = args[1];
+            // args[11] onwards is the chunk: office, accrual date, lower and upper overdraft id
+            if (JournalEntryType.CREDIT.getValue().equals(type) && args[11].equals(HEAD_OFFICE)
+                    && args[13].equals(this.interruptChunkAfter)) {
+                this.interruptChunkAfter = null;
+                throw new DataAccessResourceFailureException("Communications link failure");
+            }
+            final List<Accrual> unposted = unposted(args, 11);
+            unposted.forEach(accrual -> this.journalEntries.add(List.of(args[0] + String.valueOf(accrual.id()), type)));
+            return unposted.size();
+        }
+
+        private List<Accrual> unposted(final Object[] args, final int chunkIndex) {
+            final Long officeId = (Long) args[chunkIndex];
+            final LocalDate accrualDate = (LocalDate) args[chunkIndex + 1];
+            final Long lowerId = (Long) args[chunkIndex + 2];
+            final Long upperId = (Long) args[chunkIndex + 3];
+            return this.accruals.values().stream()
+                    .filter(accrual -> accrual.officeId() == officeId && accrual.accrualDate().equals(accrualDate)
+                            && accrual.overdraftId() > lowerId && accrual.overdraftId() <= upperId && !accrual.posted())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.businessevent.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.persistence.EntityManager;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListener;
+import org.apache.fineract.portfolio.businessevent.BusinessEventListenerMode;
+import org.apache.fineract.portfolio.businessevent.domain.BusinessEventRetryStatus;
+import org.apache.fineract.portfolio.businessevent.domain.loan.transaction.LoanTransactionMakeRepaymentPostBusinessEvent;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests {@link BusinessEventNotifierServiceImpl} asynchronous listener calls against an in-memory
+ * {@code m_business_event_retry}.
+ */
+public class BusinessEventNotifierServiceImplTest {
+
+    private static final long TRANSACTION_ID = 7L;
+    private static final long RAISING_USER_ID = 42L;
+
+    private final RetryTable retryTable = new RetryTable();
+    private final AppUserRepository appUserRepository = mock(AppUserRepository.class);
+    private final AppUser raisingUser = mock(AppUser.class);
+    private BusinessEventNotifierServiceImpl service;
+    private LoanTransaction transaction;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        this.service = new BusinessEventNotifierServiceImpl(this.retryTable,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), this.appUserRepository);
+        ReflectionTestUtils.setField(this.service, "listenerThreads", 2);
+        ReflectionTestUtils.setField(this.service, "queueCapacity", 500);
+        ReflectionTestUtils.setField(this.service, "maxAttempts", 6);
+        ReflectionTestUtils.setField(this.service, "initialBackoffSeconds", 60L);
+
+        final var constructor = LoanTransaction.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        this.transaction = constructor.newInstance();
+        ReflectionTestUtils.setField(this.transaction, "id", TRANSACTION_ID);
+        final EntityManager entityManager = mock(EntityManager.class);
+        given(entityManager.find(LoanTransaction.class, TRANSACTION_ID)).willReturn(this.transaction);
+        ReflectionTestUtils.setField(this.service, "entityManager", entityManager);
+
+        given(this.raisingUser.getId()).willReturn(RAISING_USER_ID);
+        given(this.appUserRepository.findById(RAISING_USER_ID)).willReturn(Optional.of(this.raisingUser));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(this.raisingUser, null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.service.onApplicationEvent(mock(ContextClosedEvent.class));
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void sleepingListenerDoesNotHoldUpRepayments() throws Exception {
+        final int repayments = 50;
+        final long listenerSleepMillis = 2000;
+        final CountDownLatch firstCallStarted = new CountDownLatch(1);
+        final CountDownLatch wakeUp = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final BusinessEventListener<LoanTransactionMakeRepaymentPostBusinessEvent> sleepingListener = event -> {
+            firstCallStarted.countDown();
+            sleep(wakeUp, listenerSleepMillis);
+            calls.incrementAndGet();
+        };
+        this.service.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class, sleepingListener,
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < repayments; i++) {
+            this.service.notifyPostBusinessEvent(new LoanTransactionMakeRepaymentPostBusinessEvent(this.transaction));
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < listenerSleepMillis / 2,
+                () -> repayments + " repayments took " + elapsedMillis + "ms behind a listener sleeping " + listenerSleepMillis + "ms");
+        assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+        // every call is on record before it is queued, so none is lost if the process stops while the listener sleeps
+        assertEquals(repayments, this.retryTable.count(), "calls recorded before hand-off");
+        assertTrue(this.retryTable.allNotDueBefore(LocalDateTime.now().plusSeconds(30)), "recorded calls wait for the pool");
+        assertTrue(this.retryTable.allRaisedBy(RAISING_USER_ID));
+
+        wakeUp.countDown();
+        awaitUntil(() -> calls.get() == repayments && this.retryTable.count() == 0);
+    }
+
+    @Test
+    public void retryRunsAsTheUserWhoRaisedTheEvent() throws Exception {
+        ReflectionTestUtils.setField(this.service, "initialBackoffSeconds", 0L);
+        final List<Object> principals = new CopyOnWriteArrayList<>();
+        final BusinessEventListener<LoanTransactionMakeRepaymentPostBusinessEvent> flakyListener = event -> {
+            final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            principals.add(authentication == null ? "none" : authentication.getPrincipal());
+            if (principals.size() == 1) {
+                throw new IllegalStateException("Notification store unavailable");
+            }
+        };
+        this.service.addPostBusinessEventListener(LoanTransactionMakeRepaymentPostBusinessEvent.class, flakyListener,
+                BusinessEventListenerMode.AFTER_COMMIT_ASYNC);
+        this.service.notifyPostBusinessEvent(new LoanTransactionMakeRepaymentPostBusinessEvent(this.transaction));
+        awaitUntil(() -> this.retryTable.attempts() == 1);
+
+        final AppUser systemUser = mock(AppUser.class);
+        final UsernamePasswordAuthenticationToken jobAuthentication = new UsernamePasswordAuthenticationToken(systemUser, null);
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.getContext().setAuthentication(jobAuthentication);
+        this.service.retryFailedListeners();
+
+        assertEquals(2, principals.size());
+        assertSame(this.raisingUser, principals.get(1), "retried as the raising user rather than the job's user");
+        assertEquals(0, this.retryTable.count(), "successful retry removes the call");
+        assertSame(jobAuthentication, SecurityContextHolder.getContext().getAuthentication(), "job's user restored");
+    }
+
+    private static void sleep(final CountDownLatch wakeUp, final long millis) {
+        try {
+            wakeUp.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Keeps {@code m_business_event_retry} rows in memory, answering the statements the service issues.
+     */
+    private static final class RetryTable extends JdbcTemplate {
+
+        private static final List<String> COLUMNS = List.of("id", "listener_name", "event_type", "value_type", "value_id",
+                "actor_user_id", "attempts");
+
+        private final TreeMap<Long, Map<String, Object>> rows = new TreeMap<>();
+
+        synchronized int count() {
+            return this.rows.size();
+        }
+
+        synchronized int attempts() {
+            return this.rows.isEmpty() ? -1 : (Integer) this.rows.firstEntry().getValue().get("attempts");
+        }
+
+        synchronized boolean allNotDueBefore(final LocalDateTime time) {
+            return this.rows.values().stream().noneMatch(row -> ((LocalDateTime) row.get("next_attempt_at")).isBefore(time));
+        }
+
+        synchronized boolean allRaisedBy(final Long userId) {
+            return this.rows.values().stream().allMatch(row -> userId.equals(row.get("actor_user_id")));
+        }
+
+        @Override
+        public synchronized int update(final PreparedStatementCreator psc, final KeyHolder generatedKeyHolder) {
+            final Map<Integer, Object> params = new HashMap<>();
+            final PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                            params.put((Integer) args[0], args[1]);
+                        }
+                        return null;
+                    });
+            final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> ps);
+            try {
+                psc.createPreparedStatement(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            final long id = this.rows.isEmpty() ? 1L : this.rows.lastKey() + 1;
+            final Map<String, Object> row = new HashMap<>();
+            row.put("id", id);
+            row.put("listener_name", params.get(1));
+            row.put("event_type", params.get(2));
+            row.put("value_type", params.get(3));
+            row.put("value_id", params.get(4));
+            row.put("actor_user_id", params.get(5));
+            row.put("status_enum", params.get(6));
+            row.put("attempts", 0);
+            row.put("next_attempt_at", params.get(7));
+            this.rows.put(id, row);
+            generatedKeyHolder.getKeyList().add(Map.of("GENERATED_KEY", id));
+            return 1;
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            final Map<String, Object> row = this.rows.get((Long) args[args.length - 1]);
+            if (sql.startsWith("DELETE FROM m_business_event_retry")) {
+                return this.rows.remove((Long) args[0]) == null ? 0 : 1;
+            }
+            if (row == null) {
+                return 0;
+            }
+            if (sql.contains("SET attempts = ?")) {
+                row.put("attempts", args[0]);
+                row.put("next_attempt_at", args[1]);
+            } else if (sql.contains("SET next_attempt_at = ?")) {
+                row.put("next_attempt_at", args[0]);
+            } else if (sql.contains("SET status_enum = ?")) {
+                row.put("status_enum", args[0]);
+                row.put("attempts", args[1]);
+            } else {
+                throw new IllegalArgumentException(sql);
+            }
+            return 1;
+        }
+
+        @Override
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final List<T> result = new ArrayList<>();
+            for (final Map<String, Object> row : this.rows.values()) {
+                if (args[0].equals(row.get("status_enum")) && !((LocalDateTime) row.get("next_attempt_at")).isAfter((LocalDateTime) args[1])
+                        && result.size() < (Integer) args[2]) {
+                    try {
+                        result.add(rowMapper.mapRow(resultSet(row), result.size()));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static ResultSet resultSet(final Map<String, Object> row) {
+            final Object[] last = new Object[1];
+            return (ResultSet) Proxy.newProxyInstance(RetryTable.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    (proxy, method, args) -> {
+                        if ("findColumn".equals(method.getName())) {
+                            return COLUMNS.indexOf((String) args[0]) + 1;
+                        }
+                        if ("wasNull".equals(method.getName())) {
+                            return last[0] == null;
+                        }
+                        final String column = args[0] instanceof Integer ? COLUMNS.get((Integer) args[0] - 1) : (String) args[0];
+                        last[0] = row.get(column);
+                        return switch (method.getName()) {
+                            case "getLong" -> last[0] == null ? 0L : ((Number) last[0]).longValue();
+                            case "getInt" -> last[0] == null ? 0 : ((Number) last[0]).intValue();
+                            default -> last[0];
+                        };
+                    });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collection;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ClientIdentityIndexServiceImplTest {
+
+    @InjectMocks
+    private ClientIdentityIndexServiceImpl underTest;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Test
+    public void matchesEveryTypeSharingOneNormalizedValue() {
+        final String sharedHash = ClientIdentityIndexServiceImpl
+                .hash(ClientIdentityIndexServiceImpl.normalize(ClientIdentityIndexServiceImpl.MOBILE, "08031234567"));
+        final SqlRowSet rs = mock(SqlRowSet.class);
+        given(rs.next()).willReturn(true, true, false);
+        given(rs.getString("value_hash")).willReturn(sharedHash, sharedHash);
+        given(rs.getString("identity_type")).willReturn(ClientIdentityIndexServiceImpl.MOBILE,
+                ClientIdentityIndexServiceImpl.ALTERNATE_MOBILE);
+        given(rs.getLong("client_id")).willReturn(11L, 22L);
+        given(namedParameterJdbcTemplate.queryForRowSet(anyString(), any(MapSqlParameterSource.class))).willReturn(rs);
+
+        // the same number, once in local and once in international form
+        final Set<Long> clientIds = underTest.findMatchingClientIds(null, "08031234567", "+234 803 123 4567", null, null, null);
+
+        assertEquals(Set.of(11L, 22L), clientIds);
+        final ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedParameterJdbcTemplate).queryForRowSet(anyString(), params.capture());
+        assertEquals(1, ((Collection<?>) params.getValue().getValue("hashes")).size());
+    }
+
+    @Test
+    public void ignoresMatchesOfTypesNotLookedUp() {
+        final String hash = ClientIdentityIndexServiceImpl
+                .hash(ClientIdentityIndexServiceImpl.normalize(ClientIdentityIndexServiceImpl.BVN, "22212345678"));
+        final SqlRowSet rs = mock(SqlRowSet.class);
+        given(rs.next()).willReturn(true, false);
+        given(rs.getString("value_hash")).willReturn(hash);
+        given(rs.getString("identity_type")).willReturn(ClientIdentityIndexServiceImpl.NIN);
+        given(rs.getLong("client_id")).willReturn(33L);
+        given(namedParameterJdbcTemplate.queryForRowSet(anyString(), any(MapSqlParameterSource.class))).willReturn(rs);
+
+        final Set<Long> clientIds = underTest.findMatchingClientIds(null, null, null, "22212345678", null, null);
+
+        assertEquals(Set.of(), clientIds);
+    }
+}
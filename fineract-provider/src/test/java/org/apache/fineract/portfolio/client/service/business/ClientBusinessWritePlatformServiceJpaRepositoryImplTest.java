@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.service.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.google.gson.JsonParser;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.configuration.service.ConfigurationReadPlatformService;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.portfolio.client.data.business.ClientBusinessDataValidator;
+import org.apache.fineract.portfolio.client.data.business.KycBusinessData;
+import org.apache.fineract.portfolio.client.domain.AccountNumberGenerator;
+import org.apache.fineract.portfolio.client.domain.Client;
+import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
+import org.apache.fineract.portfolio.client.service.ClientIdentityIndexServiceImpl;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests that a client created through {@link ClientBusinessWritePlatformServiceJpaRepositoryImpl} is indexed, so that
+ * {@link ClientBusinessReadPlatformServiceImpl#isClientExisting} finds it by email and mobile number.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ClientBusinessWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final Long CLIENT_ID = 42L;
+
+    private final ClientTables tables = new ClientTables();
+
+    @Spy
+    private ClientIdentityIndexServiceImpl clientIdentityIndexService = new ClientIdentityIndexServiceImpl(this.tables,
+            new IndexTemplate(this.tables));
+
+    @Mock
+    private PlatformSecurityContext context;
+
+    @Mock
+    private ClientRepositoryWrapper clientRepository;
+
+    @Mock
+    private OfficeRepositoryWrapper officeRepositoryWrapper;
+
+    @Mock
+    private ClientBusinessDataValidator fromApiJsonDeserializer;
+
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Mock
+    private ConfigurationReadPlatformService configurationReadPlatformService;
+
+    @InjectMocks
+    private ClientBusinessWritePlatformServiceJpaRepositoryImpl writeService;
+
+    @InjectMocks
+    private ClientBusinessReadPlatformServiceImpl readService;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2024, 3, 1))));
+        given(this.context.authenticatedUser()).willReturn(mock(AppUser.class));
+        given(this.officeRepositoryWrapper.findOneWithNotFoundDetection(anyLong())).willReturn(mock(Office.class));
+        given(this.configurationReadPlatformService.retrieveGlobalConfiguration("Enable-Address"))
+                .willReturn(new GlobalConfigurationPropertyData("Enable-Address", false, null, null, null, null, false));
+        given(this.configurationReadPlatformService.retrieveGlobalConfigurationX("client_level_update"))
+                .willReturn(new GlobalConfigurationPropertyData("client_level_update", false, null, null, null, null, false));
+        given(this.accountNumberGenerator.generate(any(Client.class), any())).willReturn("000000042");
+        willAnswer(invocation -> {
+            final Client client = invocation.getArgument(0);
+            ReflectionTestUtils.setField(client, "id", CLIENT_ID);
+            this.tables.clients.put(client.getId(), new String[] { client.emailAddress(), client.mobileNo() });
+            return null;
+        }).given(this.clientRepository).saveAndFlush(any(Client.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void createdClientIsFoundByEmailAndMobile() {
+        final String json = "{\"officeId\": 1, \"firstname\": \"Ada\", \"lastname\": \"Obi\", \"emailAddress\": \"Ada.Obi@Example.com\","
+                + " \"mobileNo\": \"08031234567\", \"submittedOnDate\": \"01 March 2024\", \"dateFormat\": \"dd MMMM yyyy\","
+                + " \"locale\": \"en\"}";
+
+        this.writeService.createClient(JsonCommand.from(json, JsonParser.parseString(json), new FromJsonHelper()));
+
+        final KycBusinessData byEmail = this.readService.isClientExisting(" ada.obi@example.com", null, null, null, null, null);
+        assertTrue(byEmail.getAgreement());
+        assertEquals(CLIENT_ID, byEmail.getClientId());
+
+        // the international form of the same number
+        final KycBusinessData byMobile = this.readService.isClientExisting(null, "+234 803 123 4567", null, null, null, null);
+        assertTrue(byMobile.getAgreement());
+        assertEquals(CLIENT_ID, byMobile.getClientId());
+
+        assertFalse(this.readService.isClientExisting("someone.else@example.com", null, null, null, null, null).getAgreement());
+    }
+
+    /**
+     * The rows of <code>m_client</code> and <code>m_client_identity_index</code> the index service reads and writes.
+     */
+    private static final class ClientTables extends JdbcTemplate {
+
+        private final Map<Long, String[]> clients = new HashMap<>();
+        private final List<Object[]> index = new ArrayList<>();
+
+        @Override
+        public synchronized SqlRowSet queryForRowSet(final String sql, final Object... args) {
+            final List<Map<String, Object>> rows = new ArrayList<>();
+            final String[] client = this.clients.get(args[0]);
+            if (client != null) {
+                rows.add(row("email_address", client[0], "mobile_no", client[1]));
+            }
+            return rowSet(rows);
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            this.index.addAll(batchArgs);
+            return new int[batchArgs.size()];
+        }
+
+        private synchronized void delete(final Object clientId, final Collection<?> types) {
+            this.index.removeIf(entry -> entry[2].equals(clientId) && types.contains(entry[0]));
+        }
+
+        private synchronized List<Map<String, Object>> find(final Collection<?> hashes) {
+            final List<Map<String, Object>> rows = new ArrayList<>();
+            for (final Object[] entry : this.index) {
+                if (hashes.contains(entry[1])) {
+                    rows.add(row("identity_type", entry[0], "value_hash", entry[1], "client_id", entry[2]));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static final class IndexTemplate extends NamedParameterJdbcTemplate {
+
+        private final ClientTables tables;
+
+        IndexTemplate(final ClientTables tables) {
+            super(tables);
+            this.tables = tables;
+        }
+
+        @Override
+        public int update(final String sql, final SqlParameterSource paramSource) {
+            this.tables.delete(paramSource.getValue("clientId"), (Collection<?>) paramSource.getValue("types"));
+            return 0;
+        }
+
+        @Override
+        public SqlRowSet queryForRowSet(final String sql, final SqlParameterSource paramSource) {
+            return rowSet(this.tables.find((Collection<?>) paramSource.getValue("hashes")));
+        }
+    }
+
+    private static Map<String, Object> row(final Object... columnsAndValues) {
+        final Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    /**
+     * A forward-only row set over the given rows, columns read by name.
+     */
+    private static SqlRowSet rowSet(final List<Map<String, Object>> rows) {
+        final int[] cursor = { -1 };
+        return (SqlRowSet) Proxy.newProxyInstance(SqlRowSet.class.getClassLoader(), new Class<?>[] { SqlRowSet.class },
+                (proxy, method, args) -> {
+                    if ("next".equals(method.getName())) {
+                        return ++cursor[0] < rows.size();
+                    }
+                    final Object value = rows.get(cursor[0]).get(args[0]);
+                    if ("getLong".equals(method.getName())) {
+                        return ((Number) value).longValue();
+                    }
+                    return value;
+                });
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link SavingsAccountBalanceCheckpoint} and the checkpoint path of
+ * {@link SavingsAccountAssembler#assembleForTransaction}, including a count showing that the transactions replayed per
+ * posting do not grow with the age of the account.
+ */
+public class SavingsAccountBalanceCheckpointTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("NGN", 2, null);
+    private static final LocalDate OPENED_ON = LocalDate.of(2000, 1, 1);
+    private static final int TAIL_SIZE = 50;
+
+    private final SavingsAccountTransactionSummaryWrapper wrapper = new SavingsAccountTransactionSummaryWrapper();
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void checkpointPlusTailReproducesFullHistoryBalance() {
+        final List<SavingsAccountTransaction> history = history(5000, new Random(31L));
+        final LocalDate checkpointDate = history.get(history.size() - TAIL_SIZE - 1).transactionLocalDate();
+
+        final SavingsAccountBalanceCheckpoint checkpoint = SavingsAccountBalanceCheckpoint.startFor(1L);
+        checkpoint.advanceTo(checkpointDate, CURRENCY, this.wrapper, history);
+
+        assertEquals(0, fullHistoryBalance(history).compareTo(checkpoint.deriveAccountBalance(CURRENCY, this.wrapper,
+                transactionsAfter(history, checkpointDate))));
+    }
+
+    @Test
+    public void rollingForwardOnlyFoldsInNewTransactions() {
+        final List<SavingsAccountTransaction> history = history(1000, new Random(7L));
+        final LocalDate middle = history.get(500).transactionLocalDate();
+        final LocalDate end = history.get(history.size() - 1).transactionLocalDate();
+
+        final SavingsAccountBalanceCheckpoint rolled = SavingsAccountBalanceCheckpoint.startFor(1L);
+        rolled.advanceTo(middle, CURRENCY, this.wrapper, history);
+        rolled.advanceTo(end, CURRENCY, this.wrapper, transactionsAfter(history, middle));
+
+        final SavingsAccountBalanceCheckpoint rebuilt = SavingsAccountBalanceCheckpoint.startFor(1L);
+        rebuilt.advanceTo(end, CURRENCY, this.wrapper, history);
+
+        assertEquals(0, rebuilt.getRunningBalance().compareTo(rolled.getRunningBalance()));
+        assertEquals(0, rebuilt.getTotalDeposits().compareTo(rolled.getTotalDeposits()));
+        assertEquals(0, rebuilt.getTotalWithdrawals().compareTo(rolled.getTotalWithdrawals()));
+        assertEquals(rebuilt.getLastTransactionId(), rolled.getLastTransactionId());
+    }
+
+    /**
+     * Validating a posting against the checkpoint of an account with 100k transactions replays as many transactions as for
+     * one with 100, while a full replay of the older account visits every one of them.
+     */
+    @Test
+    public void postingReplaysOnlyTransactionsAfterCheckpoint() {
+        final long young = checkpointPathVisits(100);
+        final long old = checkpointPathVisits(100_000);
+
+        final CountingList oldHistory = new CountingList(history(100_000, new Random(100_000L)));
+        fullHistoryBalance(oldHistory);
+
+        assertEquals(young, old);
+        assertTrue(old * 100 < oldHistory.visits, "checkpoint path visited " + old + " transactions against " + oldHistory.visits
+                + " for a full replay");
+    }
+
+    @Test
+    public void amountsOnHoldAreLeftOutOfTheRunningBalance() {
+        final LocalDate depositDate = OPENED_ON;
+        final LocalDate holdDate = OPENED_ON.plusDays(1);
+        final SavingsAccountTransaction deposit = SavingsAccountTransaction.deposit(null, null, null, depositDate,
+                Money.of(CURRENCY, BigDecimal.valueOf(1000)), depositDate.atStartOfDay(), null, null);
+        final SavingsAccountTransaction hold = SavingsAccountTransaction.holdAmount(null, null, null, holdDate,
+                Money.of(CURRENCY, BigDecimal.valueOf(300)), holdDate.atStartOfDay(), null, false);
+        ReflectionTestUtils.setField(deposit, "id", 1L);
+        ReflectionTestUtils.setField(hold, "id", 2L);
+
+        final SavingsAccountBalanceCheckpoint checkpoint = SavingsAccountBalanceCheckpoint.startFor(1L);
+        checkpoint.advanceTo(holdDate, CURRENCY, this.wrapper, List.of(deposit, hold));
+
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(checkpoint.getRunningBalance()));
+
+        // 700 is free once the 300 lien is held back
+        accountWithLien(checkpoint, 600).validateAccountBalanceDoesNotBecomeNegative(BigDecimal.valueOf(600), false, List.of(), true);
+        assertThrows(InsufficientAccountBalanceException.class, () -> accountWithLien(checkpoint, 800)
+                .validateAccountBalanceDoesNotBecomeNegative(BigDecimal.valueOf(800), false, List.of(), true));
+    }
+
+    @Test
+    public void assemblerLoadsOnlyTransactionsAfterCheckpoint() {
+        final SavingsAccountRepositoryWrapper repository = mock(SavingsAccountRepositoryWrapper.class);
+        final SavingsAccountBalanceCheckpointRepository checkpointRepository = mock(SavingsAccountBalanceCheckpointRepository.class);
+        final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+        final SavingsAccountAssembler assembler = new SavingsAccountAssembler(this.wrapper, null, null, null, null, repository, null, null,
+                mock(AccountTransfersReadPlatformService.class), null, configurationDomainService, checkpointRepository);
+
+        final SavingsAccount account = mock(SavingsAccount.class);
+        final SavingsAccountBalanceCheckpoint checkpoint = SavingsAccountBalanceCheckpoint.startFor(9L);
+        checkpoint.advanceTo(LocalDate.of(2024, 1, 31), CURRENCY, this.wrapper, List.of());
+        final List<SavingsAccountTransaction> tail = history(TAIL_SIZE, new Random(9L));
+        given(configurationDomainService.retrievePivotDateConfig()).willReturn(false);
+        given(repository.findSavingsWithNotFoundDetection(9L, true)).willReturn(account);
+        given(account.isBalanceCheckpointApplicable()).willReturn(true);
+        given(checkpointRepository.findBySavingsAccountId(9L)).willReturn(checkpoint);
+        given(repository.findTransactionsAfterPivotDate(account, LocalDate.of(2024, 2, 1))).willReturn(tail);
+        given(account.attachBalanceCheckpoint(checkpoint, tail)).willReturn(true);
+
+        assertSame(account, assembler.assembleForTransaction(9L, LocalDate.of(2024, 2, 10)));
+
+        verify(account).attachBalanceCheckpoint(eq(checkpoint), eq(tail));
+        verify(repository, never()).findAllTransactions(any());
+        verify(checkpointRepository, never()).delete(any());
+    }
+
+    private long checkpointPathVisits(final int historySize) {
+        final List<SavingsAccountTransaction> history = history(historySize + TAIL_SIZE, new Random(historySize));
+        final LocalDate checkpointDate = history.get(historySize - 1).transactionLocalDate();
+        final SavingsAccountBalanceCheckpoint checkpoint = SavingsAccountBalanceCheckpoint.startFor(1L);
+        checkpoint.advanceTo(checkpointDate, CURRENCY, this.wrapper, history);
+        final CountingList tail = new CountingList(transactionsAfter(history, checkpointDate));
+
+        assertEquals(0, fullHistoryBalance(history).compareTo(checkpoint.deriveAccountBalance(CURRENCY, this.wrapper, tail)));
+        return tail.visits;
+    }
+
+    /**
+     * A savings account holding the given lien in its checkpoint history, with a withdrawal posted after the checkpoint.
+     */
+    private SavingsAccount accountWithLien(final SavingsAccountBalanceCheckpoint checkpoint, final int withdrawn) {
+        final LocalDate date = checkpoint.getCheckpointDate().plusDays(1);
+        final SavingsAccountTransaction withdrawal = SavingsAccountTransaction.withdrawal(null, null, null, date,
+                Money.of(CURRENCY, BigDecimal.valueOf(withdrawn)), date.atStartOfDay(), null, null);
+        ReflectionTestUtils.setField(withdrawal, "id", 3L);
+
+        final SavingsAccount account = new SavingsAccount();
+        final SavingsAccountSummary summary = new SavingsAccountSummary();
+        summary.setAccountBalance(BigDecimal.valueOf(1000 - withdrawn));
+        ReflectionTestUtils.setField(account, "currency", CURRENCY);
+        ReflectionTestUtils.setField(account, "summary", summary);
+        ReflectionTestUtils.setField(account, "savingsAccountTransactionSummaryWrapper", this.wrapper);
+        ReflectionTestUtils.setField(account, "savingsOnHoldAmount", BigDecimal.valueOf(300));
+        assertTrue(account.attachBalanceCheckpoint(checkpoint, List.of(withdrawal)));
+        return account;
+    }
+
+    private BigDecimal fullHistoryBalance(final List<SavingsAccountTransaction> history) {
+        return Money.of(CURRENCY, this.wrapper.calculateTotalDeposits(CURRENCY, history))
+                .minus(Money.of(CURRENCY, this.wrapper.calculateTotalWithdrawals(CURRENCY, history))).getAmount();
+    }
+
+    private static List<SavingsAccountTransaction> transactionsAfter(final List<SavingsAccountTransaction> history, final LocalDate date) {
+        final List<SavingsAccountTransaction> tail = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : history) {
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                tail.add(transaction);
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Counts the transactions visited through its iterator.
+     */
+    private static final class CountingList extends ArrayList<SavingsAccountTransaction> {
+
+        private long visits;
+
+        CountingList(final List<SavingsAccountTransaction> transactions) {
+            super(transactions);
+        }
+
+        @Override
+        public Iterator<SavingsAccountTransaction> iterator() {
+            final Iterator<SavingsAccountTransaction> iterator = super.iterator();
+            return new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public SavingsAccountTransaction next() {
+                    CountingList.this.visits++;
+                    return iterator.next();
+                }
+            };
+        }
+    }
+
+    /**
+     * One transaction per day: mostly deposits, with withdrawals that never take the balance below zero.
+     */
+    private static List<SavingsAccountTransaction> history(final int size, final Random random) {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>(size);
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < size; i++) {
+            final LocalDate date = OPENED_ON.plusDays(i);
+            final BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            final SavingsAccountTransaction transaction;
+            if (balance.compareTo(amount) >= 0 && random.nextInt(3) == 0) {
+                transaction = SavingsAccountTransaction.withdrawal(null, null, null, date, Money.of(CURRENCY, amount),
+                        date.atStartOfDay(), null, null);
+                balance = balance.subtract(amount);
+            } else {
+                transaction = SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, amount), date.atStartOfDay(),
+                        null, null);
+                balance = balance.add(amount);
+            }
+            ReflectionTestUtils.setField(transaction, "id", (long) i + 1);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
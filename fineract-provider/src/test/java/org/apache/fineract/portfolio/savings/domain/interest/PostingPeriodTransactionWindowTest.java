@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain.interest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link PostingPeriodTransactionWindow} against the previous calculation, which handed every posting period the
+ * full ordered transaction history.
+ */
+public class PostingPeriodTransactionWindowTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("NGN", 2, null);
+    private static final LocalDate OPENED_ON = LocalDate.of(2019, 3, 14);
+    private static final BigDecimal RATE = new BigDecimal("0.075");
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Property: for random histories, with same day transactions, idle gaps longer than a period and posting dates that
+     * fall on transaction dates, every posting period computed from its window matches the one computed from the full
+     * history.
+     */
+    @Test
+    public void windowedPostingPeriodsMatchFullHistoryCalculation() {
+        final Random random = new Random(35L);
+        final SavingsCompoundingInterestPeriodType[] compoundingTypes = { SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsCompoundingInterestPeriodType.MONTHLY, SavingsCompoundingInterestPeriodType.QUATERLY };
+        final SavingsInterestCalculationType[] calculationTypes = { SavingsInterestCalculationType.DAILY_BALANCE,
+                SavingsInterestCalculationType.AVERAGE_DAILY_BALANCE };
+
+        for (int run = 0; run < 200; run++) {
+            final LocalDate upTo = OPENED_ON.plusDays(60 + random.nextInt(900));
+            final List<SavingsAccountTransaction> history = history(random, upTo);
+            final Set<Long> interestPostTransactions = new HashSet<>();
+            for (final SavingsAccountTransaction transaction : history) {
+                if (random.nextInt(10) == 0) {
+                    interestPostTransactions.add(transaction.getId());
+                }
+            }
+            final SavingsCompoundingInterestPeriodType compounding = compoundingTypes[random.nextInt(compoundingTypes.length)];
+            final SavingsInterestCalculationType calculation = calculationTypes[random.nextInt(calculationTypes.length)];
+
+            final PostingPeriodTransactionWindow<SavingsAccountTransaction> window = PostingPeriodTransactionWindow.over(history);
+            Money fullStartingBalance = Money.zero(CURRENCY);
+            Money windowedStartingBalance = Money.zero(CURRENCY);
+            for (final LocalDateInterval period : monthlyPeriods(upTo)) {
+                final PostingPeriod full = postingPeriod(period, fullStartingBalance, history, compounding, calculation, upTo,
+                        interestPostTransactions);
+                final PostingPeriod windowed = postingPeriod(period, windowedStartingBalance, window.transactionsFor(period), compounding,
+                        calculation, upTo, interestPostTransactions);
+
+                final String where = "run " + run + ", period " + period.startDate() + " to " + period.endDate();
+                assertEquals(full.interest().getAmount(), windowed.interest().getAmount(), where);
+                assertEquals(full.getInterestEarned().getAmount(), windowed.getInterestEarned().getAmount(), where);
+                assertEquals(full.openingBalance().getAmount(), windowed.openingBalance().getAmount(), where);
+                assertEquals(full.closingBalance().getAmount(), windowed.closingBalance().getAmount(), where);
+                assertEquals(full.isInterestTransfered(), windowed.isInterestTransfered(), where);
+
+                fullStartingBalance = full.closingBalance();
+                windowedStartingBalance = windowed.closingBalance();
+            }
+        }
+    }
+
+    @Test
+    public void eachWindowHoldsOnlyTransactionsThatCanTouchItsPeriod() {
+        final LocalDate upTo = OPENED_ON.plusDays(720);
+        final List<SavingsAccountTransaction> history = history(new Random(3L), upTo);
+        final PostingPeriodTransactionWindow<SavingsAccountTransaction> window = PostingPeriodTransactionWindow.over(history);
+
+        int handedOut = 0;
+        final List<LocalDateInterval> periods = monthlyPeriods(upTo);
+        for (final LocalDateInterval period : periods) {
+            for (final SavingsAccountTransaction transaction : window.transactionsFor(period)) {
+                assertTrue(!transaction.getEndOfBalanceLocalDate().isBefore(period.startDate()));
+                assertTrue(!transaction.getTransactionLocalDate().isAfter(period.endDate().plusDays(1)));
+                handedOut++;
+            }
+        }
+        // besides its own transactions, a period only sees the last day before it and the day after it, at most 3 each
+        assertTrue(handedOut <= history.size() + periods.size() * 6, handedOut + " for " + history.size() + " transactions");
+    }
+
+    private static PostingPeriod postingPeriod(final LocalDateInterval period, final Money startingBalance,
+            final List<SavingsAccountTransaction> transactions, final SavingsCompoundingInterestPeriodType compounding,
+            final SavingsInterestCalculationType calculation, final LocalDate upTo, final Set<Long> interestPostTransactions) {
+        return PostingPeriod.createFrom(period, startingBalance, transactions, CURRENCY, compounding, calculation, RATE, 365, upTo,
+                interestPostTransactions, false, Money.zero(CURRENCY), false, false, 1);
+    }
+
+    private static List<LocalDateInterval> monthlyPeriods(final LocalDate upTo) {
+        final List<LocalDateInterval> periods = new ArrayList<>();
+        LocalDate start = OPENED_ON;
+        while (!start.isAfter(upTo)) {
+            LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+            if (end.isAfter(upTo)) {
+                end = upTo;
+            }
+            periods.add(LocalDateInterval.create(start, end));
+            start = end.plusDays(1);
+        }
+        return periods;
+    }
+
+    /**
+     * Deposits and withdrawals that keep the balance positive, with derived balances and end of balance dates set the
+     * way {@code SavingsAccount#resetAccountTransactionsEndOfDayBalances} sets them.
+     */
+    private static List<SavingsAccountTransaction> history(final Random random, final LocalDate upTo) {
+        final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+        BigDecimal balance = BigDecimal.ZERO;
+        LocalDate date = OPENED_ON;
+        while (!date.isAfter(upTo)) {
+            final int sameDay = 1 + random.nextInt(3);
+            for (int i = 0; i < sameDay; i++) {
+                final BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+                final SavingsAccountTransaction transaction;
+                if (balance.compareTo(amount) > 0 && random.nextInt(3) == 0) {
+                    transaction = SavingsAccountTransaction.withdrawal(null, null, null, date, Money.of(CURRENCY, amount),
+                            date.atStartOfDay(), null, null);
+                    balance = balance.subtract(amount);
+                } else {
+                    transaction = SavingsAccountTransaction.deposit(null, null, null, date, Money.of(CURRENCY, amount), date.atStartOfDay(),
+                            null, null);
+                    balance = balance.add(amount);
+                }
+                ReflectionTestUtils.setField(transaction, "id", (long) transactions.size() + 1);
+                transaction.updateRunningBalance(Money.of(CURRENCY, balance));
+                transactions.add(transaction);
+            }
+            // mostly short gaps, sometimes idle for longer than a posting period
+            date = date.plusDays(random.nextInt(8) == 0 ? 30 + random.nextInt(90) : random.nextInt(6));
+        }
+
+        LocalDate endOfBalanceDate = upTo;
+        for (int i = transactions.size() - 1; i >= 0; i--) {
+            final SavingsAccountTransaction transaction = transactions.get(i);
+            transaction.updateCumulativeBalanceAndDates(CURRENCY, endOfBalanceDate);
+            endOfBalanceDate = transaction.getTransactionLocalDate().minusDays(1);
+        }
+        return transactions;
+    }
+}
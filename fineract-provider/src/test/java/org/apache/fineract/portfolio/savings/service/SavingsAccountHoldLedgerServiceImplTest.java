@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests that {@link SavingsAccountHoldLedgerServiceImpl} releases holds with a single conditional update, so a hold is
+ * never released beyond its amount, not even by concurrent requests.
+ */
+public class SavingsAccountHoldLedgerServiceImplTest {
+
+    private static final Long HOLD_TRANSACTION_ID = 11L;
+
+    private final HoldTable holds = new HoldTable();
+    private final SavingsAccountHoldLedgerServiceImpl underTest = new SavingsAccountHoldLedgerServiceImpl(this.holds);
+
+    @Test
+    public void partialReleasesKeepTheHoldActiveUntilNothingIsOutstanding() {
+        this.underTest.recordHold(3L, HOLD_TRANSACTION_ID, new BigDecimal("100.00"), null);
+
+        assertTrue(this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("30.00")));
+        assertEquals(new Hold(new BigDecimal("30.00"), SavingsAccountHoldStatus.ACTIVE), this.holds.get(HOLD_TRANSACTION_ID));
+
+        assertTrue(this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("70.00")));
+        assertEquals(new Hold(new BigDecimal("100.00"), SavingsAccountHoldStatus.RELEASED), this.holds.get(HOLD_TRANSACTION_ID));
+
+        assertFalse(this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("0.01")));
+    }
+
+    @Test
+    public void releasingMoreThanIsOutstandingChangesNothing() {
+        this.underTest.recordHold(3L, HOLD_TRANSACTION_ID, new BigDecimal("100.00"), null);
+        this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("30.00"));
+
+        assertFalse(this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("80.00")));
+        assertEquals(new Hold(new BigDecimal("30.00"), SavingsAccountHoldStatus.ACTIVE), this.holds.get(HOLD_TRANSACTION_ID));
+    }
+
+    @Test
+    public void concurrentReleasesOfTheWholeHoldReleaseItOnce() throws Exception {
+        this.underTest.recordHold(3L, HOLD_TRANSACTION_ID, new BigDecimal("100.00"), null);
+
+        final int releases = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(releases);
+        int released = 0;
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < releases; i++) {
+                futures.add(executor.submit((Callable<Boolean>) () -> {
+                    start.await();
+                    return this.underTest.release(HOLD_TRANSACTION_ID, new BigDecimal("100.00"));
+                }));
+            }
+            start.countDown();
+            for (final Future<Boolean> future : futures) {
+                released += future.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, released);
+        assertEquals(new Hold(new BigDecimal("100.00"), SavingsAccountHoldStatus.RELEASED), this.holds.get(HOLD_TRANSACTION_ID));
+    }
+
+    private record Hold(BigDecimal releasedAmount, SavingsAccountHoldStatus status) {
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Hold hold && this.releasedAmount.compareTo(hold.releasedAmount) == 0 && this.status == hold.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.status.hashCode();
+        }
+    }
+
+    /**
+     * {@code m_savings_account_hold}, applying the release update the way MySQL does: atomically, with the WHERE clause
+     * checked against the stored row and the SET clauses evaluated left to right.
+     */
+    private static final class HoldTable extends JdbcTemplate {
+
+        private final Map<Long, BigDecimal> amounts = new HashMap<>();
+        private final Map<Long, Hold> rows = new HashMap<>();
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("INSERT")) {
+                this.amounts.put((Long) args[1], (BigDecimal) args[2]);
+                this.rows.put((Long) args[1], new Hold(BigDecimal.ZERO, SavingsAccountHoldStatus.fromInt((Integer) args[3])));
+                return 1;
+            }
+            final Long holdTransactionId = (Long) args[4];
+            final Hold hold = this.rows.get(holdTransactionId);
+            if (hold == null || !hold.status().getValue().equals(args[5])
+                    || this.amounts.get(holdTransactionId).subtract(hold.releasedAmount()).compareTo((BigDecimal) args[6]) < 0) {
+                return 0;
+            }
+            final boolean nothingLeft = hold.releasedAmount().add((BigDecimal) args[0]).compareTo(this.amounts.get(holdTransactionId)) >= 0;
+            final SavingsAccountHoldStatus status = nothingLeft ? SavingsAccountHoldStatus.fromInt((Integer) args[1]) : hold.status();
+            this.rows.put(holdTransactionId, new Hold(hold.releasedAmount().add((BigDecimal) args[2]), status));
+            return 1;
+        }
+
+        private synchronized Hold get(final Long holdTransactionId) {
+            return this.rows.get(holdTransactionId);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.businessdate.domain.BusinessDateType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDataValidator;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountSummary;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests full and partial releases of amounts on hold through
+ * {@link SavingsAccountWritePlatformServiceJpaRepositoryImpl#releaseAmount(Long, Long, BigDecimal)}.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SavingsAccountWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("NGN", 2, null);
+    private static final Long SAVINGS_ID = 3L;
+    private static final Long HOLD_TRANSACTION_ID = 11L;
+    private static final BigDecimal HELD = new BigDecimal("100.00");
+
+    @Spy
+    private SavingsAccountTransactionDataValidator savingsAccountTransactionDataValidator = new SavingsAccountTransactionDataValidator(null,
+            mock(ConfigurationDomainService.class), null);
+
+    @Mock
+    private SavingsAccountTransactionRepository savingsAccountTransactionRepository;
+
+    @Mock
+    private SavingsAccountAssembler savingAccountAssembler;
+
+    @Mock
+    private SavingsAccountHoldLedgerService savingsAccountHoldLedgerService;
+
+    @InjectMocks
+    private SavingsAccountWritePlatformServiceJpaRepositoryImpl underTest;
+
+    private final SavingsAccount account = mock(SavingsAccount.class);
+    private final AtomicLong transactionIds = new AtomicLong(100);
+    private SavingsAccountTransaction holdTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        ThreadLocalContextUtil.setBusinessDates(new HashMap<>(Map.of(BusinessDateType.BUSINESS_DATE, LocalDate.of(2024, 3, 1))));
+        ReflectionTestUtils.setField(MoneyHelper.class, "roundingMode", RoundingMode.HALF_EVEN);
+
+        given(this.account.isActive()).willReturn(true);
+        given(this.account.getCurrency()).willReturn(CURRENCY);
+        given(this.account.getAccountBalance()).willReturn(new BigDecimal("1000.00"));
+        given(this.account.getSavingsHoldAmount()).willReturn(HELD);
+        given(this.account.getSummary()).willReturn(BeanUtils.instantiateClass(SavingsAccountSummary.class));
+        given(this.savingAccountAssembler.assembleFrom(SAVINGS_ID, false)).willReturn(this.account);
+
+        this.holdTransaction = SavingsAccountTransaction.holdAmount(this.account, null, null, LocalDate.of(2024, 2, 1),
+                Money.of(CURRENCY, HELD), LocalDate.of(2024, 2, 1).atStartOfDay(), null, false);
+        ReflectionTestUtils.setField(this.holdTransaction, "id", HOLD_TRANSACTION_ID);
+        given(this.savingsAccountTransactionRepository.findOneByIdAndSavingsAccountId(HOLD_TRANSACTION_ID, SAVINGS_ID))
+                .willReturn(this.holdTransaction);
+        given(this.savingsAccountTransactionRepository.saveAndFlush(any(SavingsAccountTransaction.class))).willAnswer(invocation -> {
+            final SavingsAccountTransaction transaction = invocation.getArgument(0);
+            ReflectionTestUtils.setField(transaction, "id", this.transactionIds.incrementAndGet());
+            return transaction;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void holdsOutsideTheLedgerAreReleasedInFull() {
+        this.underTest.releaseAmount(SAVINGS_ID, HOLD_TRANSACTION_ID, null);
+
+        verify(this.account).releaseOnHoldAmount(argThat(amount -> amount.compareTo(HELD) == 0));
+        assertNotNull(this.holdTransaction.getReleaseIdOfHoldAmountTransaction());
+    }
+
+    @Test
+    public void partialReleaseOfAHoldOutsideTheLedgerIsRejected() {
+        assertThrows(GeneralPlatformDomainRuleException.class,
+                () -> this.underTest.releaseAmount(SAVINGS_ID, HOLD_TRANSACTION_ID, new BigDecimal("40.00")));
+
+        verify(this.account, never()).releaseOnHoldAmount(any());
+        verify(this.savingsAccountTransactionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void partialReleaseLeavesTheRestOnHold() {
+        givenLedgerEntry(BigDecimal.ZERO);
+        given(this.savingsAccountHoldLedgerService.release(eq(HOLD_TRANSACTION_ID), any())).willReturn(true);
+
+        this.underTest.releaseAmount(SAVINGS_ID, HOLD_TRANSACTION_ID, new BigDecimal("40.00"));
+
+        verify(this.savingsAccountHoldLedgerService).release(eq(HOLD_TRANSACTION_ID),
+                argThat(amount -> amount.compareTo(new BigDecimal("40.00")) == 0));
+        verify(this.account).releaseOnHoldAmount(argThat(amount -> amount.compareTo(new BigDecimal("40.00")) == 0));
+        assertNull(this.holdTransaction.getReleaseIdOfHoldAmountTransaction());
+    }
+
+    @Test
+    public void releasingMoreThanIsStillOnHoldIsRejected() {
+        givenLedgerEntry(new BigDecimal("60.00"));
+
+        assertThrows(PlatformApiDataValidationException.class,
+                () -> this.underTest.releaseAmount(SAVINGS_ID, HOLD_TRANSACTION_ID, new BigDecimal("50.00")));
+
+        verify(this.savingsAccountHoldLedgerService, never()).release(any(), any());
+        verify(this.account, never()).releaseOnHoldAmount(any());
+    }
+
+    @Test
+    public void releaseFailsWhenAConcurrentReleaseGotThereFirst() {
+        givenLedgerEntry(BigDecimal.ZERO);
+        given(this.savingsAccountHoldLedgerService.release(eq(HOLD_TRANSACTION_ID), any())).willReturn(false);
+
+        assertThrows(PlatformDataIntegrityException.class,
+                () -> this.underTest.releaseAmount(SAVINGS_ID, HOLD_TRANSACTION_ID, new BigDecimal("40.00")));
+
+        verify(this.savingsAccountTransactionRepository, never()).saveAndFlush(any());
+    }
+
+    private void givenLedgerEntry(final BigDecimal releasedAmount) {
+        given(this.savingsAccountHoldLedgerService.findByHoldTransactionId(HOLD_TRANSACTION_ID)).willReturn(new SavingsAccountHoldData(1L,
+                SAVINGS_ID, HOLD_TRANSACTION_ID, HELD, releasedAmount, SavingsAccountHoldStatus.ACTIVE, null));
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests that {@link SavingsAccountWriteSerializer} serves writers to one account in arrival order, one at a time, while
+ * writers to other accounts run alongside them.
+ */
+public class SavingsAccountWriteSerializerTest {
+
+    private static final Long ACCOUNT = 7L;
+
+    private final SavingsAccountWriteSerializer serializer = new SavingsAccountWriteSerializer();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void writersToOneAccountAreServedInArrivalOrder() throws Exception {
+        final CountDownLatch holding = new CountDownLatch(1);
+        final CountDownLatch releaseHolder = new CountDownLatch(1);
+        final Future<Boolean> holder = this.executor.submit(() -> this.serializer.execute(List.of(ACCOUNT), () -> {
+            holding.countDown();
+            return await(releaseHolder);
+        }));
+        assertTrue(holding.await(30, TimeUnit.SECONDS));
+
+        final List<Integer> served = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final int arrival = i;
+            final Thread writer = new Thread(() -> this.serializer.execute(List.of(ACCOUNT), () -> served.add(arrival)));
+            writer.start();
+            // the next writer only arrives once this one is queued
+            awaitUntil(() -> writer.getState() == Thread.State.TIMED_WAITING);
+            writers.add(writer);
+        }
+        releaseHolder.countDown();
+        assertTrue(holder.get(30, TimeUnit.SECONDS));
+        for (final Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), served);
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(this.serializer, "accountLocks")).isEmpty());
+    }
+
+    @Test
+    public void writersToOneAccountNeverOverlap() throws Exception {
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger mostInside = new AtomicInteger();
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            writers.add(this.executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    this.serializer.execute(List.of(ACCOUNT), () -> {
+                        mostInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        return inside.decrementAndGet();
+                    });
+                }
+            }));
+        }
+        for (final Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, mostInside.get());
+    }
+
+    @Test
+    public void writersToDifferentAccountsRunTogether() throws Exception {
+        // each writer only finishes once the other is inside too, which cannot happen if either waits for the other
+        final CountDownLatch bothInside = new CountDownLatch(2);
+        final Future<Boolean> first = this.executor.submit(() -> this.serializer.execute(List.of(ACCOUNT), () -> {
+            bothInside.countDown();
+            return await(bothInside);
+        }));
+        final Future<Boolean> second = this.executor.submit(() -> this.serializer.execute(List.of(ACCOUNT + 4096), () -> {
+            bothInside.countDown();
+            return await(bothInside);
+        }));
+
+        assertTrue(first.get(30, TimeUnit.SECONDS));
+        assertTrue(second.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void transfersBetweenTheSamePairInOppositeDirectionsDoNotDeadlock() throws Exception {
+        final List<Future<?>> transfers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final List<Long> accounts = i % 2 == 0 ? List.of(ACCOUNT, ACCOUNT + 1) : List.of(ACCOUNT + 1, ACCOUNT);
+            transfers.add(this.executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    this.serializer.execute(accounts, Thread::currentThread);
+                }
+            }));
+        }
+        for (final Future<?> transfer : transfers) {
+            transfer.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(this.serializer, "accountLocks")).isEmpty());
+    }
+
+    private static boolean await(final CountDownLatch latch) {
+        try {
+            return latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the writer to queue");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountHoldData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountHoldStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests that {@link SavingsSchedularServiceImpl#releaseExpiredSavingsHolds()} releases every expired hold in full, batch
+ * by batch, and that one failing release does not stop the others.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SavingsSchedularServiceImplTest {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Mock
+    private SavingsAccountHoldLedgerService savingsAccountHoldLedgerService;
+
+    @Mock
+    private SavingsAccountWritePlatformService savingsAccountWritePlatformService;
+
+    @InjectMocks
+    private SavingsSchedularServiceImpl underTest;
+
+    @BeforeEach
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void expiredHoldsAreReleasedInFullBatchByBatch() throws Exception {
+        final List<SavingsAccountHoldData> firstBatch = expiredHolds(1, BATCH_SIZE);
+        final List<SavingsAccountHoldData> secondBatch = expiredHolds(BATCH_SIZE + 1, 3);
+        given(this.savingsAccountHoldLedgerService.retrieveExpiredHolds(any(LocalDateTime.class), eq(0L), eq(BATCH_SIZE)))
+                .willReturn(firstBatch);
+        given(this.savingsAccountHoldLedgerService.retrieveExpiredHolds(any(LocalDateTime.class), eq((long) BATCH_SIZE), eq(BATCH_SIZE)))
+                .willReturn(secondBatch);
+
+        this.underTest.releaseExpiredSavingsHolds();
+
+        verify(this.savingsAccountWritePlatformService, times(BATCH_SIZE + 3)).releaseAmount(anyLong(), anyLong(), isNull());
+        verify(this.savingsAccountWritePlatformService).releaseAmount(1L, 1001L, null);
+        verify(this.savingsAccountWritePlatformService).releaseAmount((long) BATCH_SIZE + 3, 1000L + BATCH_SIZE + 3, null);
+        // the short second batch is the last one
+        verify(this.savingsAccountHoldLedgerService, times(2)).retrieveExpiredHolds(any(LocalDateTime.class), anyLong(), anyInt());
+    }
+
+    @Test
+    public void aFailingReleaseDoesNotStopTheOthers() {
+        given(this.savingsAccountHoldLedgerService.retrieveExpiredHolds(any(LocalDateTime.class), eq(0L), eq(BATCH_SIZE)))
+                .willReturn(expiredHolds(1, 3));
+        willThrow(new PlatformDataIntegrityException("error.msg.savings.hold.concurrent.release", "released concurrently"))
+                .given(this.savingsAccountWritePlatformService).releaseAmount(2L, 1002L, null);
+
+        final JobExecutionException failure = assertThrows(JobExecutionException.class, () -> this.underTest.releaseExpiredSavingsHolds());
+
+        assertEquals(1, failure.getCauses().size());
+        verify(this.savingsAccountWritePlatformService).releaseAmount(1L, 1001L, null);
+        verify(this.savingsAccountWritePlatformService).releaseAmount(3L, 1003L, null);
+        verify(this.savingsAccountWritePlatformService, never()).releaseAmount(anyLong(), anyLong(), any(BigDecimal.class));
+    }
+
+    private static List<SavingsAccountHoldData> expiredHolds(final long fromId, final int count) {
+        final List<SavingsAccountHoldData> holds = new ArrayList<>(count);
+        for (long id = fromId; id < fromId + count; id++) {
+            holds.add(new SavingsAccountHoldData(id, id, 1000L + id, BigDecimal.TEN, BigDecimal.ZERO, SavingsAccountHoldStatus.ACTIVE,
+                    LocalDateTime.of(2024, 3, 1, 9, 0)));
+        }
+        return holds;
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.savings.data.business.DepositAccountBusinessData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests {@link DepositAccountEnquiryReadServiceImpl} as two nodes with their own caches over one database: a status
+ * change made through either node shows in the very next enquiry on both, and a warm enquiry costs one primary key
+ * read. Round trips are counted rather than timed, the point of the fast path is which queries it avoids.
+ */
+public class DepositAccountEnquiryReadServiceImplTest {
+
+    private final AccountTable accountTable = new AccountTable();
+    private DepositAccountEnquiryReadServiceImpl node;
+    private DepositAccountEnquiryReadServiceImpl otherNode;
+
+    @BeforeEach
+    public void init() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Africa/Lagos", null));
+        this.accountTable.insert(1L, "000000001", new BigDecimal("500.00"), new BigDecimal("100.00"));
+        this.accountTable.insert(2L, "000000002", new BigDecimal("80.00"), BigDecimal.ZERO);
+        this.node = node();
+        this.otherNode = node();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        ThreadLocalContextUtil.reset();
+    }
+
+    @Test
+    public void statusChangeIsVisibleOnEveryNodeRightAway() {
+        assertEquals(SavingsAccountStatusType.ACTIVE.getValue().longValue(), status(this.otherNode.retrieveName("000000001")));
+        assertEquals(SavingsAccountStatusType.ACTIVE.getValue().longValue(), status(this.otherNode.retrieveBalance("000000001")));
+
+        // closed through the first node, which evicts its own cache only
+        this.accountTable.setStatus(1L, SavingsAccountStatusType.CLOSED);
+        this.node.evict("000000001");
+
+        assertEquals(SavingsAccountStatusType.CLOSED.getValue().longValue(), status(this.otherNode.retrieveName("000000001")));
+        assertEquals(SavingsAccountStatusType.CLOSED.getValue().longValue(), status(this.otherNode.retrieveBalance("000000001")));
+        assertEquals(SavingsAccountStatusType.CLOSED.getValue().longValue(),
+                status(this.otherNode.retrieveBalances(List.of("000000001")).get(0)));
+    }
+
+    @Test
+    public void warmEnquiryIsOnePrimaryKeyRead() {
+        this.node.retrieveName("000000001");
+        this.accountTable.queries.clear();
+
+        final DepositAccountBusinessData name = this.node.retrieveName("000000001");
+        final DepositAccountBusinessData balance = this.node.retrieveBalance("000000001");
+
+        assertEquals("Client 1", name.getClientName());
+        assertEquals(new BigDecimal("400.00"), ReflectionTestUtils.getField(balance, "availableBalance"), "holds applied");
+        assertEquals(List.of("where sa.id = ?", "where sa.id = ?"), this.accountTable.queries, "no join, no account number lookup");
+    }
+
+    @Test
+    public void batchEnquiryResolvesManyAccountsInTwoQueries() {
+        final List<DepositAccountBusinessData> balances = this.node.retrieveBalances(List.of("000000002", "unknown", "000000001"));
+
+        assertEquals(List.of("000000002", "000000001"), balances.stream().map(DepositAccountBusinessData::getAccountNo).toList());
+        assertEquals(List.of("where sa.account_no in (:accountNos)", "where sa.id in (:ids)"), this.accountTable.queries);
+    }
+
+    private DepositAccountEnquiryReadServiceImpl node() {
+        final RuntimeDelegatingCacheManager cacheManager = mock(RuntimeDelegatingCacheManager.class);
+        final ConcurrentMapCache cache = new ConcurrentMapCache("depositAccountEnquiry");
+        given(cacheManager.getCache(anyString())).willReturn(cache);
+        return new DepositAccountEnquiryReadServiceImpl(this.accountTable, new AccountTableNamedParameters(this.accountTable),
+                cacheManager);
+    }
+
+    private static long status(final DepositAccountBusinessData data) {
+        return data.getStatus().id();
+    }
+
+    /**
+     * {@code m_savings_account} joined to its client and product, recording the filter of every query issued.
+     */
+    private static final class AccountTable extends JdbcTemplate {
+
+        private final Map<Long, Map<String, Object>> rows = new HashMap<>();
+        private final List<String> queries = new CopyOnWriteArrayList<>();
+
+        void insert(final Long id, final String accountNo, final BigDecimal ledgerBalance, final BigDecimal amountOnHold) {
+            final Map<String, Object> row = new HashMap<>();
+            row.put("id", id);
+            row.put("accountNo", accountNo);
+            row.put("depositType", 100);
+            row.put("statusEnum", SavingsAccountStatusType.ACTIVE.getValue());
+            row.put("productId", 1L);
+            row.put("productName", "Savings");
+            row.put("clientId", id);
+            row.put("displayName", "Client " + id);
+            row.put("bvn", null);
+            row.put("clienttypeId", null);
+            row.put("clienttypeValue", null);
+            row.put("ledgerBalance", ledgerBalance);
+            row.put("amountOnHold", amountOnHold);
+            row.put("onHoldFunds", BigDecimal.ZERO);
+            this.rows.put(id, row);
+        }
+
+        void setStatus(final Long id, final SavingsAccountStatusType status) {
+            this.rows.get(id).put("statusEnum", status.getValue());
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final String filter = filter(sql);
+            final List<Map<String, Object>> matching = new ArrayList<>();
+            for (final Map<String, Object> row : this.rows.values()) {
+                if (args[0].equals(row.get(filter.contains("account_no") ? "accountNo" : "id"))) {
+                    matching.add(row);
+                }
+            }
+            return map(matching, rowMapper);
+        }
+
+        <T> List<T> query(final String sql, final Collection<?> keys, final RowMapper<T> rowMapper) {
+            final String filter = filter(sql);
+            final List<Map<String, Object>> matching = new ArrayList<>();
+            for (final Map<String, Object> row : this.rows.values()) {
+                if (keys.contains(row.get(filter.contains("account_no") ? "accountNo" : "id"))) {
+                    matching.add(row);
+                }
+            }
+            return map(matching, rowMapper);
+        }
+
+        private String filter(final String sql) {
+            final String filter = sql.substring(sql.lastIndexOf("where"));
+            this.queries.add(filter);
+            return filter;
+        }
+
+        private static <T> List<T> map(final List<Map<String, Object>> rows, final RowMapper<T> rowMapper) {
+            final List<T> result = new ArrayList<>();
+            try {
+                for (final Map<String, Object> row : rows) {
+                    result.add(rowMapper.mapRow(resultSet(row), result.size()));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return result;
+        }
+
+        private static ResultSet resultSet(final Map<String, Object> row) {
+            final List<String> columns = new ArrayList<>(row.keySet());
+            final Object[] lastValue = new Object[1];
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    (proxy, method, args) -> {
+                        if ("findColumn".equals(method.getName())) {
+                            return columns.indexOf(args[0]) + 1;
+                        }
+                        if ("wasNull".equals(method.getName())) {
+                            return lastValue[0] == null;
+                        }
+                        lastValue[0] = args[0] instanceof Integer ? row.get(columns.get((Integer) args[0] - 1)) : row.get(args[0]);
+                        if (lastValue[0] == null) {
+                            return method.getReturnType() == long.class ? Long.valueOf(0L)
+                                    : method.getReturnType() == int.class ? Integer.valueOf(0) : null;
+                        }
+                        return lastValue[0];
+                    });
+        }
+    }
+
+    private static final class AccountTableNamedParameters extends NamedParameterJdbcTemplate {
+
+        private final AccountTable accountTable;
+
+        AccountTableNamedParameters(final AccountTable accountTable) {
+            super(accountTable);
+            this.accountTable = accountTable;
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final SqlParameterSource paramSource, final RowMapper<T> rowMapper) {
+            final String name = sql.contains(":accountNos") ? "accountNos" : "ids";
+            return this.accountTable.query(sql, (Collection<?>) paramSource.getValue(name), rowMapper);
+        }
+    }
+}